@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "2.7.14"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "priv.eric"
@@ -23,12 +24,15 @@ repositories {
 }
 
 dependencies {
-//    implementation("org.springframework.boot:spring-boot-starter-kafka")
+    implementation("org.apache.kafka:kafka-clients")
     implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     compileOnly("org.projectlombok:lombok")
     annotationProcessor("org.springframework.boot:spring-boot-configuration-processor")
     annotationProcessor("org.projectlombok:lombok")
-//    testImplementation("org.springframework.boot:spring-boot-starter-kafka-test")
+    annotationProcessor(project(":pelee-processor"))
+    testImplementation("org.springframework.kafka:spring-kafka-test")
 //    testImplementation("org.springframework.boot:spring-boot-starter-webmvc-test")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
     
@@ -43,4 +47,17 @@ dependencies {
 
 tasks.withType<Test> {
     useJUnitPlatform()
+}
+
+// 基准测试：./gradlew jmh，可用 -PjmhIncludes=FieldPath 只跑部分用例
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    if (project.hasProperty("jmhIncludes")) {
+        includes.set(listOf(project.property("jmhIncludes").toString()))
+    }
 }
\ No newline at end of file
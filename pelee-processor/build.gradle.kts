@@ -0,0 +1,11 @@
+plugins {
+    java
+}
+
+group = "priv.eric"
+version = "0.0.1-SNAPSHOT"
+description = "pelee processor index generator"
+
+repositories {
+    mavenCentral()
+}
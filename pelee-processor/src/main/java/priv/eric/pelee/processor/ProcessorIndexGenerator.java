@@ -0,0 +1,284 @@
+package priv.eric.pelee.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * desc: 编译期生成处理器索引
+ * <p>
+ * 收集所有标注@ProcessorDescriptor的类，生成ProcessorIndex实现并登记到META-INF/services，
+ * 运行时注册处理器无需扫描类路径，也不通过反射读取注解和构造函数。
+ * 处理器是否实现Processor、构造函数是否匹配configClass、类型是否重复均在编译期检查。
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 16:40
+ */
+public class ProcessorIndexGenerator extends AbstractProcessor {
+
+    private static final String DESCRIPTOR = "priv.eric.pelee.plugin.ProcessorDescriptor";
+
+    private static final String PROCESSOR = "priv.eric.pelee.domain.model.Processor";
+
+    private static final String INDEX = "priv.eric.pelee.plugin.ProcessorIndex";
+
+    /**
+     * 生成的索引类全名，多个插件jar需各自指定不同的类名
+     */
+    private static final String INDEX_CLASS_OPTION = "pelee.index.class";
+
+    private static final String DEFAULT_INDEX_CLASS = "priv.eric.pelee.plugin.GeneratedProcessorIndex";
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private Messager messager;
+
+    private Filer filer;
+
+    private Types types;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.messager = processingEnv.getMessager();
+        this.filer = processingEnv.getFiler();
+        this.types = processingEnv.getTypeUtils();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(DESCRIPTOR);
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.singleton(INDEX_CLASS_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement descriptor = processingEnv.getElementUtils().getTypeElement(DESCRIPTOR);
+        if (descriptor != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(descriptor)) {
+                collect((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver() && !entries.isEmpty()) {
+            write();
+        }
+        return false;
+    }
+
+    private void collect(TypeElement element) {
+        AnnotationMirror mirror = descriptorMirror(element);
+        String type = stringValue(mirror, "type");
+        TypeMirror configClass = classValue(mirror, "configClass");
+        boolean hasConfig = configClass != null
+                && configClass.getKind() != TypeKind.VOID
+                && !"java.lang.Void".equals(configClass.toString());
+        String processorClass = element.getQualifiedName().toString();
+
+        TypeElement processor = processingEnv.getElementUtils().getTypeElement(PROCESSOR);
+        if (!types.isAssignable(types.erasure(element.asType()), types.erasure(processor.asType()))) {
+            error(element, processorClass + " 未实现Processor接口");
+            return;
+        }
+        if (element.getModifiers().contains(Modifier.ABSTRACT) || !element.getModifiers().contains(Modifier.PUBLIC)) {
+            error(element, processorClass + " 必须是public的非抽象类");
+            return;
+        }
+        if (!hasConstructor(element, hasConfig ? configClass : null)) {
+            error(element, processorClass + " 缺少"
+                    + (hasConfig ? "以" + configClass + "为参数的" : "无参") + "public构造函数");
+            return;
+        }
+        Entry previous = entries.get(type);
+        if (previous != null && !previous.processorClass.equals(processorClass)) {
+            error(element, "处理器类型重复: " + type + ", " + previous.processorClass + ", " + processorClass);
+            return;
+        }
+        entries.put(type, new Entry(type, stringValue(mirror, "description"), stringValue(mirror, "author"),
+                processorClass, hasConfig ? types.erasure(configClass).toString() : null));
+    }
+
+    private boolean hasConstructor(TypeElement element, TypeMirror parameter) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            List<? extends VariableElement> params = constructor.getParameters();
+            if (parameter == null && params.isEmpty()) {
+                return true;
+            }
+            if (parameter != null && params.size() == 1
+                    && types.isSameType(types.erasure(params.get(0).asType()), types.erasure(parameter))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AnnotationMirror descriptorMirror(TypeElement element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(DESCRIPTOR)) {
+                return mirror;
+            }
+        }
+        throw new IllegalStateException("missing @ProcessorDescriptor on " + element);
+    }
+
+    private AnnotationValue value(AnnotationMirror mirror, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private String stringValue(AnnotationMirror mirror, String name) {
+        AnnotationValue value = value(mirror, name);
+        return value == null ? "" : String.valueOf(value.getValue());
+    }
+
+    private TypeMirror classValue(AnnotationMirror mirror, String name) {
+        AnnotationValue value = value(mirror, name);
+        return value != null && value.getValue() instanceof TypeMirror ? (TypeMirror) value.getValue() : null;
+    }
+
+    private void write() {
+        String indexClass = processingEnv.getOptions().getOrDefault(INDEX_CLASS_OPTION, DEFAULT_INDEX_CLASS);
+        int dot = indexClass.lastIndexOf('.');
+        String packageName = dot > 0 ? indexClass.substring(0, dot) : "";
+        String simpleName = indexClass.substring(dot + 1);
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort((a, b) -> a.type.compareTo(b.type));
+        try {
+            JavaFileObject source = filer.createSourceFile(indexClass);
+            try (Writer writer = source.openWriter()) {
+                writer.write(render(packageName, simpleName, sorted));
+            }
+            FileObject services = filer.createResource(StandardLocation.CLASS_OUTPUT, "",
+                    "META-INF/services/" + INDEX);
+            try (Writer writer = services.openWriter()) {
+                writer.write(indexClass);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "生成处理器索引失败: " + e.getMessage());
+        }
+    }
+
+    private static String render(String packageName, String simpleName, List<Entry> sorted) {
+        StringBuilder out = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("/**\n * desc: 处理器索引，由ProcessorIndexGenerator在编译期生成，请勿修改\n */\n");
+        out.append("public final class ").append(simpleName).append(" implements ").append(INDEX).append(" {\n\n");
+        out.append("    @Override\n");
+        out.append("    public java.util.List<priv.eric.pelee.plugin.ProcessorMetadata> processors() {\n");
+        out.append("        return java.util.Arrays.asList(");
+        for (int i = 0; i < sorted.size(); i++) {
+            Entry entry = sorted.get(i);
+            out.append(i == 0 ? "\n" : ",\n");
+            out.append("                new priv.eric.pelee.plugin.ProcessorMetadata(")
+                    .append(literal(entry.type)).append(", ")
+                    .append(literal(entry.description)).append(", ")
+                    .append(literal(entry.author)).append(",\n")
+                    .append("                        ").append(entry.processorClass).append(".class, ")
+                    .append(entry.configClass != null ? entry.configClass + ".class" : "void.class").append(",\n")
+                    .append("                        config -> new ").append(entry.processorClass).append("(")
+                    .append(entry.configClass != null ? "(" + entry.configClass + ") config" : "")
+                    .append("))");
+        }
+        out.append("\n        );\n    }\n\n}\n");
+        return out.toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder out = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class Entry {
+
+        private final String type;
+
+        private final String description;
+
+        private final String author;
+
+        private final String processorClass;
+
+        private final String configClass;
+
+        private Entry(String type, String description, String author, String processorClass, String configClass) {
+            this.type = type;
+            this.description = description;
+            this.author = author;
+            this.processorClass = processorClass;
+            this.configClass = configClass;
+        }
+
+    }
+
+}
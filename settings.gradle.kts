@@ -1 +1,3 @@
 rootProject.name = "pelee"
+
+include("pelee-processor")
@@ -0,0 +1,93 @@
+package priv.eric.pelee.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import priv.eric.pelee.infrastructure.condition.Condition;
+import priv.eric.pelee.infrastructure.condition.ConditionCompiler;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * desc: 单次条件判断的耗时
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 19:55
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConditionBenchmark {
+
+    private ObjectNode event;
+
+    private Condition exists;
+
+    private Condition eq;
+
+    private Condition gt;
+
+    private Condition in;
+
+    private Condition regex;
+
+    private Condition composite;
+
+    @Setup
+    public void setup() {
+        event = Payloads.small();
+        event.put("score", 0.8);
+        exists = compile("{\"exists\":\"user.id\"}");
+        eq = compile("{\"eq\":{\"path\":\"conversation_type\",\"value\":\"chat\"}}");
+        gt = compile("{\"gt\":{\"path\":\"score\",\"value\":0.5}}");
+        in = compile("{\"in\":{\"path\":\"param.channel\",\"value\":[\"web\",\"app\",\"mini\"]}}");
+        regex = compile("{\"regex\":{\"path\":\"user.name\",\"value\":\"^pel\"}}");
+        composite = compile("{\"all\":[{\"exists\":\"sessionId\"},"
+                + "{\"any\":[{\"eq\":{\"path\":\"conversation_type\",\"value\":\"voice\"}},"
+                + "{\"gte\":{\"path\":\"score\",\"value\":0.5}}]},"
+                + "{\"not\":{\"eq\":{\"path\":\"param.event_list[0].type\",\"value\":\"system\"}}}]}");
+    }
+
+    private static Condition compile(String expression) {
+        JsonNode node = JsonUtil.parseToJsonNode(expression);
+        return ConditionCompiler.compile(node);
+    }
+
+    @Benchmark
+    public boolean exists() {
+        return exists.test(event);
+    }
+
+    @Benchmark
+    public boolean eq() {
+        return eq.test(event);
+    }
+
+    @Benchmark
+    public boolean gt() {
+        return gt.test(event);
+    }
+
+    @Benchmark
+    public boolean in() {
+        return in.test(event);
+    }
+
+    @Benchmark
+    public boolean regex() {
+        return regex.test(event);
+    }
+
+    @Benchmark
+    public boolean composite() {
+        return composite.test(event);
+    }
+
+}
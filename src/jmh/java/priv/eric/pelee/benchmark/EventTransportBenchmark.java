@@ -0,0 +1,93 @@
+package priv.eric.pelee.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import priv.eric.pelee.domain.model.Acknowledgement;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.infrastructure.queue.EventRingBuffer;
+import priv.eric.pelee.infrastructure.queue.MpscArrayQueue;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * desc: 工作线程传输层：每条记录新建事件经过无锁队列，与写入预分配槽位的环形缓冲对比；
+ * 单线程交替投递与取出一批，配合 -prof gc 观察每个事件的分配量
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 11:20
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventTransportBenchmark {
+
+    private static final int BATCH = 256;
+
+    private static final int CAPACITY = 8192;
+
+    private byte[] payload;
+
+    private MpscArrayQueue<Event<?>> queue;
+
+    private EventRingBuffer ring;
+
+    private List<Event<?>> batch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        payload = JsonUtil.toJsonBytes(Payloads.of("small"));
+        queue = new MpscArrayQueue<>(CAPACITY);
+        ring = new EventRingBuffer(CAPACITY);
+        batch = new ArrayList<>(BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void queue(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            Event<byte[]> event = new Event<>(payload);
+            event.setAck(Acknowledgement.NONE);
+            event.setIngestNanos(System.nanoTime());
+            queue.offer(event);
+        }
+        queue.drain(batch, BATCH);
+        consume(blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void ring(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            long sequence = ring.tryClaim();
+            Event<Object> slot = ring.get(sequence);
+            slot.setData(payload);
+            slot.setAck(Acknowledgement.NONE);
+            slot.setIngestNanos(System.nanoTime());
+            ring.publish(sequence);
+        }
+        long from = ring.position();
+        ring.drain(batch, BATCH);
+        consume(blackhole);
+        ring.release(from, from + BATCH);
+        ring.reclaim();
+    }
+
+    private void consume(Blackhole blackhole) {
+        for (Event<?> event : batch) {
+            blackhole.consume(event.getData());
+        }
+        batch.clear();
+    }
+
+}
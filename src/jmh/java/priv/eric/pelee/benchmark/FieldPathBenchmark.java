@@ -0,0 +1,63 @@
+package priv.eric.pelee.benchmark;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * desc: 路径查找
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 14:10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FieldPathBenchmark {
+
+    private static final String DOT_PATH = "param.event_list[3].text";
+
+    private JsonNode root;
+
+    private FieldPath compiled;
+
+    private JsonPointer pointer;
+
+    @Setup
+    public void setup() {
+        root = Payloads.small();
+        compiled = FieldPath.compile(DOT_PATH);
+        pointer = JsonPointer.compile("/param/event_list/3/text");
+    }
+
+    @Benchmark
+    public JsonNode getByPath() {
+        return JsonUtil.getByPath(root, DOT_PATH);
+    }
+
+    @Benchmark
+    public JsonNode compiledPath() {
+        return compiled.get(root);
+    }
+
+    @Benchmark
+    public JsonNode jacksonPointer() {
+        return root.at(pointer);
+    }
+
+    @Benchmark
+    public FieldPath compile() {
+        return FieldPath.compile(DOT_PATH);
+    }
+
+}
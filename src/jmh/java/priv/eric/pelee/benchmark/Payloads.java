@@ -0,0 +1,64 @@
+package priv.eric.pelee.benchmark;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+/**
+ * desc: 基准测试用的对话记录样例
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 14:02
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    /**
+     * 构造对话记录
+     *
+     * @param events     param.event_list 中的事件数
+     * @param messageLen ori_message 的长度
+     */
+    static ObjectNode dialogRecord(int events, int messageLen) {
+        ObjectNode root = JsonUtil.getObjectMapper().createObjectNode();
+        root.put("sessionId", "session-0001");
+        root.put("userId", "u-42");
+        ObjectNode user = root.putObject("user");
+        user.put("id", 42);
+        user.put("name", "pelee");
+        root.put("conversation_type", "chat");
+        root.put("timestamp", 1760000000000L);
+        ObjectNode param = root.putObject("param");
+        param.put("channel", "app");
+        ArrayNode eventList = param.putArray("event_list");
+        for (int i = 0; i < events; i++) {
+            ObjectNode event = eventList.addObject();
+            event.put("seq", i);
+            event.put("type", i % 2 == 0 ? "user" : "assistant");
+            event.put("text", "message body " + i);
+        }
+        StringBuilder message = new StringBuilder(messageLen);
+        while (message.length() < messageLen) {
+            message.append("lorem ipsum dolor sit amet ");
+        }
+        root.put("ori_message", message.substring(0, messageLen));
+        ObjectNode message2 = root.putObject("message");
+        message2.put("content", "hello");
+        return root;
+    }
+
+    static ObjectNode small() {
+        return dialogRecord(4, 256);
+    }
+
+    static ObjectNode large() {
+        return dialogRecord(200, 32 * 1024);
+    }
+
+    static ObjectNode of(String size) {
+        return "large".equals(size) ? large() : small();
+    }
+
+}
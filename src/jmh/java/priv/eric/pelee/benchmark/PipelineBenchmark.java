@@ -0,0 +1,88 @@
+package priv.eric.pelee.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import priv.eric.pelee.application.factory.PipelineFactory;
+import priv.eric.pelee.application.factory.ProcessorFactory;
+import priv.eric.pelee.application.init.ProcessorRegistry;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.Pipeline;
+import priv.eric.pelee.domain.model.PipelineDefinition;
+import priv.eric.pelee.infrastructure.codec.EventCodec;
+import priv.eric.pelee.infrastructure.codec.ReusableByteBuffer;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * desc: 端到端流水线：字节解析、执行全部处理器、序列化为输出字节
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 14:34
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PipelineBenchmark {
+
+    private static final int BATCH = 256;
+
+    private static final String PIPELINE = "/pipeline/benchmark-pipeline.json";
+
+    @Param({"small", "large"})
+    private String size;
+
+    @Param({"tree", "lazy"})
+    private String mode;
+
+    private byte[] payload;
+
+    private Pipeline pipeline;
+
+    private List<Event<?>> batch;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.afterPropertiesSet();
+        PipelineFactory factory = new PipelineFactory(new ProcessorFactory(registry));
+        PipelineDefinition definition;
+        try (InputStream in = PipelineBenchmark.class.getResourceAsStream(PIPELINE)) {
+            definition = JsonUtil.getObjectMapper().readValue(in, PipelineDefinition.class);
+        }
+        definition.getSettings().setEventMode(mode);
+        pipeline = factory.create("benchmark", definition);
+        payload = JsonUtil.toJsonBytes(Payloads.of(size));
+        batch = new ArrayList<>(BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void endToEnd(Blackhole blackhole) throws IOException {
+        batch.clear();
+        for (int i = 0; i < BATCH; i++) {
+            Event<byte[]> event = new Event<>(payload);
+            EventCodec.decode(event, payload, pipeline.getReferencedRoots());
+            batch.add(event);
+        }
+        pipeline.processBatch(batch);
+        for (Event<?> event : batch) {
+            ReusableByteBuffer out = EventCodec.encodeToBuffer(event);
+            blackhole.consume(out.size());
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package priv.eric.pelee.benchmark;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.plugin.PrintConfig;
+import priv.eric.pelee.plugin.PrintProcessor;
+import priv.eric.pelee.plugin.processor.RemoveProcessor;
+import priv.eric.pelee.plugin.processor.RenameConfig;
+import priv.eric.pelee.plugin.processor.RenameProcessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * desc: 内置处理器，每次调用处理一批新拷贝的事件
+ * <p>
+ * 拷贝在测量范围内完成，不使用Level.Invocation，避免逐次计时的开销并让-prof gc统计到全部分配；
+ * copyBaseline只做拷贝，处理器自身的耗时与gc.alloc.rate.norm为对应结果减去copyBaseline
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 14:18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProcessorBenchmark {
+
+    private static final int BATCH = 256;
+
+    @Param({"small", "large"})
+    private String size;
+
+    private ObjectNode template;
+
+    private RemoveProcessor remove;
+
+    private RenameProcessor rename;
+
+    private PrintProcessor print;
+
+    private List<Event<ObjectNode>> batch;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        template = Payloads.of(size);
+        remove = new RemoveProcessor(Arrays.asList("/param/event_list", "ori_message"));
+        RenameConfig renameConfig = new RenameConfig();
+        renameConfig.getMappings().put("/user/id", "user_id");
+        renameConfig.getMappings().put("/user/name", "user_name");
+        renameConfig.getMappings().put("userId", "user_id");
+        renameConfig.getMappings().put("sessionId", "session_id");
+        rename = new RenameProcessor(renameConfig);
+        PrintConfig config = new PrintConfig();
+        config.setLevel("trace");
+        print = new PrintProcessor(config);
+        batch = new ArrayList<>(BATCH);
+    }
+
+    private List<Event<ObjectNode>> copyBatch() {
+        batch.clear();
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new Event<>(template.deepCopy()));
+        }
+        return batch;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Event<ObjectNode>> copyBaseline() {
+        return copyBatch();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Event<ObjectNode>> removeBatch() {
+        List<Event<ObjectNode>> events = copyBatch();
+        remove.processBatch(events);
+        return events;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Event<ObjectNode>> renameBatch() {
+        List<Event<ObjectNode>> events = copyBatch();
+        rename.processBatch(events);
+        return events;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Event<ObjectNode>> printDisabled() {
+        List<Event<ObjectNode>> events = copyBatch();
+        print.processBatch(events);
+        return events;
+    }
+
+}
@@ -0,0 +1,58 @@
+package priv.eric.pelee.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import priv.eric.pelee.application.factory.ProcessorFactory;
+import priv.eric.pelee.application.init.ProcessorRegistry;
+import priv.eric.pelee.domain.model.ProcessorWrapper;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * desc: 处理器创建
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 14:26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProcessorFactoryBenchmark {
+
+    private ProcessorFactory factory;
+
+    private JsonNode removeConfig;
+
+    @Setup
+    public void setup() {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.afterPropertiesSet();
+        factory = new ProcessorFactory(registry);
+        removeConfig = JsonUtil.parseToJsonNode("{\"fields\":[\"/param/event_list\",\"ori_message\"]}");
+    }
+
+    @Benchmark
+    public ProcessorWrapper<?> createRemove() {
+        return factory.create("remove", removeConfig);
+    }
+
+    @Benchmark
+    public ProcessorWrapper<?> createPrint() {
+        return factory.create("print", null);
+    }
+
+    @Benchmark
+    public ProcessorRegistry buildRegistry() {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.afterPropertiesSet();
+        return registry;
+    }
+
+}
@@ -0,0 +1,100 @@
+package priv.eric.pelee.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.infrastructure.codec.EncodedBatch;
+import priv.eric.pelee.infrastructure.queue.SpillQueue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * desc: 磁盘溢出队列的写入与回放吞吐，单位为批次
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 23:10
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SpillQueueBenchmark {
+
+    private static final int BURST = 256;
+
+    @Param({"small", "large"})
+    private String size;
+
+    @Param({"100"})
+    private int batchSize;
+
+    private Path dir;
+
+    private SpillQueue queue;
+
+    private EncodedBatch batch;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        List<Event<?>> events = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            events.add(new Event<>(Payloads.of(size)));
+        }
+        batch = EncodedBatch.encode(events);
+        dir = Files.createTempDirectory("pelee-spill-bench");
+        queue = new SpillQueue(dir, 64 * 1024 * 1024, 16L * 1024 * 1024 * 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        queue.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    /**
+     * 追加后立即回放，读取位置紧跟写入位置
+     */
+    @Benchmark
+    public EncodedBatch appendAndReplay() {
+        queue.append(batch);
+        EncodedBatch replayed = queue.peek();
+        queue.advance();
+        return replayed;
+    }
+
+    /**
+     * 先连续溢出一批再全部回放，覆盖段切换与整段删除
+     */
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public long burst() {
+        for (int i = 0; i < BURST; i++) {
+            queue.append(batch);
+        }
+        long bytes = 0;
+        EncodedBatch replayed;
+        while ((replayed = queue.peek()) != null) {
+            bytes += replayed.bytes();
+            queue.advance();
+        }
+        return bytes;
+    }
+
+}
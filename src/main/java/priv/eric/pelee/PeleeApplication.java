@@ -1,13 +1,25 @@
 package priv.eric.pelee;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import priv.eric.pelee.application.service.ReplayRunner;
 
 @SpringBootApplication
 public class PeleeApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(PeleeApplication.class, args);
+        if (!ReplayRunner.isReplay(args)) {
+            SpringApplication.run(PeleeApplication.class, args);
+            return;
+        }
+        // 回放压测：不启动Web服务，回放完成后退出
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PeleeApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(ReplayRunner.replayArgs(args));
+        System.exit(SpringApplication.exit(context));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package priv.eric.pelee.application.factory;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.FieldAware;
+import priv.eric.pelee.domain.model.FieldMutator;
+import priv.eric.pelee.domain.model.Processor;
+import priv.eric.pelee.infrastructure.codec.RawFields;
+import priv.eric.pelee.infrastructure.util.FieldMutationPlan;
+import priv.eric.pelee.infrastructure.util.FieldOperation;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * desc: 相邻字段变换处理器融合后的处理器
+ * <p>
+ * 各处理器的操作按原顺序拼接后编译为一个执行计划，每个事件只遍历一次
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 09:40
+ */
+final class FusedFieldProcessor implements Processor<ObjectNode>, FieldAware, FieldMutator {
+
+    private final FieldMutationPlan plan;
+
+    FusedFieldProcessor(List<FieldOperation> operations) {
+        this.plan = FieldMutationPlan.compile(operations);
+    }
+
+    @Override
+    public void process(Event<ObjectNode> event) {
+        plan.apply(event.getData());
+        dropRaw(event);
+    }
+
+    @Override
+    public void processBatch(List<Event<ObjectNode>> events) {
+        for (Event<ObjectNode> event : events) {
+            plan.apply(event.getData());
+            dropRaw(event);
+        }
+    }
+
+    /**
+     * 按需解析的事件中丢弃被删除的未解析顶层字段
+     */
+    private void dropRaw(Event<ObjectNode> event) {
+        RawFields raw = event.getRawFields();
+        if (raw == null) {
+            return;
+        }
+        for (String name : plan.getRemovedRoots()) {
+            raw.drop(name);
+        }
+    }
+
+    @Override
+    public Collection<FieldPath> referencedPaths() {
+        return plan.getPaths();
+    }
+
+    @Override
+    public List<FieldOperation> operations() {
+        return plan.getOperations();
+    }
+
+}
@@ -0,0 +1,71 @@
+package priv.eric.pelee.application.factory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Input;
+import priv.eric.pelee.domain.model.InputProvider;
+import priv.eric.pelee.domain.model.PipelineSettings;
+import priv.eric.pelee.infrastructure.metrics.PipelineMetrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * desc:
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 19:05
+ */
+@Component
+public class InputFactory {
+
+    private final Map<String, InputProvider> providers;
+
+    private final PipelineMetrics metrics;
+
+    public InputFactory(List<InputProvider> providers) {
+        this(providers, null);
+    }
+
+    @Autowired
+    public InputFactory(List<InputProvider> providers, PipelineMetrics metrics) {
+        this.providers = providers.stream().collect(Collectors.toMap(InputProvider::type, Function.identity()));
+        this.metrics = metrics;
+    }
+
+    /**
+     * 按配置创建输入端
+     *
+     * @param config 流水线配置中的input节点
+     * @return 输入端，未配置时返回null
+     */
+    public Input create(JsonNode config) {
+        if (config == null || config.isNull()) {
+            return null;
+        }
+        String type = config.path("type").asText();
+        InputProvider provider = providers.get(type);
+        if (provider == null) {
+            throw new IllegalArgumentException("未知的输入类型: " + type);
+        }
+        return provider.create(config);
+    }
+
+    /**
+     * 注册输入端暴露的仪表，在运行时启动成功后调用
+     *
+     * @param id       流水线ID
+     * @param input    已启动的输入端，可为null
+     * @param settings 流水线运行参数
+     */
+    public void registerGauges(String id, Input input, PipelineSettings settings) {
+        if (metrics != null && input instanceof GaugeAware) {
+            metrics.inputGauges(id, input.type(), settings, (GaugeAware) input);
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package priv.eric.pelee.application.factory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.domain.model.OutputProvider;
+import priv.eric.pelee.domain.model.PipelineSettings;
+import priv.eric.pelee.infrastructure.metrics.PipelineMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * desc:
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 20:04
+ */
+@Component
+public class OutputFactory {
+
+    private final Map<String, OutputProvider> providers;
+
+    private final PipelineMetrics metrics;
+
+    public OutputFactory(List<OutputProvider> providers) {
+        this(providers, null);
+    }
+
+    @Autowired
+    public OutputFactory(List<OutputProvider> providers, PipelineMetrics metrics) {
+        this.providers = providers.stream().collect(Collectors.toMap(OutputProvider::type, Function.identity()));
+        this.metrics = metrics;
+    }
+
+    /**
+     * 按配置创建全部输出端
+     *
+     * @param configs 流水线配置中的output数组
+     * @return 输出端列表
+     */
+    public List<Output> create(List<JsonNode> configs) {
+        List<Output> outputs = new ArrayList<>(configs.size());
+        for (JsonNode config : configs) {
+            String type = config.path("type").asText();
+            OutputProvider provider = providers.get(type);
+            if (provider == null) {
+                throw new IllegalArgumentException("未知的输出类型: " + type);
+            }
+            outputs.add(provider.create(config));
+        }
+        return outputs;
+    }
+
+    /**
+     * 注册输出端暴露的仪表，在运行时启动成功后调用
+     *
+     * @param id       流水线ID
+     * @param outputs  已启动的输出端
+     * @param lanes    运行时中各输出端写入通道的仪表，与outputs按下标对应，可能为空
+     * @param settings 流水线运行参数
+     */
+    public void registerGauges(String id, List<Output> outputs, List<GaugeAware> lanes, PipelineSettings settings) {
+        if (metrics == null) {
+            return;
+        }
+        for (int i = 0; i < outputs.size(); i++) {
+            Output output = outputs.get(i);
+            if (output instanceof GaugeAware) {
+                metrics.outputGauges(id, i, output.type(), settings, (GaugeAware) output);
+            }
+            if (i < lanes.size()) {
+                metrics.outputGauges(id, i, output.type(), settings, lanes.get(i));
+            }
+        }
+    }
+
+}
@@ -1,9 +1,35 @@
 package priv.eric.pelee.application.factory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import priv.eric.pelee.domain.model.EventEmitter;
+import priv.eric.pelee.domain.model.FieldAware;
+import priv.eric.pelee.domain.model.FieldMutator;
+import priv.eric.pelee.domain.model.GaugeAware;
 import priv.eric.pelee.domain.model.Pipeline;
-import priv.eric.pelee.domain.model.ProcessorDescriptor;
+import priv.eric.pelee.domain.model.PipelineDefinition;
+import priv.eric.pelee.domain.model.PipelineSettings;
+import priv.eric.pelee.domain.model.ProcessorDefinition;
+import priv.eric.pelee.domain.model.ProcessorWrapper;
+import priv.eric.pelee.domain.model.StageContext;
+import priv.eric.pelee.domain.model.StageMetrics;
+import priv.eric.pelee.infrastructure.condition.Condition;
+import priv.eric.pelee.infrastructure.metrics.PipelineMetrics;
+import priv.eric.pelee.infrastructure.queue.WaitStrategy;
+import priv.eric.pelee.infrastructure.util.FieldOperation;
+import priv.eric.pelee.infrastructure.util.FieldPath;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * desc:
@@ -11,19 +37,171 @@ import java.util.List;
  * @author EricTownsChina@outlook.com
  * @date 2026-02-05 21:19
  */
+@Component
 public class PipelineFactory {
 
-    private ProcessorFactory processorFactory;
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineFactory.class);
+
+    private static final String LAZY_MODE = "lazy";
+
+    private static final Set<String> OUTPUT_OVERFLOWS = Set.of("block", "drop");
+
+    private static final Set<String> FAILURE_POLICIES = Set.of("hold", "drop");
+
+    private final ProcessorFactory processorFactory;
+
+    private final PipelineMetrics metrics;
+
+    private final Map<String, StageContext> contexts = new HashMap<>();
 
     public PipelineFactory(ProcessorFactory processorFactory) {
+        this(processorFactory, null);
+    }
+
+    @Autowired
+    public PipelineFactory(ProcessorFactory processorFactory, PipelineMetrics metrics) {
         this.processorFactory = processorFactory;
+        this.metrics = metrics;
+        for (StageContext context : ServiceLoader.load(StageContext.class)) {
+            contexts.put(context.code(), context);
+        }
+    }
+
+    /**
+     * 按配置创建流水线，处理器在此一次性创建并编译为执行计划
+     *
+     * @param id         流水线ID
+     * @param definition 流水线配置
+     * @return 流水线
+     */
+    public Pipeline create(String id, PipelineDefinition definition) {
+        PipelineSettings settings = definition.getSettings();
+        List<ProcessorWrapper<?>> wrappers = new ArrayList<>(definition.getProcessors().size());
+        for (ProcessorDefinition processor : definition.getProcessors()) {
+            wrappers.add(processorFactory.create(processor));
+        }
+        List<ProcessorWrapper<?>> processors = new ArrayList<>(wrappers);
+        // 融合后的阶段沿用其第一个处理器的下标作为指标标签
+        List<Integer> indexes = new ArrayList<>(wrappers.size());
+        if (settings.isFuseProcessors()) {
+            wrappers = fuse(id, wrappers, indexes);
+        }
+        if (metrics != null) {
+            for (int i = 0; i < wrappers.size(); i++) {
+                ProcessorWrapper<?> wrapper = wrappers.get(i);
+                int index = indexes.isEmpty() ? i : indexes.get(i);
+                wrapper.setMetrics(metrics.stage(id, index, wrapper.getName(), settings));
+            }
+        }
+        String code = settings.getContext();
+        StageContext context = contexts.get(code);
+        if (context == null) {
+            throw new IllegalArgumentException("未知的执行上下文: " + code);
+        }
+        if (!OUTPUT_OVERFLOWS.contains(settings.getOutputOverflow())) {
+            throw new IllegalArgumentException("不支持的output_overflow: " + settings.getOutputOverflow());
+        }
+        if (!WaitStrategy.NAMES.contains(settings.getWaitStrategy())) {
+            throw new IllegalArgumentException("不支持的wait_strategy: " + settings.getWaitStrategy());
+        }
+        if (!FAILURE_POLICIES.contains(settings.getFailurePolicy())) {
+            throw new IllegalArgumentException("不支持的failure_policy: " + settings.getFailurePolicy());
+        }
+        Set<String> roots = LAZY_MODE.equals(settings.getEventMode()) ? referencedRoots(id, wrappers, settings) : null;
+        StageMetrics pipelineMetrics = metrics != null ? metrics.pipeline(id, settings) : StageMetrics.NONE;
+        List<EventEmitter> emitters = new ArrayList<>();
+        for (ProcessorWrapper<?> wrapper : wrappers) {
+            if (wrapper.getProcessor() instanceof EventEmitter) {
+                emitters.add((EventEmitter) wrapper.getProcessor());
+            }
+        }
+        return new Pipeline(id, context.compile(new ArrayList<>(wrappers)), settings, roots, pipelineMetrics, emitters,
+                processors);
     }
 
-    public Pipeline create() {
+    /**
+     * 注册处理器暴露的仪表，在流水线替换或启动成功后调用；
+     * 创建后未投入运行的版本不会把仪表从正在运行的处理器上抢走
+     *
+     * @param pipeline 已生效的流水线
+     */
+    public void registerGauges(Pipeline pipeline) {
+        if (metrics == null) {
+            return;
+        }
+        List<ProcessorWrapper<?>> processors = pipeline.getProcessors();
+        for (int i = 0; i < processors.size(); i++) {
+            ProcessorWrapper<?> wrapper = processors.get(i);
+            if (wrapper.getProcessor() instanceof GaugeAware) {
+                metrics.gauges(pipeline.getId(), i, wrapper.getName(), pipeline.getSettings(),
+                        (GaugeAware) wrapper.getProcessor());
+            }
+        }
+    }
 
-        return null;
+    /**
+     * 将连续两个及以上无条件的字段变换处理器合并为一个阶段，结果与依次执行一致
+     *
+     * @param indexes 输出每个阶段在原处理器列表中的下标
+     */
+    private List<ProcessorWrapper<?>> fuse(String id, List<ProcessorWrapper<?>> wrappers, List<Integer> indexes) {
+        List<ProcessorWrapper<?>> fused = new ArrayList<>(wrappers.size());
+        int i = 0;
+        while (i < wrappers.size()) {
+            int end = i;
+            while (end < wrappers.size() && fusible(wrappers.get(end))) {
+                end++;
+            }
+            if (end - i < 2) {
+                fused.add(wrappers.get(i));
+                indexes.add(i);
+                i++;
+                continue;
+            }
+            List<ProcessorWrapper<?>> run = wrappers.subList(i, end);
+            List<FieldOperation> operations = new ArrayList<>();
+            for (ProcessorWrapper<?> wrapper : run) {
+                operations.addAll(((FieldMutator) wrapper.getProcessor()).operations());
+            }
+            String name = run.stream().map(ProcessorWrapper::getName).collect(Collectors.joining("+"));
+            LOGGER.info("===== pipeline {} fuses processors: {}", id, name);
+            fused.add(new ProcessorWrapper<>(name, new FusedFieldProcessor(operations), null));
+            indexes.add(i);
+            i = end;
+        }
+        return fused;
+    }
 
+    /**
+     * 异步或带条件的处理器不参与融合
+     */
+    private static boolean fusible(ProcessorWrapper<?> wrapper) {
+        return wrapper.getClass() == ProcessorWrapper.class
+                && wrapper.getCondition() == Condition.ALWAYS
+                && wrapper.getProcessor() instanceof FieldMutator;
+    }
 
+    /**
+     * 汇总处理器与分区键引用的顶层字段，存在未声明字段的处理器时退回完整解析
+     */
+    private Set<String> referencedRoots(String id, List<ProcessorWrapper<?>> wrappers, PipelineSettings settings) {
+        Set<String> roots = new HashSet<>();
+        for (ProcessorWrapper<?> wrapper : wrappers) {
+            if (!(wrapper.getProcessor() instanceof FieldAware)) {
+                LOGGER.warn("===== pipeline {} falls back to tree mode, processor {} does not declare its fields",
+                        id, wrapper.getName());
+                return null;
+            }
+            List<FieldPath> paths = new ArrayList<>(((FieldAware) wrapper.getProcessor()).referencedPaths());
+            wrapper.getCondition().collectPaths(paths);
+            for (FieldPath path : paths) {
+                roots.add(path.root());
+            }
+        }
+        for (String key : settings.getPartitionKey()) {
+            roots.add(FieldPath.compile(key).root());
+        }
+        return Collections.unmodifiableSet(roots);
     }
 
 }
@@ -2,8 +2,12 @@ package priv.eric.pelee.application.factory;
 
 import org.springframework.stereotype.Component;
 import priv.eric.pelee.application.init.ProcessorRegistry;
+import priv.eric.pelee.domain.model.AsyncProcessor;
+import priv.eric.pelee.domain.model.AsyncProcessorWrapper;
 import priv.eric.pelee.domain.model.Processor;
+import priv.eric.pelee.domain.model.ProcessorDefinition;
 import priv.eric.pelee.domain.model.ProcessorWrapper;
+import priv.eric.pelee.infrastructure.condition.ConditionCompiler;
 import priv.eric.pelee.infrastructure.util.JsonUtil;
 import priv.eric.pelee.plugin.ProcessorMetadata;
 
@@ -23,14 +27,38 @@ public class ProcessorFactory {
     }
 
     public <C> ProcessorWrapper<C> create(String type, Object rawConfig) {
-        Processor processor = registry.getProcessor(type);
+        return create(type, type, rawConfig);
+    }
+
+    public <C> ProcessorWrapper<C> create(String name, String type, Object rawConfig) {
+        ProcessorDefinition definition = new ProcessorDefinition();
+        definition.setName(name);
+        definition.setType(type);
+        return create(definition, rawConfig);
+    }
+
+    public <C> ProcessorWrapper<C> create(ProcessorDefinition definition) {
+        return create(definition, definition.getConfig());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <C> ProcessorWrapper<C> create(ProcessorDefinition definition, Object rawConfig) {
+        String type = definition.getType();
         ProcessorMetadata metadata = registry.getMeta(type);
 
         C config = null;
-        if (metadata.hasConfig() && rawConfig != null) {
-            config = JsonUtil.convertValue(rawConfig, (Class<C>) metadata.getConfigClass());
+        if (metadata.hasConfig()) {
+            Object source = rawConfig != null ? rawConfig : JsonUtil.getObjectMapper().createObjectNode();
+            config = JsonUtil.convertValue(source, (Class<C>) metadata.getConfigClass());
         }
-        return new ProcessorWrapper<>(processor, config);
+        Processor processor = metadata.newInstance(config);
+        String name = definition.getName() != null ? definition.getName() : type;
+        ProcessorWrapper<C> wrapper = processor instanceof AsyncProcessor
+                ? new AsyncProcessorWrapper<>(name, (AsyncProcessor) processor, config,
+                definition.getMaxInFlight(), definition.getTimeoutMs())
+                : new ProcessorWrapper<>(name, processor, config);
+        wrapper.setCondition(ConditionCompiler.compile(definition.getCondition()));
+        return wrapper;
     }
 
 }
@@ -32,4 +32,8 @@ public class PipelineRegistry {
         this.pipelineRegistry.put(id, pipeline);
     }
 
+    public Pipeline remove(String id) {
+        return this.pipelineRegistry.remove(id);
+    }
+
 }
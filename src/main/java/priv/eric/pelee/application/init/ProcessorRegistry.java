@@ -4,15 +4,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Component;
-import priv.eric.pelee.domain.model.Processor;
+import priv.eric.pelee.plugin.ProcessorIndex;
 import priv.eric.pelee.plugin.ProcessorMetadata;
 
-import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * desc:
+ * desc: 处理器注册表
+ * <p>
+ * 从编译期生成的{@link ProcessorIndex}加载处理器，启动时不扫描类路径
  *
  * @author EricTownsChina@outlook.com
  * @date 2026-02-06 14:02
@@ -22,42 +24,34 @@ public class ProcessorRegistry implements InitializingBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessorRegistry.class);
 
-    private final List<Processor> processors;
-
-    private final Map<String, Processor> processorRegistry = new ConcurrentHashMap<>(0);
-
     private final Map<String, ProcessorMetadata> metadataRegistry = new ConcurrentHashMap<>(0);
 
-    public ProcessorRegistry(List<Processor> processors) {
-        this.processors = processors;
-    }
-
     @Override
     public void afterPropertiesSet() {
-        processors.forEach(p -> {
-            final ProcessorMetadata metadata = new ProcessorMetadata(p);
-            final String type = metadata.getType();
-            processorRegistry.put(type, p);
-            metadataRegistry.put(type, metadata);
-            LOGGER.info("===== register processor: {}", type);
-        });
+        for (ProcessorIndex index : ServiceLoader.load(ProcessorIndex.class, ProcessorRegistry.class.getClassLoader())) {
+            for (ProcessorMetadata metadata : index.processors()) {
+                register(metadata);
+            }
+        }
         if (metadataRegistry.isEmpty()) {
-            LOGGER.warn("===== registry is empty");
+            LOGGER.warn("===== registry is empty, check that the processor index was generated");
         }
     }
 
-    public Processor getProcessor(String type) {
-        Processor processor = processorRegistry.get(type);
-        if (null == processor) {
-            throw new IllegalArgumentException("未知的处理器: " + type);
+    private void register(ProcessorMetadata metadata) {
+        final String type = metadata.getType();
+        ProcessorMetadata previous = metadataRegistry.putIfAbsent(type, metadata);
+        if (previous != null) {
+            throw new IllegalArgumentException("处理器类型重复: " + type + ", "
+                    + previous.getProcessorClass() + ", " + metadata.getProcessorClass());
         }
-        return processor;
+        LOGGER.info("===== register processor: {}", type);
     }
 
     public ProcessorMetadata getMeta(String type) {
         ProcessorMetadata metadata = metadataRegistry.get(type);
         if (null == metadata) {
-            throw new IllegalArgumentException("未知的处理器描述: " + type);
+            throw new IllegalArgumentException("未知的处理器: " + type);
         }
         return metadata;
     }
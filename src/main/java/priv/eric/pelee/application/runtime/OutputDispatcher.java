@@ -0,0 +1,507 @@
+package priv.eric.pelee.application.runtime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import priv.eric.pelee.domain.model.Acknowledgement;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.domain.model.PipelineSettings;
+import priv.eric.pelee.infrastructure.codec.EncodedBatch;
+import priv.eric.pelee.infrastructure.codec.EventCodec;
+import priv.eric.pelee.infrastructure.queue.SpillQueue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * desc: 输出端分发
+ * <p>
+ * 单个输出端时在调用线程上直接写入；多个输出端时每个输出端独占一个有界队列和写入线程，
+ * 同一批次只序列化一次，各输出端共享同一份事件列表与只读字节并发写入，不做拷贝。
+ * 各输出端的写入调用都返回后释放事件对象，全部输出端确认送达后才确认批次中的事件，
+ * 任一输出端最终失败时整批交给失败回调而不确认；
+ * 慢的输出端只占满自己的队列，队列满时按output_overflow丢弃该输出端的本批次（默认，计入overflow_dropped_events），
+ * 或阻塞调用线程——阻塞时一个慢输出端会卡住工作线程，其余输出端也随之收不到新批次。
+ * 配置spill_dir后每个输出端都经过独立队列，队列满时批次写入磁盘溢出队列并刷盘后确认，
+ * 写入线程先写完内存队列再按顺序回放磁盘中的批次，输出端确认送达后才从溢出队列删除，失败时退避后重试同一批次；
+ * 溢出队列非空期间新批次也写入磁盘，保证输出顺序
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 22:20
+ */
+class OutputDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutputDispatcher.class);
+
+    private static final String OVERFLOW_DROP = "drop";
+
+    private static final long POLL_MILLIS = 100;
+
+    private static final long SPILL_FULL_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long REPLAY_BACKOFF_MILLIS = 100;
+
+    private static final long MAX_REPLAY_BACKOFF_MILLIS = 10_000;
+
+    private static final Acknowledgement[] NO_ACKS = new Acknowledgement[0];
+
+    private final String id;
+
+    private final List<Output> outputs;
+
+    /**
+     * 是否有输出端使用序列化后的字节
+     */
+    private final boolean encode;
+
+    private final boolean dropOnFull;
+
+    /**
+     * 写入失败的批次中待确认的事件，由调用方按failure_policy处理
+     */
+    private final Consumer<Acknowledgement[]> onFailure;
+
+    /**
+     * 每个输出端的写入通道，单个输出端时为空
+     */
+    private final List<Lane> lanes;
+
+    private volatile boolean running;
+
+    OutputDispatcher(String id, List<Output> outputs, PipelineSettings settings, Consumer<Acknowledgement[]> onFailure) {
+        this.id = id;
+        this.outputs = outputs;
+        this.onFailure = onFailure;
+        boolean spill = settings.getSpillDir() != null && !settings.getSpillDir().isEmpty();
+        this.encode = spill || outputs.stream().anyMatch(Output::acceptsEncoded);
+        this.dropOnFull = OVERFLOW_DROP.equals(settings.getOutputOverflow());
+        this.lanes = new ArrayList<>();
+        if (outputs.size() > 1 || spill) {
+            int capacity = Math.max(1, settings.getOutputQueueSize());
+            for (int i = 0; i < outputs.size(); i++) {
+                Output output = outputs.get(i);
+                SpillQueue spillQueue = null;
+                if (spill) {
+                    // 按输出端下标与类型区分目录，重启后同一输出端回放自己的批次
+                    Path dir = Paths.get(settings.getSpillDir(), id, i + "-" + output.type());
+                    try {
+                        spillQueue = new SpillQueue(dir, settings.getSpillSegmentBytes(), settings.getSpillMaxBytes());
+                    } catch (RuntimeException e) {
+                        lanes.forEach(lane -> lane.spill.close());
+                        throw e;
+                    }
+                }
+                lanes.add(new Lane(output, capacity, spillQueue, "pelee-" + id + "-output-" + i));
+            }
+        }
+    }
+
+    /**
+     * 各输出端写入通道的仪表，与输出端按下标对应；单个输出端且未配置spill_dir时没有通道，返回空列表
+     */
+    List<GaugeAware> laneGauges() {
+        return Collections.unmodifiableList(lanes);
+    }
+
+    void start() {
+        running = true;
+        outputs.forEach(Output::start);
+        lanes.forEach(lane -> lane.thread.start());
+    }
+
+    /**
+     * 分发一批事件，调用返回后events列表可被调用方复用；各输出端的写入调用返回后调用release，此后事件对象不再被引用；
+     * 全部输出端确认送达后确认acks中的事件，任一输出端最终失败时交给失败回调
+     *
+     * @param events  待写入的事件
+     * @param acks    全部输出端写完后需确认的事件
+     * @param release 事件对象可被复用时的回调
+     */
+    void dispatch(List<Event<?>> events, List<Event<?>> acks, Runnable release) {
+        // 事件对象释放后会被复用，先取出确认回调
+        Acknowledgement[] pending = acknowledgements(acks);
+        if (outputs.isEmpty() || events.isEmpty()) {
+            release.run();
+            settle(pending, true);
+            return;
+        }
+        EncodedBatch encoded;
+        try {
+            encoded = encode ? EncodedBatch.encode(events) : null;
+        } catch (RuntimeException e) {
+            release.run();
+            LOGGER.error("===== encode batch failed: {}, size: {}", id, events.size(), e);
+            settle(pending, false);
+            return;
+        }
+        if (lanes.isEmpty()) {
+            Output output = outputs.get(0);
+            int size = events.size();
+            CompletionStage<Void> sent;
+            try {
+                sent = send(output, events, encoded);
+            } finally {
+                release.run();
+            }
+            sent.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    LOGGER.error("===== output write failed: {}, {}, size: {}", id, output.type(), size, unwrap(error));
+                }
+                settle(pending, error == null);
+            });
+            return;
+        }
+        Delivery delivery = new Delivery(new ArrayList<>(events), encoded, pending, release, lanes.size());
+        for (Lane lane : lanes) {
+            lane.offer(delivery);
+        }
+    }
+
+    /**
+     * 回放的批次只有字节，不使用字节的输出端需重新解析为事件
+     */
+    private static List<Event<?>> decode(EncodedBatch batch) {
+        List<Event<?>> events = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                events.add(new Event<>(EventCodec.decode(batch.get(i))));
+            } catch (IOException e) {
+                throw new UncheckedIOException("溢出批次解析失败", e);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * 写入调用本身抛出的异常同样作为失败结果返回
+     */
+    private static CompletionStage<Void> send(Output output, List<Event<?>> events, EncodedBatch encoded) {
+        try {
+            return output.send(events, encoded != null && output.acceptsEncoded() ? encoded : null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    static Acknowledgement[] acknowledgements(List<Event<?>> events) {
+        if (events.isEmpty()) {
+            return NO_ACKS;
+        }
+        Acknowledgement[] acks = new Acknowledgement[events.size()];
+        for (int i = 0; i < acks.length; i++) {
+            acks[i] = events.get(i).getAck();
+        }
+        return acks;
+    }
+
+    private void settle(Acknowledgement[] acks, boolean success) {
+        if (!success) {
+            onFailure.accept(acks);
+            return;
+        }
+        for (Acknowledgement ack : acks) {
+            ack.acknowledge();
+        }
+    }
+
+    /**
+     * 等待各输出端队列写完后关闭输出端
+     *
+     * @param deadline 截止时间（System.nanoTime）
+     */
+    void close(long deadline) {
+        running = false;
+        for (Lane lane : lanes) {
+            long remaining = deadline - System.nanoTime();
+            try {
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedJoin(lane.thread, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (lane.thread.isAlive()) {
+                LOGGER.warn("===== output lane not drained: {}, {}, pending: {}", id, lane.output.type(), lane.queue.size());
+            }
+            if (lane.dropped.sum() > 0 || lane.failed.sum() > 0) {
+                LOGGER.warn("===== output lane closed: {}, {}, dropped: {}, failed: {}",
+                        id, lane.output.type(), lane.dropped.sum(), lane.failed.sum());
+            }
+            if (lane.spill != null) {
+                if (!lane.spill.isEmpty()) {
+                    LOGGER.info("===== output lane spilled batches kept: {}, {}, batches: {}",
+                            id, lane.output.type(), lane.spill.size());
+                }
+                lane.spill.close();
+            }
+        }
+        for (Output output : outputs) {
+            try {
+                output.close();
+            } catch (Exception e) {
+                LOGGER.warn("===== close output failed: {}, {}", id, output.type(), e);
+            }
+        }
+    }
+
+    /**
+     * 分发给多个输出端的批次，最后一个输出端的写入调用返回时释放事件对象，
+     * 最后一个输出端完成时确认事件，任一输出端失败时整批按失败处理
+     */
+    private final class Delivery {
+
+        private final List<Event<?>> events;
+
+        private final EncodedBatch encoded;
+
+        private final Acknowledgement[] acks;
+
+        private final Runnable release;
+
+        private final AtomicInteger unwritten;
+
+        private final AtomicInteger remaining;
+
+        private volatile boolean failed;
+
+        private Delivery(List<Event<?>> events, EncodedBatch encoded, Acknowledgement[] acks, Runnable release,
+                         int outputs) {
+            this.events = events;
+            this.encoded = encoded;
+            this.acks = acks;
+            this.release = release;
+            this.unwritten = new AtomicInteger(outputs);
+            this.remaining = new AtomicInteger(outputs);
+        }
+
+        /**
+         * 一个输出端的写入调用已返回，不再引用事件对象
+         */
+        private void written() {
+            if (unwritten.decrementAndGet() == 0) {
+                release.run();
+            }
+        }
+
+        /**
+         * @param success 该输出端是否确认送达
+         */
+        private void complete(boolean success) {
+            if (!success) {
+                failed = true;
+            }
+            if (remaining.decrementAndGet() == 0) {
+                settle(acks, !failed);
+            }
+        }
+
+    }
+
+    /**
+     * 单个输出端的队列与写入线程
+     */
+    private final class Lane implements Runnable, GaugeAware {
+
+        private final Output output;
+
+        private final BlockingQueue<Delivery> queue;
+
+        private final Thread thread;
+
+        private final LongAdder dropped = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+
+        /**
+         * 磁盘溢出队列，未启用时为null
+         */
+        private final SpillQueue spill;
+
+        /**
+         * 溢出队列中最早的批次连续回放失败的次数，仅写入线程访问
+         */
+        private int replayFailures;
+
+        private final Map<String, DoubleSupplier> gauges;
+
+        private Lane(Output output, int capacity, SpillQueue spill, String name) {
+            this.output = output;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.spill = spill;
+            this.thread = new Thread(this, name);
+            thread.setDaemon(true);
+            this.gauges = Map.of(
+                    "overflow_dropped_events", dropped::sum,
+                    "queued_batches", queue::size);
+        }
+
+        @Override
+        public Map<String, DoubleSupplier> gauges() {
+            return gauges;
+        }
+
+        private void offer(Delivery delivery) {
+            if (spill != null) {
+                offerOrSpill(delivery);
+                return;
+            }
+            if (dropOnFull) {
+                if (!queue.offer(delivery)) {
+                    drop(delivery);
+                }
+                return;
+            }
+            try {
+                queue.put(delivery);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                drop(delivery);
+            }
+        }
+
+        /**
+         * 溢出队列为空且内存队列有空位时进入内存队列，否则写入磁盘；磁盘也已满时按output_overflow处理
+         */
+        private void offerOrSpill(Delivery delivery) {
+            if (spill.isEmpty() && queue.offer(delivery)) {
+                return;
+            }
+            while (!spill.append(delivery.encoded)) {
+                if (dropOnFull || !running || Thread.currentThread().isInterrupted()) {
+                    drop(delivery);
+                    return;
+                }
+                LockSupport.parkNanos(SPILL_FULL_PARK_NANOS);
+            }
+            delivery.written();
+            delivery.complete(true);
+        }
+
+        private void drop(Delivery delivery) {
+            if (dropped.sum() == 0) {
+                LOGGER.warn("===== output lane full, start dropping batches: {}, {}", id, output.type());
+            }
+            dropped.add(delivery.events.size());
+            LOGGER.debug("===== output lane full, drop batch: {}, {}, size: {}", id, output.type(), delivery.events.size());
+            // output_overflow为drop时丢弃是配置的行为，批次照常确认
+            delivery.written();
+            delivery.complete(true);
+        }
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty()) {
+                Delivery delivery;
+                try {
+                    // 有待回放的批次时不等待内存队列
+                    delivery = spill != null && !spill.isEmpty()
+                            ? queue.poll()
+                            : queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (delivery == null) {
+                    replay();
+                    continue;
+                }
+                int size = delivery.events.size();
+                CompletionStage<Void> sent;
+                try {
+                    sent = send(output, delivery.events, delivery.encoded);
+                } finally {
+                    delivery.written();
+                }
+                sent.whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        failed.add(size);
+                        LOGGER.error("===== output write failed: {}, {}, size: {}", id, output.type(), size, unwrap(error));
+                    }
+                    delivery.complete(error == null);
+                });
+            }
+        }
+
+        /**
+         * 回放磁盘中最早的批次，输出端确认送达后才将其从溢出队列删除；失败时保留该批次，退避后再次回放。
+         * 停止时不再回放也不再等待，未确认的批次留待重启后继续
+         */
+        private void replay() {
+            EncodedBatch batch = spill == null || !running ? null : spill.peek();
+            if (batch == null) {
+                return;
+            }
+            List<Event<?>> events;
+            try {
+                events = output.acceptsEncoded() ? Collections.emptyList() : decode(batch);
+            } catch (RuntimeException e) {
+                // 记录已通过校验仍无法解析，重试也无法恢复
+                failed.add(batch.size());
+                LOGGER.error("===== drop undecodable spilled batch: {}, {}, size: {}", id, output.type(), batch.size(), e);
+                spill.advance();
+                return;
+            }
+            CompletableFuture<Void> sent = send(output, events, batch).toCompletableFuture();
+            while (true) {
+                try {
+                    sent.get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    if (!running) {
+                        return;
+                    }
+                } catch (ExecutionException e) {
+                    replayFailures++;
+                    LOGGER.error("===== output replay failed, retry later: {}, {}, size: {}, attempts: {}",
+                            id, output.type(), batch.size(), replayFailures, e.getCause());
+                    backoff();
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            replayFailures = 0;
+            spill.advance();
+        }
+
+        /**
+         * 按连续失败次数指数退避，停止时提前返回
+         */
+        private void backoff() {
+            long delay = Math.min(MAX_REPLAY_BACKOFF_MILLIS, REPLAY_BACKOFF_MILLIS << Math.min(replayFailures - 1, 20));
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            long remaining = deadline - System.nanoTime();
+            while (running && remaining > 0) {
+                LockSupport.parkNanos(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS)));
+                remaining = deadline - System.nanoTime();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,43 @@
+package priv.eric.pelee.application.runtime;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * desc: 流水线健康检查，通过/actuator/health暴露
+ * <p>
+ * 任一流水线的输入端因无法恢复的错误停止时为DOWN，明细中给出各流水线的状态
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 11:20
+ */
+@Component
+public class PipelineHealthIndicator extends AbstractHealthIndicator {
+
+    private final PipelineRuntimeManager runtimeManager;
+
+    public PipelineHealthIndicator(PipelineRuntimeManager runtimeManager) {
+        this.runtimeManager = runtimeManager;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        boolean failed = false;
+        for (PipelineRuntime runtime : runtimeManager.getRuntimes()) {
+            Throwable failure = runtime.getFailure();
+            if (failure != null) {
+                failed = true;
+                builder.withDetail(runtime.getId(), "input failed: " + failure);
+            } else {
+                builder.withDetail(runtime.getId(), runtime.isRunning() ? "running" : "stopped");
+            }
+        }
+        if (failed) {
+            builder.down();
+        } else {
+            builder.up();
+        }
+    }
+
+}
@@ -0,0 +1,628 @@
+package priv.eric.pelee.application.runtime;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import priv.eric.pelee.domain.model.Acknowledgement;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.EventChannel;
+import priv.eric.pelee.domain.model.EventEmitter;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Input;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.domain.model.Pipeline;
+import priv.eric.pelee.domain.model.PipelineSettings;
+import priv.eric.pelee.domain.model.StageMetrics;
+import priv.eric.pelee.infrastructure.codec.EventCodec;
+import priv.eric.pelee.infrastructure.codec.RawFields;
+import priv.eric.pelee.infrastructure.queue.EventRingBuffer;
+import priv.eric.pelee.infrastructure.queue.WaitStrategy;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * desc: 流水线运行时
+ * <p>
+ * 每条流水线运行N个工作线程，每个工作线程独占一个预分配事件槽位的环形缓冲，投递时把数据写入槽位，
+ * 事件对象在全部输出端写完后回收复用，稳定运行时除事件数据外几乎不分配内存；
+ * 事件按分区键哈希路由到固定的工作线程，保证同一分区键的事件按提交顺序处理；
+ * 执行计划可在运行中整体替换，工作线程每批读取一次当前计划，已开始的批次继续使用旧计划；
+ * 批次处理失败时逐条重试，只有单独执行仍失败的事件按failure_policy处理
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 16:20
+ */
+public class PipelineRuntime implements EventChannel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineRuntime.class);
+
+    /**
+     * 聚合等处理器产生的事件不占用环形缓冲槽位，无需释放
+     */
+    private static final Runnable NO_RELEASE = () -> {
+    };
+
+    private static final String FAILURE_DROP = "drop";
+
+    private final String id;
+
+    private volatile Pipeline pipeline;
+
+    private final Input input;
+
+    private final OutputDispatcher dispatcher;
+
+    private final FieldPath[] partitionKeys;
+
+    private final List<EventRingBuffer> rings;
+
+    private final List<Thread> threads;
+
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    /**
+     * 定期收集聚合等处理器产生的事件并写入输出端
+     */
+    private final ScheduledExecutorService emitter;
+
+    private volatile boolean running;
+
+    /**
+     * 已通过running检查、尚未发布槽位的投递数，停止时等其归零后才通知工作线程退出
+     */
+    private final AtomicInteger publishers = new AtomicInteger();
+
+    /**
+     * 停止时在途投递全部结束后置为true，工作线程在其为true且队列为空时退出
+     */
+    private volatile boolean drained;
+
+    /**
+     * 输入端无法恢复的错误，非null时流水线已不再接收新事件
+     */
+    private volatile Throwable failure;
+
+    /**
+     * 失败后确认丢弃与保留未确认的事件数
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder held = new LongAdder();
+
+    public PipelineRuntime(Pipeline pipeline, Input input, List<Output> outputs) {
+        PipelineSettings settings = pipeline.getSettings();
+        int workers = settings.resolveWorkers();
+        this.id = pipeline.getId();
+        this.pipeline = pipeline;
+        this.input = input;
+        this.dispatcher = new OutputDispatcher(id, outputs, settings, this::abandon);
+        this.partitionKeys = FieldPath.compileAll(settings.getPartitionKey());
+        this.rings = new ArrayList<>(workers);
+        this.threads = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            EventRingBuffer ring = new EventRingBuffer(settings.getQueueCapacity());
+            Thread thread = new Thread(new Worker(ring, settings), "pelee-" + id + "-worker-" + i);
+            thread.setDaemon(true);
+            rings.add(ring);
+            threads.add(thread);
+        }
+        this.emitter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pelee-" + id + "-emitter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        dispatcher.start();
+        threads.forEach(Thread::start);
+        long interval = Math.max(1, pipeline.getSettings().getEmitIntervalMs());
+        emitter.scheduleWithFixedDelay(this::emitDue, interval, interval, TimeUnit.MILLISECONDS);
+        if (input != null) {
+            input.start(this);
+        }
+        LOGGER.info("===== pipeline runtime started: {}, workers: {}", id, threads.size());
+    }
+
+    /**
+     * 先停止输入端并等待在途投递结束，再等待队列中剩余事件处理完成后关闭输出端
+     */
+    public synchronized void stop(long timeout, TimeUnit unit) {
+        if (!running) {
+            return;
+        }
+        if (input != null) {
+            try {
+                input.close();
+            } catch (Exception e) {
+                LOGGER.warn("===== close input failed: {}, {}", id, input.type(), e);
+            }
+        }
+        running = false;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        awaitPublishers(deadline);
+        drained = true;
+        for (Thread thread : threads) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedJoin(thread, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // 已排队的旧计划窗口输出继续执行，周期输出随关闭取消
+        emitter.shutdown();
+        try {
+            emitter.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        emitter.shutdownNow();
+        flush(pipeline);
+        dispatcher.close(deadline);
+        if (dropped.sum() > 0 || held.sum() > 0) {
+            LOGGER.warn("===== pipeline failed events: {}, dropped: {}, held: {}", id, dropped.sum(), held.sum());
+        }
+        LOGGER.info("===== pipeline runtime stopped: {}", id);
+    }
+
+    /**
+     * 等待已通过running检查的投递写完槽位，否则工作线程可能在其发布前看到队列为空而退出，事件既不处理也不确认
+     */
+    private void awaitPublishers(long deadline) {
+        while (publishers.get() > 0) {
+            if (System.nanoTime() - deadline >= 0) {
+                LOGGER.warn("===== wait for publishers timeout: {}, in flight: {}", id, publishers.get());
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * 按配置的分区键路由事件，事件内容被写入复用的事件对象，调用方的事件对象不进入流水线
+     *
+     * @return 目标队列已满或运行时已停止时返回false
+     */
+    public boolean offer(Event<?> event) {
+        return offer(event, -1);
+    }
+
+    /**
+     * 按调用方给出的分区哈希路由事件，适用于输入端已携带消息键的场景
+     *
+     * @param event 事件
+     * @param hash  分区哈希，配置了partition_key且事件中存在该字段时以字段为准，负数且无分区键时轮询分配
+     * @return 目标队列已满或运行时已停止时返回false
+     */
+    @Override
+    public boolean offer(Event<?> event, int hash) {
+        return publish(event.getData(), event.getAck(), event.getRawFields(), event.getIngestNanos(), hash);
+    }
+
+    @Override
+    public boolean offer(Object data, Acknowledgement ack, int hash) {
+        return publish(data, ack, null, 0L, hash);
+    }
+
+    private boolean publish(Object data, Acknowledgement ack, RawFields rawFields, long ingestNanos, int hash) {
+        // 先登记再检查running，与stop中先置running再等待计数归零配合，二者至少有一方看到对方
+        publishers.incrementAndGet();
+        try {
+            return running && claim(data, ack, rawFields, ingestNanos, hash);
+        } finally {
+            publishers.decrementAndGet();
+        }
+    }
+
+    private boolean claim(Object data, Acknowledgement ack, RawFields rawFields, long ingestNanos, int hash) {
+        if (partitionKeys.length > 0) {
+            int keyed = partitionHash(data);
+            if (keyed >= 0) {
+                hash = keyed;
+            }
+        }
+        EventRingBuffer ring = rings.get(route(hash));
+        long sequence = ring.tryClaim();
+        if (sequence < 0) {
+            return false;
+        }
+        Event<Object> slot = ring.get(sequence);
+        slot.setData(data);
+        slot.setAck(ack);
+        if (rawFields != null) {
+            slot.setRawFields(rawFields);
+        }
+        slot.setIngestNanos(ingestNanos != 0L ? ingestNanos : System.nanoTime());
+        ring.publish(sequence);
+        return true;
+    }
+
+    /**
+     * 所有环形缓冲剩余容量中的最小值，输入端据此判断是否需要暂停拉取
+     */
+    @Override
+    public int remainingCapacity() {
+        int remaining = Integer.MAX_VALUE;
+        for (EventRingBuffer ring : rings) {
+            remaining = Math.min(remaining, ring.remainingCapacity());
+        }
+        return remaining;
+    }
+
+    /**
+     * 输入端已停止，流水线不会再有新事件；标记为失败并通过健康检查暴露，队列中已有的事件照常处理
+     */
+    @Override
+    public void fail(Throwable cause) {
+        failure = cause;
+        LOGGER.error("===== pipeline input failed: {}, {}", id, input != null ? input.type() : null, cause);
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * 各输出端写入通道的仪表（队列中的批次数、因队列已满丢弃的事件数），与输出端按下标对应，可能为空
+     */
+    public List<GaugeAware> getOutputGauges() {
+        return dispatcher.laneGauges();
+    }
+
+    public int partitionHash(Event<?> event) {
+        return partitionHash(event.getData());
+    }
+
+    /**
+     * 按partition_key计算分区哈希，原始字节只流式扫描分区键字段，无法解析时返回-1，由工作线程丢弃
+     */
+    private int partitionHash(Object data) {
+        if (partitionKeys.length == 0) {
+            return -1;
+        }
+        for (FieldPath key : partitionKeys) {
+            JsonNode node;
+            if (data instanceof JsonNode) {
+                node = key.get((JsonNode) data);
+            } else if (data instanceof byte[]) {
+                try {
+                    node = EventCodec.extract((byte[]) data, key);
+                } catch (IOException e) {
+                    return -1;
+                }
+            } else {
+                return -1;
+            }
+            if (node == null || node.isNull()) {
+                continue;
+            }
+            int hash = node.isTextual() ? node.textValue().hashCode() : node.hashCode();
+            return (hash ^ (hash >>> 16)) & Integer.MAX_VALUE;
+        }
+        return -1;
+    }
+
+    private int route(int hash) {
+        int size = rings.size();
+        if (hash < 0) {
+            return (roundRobin.getAndIncrement() & Integer.MAX_VALUE) % size;
+        }
+        return hash % size;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * 新计划是否可以直接替换，工作线程数、队列、批次、分区键与输出端队列决定了运行时结构，变化时需重建运行时
+     */
+    public boolean canSwap(PipelineSettings next) {
+        PipelineSettings current = pipeline.getSettings();
+        return next.resolveWorkers() == threads.size()
+                && next.getQueueCapacity() == current.getQueueCapacity()
+                && next.getWaitStrategy().equals(current.getWaitStrategy())
+                && next.getBatchSize() == current.getBatchSize()
+                && next.getLingerMs() == current.getLingerMs()
+                && next.getPartitionKey().equals(current.getPartitionKey())
+                && next.getOutputQueueSize() == current.getOutputQueueSize()
+                && next.getOutputOverflow().equals(current.getOutputOverflow())
+                && Objects.equals(next.getSpillDir(), current.getSpillDir())
+                && next.getSpillSegmentBytes() == current.getSpillSegmentBytes()
+                && next.getSpillMaxBytes() == current.getSpillMaxBytes();
+    }
+
+    /**
+     * 替换执行计划，不暂停输入端也不等待队列排空
+     */
+    public void swap(Pipeline next) {
+        if (!next.getId().equals(id)) {
+            throw new IllegalArgumentException("流水线ID不一致: " + id + ", " + next.getId());
+        }
+        Pipeline previous = this.pipeline;
+        this.pipeline = next;
+        if (!previous.getEmitters().isEmpty()) {
+            // 等正在使用旧计划的批次全部结束后再输出旧处理器中未关闭的窗口，由最后结束的批次触发
+            previous.retire(() -> flushRetired(previous));
+        }
+        LOGGER.info("===== pipeline plan swapped: {}", id);
+    }
+
+    private void emitDue() {
+        List<EventEmitter> emitters = pipeline.getEmitters();
+        if (emitters.isEmpty()) {
+            return;
+        }
+        List<Event<?>> events = new ArrayList<>();
+        try {
+            for (EventEmitter source : emitters) {
+                source.emit(events);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("===== emit events failed: {}", id, e);
+        }
+        writeEmitted(events);
+    }
+
+    /**
+     * 在输出线程上输出被替换计划的窗口，与周期输出串行；运行时已停止时直接在当前线程输出
+     */
+    private void flushRetired(Pipeline previous) {
+        try {
+            emitter.execute(() -> flush(previous));
+        } catch (RejectedExecutionException e) {
+            flush(previous);
+        }
+    }
+
+    private void flush(Pipeline target) {
+        List<Event<?>> events = new ArrayList<>();
+        for (EventEmitter source : target.getEmitters()) {
+            try {
+                source.flush(events);
+            } catch (RuntimeException e) {
+                LOGGER.error("===== flush emitter failed: {}", id, e);
+            }
+        }
+        writeEmitted(events);
+    }
+
+    private void writeEmitted(List<Event<?>> events) {
+        try {
+            dispatcher.dispatch(events, Collections.emptyList(), NO_RELEASE);
+        } catch (RuntimeException e) {
+            LOGGER.error("===== write emitted events failed: {}, size: {}", id, events.size(), e);
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @param sources 批次中各事件投递时的数据，按下标与batch对应，批次失败后据此逐条重试
+     * @param release 整批事件确认后释放其环形缓冲槽位
+     */
+    private void execute(List<Event<?>> batch, List<Object> sources, List<Event<?>> decoded, Runnable release) {
+        // 整批使用同一份计划，替换只对之后的批次生效
+        Pipeline current = pipeline;
+        while (!current.enter()) {
+            current = pipeline;
+        }
+        try {
+            execute(current, batch, sources, decoded, release);
+        } finally {
+            current.exit();
+        }
+    }
+
+    private void execute(Pipeline current, List<Event<?>> batch, List<Object> sources, List<Event<?>> decoded,
+                         Runnable release) {
+        StageMetrics metrics = current.getMetrics();
+        long start = metrics.start();
+        // 全部输出端写完后需确认的事件
+        List<Event<?>> settled = batch;
+        try {
+            decode(current, batch, sources, decoded);
+            current.processBatch(decoded);
+        } catch (Exception e) {
+            LOGGER.error("===== pipeline batch failed, retry events one by one: {}, size: {}", id, batch.size(), e);
+            decoded.clear();
+            settled = isolate(current, batch, sources, decoded);
+        }
+        try {
+            // 交给分发器后由其在全部输出端写完时确认事件并释放槽位
+            dispatcher.dispatch(decoded, settled, release);
+            metrics.success(decoded.size(), start);
+            if (start != 0L) {
+                for (Event<?> event : decoded) {
+                    metrics.endToEnd(event.getIngestNanos());
+                }
+            }
+        } finally {
+            decoded.clear();
+            sources.clear();
+        }
+    }
+
+    /**
+     * 整批失败后逐条重试：事件按投递时的原始字节重新解析，再单独经过全部阶段，仍失败的事件才按failure_policy处理，
+     * 同批其余事件照常写入输出端，一条无法处理的事件不会拖住整批。
+     * 以对象投递的事件已被处理器原地修改，无法还原，直接按失败处理；
+     * 去重不会把重试事件当作重复丢弃，聚合在首次执行中已计入的事件重试时会被再次计入
+     *
+     * @param decoded 单独执行成功且未被过滤的事件
+     * @return 需在输出端写完后确认的事件，不含失败的事件
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Event<?>> isolate(Pipeline current, List<Event<?>> batch, List<Object> sources,
+                                   List<Event<?>> decoded) {
+        Set<String> roots = current.getReferencedRoots();
+        List<Event<?>> settled = new ArrayList<>(batch.size());
+        List<Acknowledgement> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Event event = batch.get(i);
+            Object source = sources.get(i);
+            if (source instanceof byte[]) {
+                event.rewind(source);
+                try {
+                    EventCodec.decode(event, (byte[]) source, roots);
+                } catch (IOException | RuntimeException e) {
+                    // 首次解析时已作为格式错误丢弃
+                    settled.add(event);
+                    continue;
+                }
+                try {
+                    current.process(event);
+                    settled.add(event);
+                    if (!event.isDropped()) {
+                        decoded.add(event);
+                    }
+                    continue;
+                } catch (RuntimeException e) {
+                    LOGGER.warn("===== event failed on retry: {}, {}", id, e.toString());
+                }
+            }
+            failed.add(event.getAck());
+        }
+        if (!failed.isEmpty()) {
+            current.getMetrics().failure(failed.size());
+            abandon(failed.toArray(new Acknowledgement[0]));
+        }
+        return settled;
+    }
+
+    /**
+     * 处理失败的事件：failure_policy为drop时照常确认，输入端继续提交消费进度；
+     * 为hold时不确认，输入端不会越过这些事件提交进度，重启或再均衡后重新消费
+     */
+    private void abandon(Acknowledgement[] acks) {
+        Pipeline current = pipeline;
+        boolean drop = FAILURE_DROP.equals(current.getSettings().getFailurePolicy());
+        if (drop) {
+            for (Acknowledgement ack : acks) {
+                ack.acknowledge();
+            }
+            dropped.add(acks.length);
+        } else {
+            held.add(acks.length);
+        }
+        current.getMetrics().abandon(acks.length, drop);
+    }
+
+    /**
+     * 输入端投递的原始字节在工作线程上解析，解析失败或不是JSON对象的事件被丢弃
+     *
+     * @param sources 按顺序记录每个事件投递时的数据
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void decode(Pipeline current, List<Event<?>> batch, List<Object> sources, List<Event<?>> decoded) {
+        Set<String> roots = current.getReferencedRoots();
+        for (Event event : batch) {
+            Object data = event.getData();
+            sources.add(data);
+            if (data instanceof byte[]) {
+                try {
+                    EventCodec.decode(event, (byte[]) data, roots);
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.warn("===== drop malformed event: {}, {}", id, e.getMessage());
+                    continue;
+                }
+            }
+            decoded.add(event);
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        private final EventRingBuffer ring;
+
+        private final WaitStrategy waitStrategy;
+
+        private final int batchSize;
+
+        private final long lingerNanos;
+
+        private final List<Event<?>> batch;
+
+        private final List<Event<?>> decoded;
+
+        private final List<Object> sources;
+
+        private Worker(EventRingBuffer ring, PipelineSettings settings) {
+            this.ring = ring;
+            this.waitStrategy = WaitStrategy.of(settings.getWaitStrategy());
+            this.batchSize = Math.max(1, settings.getBatchSize());
+            this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(settings.getLingerMs());
+            this.batch = new ArrayList<>(batchSize);
+            this.decoded = new ArrayList<>(batchSize);
+            this.sources = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (!drained || !ring.isEmpty()) {
+                // 回收输出端已写完的槽位，生产者只能写入已回收的槽位
+                ring.reclaim();
+                long from = ring.position();
+                if (ring.drain(batch, batchSize) == 0) {
+                    idle = waitStrategy.idle(idle);
+                    continue;
+                }
+                idle = 0;
+                linger();
+                long to = from + batch.size();
+                execute(batch, sources, decoded, () -> ring.release(from, to));
+                batch.clear();
+            }
+        }
+
+        /**
+         * 批次未满时在linger时间内继续收集
+         */
+        private void linger() {
+            if (lingerNanos <= 0 || batch.size() >= batchSize) {
+                return;
+            }
+            long deadline = System.nanoTime() + lingerNanos;
+            while (batch.size() < batchSize && running) {
+                if (ring.drain(batch, batchSize - batch.size()) == 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return;
+                    }
+                    ring.reclaim();
+                    waitStrategy.pause(remaining);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package priv.eric.pelee.application.runtime;
+
+import org.springframework.stereotype.Component;
+import priv.eric.pelee.domain.model.Input;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.domain.model.Pipeline;
+
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * desc: 管理各流水线的运行时
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 16:48
+ */
+@Component
+public class PipelineRuntimeManager {
+
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+
+    private final Map<String, PipelineRuntime> runtimes = new ConcurrentHashMap<>();
+
+    public PipelineRuntime start(Pipeline pipeline, Input input, List<Output> outputs) {
+        PipelineRuntime runtime = new PipelineRuntime(pipeline, input, outputs);
+        PipelineRuntime previous = runtimes.putIfAbsent(pipeline.getId(), runtime);
+        if (previous != null) {
+            throw new IllegalStateException("流水线已在运行: " + pipeline.getId());
+        }
+        runtime.start();
+        return runtime;
+    }
+
+    public PipelineRuntime get(String id) {
+        return runtimes.get(id);
+    }
+
+    public Collection<PipelineRuntime> getRuntimes() {
+        return Collections.unmodifiableCollection(runtimes.values());
+    }
+
+    public void stop(String id) {
+        PipelineRuntime runtime = runtimes.remove(id);
+        if (runtime != null) {
+            runtime.stop(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        runtimes.keySet().forEach(this::stop);
+    }
+
+}
@@ -0,0 +1,134 @@
+package priv.eric.pelee.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import priv.eric.pelee.application.init.PipelineRegistry;
+import priv.eric.pelee.application.runtime.PipelineRuntime;
+import priv.eric.pelee.application.runtime.PipelineRuntimeManager;
+import priv.eric.pelee.domain.model.Acknowledgement;
+import priv.eric.pelee.domain.model.IngestResult;
+import priv.eric.pelee.infrastructure.codec.NdjsonReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * desc: 批量写入，将NDJSON请求体逐行投递到流水线
+ * <p>
+ * 每行作为原始字节投递，与Kafka输入一样由工作线程解析，这里只检查是否像JSON对象，
+ * 解析失败的行由工作线程丢弃并记录日志，已计入queued而不计入failed。流水线队列已满时等待，
+ * 超过offer-timeout-ms后本请求剩余的行不再等待，无法立即投递的计为失败
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 14:30
+ */
+@Component
+public class IngestService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngestService.class);
+
+    private static final long OFFER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final PipelineRegistry pipelineRegistry;
+
+    private final PipelineRuntimeManager runtimeManager;
+
+    @Value("${ingest.max-line-bytes:1048576}")
+    private int maxLineBytes;
+
+    @Value("${ingest.offer-timeout-ms:5000}")
+    private long offerTimeoutMs;
+
+    public IngestService(PipelineRegistry pipelineRegistry, PipelineRuntimeManager runtimeManager) {
+        this.pipelineRegistry = pipelineRegistry;
+        this.runtimeManager = runtimeManager;
+    }
+
+    /**
+     * 逐行读取请求体并投递，读取失败时已投递的行不回退，结果标记为不完整
+     *
+     * @param id   流水线ID
+     * @param body 已解压的请求体
+     * @param key  分区键，非空时整个请求路由到同一工作线程，保持请求内的顺序；为空时按行轮询分配；流水线配置了partition_key时以行内的分区键为准
+     * @return 写入结果
+     */
+    public IngestResult ingest(String id, InputStream body, String key) {
+        if (pipelineRegistry.get(id) == null) {
+            throw new IllegalArgumentException("流水线不存在: " + id);
+        }
+        PipelineRuntime runtime = runtimeManager.get(id);
+        if (runtime == null || !runtime.isRunning()) {
+            throw new IllegalStateException("流水线未运行: " + id);
+        }
+        int hash = key == null || key.isEmpty() ? -1 : spread(key.hashCode());
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        NdjsonReader reader = new NdjsonReader(body, maxLineBytes);
+        IngestResult result = new IngestResult();
+        try {
+            byte[] line;
+            while ((line = reader.next()) != null) {
+                if (reader.isOversized()) {
+                    result.fail(reader.lineNumber(), "超过单行大小上限" + maxLineBytes);
+                    continue;
+                }
+                int first = firstNonWhitespace(line);
+                if (first < 0) {
+                    continue;
+                }
+                if (line[first] != '{') {
+                    result.fail(reader.lineNumber(), "不是JSON对象");
+                    continue;
+                }
+                if (offer(runtime, line, hash, timeoutNanos)) {
+                    result.queue();
+                    continue;
+                }
+                if (!runtime.isRunning()) {
+                    result.fail(reader.lineNumber(), "流水线已停止");
+                    result.setComplete(false);
+                    break;
+                }
+                result.fail(reader.lineNumber(), timeoutNanos > 0 ? "流水线繁忙，之后的行不再等待" : "流水线繁忙");
+                timeoutNanos = 0;
+            }
+        } catch (IOException e) {
+            LOGGER.warn("===== ingest body read failed: {}, line: {}, {}", id, reader.lineNumber(), e.getMessage());
+            result.error(reader.lineNumber() + 1, "请求体读取失败: " + e.getMessage());
+            result.setComplete(false);
+        }
+        return result;
+    }
+
+    private static boolean offer(PipelineRuntime runtime, byte[] line, int hash, long timeoutNanos) {
+        if (runtime.offer(line, Acknowledgement.NONE, hash)) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (runtime.isRunning() && deadline - System.nanoTime() > 0) {
+            LockSupport.parkNanos(OFFER_PARK_NANOS);
+            if (runtime.offer(line, Acknowledgement.NONE, hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int firstNonWhitespace(byte[] line) {
+        for (int i = 0; i < line.length; i++) {
+            byte b = line[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) & Integer.MAX_VALUE;
+    }
+
+}
@@ -1,10 +1,19 @@
 package priv.eric.pelee.application.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import priv.eric.pelee.application.factory.ProcessorFactory;
+import priv.eric.pelee.application.factory.InputFactory;
+import priv.eric.pelee.application.factory.OutputFactory;
+import priv.eric.pelee.application.factory.PipelineFactory;
+import priv.eric.pelee.application.init.PipelineRegistry;
+import priv.eric.pelee.application.runtime.PipelineRuntime;
+import priv.eric.pelee.application.runtime.PipelineRuntimeManager;
+import priv.eric.pelee.domain.model.Input;
+import priv.eric.pelee.domain.model.Output;
 import priv.eric.pelee.domain.model.Pipeline;
+import priv.eric.pelee.domain.model.PipelineDefinition;
 import priv.eric.pelee.infrastructure.util.JsonUtil;
 
 import javax.annotation.PostConstruct;
@@ -12,6 +21,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -23,34 +37,145 @@ import java.util.stream.Stream;
 @Component
 public class PipelineManager {
 
-    private final ProcessorFactory processorFactory;
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineManager.class);
+
+    private static final String SUFFIX = ".json";
+
+    private final PipelineFactory pipelineFactory;
+
+    private final InputFactory inputFactory;
+
+    private final OutputFactory outputFactory;
+
+    private final PipelineRegistry pipelineRegistry;
+
+    private final PipelineRuntimeManager runtimeManager;
+
+    /**
+     * 当前生效的流水线配置，用于判断文件变化后能否直接替换执行计划
+     */
+    private final Map<String, PipelineDefinition> definitions = new ConcurrentHashMap<>();
 
     @Value("${processor.dialog-record.path:}")
     private String baseDir;
 
-    public PipelineManager(ProcessorFactory processorFactory) {
-        this.processorFactory = processorFactory;
+    public PipelineManager(PipelineFactory pipelineFactory, InputFactory inputFactory, OutputFactory outputFactory,
+                           PipelineRegistry pipelineRegistry, PipelineRuntimeManager runtimeManager) {
+        this.pipelineFactory = pipelineFactory;
+        this.inputFactory = inputFactory;
+        this.outputFactory = outputFactory;
+        this.pipelineRegistry = pipelineRegistry;
+        this.runtimeManager = runtimeManager;
     }
 
     @PostConstruct
     public void init() throws IOException {
+        if (baseDir == null || baseDir.isEmpty()) {
+            LOGGER.warn("===== pipeline path is empty");
+            return;
+        }
         Path basePath = Paths.get(baseDir);
+        List<Path> files;
         try (Stream<Path> paths = Files.walk(basePath)) {
-            paths.filter(p -> {
-                String pathName = p.getFileName().toString();
-                return pathName.endsWith(".json");
-            }).toList();
+            files = paths.filter(PipelineManager::isPipelineFile).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            load(file);
         }
     }
 
-    public JsonNode readConfig(Path path) throws IOException {
-        String config = Files.readString(path);
-        JsonNode node = JsonUtil.convertValue(config, JsonNode.class);
+    /**
+     * 加载或重新加载流水线文件
+     * <p>
+     * 配置未变化时直接返回，不创建处理器；新版本先完整编译，失败时保留旧版本继续运行；
+     * 输入输出与运行时结构未变时只替换执行计划，队列中的事件不受影响，否则重建该流水线的运行时；
+     * 新版本生效后才注册其仪表
+     *
+     * @param file 流水线文件
+     * @return 是否加载成功
+     */
+    public synchronized boolean load(Path file) {
+        String id = pipelineId(file);
+        PipelineDefinition definition;
+        try {
+            definition = readConfig(file);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("===== load pipeline failed, keep previous version: {}", id, e);
+            return false;
+        }
+        PipelineDefinition previous = definitions.get(id);
+        if (definition.equals(previous)) {
+            return true;
+        }
+        Pipeline pipeline;
+        try {
+            pipeline = pipelineFactory.create(id, definition);
+        } catch (RuntimeException e) {
+            LOGGER.error("===== load pipeline failed, keep previous version: {}", id, e);
+            return false;
+        }
+        PipelineRuntime runtime = runtimeManager.get(id);
+        if (runtime != null && previous != null && sameEndpoints(previous, definition)
+                && runtime.canSwap(definition.getSettings())) {
+            runtime.swap(pipeline);
+        } else {
+            Input input;
+            List<Output> outputs;
+            try {
+                input = inputFactory.create(definition.getInput());
+                outputs = outputFactory.create(definition.getOutput());
+            } catch (RuntimeException e) {
+                LOGGER.error("===== create endpoints failed, keep previous version: {}", id, e);
+                return false;
+            }
+            runtimeManager.stop(id);
+            PipelineRuntime started = runtimeManager.start(pipeline, input, outputs);
+            inputFactory.registerGauges(id, input, definition.getSettings());
+            outputFactory.registerGauges(id, outputs, started.getOutputGauges(), definition.getSettings());
+        }
+        pipelineFactory.registerGauges(pipeline);
+        pipelineRegistry.put(id, pipeline);
+        definitions.put(id, definition);
+        LOGGER.info("===== register pipeline: {}", id);
+        return true;
+    }
+
+    /**
+     * 卸载流水线，队列中剩余事件处理完成后停止
+     *
+     * @param file 已删除的流水线文件
+     */
+    public synchronized void unload(Path file) {
+        String id = pipelineId(file);
+        if (definitions.remove(id) == null) {
+            return;
+        }
+        runtimeManager.stop(id);
+        pipelineRegistry.remove(id);
+        LOGGER.info("===== unregister pipeline: {}", id);
+    }
 
+    private static boolean sameEndpoints(PipelineDefinition previous, PipelineDefinition next) {
+        return Objects.equals(previous.getInput(), next.getInput())
+                && Objects.equals(previous.getOutput(), next.getOutput());
     }
 
+    public String getBaseDir() {
+        return baseDir;
+    }
 
+    public PipelineDefinition readConfig(Path path) throws IOException {
+        byte[] config = Files.readAllBytes(path);
+        return JsonUtil.getObjectMapper().readValue(config, PipelineDefinition.class);
+    }
 
+    public static boolean isPipelineFile(Path path) {
+        return path.getFileName().toString().endsWith(SUFFIX);
+    }
 
+    public static String pipelineId(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.substring(0, fileName.length() - SUFFIX.length());
+    }
 
 }
@@ -0,0 +1,147 @@
+package priv.eric.pelee.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * desc: 监听流水线目录，文件新增、修改、删除后重新加载对应流水线
+ * <p>
+ * 编辑器保存文件通常会触发多次事件，收到事件后等待目录静默一段时间再统一处理
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 16:10
+ */
+@Component
+public class PipelineWatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineWatcher.class);
+
+    private static final long QUIET_MILLIS = 300;
+
+    private final PipelineManager pipelineManager;
+
+    @Value("${processor.dialog-record.watch:true}")
+    private boolean enabled;
+
+    private WatchService watchService;
+
+    private Thread thread;
+
+    public PipelineWatcher(PipelineManager pipelineManager) {
+        this.pipelineManager = pipelineManager;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        String baseDir = pipelineManager.getBaseDir();
+        if (!enabled || baseDir == null || baseDir.isEmpty()) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        registerAll(Paths.get(baseDir));
+        thread = new Thread(this::watch, "pelee-pipeline-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        LOGGER.info("===== watching pipeline path: {}", baseDir);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void registerAll(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path dir : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        }
+    }
+
+    private void watch() {
+        Set<Path> changed = new LinkedHashSet<>();
+        try {
+            while (true) {
+                WatchKey key = changed.isEmpty()
+                        ? watchService.take()
+                        : watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    reload(changed);
+                    changed.clear();
+                    continue;
+                }
+                collect(key, changed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 应用关闭
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                rescan(changed);
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    registerAll(path);
+                    rescan(changed);
+                } catch (IOException e) {
+                    LOGGER.warn("===== watch directory failed: {}", path, e);
+                }
+            } else if (PipelineManager.isPipelineFile(path)) {
+                changed.add(path);
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * 事件丢失或新增目录时扫描整个目录
+     */
+    private void rescan(Set<Path> changed) {
+        try (Stream<Path> paths = Files.walk(Paths.get(pipelineManager.getBaseDir()))) {
+            paths.filter(PipelineManager::isPipelineFile).forEach(changed::add);
+        } catch (IOException e) {
+            LOGGER.warn("===== rescan pipeline path failed", e);
+        }
+    }
+
+    private void reload(Set<Path> changed) {
+        for (Path path : changed) {
+            if (Files.exists(path)) {
+                pipelineManager.load(path);
+            } else {
+                pipelineManager.unload(path);
+            }
+        }
+    }
+
+}
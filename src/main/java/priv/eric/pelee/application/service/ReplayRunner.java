@@ -0,0 +1,358 @@
+package priv.eric.pelee.application.service;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import priv.eric.pelee.application.factory.PipelineFactory;
+import priv.eric.pelee.application.factory.ProcessorFactory;
+import priv.eric.pelee.application.runtime.PipelineRuntime;
+import priv.eric.pelee.domain.model.Acknowledgement;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.domain.model.Pipeline;
+import priv.eric.pelee.domain.model.PipelineDefinition;
+import priv.eric.pelee.infrastructure.codec.NdjsonReader;
+import priv.eric.pelee.infrastructure.flow.TokenBucket;
+import priv.eric.pelee.infrastructure.metrics.PipelineMetrics;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+import priv.eric.pelee.plugin.output.FileOutput;
+import priv.eric.pelee.plugin.output.FileOutputConfig;
+import priv.eric.pelee.plugin.output.NullOutput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * desc: 回放压测，将NDJSON采集文件以最大速度或指定速率灌入一条流水线并输出报告
+ * <p>
+ * 以 --replay.pipeline=流水线文件 --replay.input=采集文件 启动时生效，此时应用不启动Web服务，
+ * 也不加载流水线目录。流水线的输入输出配置被忽略，事件直接投递到独立的运行时，
+ * 输出到空输出端（默认）或replay.output指定的文件；指标记录在独立的注册表中，不与线上指标混合。
+ * 结束时报告事件数与字节吞吐、各阶段单批耗时分位数、端到端耗时分位数以及内存分配速率
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 17:30
+ */
+@Component
+public class ReplayRunner implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplayRunner.class);
+
+    private static final String PIPELINE_ARG = "--replay.pipeline=";
+
+    private static final long OFFER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * 回放期间的耗时分位数在整个回放过程中累计，不按时间窗口衰减
+     */
+    private static final MeterFilter CUMULATIVE_PERCENTILES = new MeterFilter() {
+        @Override
+        public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+            return DistributionStatisticConfig.builder()
+                    .percentiles(PERCENTILES)
+                    .percentilePrecision(2)
+                    .expiry(Duration.ofDays(365))
+                    .bufferLength(1)
+                    .build()
+                    .merge(config);
+        }
+    };
+
+    private final ProcessorFactory processorFactory;
+
+    @Value("${replay.pipeline:}")
+    private String pipelinePath;
+
+    @Value("${replay.input:}")
+    private String inputPath;
+
+    /**
+     * 输出文件，为空时使用空输出端
+     */
+    @Value("${replay.output:}")
+    private String outputPath;
+
+    /**
+     * 目标速率（事件/秒），0表示不限速
+     */
+    @Value("${replay.rate:0}")
+    private double rate;
+
+    /**
+     * 采集文件重复回放的次数
+     */
+    @Value("${replay.loops:1}")
+    private int loops;
+
+    @Value("${ingest.max-line-bytes:1048576}")
+    private int maxLineBytes;
+
+    public ReplayRunner(ProcessorFactory processorFactory) {
+        this.processorFactory = processorFactory;
+    }
+
+    /**
+     * 命令行参数是否要求回放
+     */
+    public static boolean isReplay(String[] args) {
+        return Arrays.stream(args).anyMatch(arg -> arg.startsWith(PIPELINE_ARG) && arg.length() > PIPELINE_ARG.length());
+    }
+
+    /**
+     * 回放模式的启动参数，追加的参数优先级高于配置文件，关闭流水线目录的加载与监听
+     */
+    public static String[] replayArgs(String[] args) {
+        String[] replay = Arrays.copyOf(args, args.length + 2);
+        replay[args.length] = "--processor.dialog-record.path=";
+        replay[args.length + 1] = "--processor.dialog-record.watch=false";
+        return replay;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (pipelinePath == null || pipelinePath.isEmpty()) {
+            return;
+        }
+        if (inputPath == null || inputPath.isEmpty()) {
+            throw new IllegalArgumentException("回放缺少采集文件replay.input");
+        }
+        if (rate < 0 || loops <= 0) {
+            throw new IllegalArgumentException("回放速率与次数配置无效: " + rate + ", " + loops);
+        }
+        Path config = Paths.get(pipelinePath);
+        Path input = Paths.get(inputPath);
+        PipelineDefinition definition = JsonUtil.getObjectMapper().readValue(Files.readAllBytes(config),
+                PipelineDefinition.class);
+        definition.getSettings().setMetricsEnabled(true);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(CUMULATIVE_PERCENTILES);
+        String id = PipelineManager.pipelineId(config);
+        Pipeline pipeline = new PipelineFactory(processorFactory, new PipelineMetrics(registry)).create(id, definition);
+        Output sink = outputPath == null || outputPath.isEmpty() ? new NullOutput() : new FileOutput(fileConfig());
+        PipelineRuntime runtime = new PipelineRuntime(pipeline, null, Collections.singletonList(sink));
+        LOGGER.info("===== replay start: {}, input: {}, output: {}, rate: {}, loops: {}", id, input, sink.type(),
+                rate > 0 ? rate : "unlimited", loops);
+
+        LongAdder completed = new LongAdder();
+        Acknowledgement ack = completed::increment;
+        TokenBucket bucket = rate > 0 ? new TokenBucket(rate, Math.max(1, rate / 100)) : null;
+        Counts counts = new Counts();
+        long allocatedBefore = allocatedBytes();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long start = System.nanoTime();
+        long elapsed;
+        long allocated;
+        runtime.start();
+        try {
+            for (int loop = 0; loop < loops; loop++) {
+                feed(runtime, input, ack, bucket, counts, start);
+            }
+            long deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+            while (completed.sum() < counts.offered) {
+                if (System.nanoTime() - deadline > 0) {
+                    LOGGER.warn("===== replay drain timeout: {}, completed: {}, offered: {}", id, completed.sum(),
+                            counts.offered);
+                    break;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            elapsed = System.nanoTime() - start;
+            allocated = allocatedBytes() - allocatedBefore;
+        } finally {
+            runtime.stop(30, TimeUnit.SECONDS);
+        }
+        report(id, registry, (GaugeAware) sink, counts, completed.sum(), elapsed,
+                allocatedBefore < 0 ? -1 : allocated, gcCount() - gcCountBefore, gcMillis() - gcMillisBefore);
+    }
+
+    private void feed(PipelineRuntime runtime, Path input, Acknowledgement ack, TokenBucket bucket, Counts counts,
+                      long start) throws IOException {
+        long nextProgress = System.nanoTime() + PROGRESS_INTERVAL_NANOS;
+        try (InputStream in = open(input)) {
+            NdjsonReader reader = new NdjsonReader(in, maxLineBytes);
+            byte[] line;
+            while ((line = reader.next()) != null) {
+                if (reader.isOversized()) {
+                    counts.skipped++;
+                    continue;
+                }
+                if (isBlank(line)) {
+                    continue;
+                }
+                if (bucket != null) {
+                    long wait = bucket.reserve(1);
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                while (!runtime.offer(line, ack, -1)) {
+                    if (!runtime.isRunning()) {
+                        throw new IllegalStateException("流水线已停止: " + runtime.getId());
+                    }
+                    LockSupport.parkNanos(OFFER_PARK_NANOS);
+                }
+                counts.offered++;
+                counts.bytes += line.length;
+                if ((counts.offered & 0xFFF) == 0 && System.nanoTime() - nextProgress > 0) {
+                    nextProgress += PROGRESS_INTERVAL_NANOS;
+                    LOGGER.info("===== replay progress: {} events, {} events/s", counts.offered,
+                            format(perSecond(counts.offered, System.nanoTime() - start)));
+                }
+            }
+        }
+    }
+
+    private FileOutputConfig fileConfig() {
+        FileOutputConfig config = new FileOutputConfig();
+        config.setPath(outputPath);
+        return config;
+    }
+
+    private static InputStream open(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        return path.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in, 64 * 1024) : in;
+    }
+
+    private static boolean isBlank(byte[] line) {
+        for (byte b : line) {
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void report(String id, SimpleMeterRegistry registry, GaugeAware sink, Counts counts, long completed,
+                               long elapsedNanos, long allocated, long gcCount, long gcMillis) {
+        double sentEvents = sink.gauges().get("sent_events").getAsDouble();
+        double sentBytes = sink.gauges().get("sent_bytes").getAsDouble();
+        LOGGER.info("===== replay finished: {}, offered: {}, completed: {}, output: {}, skipped: {}, elapsed: {} s",
+                id, counts.offered, completed, (long) sentEvents, counts.skipped,
+                format(elapsedNanos / 1e9));
+        LOGGER.info("===== replay throughput: {} events/s, input {} MB/s, output {} MB/s",
+                format(perSecond(counts.offered, elapsedNanos)),
+                format(perSecond(counts.bytes, elapsedNanos) / 1e6),
+                format(perSecond(sentBytes, elapsedNanos) / 1e6));
+        if (allocated >= 0) {
+            LOGGER.info("===== replay allocation: {} MB/s, {} bytes/event, gc: {} collections, {} ms",
+                    format(perSecond(allocated, elapsedNanos) / 1e6),
+                    format(counts.offered == 0 ? 0 : (double) allocated / counts.offered), gcCount, gcMillis);
+        } else {
+            LOGGER.info("===== replay allocation: unsupported by jvm, gc: {} collections, {} ms", gcCount, gcMillis);
+        }
+        latency("pipeline batch", registry.find("pelee.pipeline.batch.latency").timer());
+        latency("end to end", registry.find("pelee.pipeline.end_to_end.latency").timer());
+        List<Timer> stages = new ArrayList<>(registry.find("pelee.stage.batch.latency").timers());
+        stages.sort(Comparator.comparingInt(timer -> Integer.parseInt(timer.getId().getTag("index"))));
+        for (Timer stage : stages) {
+            latency(stage.getId().getTag("index") + " " + stage.getId().getTag("processor"), stage);
+        }
+    }
+
+    private static void latency(String label, Timer timer) {
+        if (timer == null || timer.count() == 0) {
+            return;
+        }
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        StringBuilder percentiles = new StringBuilder();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            percentiles.append(", p").append(format(value.percentile() * 100))
+                    .append(' ').append(format(value.value(TimeUnit.MICROSECONDS))).append(" us");
+        }
+        LOGGER.info("===== replay latency [{}]: count {}, mean {} us{}, max {} us", label, snapshot.count(),
+                format(snapshot.mean(TimeUnit.MICROSECONDS)), percentiles,
+                format(snapshot.max(TimeUnit.MICROSECONDS)));
+    }
+
+    private static double perSecond(double amount, long nanos) {
+        return nanos <= 0 ? 0 : amount * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+
+    /**
+     * 所有存活线程累计分配的字节数，不支持时返回-1；回放期间结束的线程不计入
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+        if (!allocation.isThreadAllocatedMemorySupported() || !allocation.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : allocation.getThreadAllocatedBytes(allocation.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * 投递统计，只由投递线程访问
+     */
+    private static final class Counts {
+
+        private long offered;
+
+        private long bytes;
+
+        private long skipped;
+
+    }
+
+}
@@ -0,0 +1,17 @@
+package priv.eric.pelee.domain.model;
+
+/**
+ * desc: 事件处理完成回调，输入端据此推进消费进度
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 18:02
+ */
+@FunctionalInterface
+public interface Acknowledgement {
+
+    Acknowledgement NONE = () -> {
+    };
+
+    void acknowledge();
+
+}
@@ -0,0 +1,47 @@
+package priv.eric.pelee.domain.model;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * desc: 异步处理器，适用于调用外部服务补全字段等I/O密集的阶段
+ * <p>
+ * {@link #processAsync(Event)}应立即返回，由非阻塞客户端完成I/O，不占用工作线程；
+ * 同一阶段的在途调用数由流水线配置中的max_in_flight限制，一批事件全部完成后才进入下一阶段，
+ * 事件离开阶段的顺序与进入时一致，不受完成先后影响；
+ * 返回的阶段必须在底层调用真正结束后才完成，在途上限按此计算，超时也由实现交给底层客户端处理
+ * <p>
+ * 线程约束：实现可以在客户端的回调线程上修改事件数据，不需要加锁，前提是只修改本次调用的事件，
+ * 且在返回的阶段完成前写完。{@link AsyncProcessorWrapper}会等整批事件的阶段全部结束后才返回，
+ * 某个事件失败时也是如此，所以下一阶段、输出端和批次重试都不会与回调并发访问同一事件；
+ * join同时保证了回调线程上的写入对工作线程可见。修改包装器时必须保持这一点
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 17:05
+ */
+public interface AsyncProcessor<T> extends Processor<T> {
+
+    /**
+     * 异步处理单个事件
+     *
+     * @param event 事件
+     * @return 处理完成时结束的阶段，异常结束视为处理失败
+     */
+    CompletionStage<?> processAsync(Event<T> event);
+
+    /**
+     * 创建阶段时传入配置的timeout_ms，实现应让超时的调用在底层结束并按自身的失败策略处理
+     *
+     * @param timeoutMs 单个事件的超时时间，小于等于0表示不超时
+     */
+    default void setTimeoutMs(long timeoutMs) {
+    }
+
+    /**
+     * 同步调用时等待异步处理完成
+     */
+    @Override
+    default void process(Event<T> event) {
+        processAsync(event).toCompletableFuture().join();
+    }
+
+}
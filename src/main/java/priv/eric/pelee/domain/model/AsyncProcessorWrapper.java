@@ -0,0 +1,101 @@
+package priv.eric.pelee.domain.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * desc: 异步处理器的阶段包装
+ * <p>
+ * 一批事件的调用依次发出，信号量限制整个阶段（跨全部工作线程）的在途调用数，达到上限时工作线程等待，
+ * 形成对输入端的背压；许可在处理器返回的阶段完成、即底层调用结束时才归还；
+ * 超时交给处理器在底层客户端上实现，超时的调用与其他失败一样由处理器决定忽略还是失败；
+ * 整批完成后才返回，任一事件失败时抛出第一个异常，与同步处理器的失败语义一致
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 17:12
+ */
+public class AsyncProcessorWrapper<C> extends ProcessorWrapper<C> {
+
+    private final AsyncProcessor asyncProcessor;
+
+    private final Semaphore inFlight;
+
+    public AsyncProcessorWrapper(String name, AsyncProcessor processor, C config, int maxInFlight, long timeoutMs) {
+        super(name, processor, config);
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("max_in_flight必须大于0: " + name);
+        }
+        this.asyncProcessor = processor;
+        this.inFlight = new Semaphore(maxInFlight);
+        processor.setTimeoutMs(timeoutMs);
+    }
+
+    @Override
+    protected void invoke(Event event) {
+        invokeBatch(Collections.singletonList(event));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void invokeBatch(List<Event<?>> events) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[events.size()];
+        int submitted = 0;
+        RuntimeException failure = null;
+        try {
+            for (Event event : events) {
+                inFlight.acquire();
+                CompletableFuture<?> future;
+                try {
+                    future = asyncProcessor.processAsync(event).toCompletableFuture();
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                futures[submitted++] = future.whenComplete((result, error) -> inFlight.release());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new IllegalStateException("异步处理被中断: " + getName(), e);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        RuntimeException completion = await(futures, submitted);
+        if (failure != null) {
+            throw failure;
+        }
+        if (completion != null) {
+            throw completion;
+        }
+    }
+
+    /**
+     * 等待已发出的调用全部结束，提前失败时也要等待，避免事件在后续阶段被并发修改
+     *
+     * @return 第一个失败，全部成功时返回null
+     */
+    private RuntimeException await(CompletableFuture<?>[] futures, int submitted) {
+        RuntimeException first = null;
+        for (int i = 0; i < submitted; i++) {
+            try {
+                futures[i].join();
+            } catch (CompletionException e) {
+                if (first == null) {
+                    first = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            } catch (RuntimeException e) {
+                if (first == null) {
+                    first = e;
+                }
+            }
+        }
+        return first;
+    }
+
+    public int availableInFlight() {
+        return inFlight.availablePermits();
+    }
+
+}
@@ -0,0 +1,143 @@
+package priv.eric.pelee.domain.model;
+
+import priv.eric.pelee.infrastructure.codec.RawFields;
+
+/**
+ * desc: 事件
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 14:20
+ */
+public class Event<T> {
+
+    private T data;
+
+    private Acknowledgement ack = Acknowledgement.NONE;
+
+    /**
+     * 按需解析时未被解析的原始字段，完整解析时为null
+     */
+    private RawFields rawFields;
+
+    /**
+     * 事件对象复用时留下的原始字段对象，下次按需解析时复用其数组
+     */
+    private RawFields spareRawFields;
+
+    /**
+     * 进入流水线的时间（System.nanoTime），用于统计端到端耗时
+     */
+    private long ingestNanos;
+
+    /**
+     * 是否已被过滤，被过滤的事件不再经过后续阶段，也不会写入输出端
+     */
+    private boolean dropped;
+
+    /**
+     * 是否为批次失败后的逐条重试，首次整批执行时去重等有状态处理器可能已记录过该事件
+     */
+    private boolean retried;
+
+    public Event() {
+    }
+
+    public Event(T data) {
+        this.data = data;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public void setData(T data) {
+        this.data = data;
+    }
+
+    public Acknowledgement getAck() {
+        return ack;
+    }
+
+    public void setAck(Acknowledgement ack) {
+        this.ack = ack;
+    }
+
+    public RawFields getRawFields() {
+        return rawFields;
+    }
+
+    public void setRawFields(RawFields rawFields) {
+        this.rawFields = rawFields;
+    }
+
+    /**
+     * 取出可复用的原始字段对象并指向新的原始字节，没有时新建
+     */
+    public RawFields obtainRawFields(byte[] source) {
+        RawFields raw = spareRawFields;
+        if (raw == null) {
+            return new RawFields(source);
+        }
+        spareRawFields = null;
+        return raw.reset(source);
+    }
+
+    public long getIngestNanos() {
+        return ingestNanos;
+    }
+
+    public void setIngestNanos(long ingestNanos) {
+        this.ingestNanos = ingestNanos;
+    }
+
+    public boolean isDropped() {
+        return dropped;
+    }
+
+    /**
+     * 过滤事件；批量处理中过滤事件的处理器还需将其从批次中移除
+     */
+    public void drop() {
+        this.dropped = true;
+    }
+
+    public boolean isRetried() {
+        return retried;
+    }
+
+    /**
+     * 以投递时的原始数据重置事件并标记为重试，保留确认回调与进入时间
+     */
+    public void rewind(T data) {
+        if (rawFields != null) {
+            spareRawFields = rawFields.reset(null);
+            rawFields = null;
+        }
+        this.data = data;
+        dropped = false;
+        retried = true;
+    }
+
+    /**
+     * 清空事件以便复用，由预分配事件对象的传输层在事件不再被引用后调用
+     */
+    public void recycle() {
+        if (rawFields != null) {
+            spareRawFields = rawFields.reset(null);
+            rawFields = null;
+        }
+        data = null;
+        ack = Acknowledgement.NONE;
+        ingestNanos = 0L;
+        dropped = false;
+        retried = false;
+    }
+
+    /**
+     * 通知输入端事件已处理完成
+     */
+    public void acknowledge() {
+        ack.acknowledge();
+    }
+
+}
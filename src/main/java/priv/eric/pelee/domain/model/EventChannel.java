@@ -0,0 +1,47 @@
+package priv.eric.pelee.domain.model;
+
+/**
+ * desc: 输入端向流水线投递事件的通道
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 18:04
+ */
+public interface EventChannel {
+
+    /**
+     * 投递事件，不阻塞
+     *
+     * @param event 事件
+     * @param hash  分区哈希，配置了partition_key时以事件中的分区键为准，缺少分区键时使用该值，负数表示轮询分配
+     * @return 下游队列已满或流水线已停止时返回false，调用方应暂停并稍后重试
+     */
+    boolean offer(Event<?> event, int hash);
+
+    /**
+     * 投递事件数据，由通道将其写入复用的事件对象，输入端无需为每条记录创建事件
+     *
+     * @param data 事件数据，通常为原始字节
+     * @param ack  事件处理完成后的确认
+     * @param hash 分区哈希，配置了partition_key时以事件中的分区键为准，缺少分区键时使用该值，负数表示轮询分配
+     * @return 下游队列已满或流水线已停止时返回false，调用方应暂停并稍后重试
+     */
+    default boolean offer(Object data, Acknowledgement ack, int hash) {
+        Event<Object> event = new Event<>(data);
+        event.setAck(ack);
+        return offer(event, hash);
+    }
+
+    /**
+     * 下游最小剩余容量，用于输入端提前暂停拉取
+     */
+    int remainingCapacity();
+
+    /**
+     * 输入端遇到无法恢复的错误并停止投递时调用，通道据此将流水线标记为失败，可恢复的错误应由输入端自行重试
+     *
+     * @param cause 导致输入端停止的异常
+     */
+    default void fail(Throwable cause) {
+    }
+
+}
@@ -0,0 +1,30 @@
+package priv.eric.pelee.domain.model;
+
+import java.util.List;
+
+/**
+ * desc: 主动产生事件的处理器，例如窗口聚合
+ * <p>
+ * 运行时定期调用{@link #emit(List)}，产生的事件不再经过后续处理器，直接写入流水线的输出端；
+ * 流水线停止或执行计划被替换时调用{@link #flush(List)}输出尚未关闭的窗口
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 21:20
+ */
+public interface EventEmitter {
+
+    /**
+     * 追加到期产生的事件
+     *
+     * @param out 输出列表
+     */
+    void emit(List<Event<?>> out);
+
+    /**
+     * 追加全部未输出的事件，之后不再持有状态
+     *
+     * @param out 输出列表
+     */
+    void flush(List<Event<?>> out);
+
+}
@@ -0,0 +1,23 @@
+package priv.eric.pelee.domain.model;
+
+import priv.eric.pelee.infrastructure.util.FieldPath;
+
+import java.util.Collection;
+
+/**
+ * desc: 声明处理器读写的字段
+ * <p>
+ * 流水线中全部处理器都实现该接口时才能启用按需解析，未声明的字段不会被解析
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 10:05
+ */
+public interface FieldAware {
+
+    /**
+     * 处理器读取或写入的全部路径，包括写入的目标路径；
+     * 只被删除的顶层字段无需解析，可不声明，由处理器通过RawFields#drop丢弃其原始字节
+     */
+    Collection<FieldPath> referencedPaths();
+
+}
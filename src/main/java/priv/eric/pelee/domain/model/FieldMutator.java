@@ -0,0 +1,23 @@
+package priv.eric.pelee.domain.model;
+
+import priv.eric.pelee.infrastructure.util.FieldOperation;
+
+import java.util.List;
+
+/**
+ * desc: 只做字段移动与删除的处理器
+ * <p>
+ * 处理器对事件的效果必须与按顺序执行{@link #operations()}完全一致，
+ * 流水线据此将相邻的此类处理器融合为一次遍历
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 09:05
+ */
+public interface FieldMutator {
+
+    /**
+     * 处理器对每个事件执行的操作，按执行顺序排列
+     */
+    List<FieldOperation> operations();
+
+}
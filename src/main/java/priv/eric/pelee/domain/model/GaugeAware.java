@@ -0,0 +1,21 @@
+package priv.eric.pelee.domain.model;
+
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * desc: 对外暴露内部状态指标的处理器或输出端
+ * <p>
+ * 流水线创建时按流水线与处理器（或输出端）打标签注册为仪表，取值函数在抓取指标时调用，需线程安全且开销小
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 20:10
+ */
+public interface GaugeAware {
+
+    /**
+     * 指标名称（不含前缀）到取值函数的映射
+     */
+    Map<String, DoubleSupplier> gauges();
+
+}
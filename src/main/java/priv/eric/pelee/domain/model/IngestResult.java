@@ -0,0 +1,66 @@
+package priv.eric.pelee.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * desc: 一次批量写入的结果
+ * <p>
+ * 写入接口只做行级的快速检查，JSON在工作线程上解析，解析失败的行被丢弃且不会回报给调用方，
+ * 因此queued是进入流水线队列的行数，并不保证每行都被处理
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 14:20
+ */
+@Data
+public class IngestResult {
+
+    /**
+     * 保留的错误明细条数
+     */
+    private static final int MAX_ERRORS = 20;
+
+    /**
+     * 已进入流水线队列的行数，其中JSON不合法的行之后会在工作线程上被丢弃
+     */
+    private long queued;
+
+    /**
+     * 被拒绝的行数，空行不计入
+     */
+    private long failed;
+
+    /**
+     * 请求体是否完整读取
+     */
+    private boolean complete = true;
+
+    /**
+     * 前若干条错误，格式为"行号: 原因"
+     */
+    private List<String> errors = new ArrayList<>();
+
+    @JsonProperty("error_truncated")
+    private boolean errorTruncated;
+
+    public void queue() {
+        queued++;
+    }
+
+    public void fail(long line, String reason) {
+        failed++;
+        error(line, reason);
+    }
+
+    public void error(long line, String reason) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(line + ": " + reason);
+        } else {
+            errorTruncated = true;
+        }
+    }
+
+}
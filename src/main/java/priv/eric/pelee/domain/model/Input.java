@@ -0,0 +1,21 @@
+package priv.eric.pelee.domain.model;
+
+/**
+ * desc: 输入端
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 18:06
+ */
+public interface Input extends AutoCloseable {
+
+    String type();
+
+    /**
+     * 开始向通道投递事件，实现应在自有线程中运行
+     */
+    void start(EventChannel channel);
+
+    @Override
+    void close();
+
+}
@@ -0,0 +1,17 @@
+package priv.eric.pelee.domain.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * desc: 输入端工厂，按流水线配置中input.type匹配
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 18:08
+ */
+public interface InputProvider {
+
+    String type();
+
+    Input create(JsonNode config);
+
+}
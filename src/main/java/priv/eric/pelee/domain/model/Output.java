@@ -0,0 +1,63 @@
+package priv.eric.pelee.domain.model;
+
+import priv.eric.pelee.infrastructure.codec.EncodedBatch;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * desc: 输出端，按批次接收处理完成的事件
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 16:10
+ */
+public interface Output extends AutoCloseable {
+
+    String type();
+
+    /**
+     * 写入一批事件，由多个流水线工作线程并发调用，实现需线程安全且不应长时间阻塞；
+     * 事件对象在返回后会被复用，需要异步写出的实现应在返回前序列化或拷贝事件数据
+     */
+    void write(List<Event<?>> events);
+
+    /**
+     * 写入一批事件及其序列化结果，多个输出端共享同一份只读字节，实现不得修改事件；
+     * 仅在{@link #acceptsEncoded()}返回true时调用，从磁盘溢出队列回放的批次events为空，以encoded为准
+     */
+    default void write(List<Event<?>> events, EncodedBatch encoded) {
+        write(events);
+    }
+
+    /**
+     * 写入一批事件，返回的结果在这些事件确认送达或最终失败时完成，流水线据此确认事件、推进输入端的消费进度；
+     * 与write一样，事件对象在返回后会被复用。默认调用write并在其返回时完成，适用于返回即已写出的输出端，
+     * 先缓存再异步发送的输出端需覆盖，在最终成功或重试耗尽时完成
+     *
+     * @param encoded 序列化结果，仅在{@link #acceptsEncoded()}返回true时非空
+     */
+    default CompletionStage<Void> send(List<Event<?>> events, EncodedBatch encoded) {
+        if (encoded != null) {
+            write(events, encoded);
+        } else {
+            write(events);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 是否使用序列化后的字节，所有输出端都不需要时流水线不做序列化
+     */
+    default boolean acceptsEncoded() {
+        return false;
+    }
+
+    default void start() {
+    }
+
+    @Override
+    default void close() {
+    }
+
+}
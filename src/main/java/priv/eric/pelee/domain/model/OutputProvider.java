@@ -0,0 +1,17 @@
+package priv.eric.pelee.domain.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * desc: 输出端工厂，按流水线配置中output[].type匹配
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 20:02
+ */
+public interface OutputProvider {
+
+    String type();
+
+    Output create(JsonNode config);
+
+}
@@ -0,0 +1,163 @@
+package priv.eric.pelee.domain.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * desc: 流水线
+ * <p>
+ * 持有编译后的执行计划，创建后不可变，可被多个工作线程共享；
+ * 记录正在使用该计划的批次数，计划被替换后等这些批次全部结束再输出其中未关闭的窗口
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 14:36
+ */
+public class Pipeline {
+
+    /**
+     * 计数最高位，表示计划已被替换
+     */
+    private static final int RETIRED = Integer.MIN_VALUE;
+
+    private final String id;
+
+    private final StageContext plan;
+
+    private final PipelineSettings settings;
+
+    /**
+     * 按需解析时需要解析的顶层字段，null表示完整解析
+     */
+    private final Set<String> referencedRoots;
+
+    /**
+     * 整条流水线的指标，含端到端耗时
+     */
+    private final StageMetrics metrics;
+
+    /**
+     * 计划中主动产生事件的处理器
+     */
+    private final List<EventEmitter> emitters;
+
+    /**
+     * 按配置顺序排列的处理器，融合前的原始列表，用于注册处理器暴露的仪表
+     */
+    private final List<ProcessorWrapper<?>> processors;
+
+    /**
+     * 低位为正在使用该计划的批次数，最高位为替换标记
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile Runnable onDrained;
+
+    public Pipeline(String id, StageContext plan, PipelineSettings settings) {
+        this(id, plan, settings, null);
+    }
+
+    public Pipeline(String id, StageContext plan, PipelineSettings settings, Set<String> referencedRoots) {
+        this(id, plan, settings, referencedRoots, StageMetrics.NONE);
+    }
+
+    public Pipeline(String id, StageContext plan, PipelineSettings settings, Set<String> referencedRoots,
+                    StageMetrics metrics) {
+        this(id, plan, settings, referencedRoots, metrics, Collections.emptyList());
+    }
+
+    public Pipeline(String id, StageContext plan, PipelineSettings settings, Set<String> referencedRoots,
+                    StageMetrics metrics, List<EventEmitter> emitters) {
+        this(id, plan, settings, referencedRoots, metrics, emitters, Collections.emptyList());
+    }
+
+    public Pipeline(String id, StageContext plan, PipelineSettings settings, Set<String> referencedRoots,
+                    StageMetrics metrics, List<EventEmitter> emitters, List<ProcessorWrapper<?>> processors) {
+        this.id = id;
+        this.plan = plan;
+        this.settings = settings;
+        this.referencedRoots = referencedRoots;
+        this.metrics = metrics;
+        this.emitters = Collections.unmodifiableList(emitters);
+        this.processors = Collections.unmodifiableList(processors);
+    }
+
+    public void process(Event<?> event) {
+        plan.next(event);
+    }
+
+    /**
+     * 整批事件依次经过每个阶段，每个阶段只被调用一次
+     */
+    public void processBatch(List<Event<?>> events) {
+        plan.nextBatch(events);
+    }
+
+    /**
+     * 工作线程开始使用该计划处理一个批次
+     *
+     * @return 计划已被替换时返回false，调用方应重新读取当前计划
+     */
+    public boolean enter() {
+        while (true) {
+            int state = inFlight.get();
+            if (state < 0) {
+                return false;
+            }
+            if (inFlight.compareAndSet(state, state + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 批次处理结束，计划已被替换且这是最后一个批次时回调替换时登记的任务
+     */
+    public void exit() {
+        if (inFlight.decrementAndGet() == RETIRED) {
+            onDrained.run();
+        }
+    }
+
+    /**
+     * 标记计划已被替换，之后不再有新批次进入；正在处理的批次全部结束后回调一次，没有时立即回调
+     *
+     * @param onDrained 回调
+     */
+    public void retire(Runnable onDrained) {
+        this.onDrained = onDrained;
+        if (inFlight.getAndUpdate(state -> state | RETIRED) == 0) {
+            onDrained.run();
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public StageContext getPlan() {
+        return plan;
+    }
+
+    public PipelineSettings getSettings() {
+        return settings;
+    }
+
+    public Set<String> getReferencedRoots() {
+        return referencedRoots;
+    }
+
+    public StageMetrics getMetrics() {
+        return metrics;
+    }
+
+    public List<EventEmitter> getEmitters() {
+        return emitters;
+    }
+
+    public List<ProcessorWrapper<?>> getProcessors() {
+        return processors;
+    }
+
+}
@@ -0,0 +1,26 @@
+package priv.eric.pelee.domain.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * desc: 流水线配置文件模型
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 14:34
+ */
+@Data
+public class PipelineDefinition {
+
+    private JsonNode input;
+
+    private List<JsonNode> output = new ArrayList<>();
+
+    private List<ProcessorDefinition> processors = new ArrayList<>();
+
+    private PipelineSettings settings = new PipelineSettings();
+
+}
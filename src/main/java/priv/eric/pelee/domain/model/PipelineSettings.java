@@ -0,0 +1,132 @@
+package priv.eric.pelee.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * desc: 流水线运行参数，对应流水线配置中的settings节点
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 14:30
+ */
+@Data
+public class PipelineSettings {
+
+    /**
+     * 单批最大事件数
+     */
+    @JsonProperty("batch_size")
+    private int batchSize = 256;
+
+    /**
+     * 批次未满时最长等待时间
+     */
+    @JsonProperty("linger_ms")
+    private long lingerMs = 5;
+
+    /**
+     * 阶段执行上下文，对应{@link StageContext#code()}
+     */
+    private String context = "sequence";
+
+    /**
+     * 工作线程数，小于等于0时使用CPU核数
+     */
+    private int workers = 0;
+
+    /**
+     * 每个工作线程的环形缓冲容量，事件槽位在全部输出端写完后才回收，输出端队列中的批次同样占用容量
+     */
+    @JsonProperty("queue_capacity")
+    private int queueCapacity = 8192;
+
+    /**
+     * 工作线程没有事件时的等待方式：busy_spin 一直自旋；yield 自旋后让出CPU；park 自旋、让出后休眠
+     */
+    @JsonProperty("wait_strategy")
+    private String waitStrategy = "park";
+
+    /**
+     * 分区键路径，按顺序取第一个存在的字段，相同键的事件由同一工作线程按序处理；
+     * 分区发生在处理器之前，因此需同时列出重命名前后的字段名
+     */
+    @JsonProperty("partition_key")
+    private List<String> partitionKey = new ArrayList<>();
+
+    /**
+     * 事件解析方式：tree 完整解析；lazy 只解析处理器引用的顶层字段，其余字段以原始字节透传
+     */
+    @JsonProperty("event_mode")
+    private String eventMode = "tree";
+
+    /**
+     * 是否记录指标
+     */
+    @JsonProperty("metrics_enabled")
+    private boolean metricsEnabled = true;
+
+    /**
+     * 耗时采样率：1 每批计时；N 平均每N批计时一次；小于等于0 只计数不计时
+     */
+    @JsonProperty("metrics_sample_rate")
+    private int metricsSampleRate = 1;
+
+    /**
+     * 检查聚合等处理器是否有到期事件的间隔
+     */
+    @JsonProperty("emit_interval_ms")
+    private long emitIntervalMs = 1000;
+
+    /**
+     * 多个输出端时每个输出端独立的待写批次队列容量
+     */
+    @JsonProperty("output_queue_size")
+    private int outputQueueSize = 64;
+
+    /**
+     * 多个输出端时，某个输出端队列已满的处理方式：drop 丢弃该输出端的本批次并照常确认，其余输出端不受影响，
+     * 丢弃的事件数计入pelee.output.overflow_dropped_events；block 阻塞工作线程，一个慢输出端会拖住全部输出端与上游。
+     * 不能丢数据时配置spill_dir，队列满时先溢出到磁盘，磁盘也满时才按此处理
+     */
+    @JsonProperty("output_overflow")
+    private String outputOverflow = "drop";
+
+    /**
+     * 输出端溢出队列目录，为空时不启用；启用后输出端队列满时批次写入磁盘，输出端恢复后按顺序回放
+     */
+    @JsonProperty("spill_dir")
+    private String spillDir;
+
+    /**
+     * 单个溢出段文件大小
+     */
+    @JsonProperty("spill_segment_bytes")
+    private int spillSegmentBytes = 64 * 1024 * 1024;
+
+    /**
+     * 每个输出端溢出文件的总大小上限，达到上限后按output_overflow处理
+     */
+    @JsonProperty("spill_max_bytes")
+    private long spillMaxBytes = 1024L * 1024 * 1024;
+
+    /**
+     * 是否将相邻且无条件的字段变换处理器（rename、remove）融合为一次遍历；排查问题时可关闭以查看每个处理器的指标
+     */
+    @JsonProperty("fuse_processors")
+    private boolean fuseProcessors = true;
+
+    /**
+     * 处理器或输出端失败的事件的处理方式：hold 不确认，输入端不会越过这些事件提交消费进度，重启或再均衡后重新消费；
+     * drop 照常确认，即至多一次。两种方式都计入指标
+     */
+    @JsonProperty("failure_policy")
+    private String failurePolicy = "hold";
+
+    public int resolveWorkers() {
+        return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
+}
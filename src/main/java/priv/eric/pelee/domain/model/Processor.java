@@ -1,5 +1,7 @@
 package priv.eric.pelee.domain.model;
 
+import java.util.List;
+
 /**
  * desc:
  *
@@ -10,4 +12,13 @@ public interface Processor<T> {
 
     void process(Event<T> event);
 
+    /**
+     * 批量处理，默认逐个调用{@link #process(Event)}，处理器可覆盖以在一批事件上紧凑循环
+     */
+    default void processBatch(List<Event<T>> events) {
+        for (Event<T> event : events) {
+            process(event);
+        }
+    }
+
 }
@@ -0,0 +1,39 @@
+package priv.eric.pelee.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+/**
+ * desc: 流水线配置中的单个处理器定义
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 14:32
+ */
+@Data
+public class ProcessorDefinition {
+
+    private String name;
+
+    private String type;
+
+    private JsonNode config;
+
+    /**
+     * 执行条件，只有满足条件的事件才经过该处理器，语法见ConditionCompiler
+     */
+    private JsonNode condition;
+
+    /**
+     * 异步处理器的最大在途调用数，同步处理器忽略
+     */
+    @JsonProperty("max_in_flight")
+    private int maxInFlight = 1024;
+
+    /**
+     * 异步处理器单个事件的超时时间，小于等于0表示不超时
+     */
+    @JsonProperty("timeout_ms")
+    private long timeoutMs = 5000;
+
+}
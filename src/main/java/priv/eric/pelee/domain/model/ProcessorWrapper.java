@@ -1,24 +1,131 @@
 package priv.eric.pelee.domain.model;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import priv.eric.pelee.infrastructure.condition.Condition;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * desc:
  *
  * @author EricTownsChina@outlook.com
  * @date 2026-02-06 14:51
  */
-public class ProcessorWrapper<C> {
+public class ProcessorWrapper<C> implements Stage {
+
+    /**
+     * 满足条件的事件子集，每个工作线程复用同一个列表
+     */
+    private static final ThreadLocal<List<Event<?>>> SELECTED = ThreadLocal.withInitial(ArrayList::new);
+
+    private final String name;
 
     private final Processor processor;
 
     private final C config;
 
-    public ProcessorWrapper(Processor processor, C config) {
+    private volatile StageMetrics metrics = StageMetrics.NONE;
+
+    private Condition condition = Condition.ALWAYS;
+
+    public ProcessorWrapper(String name, Processor processor, C config) {
+        this.name = name;
         this.processor = processor;
         this.config = config;
     }
 
+    @Override
     public void process(Event event) {
+        if (!matches(event)) {
+            return;
+        }
+        StageMetrics stageMetrics = metrics;
+        long start = stageMetrics.start();
+        try {
+            invoke(event);
+        } catch (RuntimeException e) {
+            stageMetrics.failure(1);
+            throw e;
+        }
+        stageMetrics.success(1, start);
+    }
+
+    @Override
+    public void processBatch(List<Event<?>> events) {
+        if (condition == Condition.ALWAYS) {
+            execute(events);
+            return;
+        }
+        List<Event<?>> selected = SELECTED.get();
+        try {
+            for (Event<?> event : events) {
+                if (matches(event)) {
+                    selected.add(event);
+                }
+            }
+            if (selected.isEmpty()) {
+                return;
+            }
+            execute(selected);
+        } finally {
+            selected.clear();
+        }
+        // 子集上被过滤的事件需从整批中移除
+        events.removeIf(Event::isDropped);
+    }
+
+    private void execute(List<Event<?>> events) {
+        StageMetrics stageMetrics = metrics;
+        long start = stageMetrics.start();
+        try {
+            invokeBatch(events);
+        } catch (RuntimeException e) {
+            stageMetrics.failure(events.size());
+            throw e;
+        }
+        stageMetrics.success(events.size(), start);
+    }
+
+    private boolean matches(Event<?> event) {
+        Object data = event.getData();
+        return condition == Condition.ALWAYS || (data instanceof JsonNode && condition.test((JsonNode) data));
+    }
+
+    protected void invoke(Event event) {
         processor.process(event);
     }
 
+    protected void invokeBatch(List<Event<?>> events) {
+        processor.processBatch(events);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Processor getProcessor() {
+        return processor;
+    }
+
+    public C getConfig() {
+        return config;
+    }
+
+    public Condition getCondition() {
+        return condition;
+    }
+
+    public void setCondition(Condition condition) {
+        this.condition = condition != null ? condition : Condition.ALWAYS;
+    }
+
+    public StageMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(StageMetrics metrics) {
+        this.metrics = metrics != null ? metrics : StageMetrics.NONE;
+    }
+
 }
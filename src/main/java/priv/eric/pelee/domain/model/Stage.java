@@ -0,0 +1,19 @@
+package priv.eric.pelee.domain.model;
+
+import java.util.List;
+
+/**
+ * desc: 流水线中的一个阶段
+ * <p>
+ * 阶段由执行计划循环调用，实现必须无状态或线程安全，同一实例会被多个工作线程共享
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 14:22
+ */
+public interface Stage {
+
+    void process(Event<?> event);
+
+    void processBatch(List<Event<?>> events);
+
+}
@@ -0,0 +1,40 @@
+package priv.eric.pelee.domain.model;
+
+import java.util.List;
+
+/**
+ * desc: 阶段执行上下文，通过SPI按code加载
+ * <p>
+ * SPI加载的实例只作为模板，{@link #compile(List)}返回绑定了阶段的不可变执行计划，
+ * 执行计划在多个工作线程间共享，不允许持有单个事件相关的可变状态
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 14:24
+ */
+public interface StageContext {
+
+    String code();
+
+    /**
+     * 绑定阶段，生成执行计划
+     *
+     * @param stages 按执行顺序排列的阶段
+     * @return 不可变、可重入的执行计划
+     */
+    StageContext compile(List<Stage> stages);
+
+    /**
+     * 事件依次经过全部阶段
+     */
+    void next(Event<?> event);
+
+    /**
+     * 整批事件依次经过全部阶段，默认逐个事件执行
+     */
+    default void nextBatch(List<Event<?>> events) {
+        for (Event<?> event : events) {
+            next(event);
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package priv.eric.pelee.domain.model;
+
+/**
+ * desc: 阶段指标记录
+ * <p>
+ * 事件数与错误数每批都会累加；耗时按采样率记录，{@link #start()}返回0表示本批不计时
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 15:05
+ */
+public interface StageMetrics {
+
+    /**
+     * 不记录任何指标
+     */
+    StageMetrics NONE = new StageMetrics() {
+    };
+
+    /**
+     * 开始计时
+     *
+     * @return 起始时间（纳秒），本批未被采样时返回0
+     */
+    default long start() {
+        return 0L;
+    }
+
+    /**
+     * 记录处理成功的一批事件
+     *
+     * @param events 事件数
+     * @param start  {@link #start()}的返回值
+     */
+    default void success(int events, long start) {
+    }
+
+    /**
+     * 记录处理失败的一批事件
+     *
+     * @param events 事件数
+     */
+    default void failure(int events) {
+    }
+
+    /**
+     * 记录失败后不再处理的事件，仅流水线级指标使用
+     *
+     * @param events       事件数
+     * @param acknowledged 是否已确认：true 按drop策略确认后丢弃；false 按hold策略保留未确认
+     */
+    default void abandon(int events, boolean acknowledged) {
+    }
+
+    /**
+     * 记录单个事件从进入流水线到交给输出端的耗时
+     *
+     * @param ingestNanos 事件进入流水线的时间（纳秒）
+     */
+    default void endToEnd(long ingestNanos) {
+    }
+
+}
@@ -0,0 +1,122 @@
+package priv.eric.pelee.infrastructure.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * desc: 序列化后的事件批次
+ * <p>
+ * 整批事件依次写入同一个字节数组，ends记录每个事件的结束位置；创建后不再修改，
+ * 可被多个输出端在各自线程中同时读取，每个事件只序列化一次
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 22:10
+ */
+public final class EncodedBatch {
+
+    private static final ThreadLocal<ReusableByteBuffer> BUFFERS =
+            ThreadLocal.withInitial(() -> new ReusableByteBuffer(64 * 1024));
+
+    private final byte[] data;
+
+    private final int[] ends;
+
+    private EncodedBatch(byte[] data, int[] ends) {
+        this.data = data;
+        this.ends = ends;
+    }
+
+    /**
+     * 整批事件写入线程复用的缓冲后一次性拷贝
+     */
+    public static EncodedBatch encode(List<Event<?>> events) {
+        ReusableByteBuffer out = BUFFERS.get();
+        out.reset();
+        int[] ends = new int[events.size()];
+        try (JsonGenerator generator = JsonUtil.getObjectMapper().getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            for (int i = 0; i < ends.length; i++) {
+                EventCodec.encode(events.get(i), generator);
+                generator.flush();
+                ends[i] = out.size();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("事件批次序列化失败", e);
+        }
+        return new EncodedBatch(out.toByteArray(), ends);
+    }
+
+    /**
+     * 事件数
+     */
+    public int size() {
+        return ends.length;
+    }
+
+    /**
+     * 全部事件的字节数
+     */
+    public int bytes() {
+        return ends.length == 0 ? 0 : ends[ends.length - 1];
+    }
+
+    public int length(int index) {
+        return ends[index] - start(index);
+    }
+
+    /**
+     * 单个事件字节的只读视图，不拷贝
+     */
+    public ByteBuffer get(int index) {
+        return ByteBuffer.wrap(data, start(index), length(index)).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * 将单个事件的字节追加到缓冲
+     */
+    public void copyTo(int index, ReusableByteBuffer out) {
+        out.write(data, start(index), length(index));
+    }
+
+    /**
+     * 写入{@link #writeTo(ByteBuffer)}所需的字节数
+     */
+    public int serializedSize() {
+        return Integer.BYTES * (1 + ends.length) + bytes();
+    }
+
+    /**
+     * 按 [事件数][各事件结束位置][字节] 写入目标缓冲的当前位置
+     */
+    public void writeTo(ByteBuffer target) {
+        target.putInt(ends.length);
+        for (int end : ends) {
+            target.putInt(end);
+        }
+        target.put(data, 0, bytes());
+    }
+
+    /**
+     * 从缓冲的当前位置读取{@link #writeTo(ByteBuffer)}写入的批次，字节被拷贝到堆内
+     */
+    public static EncodedBatch readFrom(ByteBuffer source) {
+        int[] ends = new int[source.getInt()];
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = source.getInt();
+        }
+        byte[] data = new byte[ends.length == 0 ? 0 : ends[ends.length - 1]];
+        source.get(data);
+        return new EncodedBatch(data, ends);
+    }
+
+    private int start(int index) {
+        return index == 0 ? 0 : ends[index - 1];
+    }
+
+}
@@ -0,0 +1,197 @@
+package priv.eric.pelee.infrastructure.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * desc: 事件编解码
+ * <p>
+ * 输入字节直接解析为事件，事件直接写为字节，全程不经过String；ObjectReader/ObjectWriter预先创建，
+ * 每个线程持有一个复用的输出缓冲
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 11:10
+ */
+public final class EventCodec {
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    /**
+     * 超过该大小的线程缓冲在使用后被丢弃，避免偶发大事件长期占用内存
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private static final JsonFactory FACTORY = JsonUtil.getObjectMapper().getFactory();
+
+    private static final ObjectReader TREE_READER = JsonUtil.getObjectMapper().readerFor(JsonNode.class);
+
+    private static final ObjectWriter WRITER = JsonUtil.getObjectMapper().writer();
+
+    private static final ThreadLocal<ReusableByteBuffer> BUFFERS =
+            ThreadLocal.withInitial(() -> new ReusableByteBuffer(INITIAL_BUFFER_SIZE));
+
+    private EventCodec() {
+    }
+
+    /**
+     * 解析字节为JsonNode
+     */
+    public static JsonNode decode(byte[] source, int offset, int length) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(source, offset, length)) {
+            return TREE_READER.readTree(parser);
+        }
+    }
+
+    /**
+     * 解析ByteBuffer为JsonNode，堆内缓冲直接读取底层数组
+     */
+    public static JsonNode decode(ByteBuffer source) throws IOException {
+        if (source.hasArray()) {
+            return decode(source.array(), source.arrayOffset() + source.position(), source.remaining());
+        }
+        byte[] copy = new byte[source.remaining()];
+        source.duplicate().get(copy);
+        return decode(copy, 0, copy.length);
+    }
+
+    /**
+     * 从原始字节中取出单个字段，流式跳过无关字段，不构建整棵树
+     *
+     * @param source 原始字节
+     * @param path   字段路径
+     * @return 字段值，不存在时返回null
+     */
+    public static JsonNode extract(byte[] source, FieldPath path) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(source)) {
+            JsonToken token = parser.nextToken();
+            for (int i = 0; i < path.depth() && token != null; i++) {
+                token = seek(parser, token, path.name(i), path.index(i));
+            }
+            return token == null ? null : TREE_READER.readTree(parser);
+        }
+    }
+
+    /**
+     * 在当前容器内定位子节点
+     *
+     * @return 子节点的首个token，不存在时返回null
+     */
+    private static JsonToken seek(JsonParser parser, JsonToken container, String name, int index) throws IOException {
+        if (container == JsonToken.START_OBJECT) {
+            for (JsonToken token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                boolean matched = name.equals(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (matched) {
+                    return value;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+        if (container == JsonToken.START_ARRAY && index >= 0) {
+            for (int i = 0; ; i++) {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    return null;
+                }
+                if (i == index) {
+                    return token;
+                }
+                parser.skipChildren();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 将事件携带的原始字节解析为事件数据，处理器按对象访问事件，顶层不是JSON对象时视为格式错误
+     *
+     * @param event  事件
+     * @param source 原始字节
+     * @param roots  按需解析的顶层字段，null表示完整解析
+     * @throws IOException 无法解析或顶层不是JSON对象
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void decode(Event event, byte[] source, Set<String> roots) throws IOException {
+        if (roots != null) {
+            RawFields raw = event.obtainRawFields(source);
+            ObjectNode node = LazyJson.parse(source, roots, raw);
+            if (node != null) {
+                event.setData(node);
+                event.setRawFields(raw);
+                return;
+            }
+        }
+        JsonNode node = decode(source, 0, source.length);
+        if (!(node instanceof ObjectNode)) {
+            throw new IOException("事件不是JSON对象: " + (node == null ? "empty" : node.getNodeType()));
+        }
+        event.setData(node);
+        event.setRawFields(null);
+    }
+
+    /**
+     * 将事件写入生成器，按需解析的事件会合并原始字段
+     */
+    public static void encode(Event<?> event, JsonGenerator generator) throws IOException {
+        if (event.getRawFields() != null) {
+            LazyJson.write(generator, (ObjectNode) event.getData(), event.getRawFields());
+        } else {
+            WRITER.writeValue(generator, event.getData());
+        }
+    }
+
+    /**
+     * 将事件写入输出流
+     */
+    public static void encode(Event<?> event, OutputStream out) throws IOException {
+        try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+            encode(event, generator);
+        }
+    }
+
+    /**
+     * 将事件写入当前线程的复用缓冲
+     * <p>
+     * 返回的缓冲在当前线程下一次调用前有效，调用方需在此之前拷贝或写出
+     */
+    public static ReusableByteBuffer encodeToBuffer(Event<?> event) {
+        ReusableByteBuffer buffer = BUFFERS.get();
+        if (buffer.array().length > MAX_RETAINED_BUFFER_SIZE) {
+            buffer = new ReusableByteBuffer(INITIAL_BUFFER_SIZE);
+            BUFFERS.set(buffer);
+        }
+        buffer.reset();
+        try {
+            encode(event, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("事件序列化失败", e);
+        }
+        return buffer;
+    }
+
+    /**
+     * 事件序列化为字符串，仅用于日志等必须使用String的场景
+     */
+    public static String encodeToString(Event<?> event) {
+        ReusableByteBuffer buffer = encodeToBuffer(event);
+        return new String(buffer.array(), 0, buffer.size(), StandardCharsets.UTF_8);
+    }
+
+}
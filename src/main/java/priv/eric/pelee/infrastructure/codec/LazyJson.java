@@ -0,0 +1,101 @@
+package priv.eric.pelee.infrastructure.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * desc: 按需解析JSON对象
+ * <p>
+ * 只把流水线引用到的顶层字段解析为JsonNode，其余字段跳过并记录原始字节区间，
+ * 输出时与修改后的字段合并写回，避免大字段（如 ori_message、param.event_list）反复物化
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 09:52
+ */
+public final class LazyJson {
+
+    private LazyJson() {
+    }
+
+    /**
+     * 部分解析
+     *
+     * @param source UTF-8 JSON字节
+     * @param roots  需要解析的顶层字段名
+     * @param raw    用于记录未解析字段的容器，需以同一source创建
+     * @return 只包含被引用字段的ObjectNode；根节点不是对象时返回null，由调用方完整解析
+     */
+    public static ObjectNode parse(byte[] source, Set<String> roots, RawFields raw) throws IOException {
+        ObjectMapper mapper = JsonUtil.getObjectMapper();
+        try (JsonParser parser = mapper.getFactory().createParser(source)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            ObjectNode node = mapper.createObjectNode();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (roots.contains(name)) {
+                    node.set(name, mapper.readTree(parser));
+                    raw.addParsed(name);
+                    continue;
+                }
+                int start = (int) parser.getTokenLocation().getByteOffset();
+                if (value == JsonToken.VALUE_STRING) {
+                    // 字符串默认延迟解码，需先读完才能拿到结束位置
+                    parser.finishToken();
+                } else {
+                    parser.skipChildren();
+                }
+                int end = (int) parser.getCurrentLocation().getByteOffset();
+                raw.addRaw(name, start, end);
+            }
+            return node;
+        }
+    }
+
+    /**
+     * 合并写出：按原文顺序写出原始字段和已解析字段，再写出处理器新增的字段
+     *
+     * @param generator 输出
+     * @param node      事件数据
+     * @param raw       原始字段
+     */
+    public static void write(JsonGenerator generator, ObjectNode node, RawFields raw) throws IOException {
+        ObjectMapper mapper = JsonUtil.getObjectMapper();
+        generator.writeStartObject();
+        for (int i = 0; i < raw.size(); i++) {
+            String name = raw.name(i);
+            if (raw.isRaw(i)) {
+                generator.writeFieldName(name);
+                generator.writeRawValue(raw.value(i));
+                continue;
+            }
+            JsonNode value = node.get(name);
+            if (value != null) {
+                generator.writeFieldName(name);
+                mapper.writeTree(generator, value);
+            }
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!raw.isParsed(field.getKey())) {
+                generator.writeFieldName(field.getKey());
+                mapper.writeTree(generator, field.getValue());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+}
@@ -0,0 +1,125 @@
+package priv.eric.pelee.infrastructure.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * desc: 按行读取NDJSON字节流
+ * <p>
+ * 从输入流分块读取并按换行切分，只缓存当前行，整个请求体不会同时驻留内存；
+ * 每行拷贝为独立的字节数组，行尾的\r被去除，超过上限的行被跳过。非线程安全
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 14:10
+ */
+public final class NdjsonReader {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final InputStream in;
+
+    private final int maxLineBytes;
+
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+
+    private final ReusableByteBuffer line = new ReusableByteBuffer(4096);
+
+    private int position;
+
+    private int limit;
+
+    private long lineNumber;
+
+    private boolean oversized;
+
+    public NdjsonReader(InputStream in, int maxLineBytes) {
+        if (maxLineBytes <= 0) {
+            throw new IllegalArgumentException("单行大小上限必须大于0: " + maxLineBytes);
+        }
+        this.in = in;
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    /**
+     * 读取下一行
+     *
+     * @return 行内容，超过上限的行返回空数组且{@link #isOversized()}为true；流结束时返回null
+     */
+    public byte[] next() throws IOException {
+        line.reset();
+        oversized = false;
+        boolean read = false;
+        while (true) {
+            if (position == limit) {
+                int count = in.read(chunk);
+                if (count < 0) {
+                    if (!read) {
+                        return null;
+                    }
+                    break;
+                }
+                position = 0;
+                limit = count;
+                continue;
+            }
+            read = true;
+            int end = indexOfNewline(position, limit);
+            if (end < 0) {
+                append(position, limit);
+                position = limit;
+                continue;
+            }
+            append(position, end);
+            position = end + 1;
+            break;
+        }
+        lineNumber++;
+        if (oversized) {
+            return EMPTY;
+        }
+        int size = line.size();
+        if (size > 0 && line.array()[size - 1] == '\r') {
+            size--;
+        }
+        return Arrays.copyOf(line.array(), size);
+    }
+
+    /**
+     * 上一次读取的行是否超过上限
+     */
+    public boolean isOversized() {
+        return oversized;
+    }
+
+    /**
+     * 上一次读取的行号，从1开始
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    private int indexOfNewline(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (chunk[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void append(int from, int to) {
+        if (oversized) {
+            return;
+        }
+        if (line.size() + (to - from) > maxLineBytes) {
+            oversized = true;
+            line.reset();
+            return;
+        }
+        line.write(chunk, from, to - from);
+    }
+
+}
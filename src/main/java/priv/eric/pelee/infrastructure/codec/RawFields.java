@@ -0,0 +1,220 @@
+package priv.eric.pelee.infrastructure.codec;
+
+import com.fasterxml.jackson.core.SerializableString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * desc: 部分解析事件的原始字段
+ * <p>
+ * 按原文顺序记录顶层字段：未被流水线引用的字段只记录其在原始字节中的区间，输出时原样写回；
+ * 被引用的字段已解析进事件数据，这里只保留占位以维持输出顺序
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 09:40
+ */
+public final class RawFields {
+
+    private static final int PARSED = -1;
+
+    private byte[] source;
+
+    private String[] names = new String[8];
+
+    private int[] starts = new int[8];
+
+    private int[] ends = new int[8];
+
+    private int size;
+
+    public RawFields(byte[] source) {
+        this.source = source;
+    }
+
+    /**
+     * 清空字段并指向新的原始字节，供复用的事件对象再次解析时使用
+     *
+     * @param source 原始字节，null表示只释放对旧字节的引用
+     */
+    public RawFields reset(byte[] source) {
+        this.source = source;
+        this.size = 0;
+        return this;
+    }
+
+    void addRaw(String name, int start, int end) {
+        add(name, start, end);
+    }
+
+    void addParsed(String name) {
+        add(name, PARSED, PARSED);
+    }
+
+    private void add(String name, int start, int end) {
+        if (size == names.length) {
+            int capacity = size << 1;
+            names = Arrays.copyOf(names, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        names[size] = name;
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * 丢弃未解析的顶层字段，输出时不再写回；字段已解析时不做处理，由事件数据上的删除生效
+     *
+     * @param name 顶层字段名
+     */
+    public void drop(String name) {
+        for (int i = 0; i < size; i++) {
+            if (starts[i] != PARSED && names[i].equals(name)) {
+                int moved = size - i - 1;
+                System.arraycopy(names, i + 1, names, i, moved);
+                System.arraycopy(starts, i + 1, starts, i, moved);
+                System.arraycopy(ends, i + 1, ends, i, moved);
+                names[--size] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 是否为保留原始字节的字段
+     */
+    public boolean isRaw(int index) {
+        return starts[index] != PARSED;
+    }
+
+    /**
+     * 字段是否在原文中出现且已被解析
+     */
+    public boolean isParsed(String name) {
+        for (int i = 0; i < size; i++) {
+            if (starts[i] == PARSED && names[i].equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 原始字段值的字节片段，可直接交给JsonGenerator#writeRawValue写出
+     */
+    public SerializableString value(int index) {
+        return new Slice(source, starts[index], ends[index]);
+    }
+
+    /**
+     * 原始字节中的一段UTF-8 JSON值，写出时直接拷贝字节，不经过String
+     */
+    private static final class Slice implements SerializableString {
+
+        private final byte[] source;
+
+        private final int start;
+
+        private final int length;
+
+        private Slice(byte[] source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.length = end - start;
+        }
+
+        @Override
+        public String getValue() {
+            return new String(source, start, length, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int charLength() {
+            return getValue().length();
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            return getValue().toCharArray();
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return Arrays.copyOfRange(source, start, start + length);
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            return asUnquotedUTF8();
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return appendUnquotedUTF8(buffer, offset);
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            return appendUnquoted(buffer, offset);
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (offset + length > buffer.length) {
+                return -1;
+            }
+            System.arraycopy(source, start, buffer, offset, length);
+            return length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            String value = getValue();
+            if (offset + value.length() > buffer.length) {
+                return -1;
+            }
+            value.getChars(0, value.length(), buffer, offset);
+            return value.length();
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            return writeUnquotedUTF8(out);
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(source, start, length);
+            return length;
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) {
+            return putUnquotedUTF8(buffer);
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (buffer.remaining() < length) {
+                return -1;
+            }
+            buffer.put(source, start, length);
+            return length;
+        }
+
+    }
+
+}
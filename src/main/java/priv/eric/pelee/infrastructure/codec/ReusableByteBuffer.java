@@ -0,0 +1,70 @@
+package priv.eric.pelee.infrastructure.codec;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * desc: 可复用的字节缓冲
+ * <p>
+ * 与ByteArrayOutputStream不同，直接暴露内部数组，reset后容量保留，稳态下不再分配；非线程安全
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 11:02
+ */
+public final class ReusableByteBuffer extends OutputStream {
+
+    private byte[] buffer;
+
+    private int size;
+
+    public ReusableByteBuffer(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        buffer[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length << 1));
+        }
+    }
+
+    /**
+     * 内部数组，有效数据为[0, size)
+     */
+    public byte[] array() {
+        return buffer;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * 以只读视图暴露有效数据，不拷贝
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, size).asReadOnlyBuffer();
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+}
@@ -0,0 +1,46 @@
+package priv.eric.pelee.infrastructure.condition;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+
+import java.util.Collection;
+
+/**
+ * desc: 编译后的条件表达式
+ * <p>
+ * 由{@link ConditionCompiler}在流水线创建时编译为谓词树，判断时只做节点查找与比较，实例不可变，可在多线程间共享
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 19:10
+ */
+public interface Condition {
+
+    /**
+     * 始终成立
+     */
+    Condition ALWAYS = new Condition() {
+
+        @Override
+        public boolean test(JsonNode root) {
+            return true;
+        }
+
+        @Override
+        public void collectPaths(Collection<FieldPath> paths) {
+        }
+
+    };
+
+    /**
+     * 判断事件是否满足条件
+     *
+     * @param root 事件数据
+     */
+    boolean test(JsonNode root);
+
+    /**
+     * 收集条件读取的全部路径，用于按需解析
+     */
+    void collectPaths(Collection<FieldPath> paths);
+
+}
@@ -0,0 +1,361 @@
+package priv.eric.pelee.infrastructure.condition;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * desc: 条件表达式编译器
+ * <p>
+ * 表达式为JSON对象，键为操作符：
+ * <ul>
+ *     <li>{"exists": "user.id"}</li>
+ *     <li>{"eq": {"path": "type", "value": "chat"}}，同理 ne、gt、gte、lt、lte</li>
+ *     <li>{"in": {"path": "type", "value": ["chat", "voice"]}}</li>
+ *     <li>{"regex": {"path": "user.name", "value": "^bot_"}}</li>
+ *     <li>{"all": [...]}、{"any": [...]}、{"not": {...}}</li>
+ * </ul>
+ * 同一对象中的多个操作符按“且”组合。数值比较只对数值节点成立，字段缺失时除 ne 与 not 外均不成立
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 19:16
+ */
+public final class ConditionCompiler {
+
+    private ConditionCompiler() {
+    }
+
+    /**
+     * 编译条件表达式
+     *
+     * @param expression 表达式，null或空对象表示始终成立
+     * @return 编译后的条件
+     */
+    public static Condition compile(JsonNode expression) {
+        if (expression == null || expression.isNull() || (expression.isObject() && expression.size() == 0)) {
+            return Condition.ALWAYS;
+        }
+        return compileNode(expression);
+    }
+
+    private static Condition compileNode(JsonNode expression) {
+        if (!expression.isObject()) {
+            throw new IllegalArgumentException("条件表达式必须是对象: " + expression);
+        }
+        List<Condition> conditions = new ArrayList<>(expression.size());
+        Iterator<Map.Entry<String, JsonNode>> fields = expression.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            conditions.add(compileOperator(field.getKey(), field.getValue()));
+        }
+        return conditions.size() == 1 ? conditions.get(0) : new All(conditions);
+    }
+
+    private static Condition compileOperator(String operator, JsonNode argument) {
+        switch (operator) {
+            case "all":
+                return new All(compileList(operator, argument));
+            case "any":
+                return new Any(compileList(operator, argument));
+            case "not":
+                return new Not(compileNode(argument));
+            case "exists":
+                if (!argument.isTextual()) {
+                    throw new IllegalArgumentException("exists的参数必须是字段路径: " + argument);
+                }
+                return new Exists(FieldPath.compile(argument.textValue()));
+            case "eq":
+                return new Eq(path(operator, argument), value(operator, argument));
+            case "ne":
+                return new Not(new Eq(path(operator, argument), value(operator, argument)));
+            case "gt":
+            case "gte":
+            case "lt":
+            case "lte":
+                return new Compare(path(operator, argument), number(operator, argument), operator);
+            case "in":
+                return new In(path(operator, argument), value(operator, argument));
+            case "regex":
+                return new Regex(path(operator, argument), pattern(operator, argument));
+            default:
+                throw new IllegalArgumentException("未知的条件操作符: " + operator);
+        }
+    }
+
+    private static List<Condition> compileList(String operator, JsonNode argument) {
+        if (!argument.isArray() || argument.size() == 0) {
+            throw new IllegalArgumentException(operator + "的参数必须是非空数组");
+        }
+        List<Condition> conditions = new ArrayList<>(argument.size());
+        for (JsonNode child : argument) {
+            conditions.add(compileNode(child));
+        }
+        return conditions;
+    }
+
+    private static FieldPath path(String operator, JsonNode argument) {
+        JsonNode path = argument.get("path");
+        if (path == null || !path.isTextual()) {
+            throw new IllegalArgumentException(operator + "缺少path: " + argument);
+        }
+        return FieldPath.compile(path.textValue());
+    }
+
+    private static JsonNode value(String operator, JsonNode argument) {
+        JsonNode value = argument.get("value");
+        if (value == null) {
+            throw new IllegalArgumentException(operator + "缺少value: " + argument);
+        }
+        return value;
+    }
+
+    private static double number(String operator, JsonNode argument) {
+        JsonNode value = value(operator, argument);
+        if (!value.isNumber()) {
+            throw new IllegalArgumentException(operator + "的value必须是数值: " + argument);
+        }
+        return value.doubleValue();
+    }
+
+    private static Pattern pattern(String operator, JsonNode argument) {
+        JsonNode value = value(operator, argument);
+        try {
+            return Pattern.compile(value.asText());
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("无效的正则表达式: " + value.asText(), e);
+        }
+    }
+
+    /**
+     * 数值按数值比较（整数精确比较），其余按JsonNode相等
+     */
+    static boolean valueEquals(JsonNode node, JsonNode expected) {
+        if (node.isNumber() && expected.isNumber()) {
+            if (node.isIntegralNumber() && expected.isIntegralNumber()
+                    && node.canConvertToLong() && expected.canConvertToLong()) {
+                return node.longValue() == expected.longValue();
+            }
+            return Double.compare(node.doubleValue(), expected.doubleValue()) == 0;
+        }
+        if (node.isTextual() && expected.isTextual()) {
+            return node.textValue().equals(expected.textValue());
+        }
+        return node.equals(expected);
+    }
+
+    private static final class All implements Condition {
+
+        private final Condition[] conditions;
+
+        private All(List<Condition> conditions) {
+            this.conditions = conditions.toArray(new Condition[0]);
+        }
+
+        @Override
+        public boolean test(JsonNode root) {
+            for (Condition condition : conditions) {
+                if (!condition.test(root)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void collectPaths(Collection<FieldPath> paths) {
+            for (Condition condition : conditions) {
+                condition.collectPaths(paths);
+            }
+        }
+
+    }
+
+    private static final class Any implements Condition {
+
+        private final Condition[] conditions;
+
+        private Any(List<Condition> conditions) {
+            this.conditions = conditions.toArray(new Condition[0]);
+        }
+
+        @Override
+        public boolean test(JsonNode root) {
+            for (Condition condition : conditions) {
+                if (condition.test(root)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void collectPaths(Collection<FieldPath> paths) {
+            for (Condition condition : conditions) {
+                condition.collectPaths(paths);
+            }
+        }
+
+    }
+
+    private static final class Not implements Condition {
+
+        private final Condition condition;
+
+        private Not(Condition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public boolean test(JsonNode root) {
+            return !condition.test(root);
+        }
+
+        @Override
+        public void collectPaths(Collection<FieldPath> paths) {
+            condition.collectPaths(paths);
+        }
+
+    }
+
+    private abstract static class PathCondition implements Condition {
+
+        protected final FieldPath path;
+
+        private PathCondition(FieldPath path) {
+            this.path = path;
+        }
+
+        @Override
+        public final boolean test(JsonNode root) {
+            JsonNode node = path.get(root);
+            return node != null && !node.isMissingNode() && testNode(node);
+        }
+
+        protected abstract boolean testNode(JsonNode node);
+
+        @Override
+        public void collectPaths(Collection<FieldPath> paths) {
+            paths.add(path);
+        }
+
+    }
+
+    private static final class Exists extends PathCondition {
+
+        private Exists(FieldPath path) {
+            super(path);
+        }
+
+        @Override
+        protected boolean testNode(JsonNode node) {
+            return !node.isNull();
+        }
+
+    }
+
+    private static final class Eq extends PathCondition {
+
+        private final JsonNode expected;
+
+        private Eq(FieldPath path, JsonNode expected) {
+            super(path);
+            this.expected = expected;
+        }
+
+        @Override
+        protected boolean testNode(JsonNode node) {
+            return valueEquals(node, expected);
+        }
+
+    }
+
+    private static final class Compare extends PathCondition {
+
+        private final double expected;
+
+        /**
+         * 比较结果需落在[min, max]内，例如gte为[0, 1]
+         */
+        private final int min;
+
+        private final int max;
+
+        private Compare(FieldPath path, double expected, String operator) {
+            super(path);
+            this.expected = expected;
+            this.min = "gt".equals(operator) ? 1 : "gte".equals(operator) ? 0 : -1;
+            this.max = "lt".equals(operator) ? -1 : "lte".equals(operator) ? 0 : 1;
+        }
+
+        @Override
+        protected boolean testNode(JsonNode node) {
+            if (!node.isNumber()) {
+                return false;
+            }
+            int result = Integer.signum(Double.compare(node.doubleValue(), expected));
+            return result >= min && result <= max;
+        }
+
+    }
+
+    private static final class In extends PathCondition {
+
+        private final Set<String> texts = new HashSet<>();
+
+        private final List<JsonNode> others = new ArrayList<>();
+
+        private In(FieldPath path, JsonNode values) {
+            super(path);
+            if (!values.isArray()) {
+                throw new IllegalArgumentException("in的value必须是数组: " + values);
+            }
+            for (JsonNode value : values) {
+                if (value.isTextual()) {
+                    texts.add(value.textValue());
+                } else {
+                    others.add(value);
+                }
+            }
+        }
+
+        @Override
+        protected boolean testNode(JsonNode node) {
+            if (node.isTextual()) {
+                return texts.contains(node.textValue());
+            }
+            for (JsonNode other : others) {
+                if (valueEquals(node, other)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+    private static final class Regex extends PathCondition {
+
+        private final Pattern pattern;
+
+        private Regex(FieldPath path, Pattern pattern) {
+            super(path);
+            this.pattern = pattern;
+        }
+
+        @Override
+        protected boolean testNode(JsonNode node) {
+            return node.isValueNode() && !node.isNull() && pattern.matcher(node.asText()).find();
+        }
+
+    }
+
+}
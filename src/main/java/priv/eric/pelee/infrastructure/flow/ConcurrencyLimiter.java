@@ -0,0 +1,152 @@
+package priv.eric.pelee.infrastructure.flow;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * desc: 在途请求数限制，可按下游延迟与错误自适应调整
+ * <p>
+ * 非自适应时上限固定为max。自适应时以最近两个统计窗口内的最小延迟作为无负载基线：
+ * 请求失败（连接错误、超时、429、5xx）时上限乘以backoff_ratio；延迟超过基线的tolerance倍时
+ * 按基线与延迟之比下调，单次不低于backoff_ratio；其余成功请求在上限被用到一半以上时加性增长，
+ * 每个上限数量的成功请求增加1。上限始终在[min, max]之间。线程安全
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 16:20
+ */
+public final class ConcurrencyLimiter {
+
+    private final int min;
+
+    private final int max;
+
+    private final boolean adaptive;
+
+    private final double tolerance;
+
+    private final double backoffRatio;
+
+    private final long windowNanos;
+
+    private double limit;
+
+    private int inFlight;
+
+    private long windowStart = System.nanoTime();
+
+    private long windowMin = Long.MAX_VALUE;
+
+    private long previousMin = Long.MAX_VALUE;
+
+    /**
+     * 固定上限
+     */
+    public ConcurrencyLimiter(int max) {
+        this(max, max, false, 1, 1, 1);
+    }
+
+    /**
+     * @param min          自适应时的最小上限
+     * @param max          最大上限，也是初始上限
+     * @param adaptive     是否自适应
+     * @param tolerance    延迟超过基线的倍数视为过载
+     * @param backoffRatio 单次下调的最小比例
+     * @param windowMs     基线统计窗口
+     */
+    public ConcurrencyLimiter(int min, int max, boolean adaptive, double tolerance, double backoffRatio, long windowMs) {
+        if (min <= 0 || min > max) {
+            throw new IllegalArgumentException("在途请求数上下限配置无效: " + min + ", " + max);
+        }
+        if (adaptive && (tolerance < 1 || backoffRatio <= 0 || backoffRatio >= 1 || windowMs <= 0)) {
+            throw new IllegalArgumentException("自适应并发配置无效: " + tolerance + ", " + backoffRatio + ", " + windowMs);
+        }
+        this.min = min;
+        this.max = max;
+        this.adaptive = adaptive;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.limit = max;
+    }
+
+    /**
+     * 等待在途请求数低于上限后占用一个名额
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    public synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * 记录一次请求的结果，同一请求重试时每次尝试各记录一次
+     *
+     * @param latencyNanos 请求耗时
+     * @param overloaded   下游是否表现为过载
+     */
+    public synchronized void sample(long latencyNanos, boolean overloaded) {
+        if (!adaptive) {
+            return;
+        }
+        if (overloaded) {
+            decrease(backoffRatio);
+            return;
+        }
+        double threshold = baseline(latencyNanos) * tolerance;
+        if (latencyNanos > threshold) {
+            decrease(Math.max(backoffRatio, threshold / latencyNanos));
+        } else if (inFlight * 2 >= limit && limit < max) {
+            limit = Math.min(max, limit + 1 / limit);
+            notifyAll();
+        }
+    }
+
+    private long baseline(long latencyNanos) {
+        long now = System.nanoTime();
+        if (now - windowStart >= windowNanos) {
+            previousMin = windowMin;
+            windowMin = Long.MAX_VALUE;
+            windowStart = now;
+        }
+        windowMin = Math.min(windowMin, latencyNanos);
+        return Math.min(windowMin, previousMin);
+    }
+
+    private void decrease(double ratio) {
+        limit = Math.max(min, limit * ratio);
+    }
+
+    /**
+     * 等待全部在途请求结束
+     *
+     * @return 超时仍有在途请求时返回false
+     */
+    public synchronized boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight > 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * 当前上限
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+}
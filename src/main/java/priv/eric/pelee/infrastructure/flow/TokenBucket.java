@@ -0,0 +1,59 @@
+package priv.eric.pelee.infrastructure.flow;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * desc: 令牌桶限速
+ * <p>
+ * 令牌按固定速率补充，最多积累burst个；预约时直接扣减，令牌不足时允许欠账，
+ * 返回调用方需等待的时间，单次预约超过burst也不会永久阻塞。线程安全
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 16:10
+ */
+public final class TokenBucket {
+
+    private final double permitsPerNano;
+
+    private final double burst;
+
+    private double tokens;
+
+    private long refilledAt;
+
+    /**
+     * @param permitsPerSecond 每秒补充的令牌数
+     * @param burst            最多积累的令牌数
+     */
+    public TokenBucket(double permitsPerSecond, double burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("限速速率与突发量必须大于0: " + permitsPerSecond + ", " + burst);
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * 预约令牌
+     *
+     * @param permits 令牌数
+     * @return 需等待的纳秒数，0表示可立即执行
+     */
+    public synchronized long reserve(int permits) {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        tokens -= permits;
+        return tokens >= 0 ? 0L : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+
+    /**
+     * 每秒补充的令牌数
+     */
+    public double getRate() {
+        return permitsPerNano * TimeUnit.SECONDS.toNanos(1);
+    }
+
+}
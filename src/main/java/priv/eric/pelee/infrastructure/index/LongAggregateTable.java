@@ -0,0 +1,187 @@
+package priv.eric.pelee.infrastructure.index;
+
+import java.util.Arrays;
+
+/**
+ * desc: 以64位哈希为键的聚合表
+ * <p>
+ * 开放寻址（线性探测）哈希表只存放稠密下标，键与各指标值按下标存放在基本类型数组中，不产生装箱对象。
+ * 键数达到上限时按轮转顺序淘汰已有的键，由调用方在淘汰前取走该键的聚合结果。
+ * 64位哈希视为键本身，不再比较原始值。非线程安全
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 21:05
+ */
+public final class LongAggregateTable {
+
+    public static final int NOT_FOUND = -1;
+
+    public static final int OP_SUM = 0;
+
+    public static final int OP_MIN = 1;
+
+    public static final int OP_MAX = 2;
+
+    private final int capacity;
+
+    private final int metrics;
+
+    private final int[] table;
+
+    private final int mask;
+
+    private final long[] keys;
+
+    /**
+     * 每个键每个指标的累计值，下标为 entry * metrics + metric
+     */
+    private final double[] values;
+
+    /**
+     * 每个键每个指标的有效样本数
+     */
+    private final long[] counts;
+
+    private int size;
+
+    private int evictCursor;
+
+    public LongAggregateTable(int capacity, int metrics) {
+        this.capacity = Math.max(1, capacity);
+        this.metrics = metrics;
+        int tableSize = Integer.highestOneBit(this.capacity * 2 - 1) << 1;
+        this.table = new int[tableSize];
+        this.mask = tableSize - 1;
+        this.keys = new long[this.capacity];
+        this.values = new double[this.capacity * metrics];
+        this.counts = new long[this.capacity * metrics];
+    }
+
+    /**
+     * 查找键的下标
+     */
+    public int find(long key) {
+        int slot = slot(key);
+        while (true) {
+            int entry = table[slot] - 1;
+            if (entry < 0) {
+                return NOT_FOUND;
+            }
+            if (keys[entry] == key) {
+                return entry;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 表已满时下一个将被淘汰的下标
+     */
+    public int evictionCandidate() {
+        return evictCursor;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * 插入新键，表已满时复用{@link #evictionCandidate()}的位置
+     *
+     * @param key     键
+     * @param initial 各指标的初始值
+     * @return 新键的下标
+     */
+    public int insert(long key, double[] initial) {
+        int entry;
+        if (size < capacity) {
+            entry = size++;
+        } else {
+            entry = evictCursor;
+            evictCursor = (evictCursor + 1) % capacity;
+            removeFromTable(keys[entry]);
+        }
+        keys[entry] = key;
+        System.arraycopy(initial, 0, values, entry * metrics, metrics);
+        Arrays.fill(counts, entry * metrics, entry * metrics + metrics, 0L);
+        int slot = slot(key);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry + 1;
+        return entry;
+    }
+
+    /**
+     * 线性探测的删除：移除后把后续同簇的元素前移，保证查找不会提前遇到空槽
+     */
+    private void removeFromTable(long key) {
+        int slot = slot(key);
+        while (keys[table[slot] - 1] != key) {
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (table[next] != 0) {
+            int home = slot(keys[table[next] - 1]);
+            // 元素的理想位置不在 (hole, next] 区间内时可以前移到空洞
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                table[hole] = table[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[hole] = 0;
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    public void accumulate(int entry, int metric, double value, int op) {
+        int index = entry * metrics + metric;
+        counts[index]++;
+        switch (op) {
+            case OP_MIN:
+                values[index] = Math.min(values[index], value);
+                break;
+            case OP_MAX:
+                values[index] = Math.max(values[index], value);
+                break;
+            default:
+                values[index] += value;
+        }
+    }
+
+    public double value(int entry, int metric) {
+        return values[entry * metrics + metric];
+    }
+
+    public long count(int entry, int metric) {
+        return counts[entry * metrics + metric];
+    }
+
+    public long key(int entry) {
+        return keys[entry];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 清空后复用数组
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        size = 0;
+        evictCursor = 0;
+    }
+
+    public long memoryBytes() {
+        return (long) table.length * Integer.BYTES + (long) keys.length * Long.BYTES
+                + (long) values.length * Double.BYTES + (long) counts.length * Long.BYTES;
+    }
+
+}
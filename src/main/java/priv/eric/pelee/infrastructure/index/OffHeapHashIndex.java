@@ -0,0 +1,246 @@
+package priv.eric.pelee.infrastructure.index;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * desc: 堆外只读哈希索引
+ * <p>
+ * 键值对按 [键长度][值长度][键UTF-8][值] 顺序写入一块直接内存，哈希槽为另一块直接内存中的 [哈希][记录偏移+1]，
+ * 线性探测。查找时直接用String的字符计算哈希并与存储的UTF-8字节逐字节比较，不产生任何对象；
+ * 索引构建后不可变，可被多个线程同时读取，重新加载时整体替换
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 18:02
+ */
+public final class OffHeapHashIndex {
+
+    public static final int MISS = -1;
+
+    private static final int HEADER_BYTES = 8;
+
+    private static final int SLOT_INTS = 2;
+
+    private final ByteBuffer data;
+
+    private final ByteBuffer slots;
+
+    private final int mask;
+
+    private final int size;
+
+    private OffHeapHashIndex(ByteBuffer data, ByteBuffer slots, int mask, int size) {
+        this.data = data;
+        this.slots = slots;
+        this.mask = mask;
+        this.size = size;
+    }
+
+    public static Builder builder(int expectedEntries) {
+        return new Builder(expectedEntries);
+    }
+
+    /**
+     * 查找键对应的记录
+     *
+     * @param key 键
+     * @return 记录偏移，不存在时返回{@link #MISS}
+     */
+    public int find(String key) {
+        int hash = hash(key);
+        int slot = hash & mask;
+        while (true) {
+            int base = slot * SLOT_INTS * Integer.BYTES;
+            int offset = slots.getInt(base + Integer.BYTES) - 1;
+            if (offset < 0) {
+                return MISS;
+            }
+            if (slots.getInt(base) == hash && keyEquals(offset, key)) {
+                return offset;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 记录中值的长度
+     */
+    public int valueLength(int record) {
+        return data.getInt(record + Integer.BYTES);
+    }
+
+    /**
+     * 将记录中的值复制到目标数组
+     *
+     * @return 值的长度
+     */
+    public int copyValue(int record, byte[] target) {
+        int keyLength = data.getInt(record);
+        int valueLength = data.getInt(record + Integer.BYTES);
+        ByteBuffer view = data.duplicate();
+        view.position(record + HEADER_BYTES + keyLength);
+        view.get(target, 0, valueLength);
+        return valueLength;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 直接内存占用字节数
+     */
+    public long memoryBytes() {
+        return (long) data.capacity() + slots.capacity();
+    }
+
+    /**
+     * 逐字符编码为UTF-8并与存储的键比较，避免为查询键分配字节数组
+     */
+    private boolean keyEquals(int record, String key) {
+        int keyLength = data.getInt(record);
+        int position = record + HEADER_BYTES;
+        int end = position + keyLength;
+        int length = key.length();
+        for (int i = 0; i < length; i++) {
+            int c = key.charAt(i);
+            if (Character.isHighSurrogate((char) c) && i + 1 < length
+                    && Character.isLowSurrogate(key.charAt(i + 1))) {
+                c = Character.toCodePoint((char) c, key.charAt(++i));
+            }
+            if (c < 0x80) {
+                if (position >= end || data.get(position++) != (byte) c) {
+                    return false;
+                }
+            } else if (c < 0x800) {
+                if (position + 2 > end
+                        || data.get(position++) != (byte) (0xC0 | (c >> 6))
+                        || data.get(position++) != (byte) (0x80 | (c & 0x3F))) {
+                    return false;
+                }
+            } else if (c < 0x10000) {
+                if (position + 3 > end
+                        || data.get(position++) != (byte) (0xE0 | (c >> 12))
+                        || data.get(position++) != (byte) (0x80 | ((c >> 6) & 0x3F))
+                        || data.get(position++) != (byte) (0x80 | (c & 0x3F))) {
+                    return false;
+                }
+            } else {
+                if (position + 4 > end
+                        || data.get(position++) != (byte) (0xF0 | (c >> 18))
+                        || data.get(position++) != (byte) (0x80 | ((c >> 12) & 0x3F))
+                        || data.get(position++) != (byte) (0x80 | ((c >> 6) & 0x3F))
+                        || data.get(position++) != (byte) (0x80 | (c & 0x3F))) {
+                    return false;
+                }
+            }
+        }
+        return position == end;
+    }
+
+    static int hash(String key) {
+        int h = key.hashCode();
+        // 打散低位，String.hashCode的低位分布较差
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean storedKeyEquals(ByteBuffer data, int a, int b) {
+        int length = data.getInt(a);
+        if (length != data.getInt(b)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (data.get(a + HEADER_BYTES + i) != data.get(b + HEADER_BYTES + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 索引构建器，非线程安全；重复的键以最后一次写入为准
+     */
+    public static final class Builder {
+
+        private ByteBuffer data;
+
+        private int[] hashes;
+
+        private int[] offsets;
+
+        private int count;
+
+        private Builder(int expectedEntries) {
+            int capacity = Math.max(16, expectedEntries);
+            this.data = ByteBuffer.allocateDirect(Math.max(1 << 16, capacity * 64)).order(ByteOrder.nativeOrder());
+            this.hashes = new int[capacity];
+            this.offsets = new int[capacity];
+        }
+
+        public Builder put(String key, byte[] value) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(HEADER_BYTES + keyBytes.length + value.length);
+            if (count == hashes.length) {
+                hashes = Arrays.copyOf(hashes, count << 1);
+                offsets = Arrays.copyOf(offsets, count << 1);
+            }
+            hashes[count] = hash(key);
+            offsets[count] = data.position();
+            count++;
+            data.putInt(keyBytes.length).putInt(value.length).put(keyBytes).put(value);
+            return this;
+        }
+
+        private void ensureCapacity(int required) {
+            if (data.remaining() >= required) {
+                return;
+            }
+            long grown = Math.max((long) data.capacity() << 1, (long) data.position() + required);
+            if (grown > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("索引数据超过2GB");
+            }
+            ByteBuffer next = ByteBuffer.allocateDirect((int) grown).order(ByteOrder.nativeOrder());
+            data.flip();
+            next.put(data);
+            data = next;
+        }
+
+        public OffHeapHashIndex build() {
+            int capacity = Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1;
+            int mask = capacity - 1;
+            ByteBuffer slots = ByteBuffer.allocateDirect(capacity * SLOT_INTS * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder());
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                int hash = hashes[i];
+                int slot = hash & mask;
+                while (true) {
+                    int base = slot * SLOT_INTS * Integer.BYTES;
+                    int existing = slots.getInt(base + Integer.BYTES) - 1;
+                    if (existing < 0) {
+                        slots.putInt(base, hash).putInt(base + Integer.BYTES, offsets[i] + 1);
+                        size++;
+                        break;
+                    }
+                    if (slots.getInt(base) == hash && storedKeyEquals(data, existing, offsets[i])) {
+                        slots.putInt(base + Integer.BYTES, offsets[i] + 1);
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            }
+            ByteBuffer compact = ByteBuffer.allocateDirect(Math.max(1, data.position())).order(ByteOrder.nativeOrder());
+            data.flip();
+            compact.put(data);
+            hashes = null;
+            offsets = null;
+            data = null;
+            return new OffHeapHashIndex(compact, slots, mask, size);
+        }
+
+    }
+
+}
@@ -0,0 +1,135 @@
+package priv.eric.pelee.infrastructure.index;
+
+import java.util.Arrays;
+
+/**
+ * desc: 按时间轮换的布隆过滤器
+ * <p>
+ * 由当前与上一代两个位图组成，每隔一个窗口清空较旧的一代并交换，键至少被记住一个窗口、至多两个窗口；
+ * 内存固定为两代位图之和，不随键数量增长。非线程安全，由调用方分段加锁
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 20:20
+ */
+public final class RotatingBloomFilter {
+
+    private final int bits;
+
+    private final int hashes;
+
+    private final long windowNanos;
+
+    private long[] current;
+
+    private long[] previous;
+
+    private long rotateAt;
+
+    /**
+     * 当前一代已写入的键数
+     */
+    private long inserted;
+
+    /**
+     * 上一代写入的键数
+     */
+    private long previousInserted;
+
+    /**
+     * @param bits          每一代位图的位数
+     * @param expectedItems 每个窗口预计的键数，用于选择哈希函数个数
+     * @param windowNanos   窗口长度
+     * @param now           当前时间（纳秒）
+     */
+    public RotatingBloomFilter(int bits, long expectedItems, long windowNanos, long now) {
+        int words = Math.max(1, (bits + 63) >>> 6);
+        this.bits = words << 6;
+        this.hashes = optimalHashes(this.bits, expectedItems);
+        this.windowNanos = windowNanos;
+        this.current = new long[words];
+        this.previous = new long[words];
+        this.rotateAt = now + windowNanos;
+    }
+
+    static int optimalHashes(long bits, long expectedItems) {
+        double k = (double) bits / Math.max(1, expectedItems) * Math.log(2);
+        return (int) Math.max(1, Math.min(16, Math.round(k)));
+    }
+
+    /**
+     * 记录键，返回此前是否（可能）出现过
+     *
+     * @param hash 键的64位哈希
+     * @param now  当前时间（纳秒）
+     * @return true表示重复（存在误判），false表示首次出现
+     */
+    public boolean putIfAbsent(long hash, long now) {
+        if (now - rotateAt >= 0) {
+            rotate(now);
+        }
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean seenCurrent = true;
+        boolean seenPrevious = true;
+        for (int i = 0; i < hashes; i++) {
+            int combined = h1 + i * h2;
+            int index = (combined & Integer.MAX_VALUE) % bits;
+            int word = index >>> 6;
+            long mask = 1L << index;
+            if ((current[word] & mask) == 0) {
+                seenCurrent = false;
+                current[word] |= mask;
+            }
+            if (seenPrevious && (previous[word] & mask) == 0) {
+                seenPrevious = false;
+            }
+        }
+        if (!seenCurrent) {
+            inserted++;
+        }
+        return seenCurrent || seenPrevious;
+    }
+
+    private void rotate(long now) {
+        if (now - rotateAt >= windowNanos) {
+            // 超过两个窗口没有数据，两代都已过期
+            inserted = 0;
+            previousInserted = 0;
+            Arrays.fill(current, 0L);
+            Arrays.fill(previous, 0L);
+            rotateAt = now + windowNanos;
+            return;
+        }
+        previousInserted = inserted;
+        inserted = 0;
+        long[] cleared = previous;
+        Arrays.fill(cleared, 0L);
+        previous = current;
+        current = cleared;
+        rotateAt += windowNanos;
+    }
+
+    /**
+     * 估计误判率：键在任一代命中即判为重复，合并为 1 - (1 - p当前)(1 - p上一代)，
+     * 每一代按 (1 - e^(-kn/m))^k 估计
+     */
+    public double falsePositiveRate() {
+        return 1 - (1 - generationRate(inserted)) * (1 - generationRate(previousInserted));
+    }
+
+    private double generationRate(long items) {
+        return Math.pow(1 - Math.exp(-(double) hashes * items / bits), hashes);
+    }
+
+    public long inserted() {
+        return inserted;
+    }
+
+    /**
+     * 两代位图占用的字节数
+     */
+    public long memoryBytes() {
+        return (long) (current.length + previous.length) * Long.BYTES;
+    }
+
+}
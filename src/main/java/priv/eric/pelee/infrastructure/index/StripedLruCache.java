@@ -0,0 +1,73 @@
+package priv.eric.pelee.infrastructure.index;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * desc: 分段LRU缓存
+ * <p>
+ * 按键哈希分为若干段，每段是一个按访问顺序淘汰的LinkedHashMap，只锁单个段，
+ * 多个工作线程查询不同热点键时互不阻塞
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 18:20
+ */
+public final class StripedLruCache<K, V> {
+
+    private static final int STRIPES = 16;
+
+    private final Segment<K, V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public StripedLruCache(int capacity) {
+        int perSegment = Math.max(1, capacity / STRIPES);
+        this.segments = new Segment[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /**
+     * 获取缓存值，不存在时通过loader加载；loader返回null时不缓存
+     */
+    public V get(K key, Function<K, V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            V value = segment.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        // 加载在锁外执行，同一键并发未命中时可能重复加载，结果相同
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (segment) {
+                segment.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package priv.eric.pelee.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import priv.eric.pelee.domain.model.StageMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * desc: 基于Micrometer的阶段指标
+ * <p>
+ * 计数器内部为分段累加（DoubleAdder），多个工作线程并发累加不会争用同一缓存行；
+ * 耗时直方图只在采样命中的批次记录，采样判断使用线程本地随机数，无共享状态
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 15:20
+ */
+public class MicrometerStageMetrics implements StageMetrics {
+
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(500);
+
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final Counter events;
+
+    private final Counter errors;
+
+    private final Timer latency;
+
+    /**
+     * 端到端耗时，仅流水线级指标使用
+     */
+    private final Timer endToEnd;
+
+    /**
+     * 失败后确认丢弃与保留未确认的事件数，仅流水线级指标使用
+     */
+    private final Counter dropped;
+
+    private final Counter held;
+
+    private final int sampleRate;
+
+    MicrometerStageMetrics(MeterRegistry registry, Tags tags, int sampleRate, boolean pipelineLevel) {
+        this.sampleRate = sampleRate;
+        String prefix = pipelineLevel ? "pelee.pipeline" : "pelee.stage";
+        this.events = counter(prefix + ".events", "处理的事件数", tags, registry);
+        this.errors = counter(prefix + ".errors", "处理失败的事件数", tags, registry);
+        this.latency = histogram(prefix + ".batch.latency", "单批处理耗时", tags, registry);
+        this.endToEnd = pipelineLevel
+                ? histogram("pelee.pipeline.end_to_end.latency", "事件从进入流水线到交给输出端的耗时", tags, registry)
+                : null;
+        this.dropped = pipelineLevel
+                ? counter("pelee.pipeline.dropped", "失败后按drop策略确认丢弃的事件数", tags, registry)
+                : null;
+        this.held = pipelineLevel
+                ? counter("pelee.pipeline.held", "失败后按hold策略保留未确认的事件数", tags, registry)
+                : null;
+    }
+
+    private static Counter counter(String name, String description, Tags tags, MeterRegistry registry) {
+        return Counter.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static Timer histogram(String name, String description, Tags tags, MeterRegistry registry) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(registry);
+    }
+
+    @Override
+    public long start() {
+        if (sampleRate <= 0) {
+            return 0L;
+        }
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return 0L;
+        }
+        return System.nanoTime();
+    }
+
+    @Override
+    public void success(int count, long start) {
+        events.increment(count);
+        if (start != 0L) {
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void failure(int count) {
+        errors.increment(count);
+    }
+
+    @Override
+    public void abandon(int count, boolean acknowledged) {
+        Counter counter = acknowledged ? dropped : held;
+        if (counter != null) {
+            counter.increment(count);
+        }
+    }
+
+    @Override
+    public void endToEnd(long ingestNanos) {
+        if (endToEnd != null && ingestNanos != 0L) {
+            endToEnd.record(System.nanoTime() - ingestNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package priv.eric.pelee.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.stereotype.Component;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.PipelineSettings;
+import priv.eric.pelee.domain.model.StageMetrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * desc: 创建流水线及各处理器的指标，通过Actuator的/actuator/metrics与/actuator/prometheus暴露
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 15:32
+ */
+@Component
+public class PipelineMetrics {
+
+    private final MeterRegistry registry;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 流水线级指标
+     */
+    public StageMetrics pipeline(String pipelineId, PipelineSettings settings) {
+        if (!settings.isMetricsEnabled()) {
+            return StageMetrics.NONE;
+        }
+        return new MicrometerStageMetrics(registry, Tags.of("pipeline", pipelineId),
+                settings.getMetricsSampleRate(), true);
+    }
+
+    /**
+     * 处理器级指标，同名处理器以下标区分
+     */
+    public StageMetrics stage(String pipelineId, int index, String processor, PipelineSettings settings) {
+        if (!settings.isMetricsEnabled()) {
+            return StageMetrics.NONE;
+        }
+        Tags tags = Tags.of("pipeline", pipelineId, "processor", processor, "index", String.valueOf(index));
+        return new MicrometerStageMetrics(registry, tags, settings.getMetricsSampleRate(), false);
+    }
+
+    /**
+     * 注册处理器暴露的仪表；同名仪表已存在时先移除，避免重新加载后仍指向旧处理器。
+     * 仪表只弱引用处理器，流水线卸载后不会阻止其被回收
+     */
+    public void gauges(String pipelineId, int index, String processor, PipelineSettings settings, GaugeAware source) {
+        if (!settings.isMetricsEnabled()) {
+            return;
+        }
+        register("pelee.processor.", Tags.of("pipeline", pipelineId, "processor", processor, "index", String.valueOf(index)),
+                source);
+    }
+
+    /**
+     * 注册输入端暴露的仪表，如因积压被阻塞的分区数
+     */
+    public void inputGauges(String pipelineId, String input, PipelineSettings settings, GaugeAware source) {
+        if (!settings.isMetricsEnabled()) {
+            return;
+        }
+        register("pelee.input.", Tags.of("pipeline", pipelineId, "input", input), source);
+    }
+
+    /**
+     * 注册输出端暴露的仪表，如流控的当前上限
+     */
+    public void outputGauges(String pipelineId, int index, String output, PipelineSettings settings, GaugeAware source) {
+        if (!settings.isMetricsEnabled()) {
+            return;
+        }
+        register("pelee.output.", Tags.of("pipeline", pipelineId, "output", output, "index", String.valueOf(index)),
+                source);
+    }
+
+    private void register(String prefix, Tags tags, GaugeAware source) {
+        for (String key : source.gauges().keySet()) {
+            String name = prefix + key;
+            Gauge previous = registry.find(name).tags(tags).gauge();
+            if (previous != null) {
+                registry.remove(previous);
+            }
+            Gauge.builder(name, source, gauged -> value(gauged, key))
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+
+    private static double value(GaugeAware source, String key) {
+        DoubleSupplier supplier = source.gauges().get(key);
+        return supplier != null ? supplier.getAsDouble() : Double.NaN;
+    }
+
+}
@@ -0,0 +1,181 @@
+package priv.eric.pelee.infrastructure.queue;
+
+import priv.eric.pelee.domain.model.Event;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * desc: 预分配事件槽位的环形缓冲，多生产者单消费者
+ * <p>
+ * 创建时分配全部事件对象，生产者CAS抢占序号后将数据写入该序号的槽位再发布，不分配新的事件与队列节点；
+ * 消费者按序号批量取出连续已发布的槽位。取出的事件在调用方{@link #release(long, long)}之前保持有效，
+ * 释放可由任意线程、以任意顺序发生，消费者调用{@link #reclaim()}时回收从最早序号开始连续已释放的槽位，
+ * 生产者只能写入已回收的槽位。容量向上取整为2的幂
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 10:30
+ */
+public final class EventRingBuffer {
+
+    private final Event<Object>[] slots;
+
+    private final int mask;
+
+    private final int shift;
+
+    private final int capacity;
+
+    /**
+     * 每个槽位已发布的轮次，轮次为序号除以容量
+     */
+    private final AtomicIntegerArray published;
+
+    /**
+     * 每个槽位已释放的轮次
+     */
+    private final AtomicIntegerArray released;
+
+    /**
+     * 下一个待抢占的序号
+     */
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * 小于该序号的槽位均已回收，可被生产者写入
+     */
+    private final AtomicLong gating = new AtomicLong();
+
+    /**
+     * 下一个待取出的序号，只由消费者线程访问
+     */
+    private long next;
+
+    /**
+     * 下一个待回收的序号，只由消费者线程访问
+     */
+    private long reclaimed;
+
+    @SuppressWarnings("unchecked")
+    public EventRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("环形缓冲容量必须大于0: " + capacity);
+        }
+        int actual = 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1));
+        this.capacity = actual;
+        this.mask = actual - 1;
+        this.shift = Integer.numberOfTrailingZeros(actual);
+        this.slots = new Event[actual];
+        this.published = new AtomicIntegerArray(actual);
+        this.released = new AtomicIntegerArray(actual);
+        for (int i = 0; i < actual; i++) {
+            slots[i] = new Event<>();
+            published.set(i, -1);
+            released.set(i, -1);
+        }
+    }
+
+    /**
+     * 抢占一个槽位，之后必须调用{@link #publish(long)}
+     *
+     * @return 槽位序号，缓冲已满时返回-1
+     */
+    public long tryClaim() {
+        while (true) {
+            long sequence = cursor.get();
+            if (sequence - gating.get() >= capacity) {
+                return -1;
+            }
+            if (cursor.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * 序号对应的槽位，生产者在抢占后、发布前写入
+     */
+    public Event<Object> get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    public void publish(long sequence) {
+        published.lazySet((int) sequence & mask, round(sequence));
+    }
+
+    /**
+     * 取出连续已发布的事件，遇到已抢占但尚未发布的槽位即停止，只允许消费者线程调用
+     *
+     * @return 取出的数量
+     */
+    public int drain(List<? super Event<Object>> target, int limit) {
+        long sequence = next;
+        int count = 0;
+        while (count < limit && published.get((int) sequence & mask) == round(sequence)) {
+            target.add(slots[(int) sequence & mask]);
+            sequence++;
+            count++;
+        }
+        next = sequence;
+        return count;
+    }
+
+    /**
+     * 下一个待取出的序号，消费者据此记录一批事件的起始序号
+     */
+    public long position() {
+        return next;
+    }
+
+    /**
+     * 释放[from, to)的槽位，槽位中的事件此后不得再被访问；可由任意线程调用
+     */
+    public void release(long from, long to) {
+        for (long sequence = from; sequence < to; sequence++) {
+            released.set((int) sequence & mask, round(sequence));
+        }
+    }
+
+    /**
+     * 回收连续已释放的槽位并清空其中的事件，只允许消费者线程调用
+     *
+     * @return 回收的数量
+     */
+    public int reclaim() {
+        long sequence = reclaimed;
+        while (sequence < next && released.get((int) sequence & mask) == round(sequence)) {
+            slots[(int) sequence & mask].recycle();
+            sequence++;
+        }
+        int count = (int) (sequence - reclaimed);
+        if (count > 0) {
+            reclaimed = sequence;
+            gating.lazySet(sequence);
+        }
+        return count;
+    }
+
+    /**
+     * 是否没有已抢占但尚未取出的槽位
+     */
+    public boolean isEmpty() {
+        return cursor.get() == next;
+    }
+
+    /**
+     * 可抢占的槽位数，已取出但尚未回收的槽位不计入
+     */
+    public int remainingCapacity() {
+        return (int) (capacity - (cursor.get() - gating.get()));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private int round(long sequence) {
+        return (int) (sequence >>> shift);
+    }
+
+}
@@ -0,0 +1,119 @@
+package priv.eric.pelee.infrastructure.queue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * desc: 有界无锁队列，多生产者单消费者
+ * <p>
+ * 生产者通过CAS抢占槽位后写入元素，消费者以槽位非空判断元素已发布；容量向上取整为2的幂
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 16:05
+ */
+public final class MpscArrayQueue<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final int mask;
+
+    private final int capacity;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    /**
+     * 只由消费者线程写入
+     */
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    public MpscArrayQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("队列容量必须大于0: " + capacity);
+        }
+        int actual = 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1));
+        this.buffer = new AtomicReferenceArray<>(actual);
+        this.mask = actual - 1;
+        this.capacity = actual;
+    }
+
+    /**
+     * 入队，队列已满时立即返回false
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        long limit = consumerIndex.get() + capacity;
+        while (true) {
+            long index = producerIndex.get();
+            if (index >= limit) {
+                // 重新读取消费进度，确认确实已满
+                limit = consumerIndex.get() + capacity;
+                if (index >= limit) {
+                    return false;
+                }
+            }
+            if (producerIndex.compareAndSet(index, index + 1)) {
+                buffer.lazySet((int) index & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 出队，只允许消费者线程调用
+     */
+    public E poll() {
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        E element = buffer.get(offset);
+        if (element == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+            // 槽位已被抢占但尚未写入，等待生产者完成发布
+            do {
+                Thread.onSpinWait();
+                element = buffer.get(offset);
+            } while (element == null);
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+
+    /**
+     * 批量出队，只允许消费者线程调用
+     *
+     * @param target 接收元素的列表
+     * @param limit  本次最多出队的数量
+     * @return 实际出队数量
+     */
+    public int drain(List<? super E> target, int limit) {
+        int count = 0;
+        while (count < limit) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            target.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    public int size() {
+        long size = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+}
@@ -0,0 +1,372 @@
+package priv.eric.pelee.infrastructure.queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import priv.eric.pelee.infrastructure.codec.EncodedBatch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * desc: 基于内存映射分段文件的磁盘溢出队列
+ * <p>
+ * 批次按 [长度][CRC32][序列化批次] 顺序追加到固定大小的段文件，长度最后写入，崩溃时写了一半的记录长度为0或校验失败，
+ * 恢复时被截断；每条记录在追加返回前刷盘，段写满后写入结束标记并刷盘，再创建下一个段。读取方按写入顺序逐条取出，
+ * 一个段的记录全部确认后整段删除。正常关闭时记录读取位置，重启后从该位置继续；
+ * 异常退出时从最早未删除的段的开头重放，同一批次可能被重复输出。线程安全
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 22:50
+ */
+public final class SpillQueue implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillQueue.class);
+
+    private static final String SUFFIX = ".seg";
+
+    private static final String CHECKPOINT = "checkpoint";
+
+    /**
+     * 记录头：长度与CRC32
+     */
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    /**
+     * 段结束标记，写在最后一条记录之后
+     */
+    private static final int SEALED = -1;
+
+    private final Path dir;
+
+    private final int segmentBytes;
+
+    private final long maxBytes;
+
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * 读取位置在首段中的偏移
+     */
+    private int readOffset;
+
+    /**
+     * 已读取但尚未确认的记录
+     */
+    private EncodedBatch peeked;
+
+    private int peekedLength;
+
+    private long pending;
+
+    private long totalBytes;
+
+    private long nextId;
+
+    private boolean closed;
+
+    /**
+     * 打开队列，目录中已有的段文件会被恢复
+     *
+     * @param dir          段文件目录
+     * @param segmentBytes 单个段文件大小
+     * @param maxBytes     段文件总大小上限
+     */
+    public SpillQueue(Path dir, int segmentBytes, long maxBytes) {
+        if (segmentBytes <= HEADER_BYTES + Integer.BYTES || maxBytes < segmentBytes) {
+            throw new IllegalArgumentException("溢出队列段大小或总大小配置无效: " + segmentBytes + ", " + maxBytes);
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(dir);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("打开溢出队列失败: " + dir, e);
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        long checkpointId = -1;
+        int checkpointOffset = 0;
+        Path checkpoint = dir.resolve(CHECKPOINT);
+        if (Files.exists(checkpoint)) {
+            String[] parts = new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim().split(" ");
+            checkpointId = Long.parseLong(parts[0]);
+            checkpointOffset = Integer.parseInt(parts[1]);
+            Files.delete(checkpoint);
+        }
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            long id = Long.parseLong(file.getFileName().toString().replace(SUFFIX, ""));
+            Segment segment = new Segment(id, file, map(file, Files.size(file), false));
+            // 检查点之前的段已全部确认，只是尚未删除
+            if (id < checkpointId) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            int start = id == checkpointId ? checkpointOffset : 0;
+            long records = scan(segment, start);
+            // 只有最后一个段继续追加，之前未正常结束的段视为已结束
+            if (i < files.size() - 1) {
+                segment.sealed = true;
+            }
+            if (segments.isEmpty()) {
+                readOffset = start;
+            }
+            segments.addLast(segment);
+            totalBytes += segment.capacity;
+            pending += records;
+            nextId = id + 1;
+        }
+        while (!segments.isEmpty() && segments.peekFirst().sealed && !hasRecord(segments.peekFirst(), readOffset)) {
+            removeHead();
+        }
+        if (pending > 0) {
+            LOGGER.info("===== spill queue recovered: {}, batches: {}, segments: {}", dir, pending, segments.size());
+        }
+    }
+
+    /**
+     * 扫描段内的有效记录，确定追加位置
+     *
+     * @return start之后的记录数
+     */
+    private long scan(Segment segment, int start) {
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        long records = 0;
+        while (position + HEADER_BYTES <= segment.capacity) {
+            int length = buffer.getInt(position);
+            if (length == SEALED) {
+                segment.sealed = true;
+                break;
+            }
+            if (length <= 0 || position + HEADER_BYTES + length > segment.capacity
+                    || checksum(buffer, position + HEADER_BYTES, length) != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            if (position >= start) {
+                records++;
+            }
+            position += HEADER_BYTES + length;
+        }
+        segment.writeOffset = position;
+        return records;
+    }
+
+    /**
+     * 追加批次，返回true时记录已刷入磁盘，调用方可以确认该批次
+     *
+     * @return 已关闭或超出总大小上限时返回false
+     */
+    public synchronized boolean append(EncodedBatch batch) {
+        if (closed) {
+            return false;
+        }
+        int length = batch.serializedSize();
+        // 为段结束标记预留空间
+        int required = HEADER_BYTES + length + Integer.BYTES;
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.sealed || tail.writeOffset + required > tail.capacity) {
+            int capacity = Math.max(segmentBytes, required);
+            if (totalBytes + capacity > maxBytes) {
+                return false;
+            }
+            if (tail != null && !tail.sealed) {
+                seal(tail);
+            }
+            tail = createSegment(capacity);
+        }
+        ByteBuffer buffer = tail.buffer;
+        int position = tail.writeOffset;
+        ByteBuffer body = buffer.duplicate();
+        body.position(position + HEADER_BYTES);
+        batch.writeTo(body);
+        buffer.putInt(position + Integer.BYTES, checksum(buffer, position + HEADER_BYTES, length));
+        buffer.putInt(position, length);
+        tail.buffer.force(position, HEADER_BYTES + length);
+        tail.writeOffset = position + HEADER_BYTES + length;
+        pending++;
+        return true;
+    }
+
+    /**
+     * 查看下一个批次，不移动读取位置
+     *
+     * @return 队列为空或已关闭时返回null
+     */
+    public synchronized EncodedBatch peek() {
+        if (closed || pending == 0) {
+            return null;
+        }
+        if (peeked != null) {
+            return peeked;
+        }
+        Segment head = segments.peekFirst();
+        while (!hasRecord(head, readOffset)) {
+            removeHead();
+            head = segments.peekFirst();
+        }
+        int length = head.buffer.getInt(readOffset);
+        ByteBuffer body = head.buffer.duplicate();
+        body.position(readOffset + HEADER_BYTES);
+        peeked = EncodedBatch.readFrom(body);
+        peekedLength = length;
+        return peeked;
+    }
+
+    /**
+     * 确认{@link #peek()}返回的批次，所在段的记录全部确认后删除该段
+     */
+    public synchronized void advance() {
+        if (closed || peek() == null) {
+            return;
+        }
+        readOffset += HEADER_BYTES + peekedLength;
+        peeked = null;
+        pending--;
+        Segment head = segments.peekFirst();
+        if (head.sealed && !hasRecord(head, readOffset)) {
+            removeHead();
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return pending == 0;
+    }
+
+    /**
+     * 未确认的批次数
+     */
+    public synchronized long size() {
+        return pending;
+    }
+
+    /**
+     * 段文件占用的磁盘空间
+     */
+    public synchronized long bytes() {
+        return totalBytes;
+    }
+
+    private boolean hasRecord(Segment segment, int offset) {
+        return offset + HEADER_BYTES <= segment.capacity && segment.buffer.getInt(offset) > 0;
+    }
+
+    private void seal(Segment segment) {
+        segment.buffer.putInt(segment.writeOffset, SEALED);
+        segment.buffer.force();
+        segment.sealed = true;
+        if (segment == segments.peekFirst() && readOffset == segment.writeOffset) {
+            removeHead();
+        }
+    }
+
+    private Segment createSegment(int capacity) {
+        Path file = dir.resolve(String.format("%020d%s", nextId, SUFFIX));
+        try {
+            Segment segment = new Segment(nextId++, file, map(file, capacity, true));
+            segments.addLast(segment);
+            totalBytes += capacity;
+            if (segments.size() == 1) {
+                readOffset = 0;
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建溢出段失败: " + file, e);
+        }
+    }
+
+    private void removeHead() {
+        Segment head = segments.pollFirst();
+        totalBytes -= head.capacity;
+        readOffset = 0;
+        try {
+            Files.deleteIfExists(head.file);
+        } catch (IOException e) {
+            LOGGER.warn("===== delete spill segment failed: {}", head.file, e);
+        }
+    }
+
+    private int checksum(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset).limit(offset + length);
+        crc.reset();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    private static MappedByteBuffer map(Path file, long capacity, boolean create) throws IOException {
+        StandardOpenOption[] options = create
+                ? new StandardOpenOption[]{StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+    }
+
+    /**
+     * 刷盘并记录读取位置，之后的追加与读取均被忽略
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segments.forEach(segment -> segment.buffer.force());
+        Segment head = segments.peekFirst();
+        if (head == null) {
+            return;
+        }
+        try {
+            Files.write(dir.resolve(CHECKPOINT), (head.id + " " + readOffset).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.warn("===== write spill checkpoint failed: {}", dir, e);
+        }
+    }
+
+    private static final class Segment {
+
+        private final long id;
+
+        private final Path file;
+
+        private final MappedByteBuffer buffer;
+
+        private final int capacity;
+
+        private int writeOffset;
+
+        private boolean sealed;
+
+        private Segment(long id, Path file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+package priv.eric.pelee.infrastructure.queue;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * desc: 消费者没有可取事件时的等待方式
+ * <p>
+ * busy_spin 一直自旋，延迟最低但独占一个CPU核心；yield 短暂自旋后反复让出CPU；
+ * park 自旋、让出后休眠，空闲时几乎不占用CPU，唤醒延迟最高约为一次休眠时长
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 10:45
+ */
+public final class WaitStrategy {
+
+    public static final String BUSY_SPIN = "busy_spin";
+
+    public static final String YIELD = "yield";
+
+    public static final String PARK = "park";
+
+    public static final Set<String> NAMES = Set.of(BUSY_SPIN, YIELD, PARK);
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 200;
+
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final boolean yield;
+
+    private final boolean park;
+
+    private WaitStrategy(boolean yield, boolean park) {
+        this.yield = yield;
+        this.park = park;
+    }
+
+    public static WaitStrategy of(String name) {
+        switch (name) {
+            case BUSY_SPIN:
+                return new WaitStrategy(false, false);
+            case YIELD:
+                return new WaitStrategy(true, false);
+            case PARK:
+                return new WaitStrategy(true, true);
+            default:
+                throw new IllegalArgumentException("不支持的wait_strategy: " + name);
+        }
+    }
+
+    /**
+     * 等待一次
+     *
+     * @param idle 连续空等的次数
+     * @return 下一次调用时传入的次数
+     */
+    public int idle(int idle) {
+        if (idle < SPIN_TRIES || !yield) {
+            Thread.onSpinWait();
+        } else if (idle < SPIN_TRIES + YIELD_TRIES || !park) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            return idle;
+        }
+        return Math.min(idle + 1, SPIN_TRIES + YIELD_TRIES);
+    }
+
+    /**
+     * 攒批时等待更多事件，park方式休眠不超过剩余时间
+     *
+     * @param remainingNanos 距攒批截止的剩余时间
+     */
+    public void pause(long remainingNanos) {
+        if (park) {
+            LockSupport.parkNanos(Math.min(remainingNanos, PARK_NANOS));
+        } else if (yield) {
+            Thread.yield();
+        } else {
+            Thread.onSpinWait();
+        }
+    }
+
+}
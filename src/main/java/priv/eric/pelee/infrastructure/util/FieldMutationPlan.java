@@ -0,0 +1,195 @@
+package priv.eric.pelee.infrastructure.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * desc: 字段变换执行计划
+ * <p>
+ * 操作按源字段的父路径分组，每个事件上每组的父节点只查找一次；节点直接挂到目标路径，不拷贝子树，
+ * keep_original时只拷贝容器节点；目标路径无法写入时移动不生效，源字段保持原样。分组会改变操作的执行顺序，存在相互影响的操作
+ * （路径互为前缀、两个移动操作，或移除了其他组的父节点）且顺序会因此改变时，退回逐个操作执行，结果与按配置顺序执行一致。
+ * 实例不可变，可在多线程间共享
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 09:20
+ */
+public final class FieldMutationPlan {
+
+    private final Group[] groups;
+
+    private final List<FieldOperation> operations;
+
+    private final List<FieldPath> paths;
+
+    private final List<String> removedRoots;
+
+    private final boolean grouped;
+
+    private FieldMutationPlan(Group[] groups, List<FieldOperation> operations, boolean grouped) {
+        this.groups = groups;
+        this.operations = operations;
+        this.grouped = grouped;
+        List<FieldPath> referenced = new ArrayList<>(operations.size() * 2);
+        List<String> removed = new ArrayList<>();
+        for (FieldOperation operation : operations) {
+            if (!operation.isRemove()) {
+                referenced.add(operation.getSource());
+                referenced.add(operation.getTarget());
+            } else if (operation.getSource().isTopLevel()) {
+                removed.add(operation.getSource().root());
+            } else {
+                referenced.add(operation.getSource());
+            }
+        }
+        this.paths = Collections.unmodifiableList(referenced);
+        this.removedRoots = Collections.unmodifiableList(removed);
+    }
+
+    /**
+     * 编译操作列表
+     *
+     * @param operations 按执行顺序排列的操作
+     * @return 执行计划
+     */
+    public static FieldMutationPlan compile(List<FieldOperation> operations) {
+        List<FieldOperation> copy = Collections.unmodifiableList(new ArrayList<>(operations));
+        Group[] grouped = group(copy);
+        return grouped != null
+                ? new FieldMutationPlan(grouped, copy, true)
+                : new FieldMutationPlan(sequential(copy), copy, false);
+    }
+
+    /**
+     * 按源字段父路径分组，组按首次出现的顺序排列
+     *
+     * @return 分组改变了相互影响的操作的顺序时返回null
+     */
+    private static Group[] group(List<FieldOperation> operations) {
+        Map<FieldPath, List<FieldOperation>> byParent = new LinkedHashMap<>();
+        for (FieldOperation operation : operations) {
+            // 顶层字段的父节点即事件本身，键为null
+            byParent.computeIfAbsent(operation.getSource().parent(), p -> new ArrayList<>()).add(operation);
+        }
+        List<FieldOperation> order = new ArrayList<>(operations.size());
+        byParent.values().forEach(order::addAll);
+        for (int i = 0; i < operations.size(); i++) {
+            for (int j = i + 1; j < operations.size(); j++) {
+                FieldOperation first = operations.get(i);
+                FieldOperation second = operations.get(j);
+                if (first.conflictsWith(second) && order.indexOf(first) > order.indexOf(second)) {
+                    return null;
+                }
+            }
+        }
+        for (FieldPath parent : byParent.keySet()) {
+            if (parent == null) {
+                continue;
+            }
+            for (FieldOperation operation : operations) {
+                if (operation.touches(parent)) {
+                    return null;
+                }
+            }
+        }
+        Group[] groups = new Group[byParent.size()];
+        int index = 0;
+        for (Map.Entry<FieldPath, List<FieldOperation>> entry : byParent.entrySet()) {
+            groups[index++] = new Group(entry.getKey() != null, entry.getValue().toArray(new FieldOperation[0]));
+        }
+        return groups;
+    }
+
+    private static Group[] sequential(List<FieldOperation> operations) {
+        Group[] groups = new Group[operations.size()];
+        for (int i = 0; i < groups.length; i++) {
+            FieldOperation operation = operations.get(i);
+            groups[i] = new Group(!operation.getSource().isTopLevel(), new FieldOperation[]{operation});
+        }
+        return groups;
+    }
+
+    /**
+     * 在事件上执行全部操作
+     */
+    public void apply(ObjectNode data) {
+        for (Group group : groups) {
+            FieldOperation[] operations = group.operations;
+            JsonNode parent = group.nested ? operations[0].getSource().getParent(data) : data;
+            for (FieldOperation operation : operations) {
+                FieldPath source = operation.getSource();
+                if (operation.isRemove()) {
+                    if (parent != null) {
+                        source.removeChild(parent);
+                    }
+                    continue;
+                }
+                JsonNode value = parent != null ? source.getChild(parent) : null;
+                if (value == null) {
+                    if (!operation.isIgnoreMissing()) {
+                        operation.getTarget().set(data, NullNode.getInstance());
+                    }
+                    continue;
+                }
+                if (operation.isKeepOriginal()) {
+                    operation.getTarget().set(data, value.isContainerNode() ? value.deepCopy() : value);
+                } else {
+                    // 目标无法写入（如父节点不是对象）时源字段保持原样，不会丢失
+                    source.moveChild(data, parent, value, operation.getTarget());
+                }
+            }
+        }
+    }
+
+    public List<FieldOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * 全部操作读写的路径，删除顶层字段的操作不需要解析该字段，不计入
+     */
+    public List<FieldPath> getPaths() {
+        return paths;
+    }
+
+    /**
+     * 被删除的顶层字段名，按需解析的事件中由调用方丢弃其原始字节
+     */
+    public List<String> getRemovedRoots() {
+        return removedRoots;
+    }
+
+    /**
+     * 是否按父路径分组执行
+     */
+    public boolean isGrouped() {
+        return grouped;
+    }
+
+    /**
+     * 源字段父路径相同的一组操作
+     */
+    private static final class Group {
+
+        /**
+         * 源字段是否在嵌套对象中，否则父节点即事件本身
+         */
+        private final boolean nested;
+
+        private final FieldOperation[] operations;
+
+        private Group(boolean nested, FieldOperation[] operations) {
+            this.nested = nested;
+            this.operations = operations;
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package priv.eric.pelee.infrastructure.util;
+
+/**
+ * desc: 字段变换操作，移动（含复制）或删除一个字段
+ * <p>
+ * 实例不可变，由处理器在创建时编译，多个处理器的操作可以拼接后由{@link FieldMutationPlan}一次执行
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 09:10
+ */
+public final class FieldOperation {
+
+    private final FieldPath source;
+
+    /**
+     * 目标路径，删除操作为null
+     */
+    private final FieldPath target;
+
+    private final boolean keepOriginal;
+
+    private final boolean ignoreMissing;
+
+    private FieldOperation(FieldPath source, FieldPath target, boolean keepOriginal, boolean ignoreMissing) {
+        this.source = source;
+        this.target = target;
+        this.keepOriginal = keepOriginal;
+        this.ignoreMissing = ignoreMissing;
+    }
+
+    /**
+     * 移动字段
+     *
+     * @param keepOriginal  是否保留源字段
+     * @param ignoreMissing 源字段缺失时：true 跳过；false 目标字段写入null
+     */
+    public static FieldOperation move(FieldPath source, FieldPath target, boolean keepOriginal, boolean ignoreMissing) {
+        return new FieldOperation(source, target, keepOriginal, ignoreMissing);
+    }
+
+    public static FieldOperation remove(FieldPath path) {
+        return new FieldOperation(path, null, false, true);
+    }
+
+    public FieldPath getSource() {
+        return source;
+    }
+
+    public FieldPath getTarget() {
+        return target;
+    }
+
+    public boolean isRemove() {
+        return target == null;
+    }
+
+    public boolean isKeepOriginal() {
+        return keepOriginal;
+    }
+
+    public boolean isIgnoreMissing() {
+        return ignoreMissing;
+    }
+
+    /**
+     * 两个操作读写的路径互为前缀时，执行顺序会影响结果；两个移动操作的写入顺序还决定了新增字段
+     * （含中间父节点）在对象中的先后，也视为相互影响
+     */
+    boolean conflictsWith(FieldOperation other) {
+        return related(source, other.source) || related(source, other.target)
+                || related(target, other.source) || related(target, other.target)
+                || (target != null && other.target != null);
+    }
+
+    /**
+     * 操作是否会移除或替换该路径上的节点
+     */
+    boolean touches(FieldPath path) {
+        return source.isPrefixOf(path) || (target != null && target.isPrefixOf(path));
+    }
+
+    private static boolean related(FieldPath a, FieldPath b) {
+        return a != null && b != null && (a.isPrefixOf(b) || b.isPrefixOf(a));
+    }
+
+    @Override
+    public String toString() {
+        return isRemove() ? "remove " + source : source + " -> " + target;
+    }
+
+}
@@ -0,0 +1,497 @@
+package priv.eric.pelee.infrastructure.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * desc: 预编译字段路径
+ * <p>
+ * 支持三种写法：
+ * <ul>
+ *     <li>点分隔：user.name</li>
+ *     <li>数组下标：items[0].id</li>
+ *     <li>JSON Pointer：/param/event_list（支持 ~0、~1 转义）</li>
+ * </ul>
+ * 路径只在处理器创建时解析一次，之后每个事件只做逐段查找，不再有字符串处理。
+ * 实例不可变，可在多线程间共享。
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 10:12
+ */
+public final class FieldPath {
+
+    private static final int NOT_INDEX = -1;
+
+    /**
+     * 原始表达式
+     */
+    private final String expression;
+
+    /**
+     * 每一段的字段名
+     */
+    private final String[] names;
+
+    /**
+     * 每一段的数组下标，非数字段为-1
+     */
+    private final int[] indexes;
+
+    private FieldPath(String expression, String[] names, int[] indexes) {
+        this.expression = expression;
+        this.names = names;
+        this.indexes = indexes;
+    }
+
+    /**
+     * 编译路径表达式
+     *
+     * @param expression 路径表达式
+     * @return 编译后的路径
+     */
+    public static FieldPath compile(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            throw new IllegalArgumentException("字段路径不能为空");
+        }
+        List<String> segments = expression.charAt(0) == '/'
+                ? parsePointer(expression)
+                : parseDotPath(expression);
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("无效的字段路径: " + expression);
+        }
+        String[] names = segments.toArray(new String[0]);
+        int[] indexes = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            indexes[i] = parseIndex(names[i]);
+        }
+        return new FieldPath(expression, names, indexes);
+    }
+
+    /**
+     * 批量编译路径表达式
+     *
+     * @param expressions 路径表达式
+     * @return 编译后的路径数组
+     */
+    public static FieldPath[] compileAll(Collection<String> expressions) {
+        if (expressions == null) {
+            return new FieldPath[0];
+        }
+        FieldPath[] paths = new FieldPath[expressions.size()];
+        int i = 0;
+        for (String expression : expressions) {
+            paths[i++] = compile(expression);
+        }
+        return paths;
+    }
+
+    private static List<String> parsePointer(String pointer) {
+        List<String> segments = new ArrayList<>();
+        int start = 1;
+        int length = pointer.length();
+        while (start <= length) {
+            int end = pointer.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            String segment = pointer.substring(start, end);
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("无效的字段路径: " + pointer);
+            }
+            segments.add(unescapePointer(segment));
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    private static String unescapePointer(String segment) {
+        if (segment.indexOf('~') < 0) {
+            return segment;
+        }
+        return segment.replace("~1", "/").replace("~0", "~");
+    }
+
+    private static List<String> parseDotPath(String path) {
+        List<String> segments = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                // items[0].id 中下标后的点不产生空段
+                flushSegment(path, current, segments, i > 0 && path.charAt(i - 1) == ']');
+            } else if (c == '[') {
+                // 下标前须是字段名或另一个下标，a.[0] 视为空段
+                flushSegment(path, current, segments, i == 0 || path.charAt(i - 1) == ']');
+                int close = path.indexOf(']', i);
+                if (close < 0) {
+                    throw new IllegalArgumentException("无效的字段路径: " + path);
+                }
+                String index = path.substring(i + 1, close);
+                if (parseIndex(index) == NOT_INDEX) {
+                    throw new IllegalArgumentException("无效的数组下标: " + path);
+                }
+                // 下标后只能是点、下一个下标或结尾，拒绝 a[0]b
+                if (close + 1 < length && path.charAt(close + 1) != '.' && path.charAt(close + 1) != '[') {
+                    throw new IllegalArgumentException("无效的字段路径: " + path);
+                }
+                segments.add(index);
+                i = close;
+            } else {
+                current.append(c);
+            }
+        }
+        // 结尾的点（user.）产生空段
+        flushSegment(path, current, segments, path.charAt(length - 1) == ']');
+        return segments;
+    }
+
+    private static void flushSegment(String path, StringBuilder current, List<String> segments, boolean allowEmpty) {
+        if (current.length() == 0) {
+            if (!allowEmpty) {
+                throw new IllegalArgumentException("无效的字段路径: " + path);
+            }
+            return;
+        }
+        segments.add(current.toString());
+        current.setLength(0);
+    }
+
+    private static int parseIndex(String segment) {
+        int length = segment.length();
+        if (length == 0 || length > 9) {
+            return NOT_INDEX;
+        }
+        if (length > 1 && segment.charAt(0) == '0') {
+            return NOT_INDEX;
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_INDEX;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static JsonNode child(JsonNode node, String name, int index) {
+        if (node.isObject()) {
+            return node.get(name);
+        }
+        if (node.isArray() && index != NOT_INDEX) {
+            return node.get(index);
+        }
+        return null;
+    }
+
+    /**
+     * 获取路径对应的节点
+     *
+     * @param root 根节点
+     * @return 节点，不存在时返回null
+     */
+    public JsonNode get(JsonNode root) {
+        JsonNode node = root;
+        for (int i = 0; i < names.length && node != null; i++) {
+            node = child(node, names[i], indexes[i]);
+        }
+        return node;
+    }
+
+    /**
+     * 在已解析的父节点上获取末段节点
+     *
+     * @param parent 父节点
+     * @return 节点，不存在时返回null
+     */
+    public JsonNode getChild(JsonNode parent) {
+        int last = names.length - 1;
+        return child(parent, names[last], indexes[last]);
+    }
+
+    /**
+     * 获取路径末段所在的容器节点
+     *
+     * @param root 根节点
+     * @return 父节点（ObjectNode或ArrayNode），不存在时返回null
+     */
+    public JsonNode getParent(JsonNode root) {
+        JsonNode node = root;
+        int last = names.length - 1;
+        for (int i = 0; i < last && node != null; i++) {
+            node = child(node, names[i], indexes[i]);
+        }
+        return node != null && node.isContainerNode() ? node : null;
+    }
+
+    /**
+     * 获取路径末段所在的容器节点，缺失的中间对象会被创建
+     *
+     * @param root 根节点
+     * @return 父节点，路径上存在非容器节点时返回null
+     */
+    public JsonNode getOrCreateParent(ObjectNode root) {
+        JsonNode node = root;
+        int last = names.length - 1;
+        for (int i = 0; i < last; i++) {
+            JsonNode next = child(node, names[i], indexes[i]);
+            if (next == null) {
+                if (!node.isObject()) {
+                    return null;
+                }
+                next = ((ObjectNode) node).putObject(names[i]);
+            } else if (!next.isContainerNode()) {
+                return null;
+            }
+            node = next;
+        }
+        return node;
+    }
+
+    /**
+     * 设置路径对应的值，缺失的中间对象会被创建
+     *
+     * @param root  根节点
+     * @param value 值
+     * @return 是否设置成功
+     */
+    public boolean set(ObjectNode root, JsonNode value) {
+        JsonNode parent = getOrCreateParent(root);
+        return parent != null && setChild(parent, value);
+    }
+
+    /**
+     * 在已解析的父节点上设置末段的值
+     *
+     * @param parent 父节点
+     * @param value  值
+     * @return 是否设置成功
+     */
+    public boolean setChild(JsonNode parent, JsonNode value) {
+        int last = names.length - 1;
+        if (parent.isObject()) {
+            ((ObjectNode) parent).set(names[last], value);
+            return true;
+        }
+        int index = indexes[last];
+        if (parent.isArray() && index != NOT_INDEX) {
+            ArrayNode array = (ArrayNode) parent;
+            if (index < array.size()) {
+                array.set(index, value);
+                return true;
+            }
+            if (index == array.size()) {
+                array.add(value);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 路径能否写入：沿途已有的节点都是容器，缺失的中间节点可在对象下创建，末段的父节点为对象，或为数组且下标不越界
+     *
+     * @param root 根节点
+     * @return 调用{@link #set(ObjectNode, JsonNode)}能否成功
+     */
+    public boolean canSet(JsonNode root) {
+        JsonNode node = root;
+        int last = names.length - 1;
+        for (int i = 0; i < last; i++) {
+            JsonNode next = child(node, names[i], indexes[i]);
+            if (next == null) {
+                return node.isObject();
+            }
+            if (!next.isContainerNode()) {
+                return false;
+            }
+            node = next;
+        }
+        int index = indexes[last];
+        return node.isObject() || (node.isArray() && index != NOT_INDEX && index <= node.size());
+    }
+
+    /**
+     * 删除路径对应的节点
+     *
+     * @param root 根节点
+     * @return 被删除的节点，不存在时返回null
+     */
+    public JsonNode remove(JsonNode root) {
+        JsonNode parent = getParent(root);
+        return parent == null ? null : removeChild(parent);
+    }
+
+    /**
+     * 在已解析的父节点上删除末段节点
+     *
+     * @param parent 父节点
+     * @return 被删除的节点，不存在时返回null
+     */
+    public JsonNode removeChild(JsonNode parent) {
+        int last = names.length - 1;
+        if (parent.isObject()) {
+            return ((ObjectNode) parent).remove(names[last]);
+        }
+        int index = indexes[last];
+        if (parent.isArray() && index != NOT_INDEX && index < parent.size()) {
+            return ((ArrayNode) parent).remove(index);
+        }
+        return null;
+    }
+
+    /**
+     * 将节点移动到目标路径，子树直接挂载，不做拷贝
+     *
+     * @param root   根节点
+     * @param target 目标路径
+     * @return 是否移动成功，源路径不存在或目标无法写入时返回false，事件保持不变
+     */
+    public boolean moveTo(ObjectNode root, FieldPath target) {
+        JsonNode parent = getParent(root);
+        JsonNode value = parent == null ? null : getChild(parent);
+        return value != null && moveChild(root, parent, value, target);
+    }
+
+    /**
+     * 将已解析父节点上的末段节点移动到目标路径，确认目标可写后才删除源节点；
+     * 源节点所在的数组因删除而移位导致目标无法写入时，源节点放回原位
+     *
+     * @param root   根节点
+     * @param parent 源节点的父节点
+     * @param value  源节点
+     * @param target 目标路径
+     * @return 是否移动成功，失败时事件保持不变
+     */
+    public boolean moveChild(ObjectNode root, JsonNode parent, JsonNode value, FieldPath target) {
+        // 目标在源节点之下时，源节点删除后目标路径从其父节点起重新创建
+        if (!isPrefixOf(target) && !target.canSet(root)) {
+            return false;
+        }
+        removeChild(parent);
+        if (target.set(root, value)) {
+            return true;
+        }
+        int last = names.length - 1;
+        if (parent.isObject()) {
+            ((ObjectNode) parent).set(names[last], value);
+        } else {
+            ((ArrayNode) parent).insert(indexes[last], value);
+        }
+        return false;
+    }
+
+    /**
+     * 末段字段名
+     */
+    public String leaf() {
+        return names[names.length - 1];
+    }
+
+    /**
+     * 首段字段名
+     */
+    public String root() {
+        return names[0];
+    }
+
+    /**
+     * 第i段字段名
+     */
+    public String name(int i) {
+        return names[i];
+    }
+
+    /**
+     * 第i段数组下标，非数字段返回-1
+     */
+    public int index(int i) {
+        return indexes[i];
+    }
+
+    /**
+     * 路径段数
+     */
+    public int depth() {
+        return names.length;
+    }
+
+    /**
+     * 是否为顶层字段
+     */
+    public boolean isTopLevel() {
+        return names.length == 1;
+    }
+
+    /**
+     * 父路径，顶层字段返回null
+     */
+    public FieldPath parent() {
+        if (names.length == 1) {
+            return null;
+        }
+        int length = names.length - 1;
+        String[] parentNames = Arrays.copyOf(names, length);
+        return new FieldPath(toPointer(parentNames), parentNames, Arrays.copyOf(indexes, length));
+    }
+
+    /**
+     * 当前路径是否为另一路径的前缀（含相等）
+     */
+    public boolean isPrefixOf(FieldPath other) {
+        if (other.names.length < names.length) {
+            return false;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (!names[i].equals(other.names[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 统一的JSON Pointer表示
+     */
+    public String toPointer() {
+        return toPointer(names);
+    }
+
+    private static String toPointer(String[] names) {
+        StringBuilder builder = new StringBuilder();
+        for (String name : names) {
+            builder.append('/').append(name.replace("~", "~0").replace("/", "~1"));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FieldPath)) {
+            return false;
+        }
+        return Arrays.equals(names, ((FieldPath) o).names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(names);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+}
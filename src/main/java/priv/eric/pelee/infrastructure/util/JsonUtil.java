@@ -5,8 +5,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
 
+import java.io.IOException;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 高性能JSON工具类
@@ -17,6 +21,10 @@ public class JsonUtil {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+    private static final int PATH_CACHE_LIMIT = 1024;
+
+    private static final Map<String, FieldPath> PATH_CACHE = new ConcurrentHashMap<>();
+
     static {
         OBJECT_MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     }
@@ -35,6 +43,20 @@ public class JsonUtil {
         }
     }
 
+    /**
+     * 将对象转换为UTF-8 JSON字节，不经过String中转
+     *
+     * @param obj 待转换的对象
+     * @return JSON字节
+     */
+    public static byte[] toJsonBytes(Object obj) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(obj);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Object to JSON conversion failed", e);
+        }
+    }
+
     /**
      * 将对象转换为格式化（美观）的JSON字符串
      *
@@ -95,6 +117,20 @@ public class JsonUtil {
         }
     }
 
+    /**
+     * 将UTF-8字节解析为JsonNode，不经过String中转
+     *
+     * @param json JSON字节
+     * @return JsonNode对象
+     */
+    public static JsonNode parseToJsonNode(byte[] json) {
+        try {
+            return OBJECT_MAPPER.readTree(json);
+        } catch (IOException e) {
+            throw new RuntimeException("JSON parsing to JsonNode failed", e);
+        }
+    }
+
     /**
      * 将JsonNode转换为对象
      *
@@ -160,46 +196,47 @@ public class JsonUtil {
 
     /**
      * 根据路径获取JsonNode
+     * <p>
+     * 路径编译结果会被缓存，热点路径不再重复解析；处理器内部应直接持有{@link FieldPath}
      *
      * @param node JsonNode对象
-     * @param path 路径表达式，如 "user.name" 或 "items[0].id"
-     * @return JsonNode对象，如果路径不存在则返回null
+     * @param path 路径表达式，如 "user.name"、"items[0].id" 或 "/user/name"
+     * @return JsonNode对象，路径不存在时返回MissingNode，路径无效时返回null
      */
     public static JsonNode getByPath(JsonNode node, String path) {
         if (node == null || path == null || path.trim().isEmpty()) {
             return null;
         }
 
-        try {
-            // 使用Jackson的at方法，支持JSON Pointer语法 (例如 /user/name 或 /items/0/id)
-            // 但我们需要将点分隔的路径转换为JSON Pointer语法
-            String jsonPointerPath = convertDotPathToJsonPointer(path);
-            return node.at(jsonPointerPath);
-        } catch (Exception e) {
-            // 如果路径无效，返回null
+        FieldPath fieldPath = compilePath(path);
+        if (fieldPath == null) {
             return null;
         }
+        JsonNode result = fieldPath.get(node);
+        return result == null ? MissingNode.getInstance() : result;
     }
 
     /**
-     * 将点分隔和数组索引路径转换为JSON指针语法
-     * 例如: "user.name" -> "/user/name", "items[0].id" -> "/items/0/id"
+     * 获取编译后的路径，路径无效时返回null
      *
-     * @param path 普通路径表达式
-     * @return JSON指针路径
+     * @param path 路径表达式
+     * @return 编译后的路径
      */
-    private static String convertDotPathToJsonPointer(String path) {
-        if (path == null || path.isEmpty()) {
-            return "/";
+    private static FieldPath compilePath(String path) {
+        FieldPath fieldPath = PATH_CACHE.get(path);
+        if (fieldPath != null) {
+            return fieldPath;
         }
-
-        // 先处理数组索引: items[0].property -> items/0/property
-        String converted = path.replaceAll("\\[(\\d+)\\]", "/$1");
-
-        // 再将点替换为斜杠
-        converted = "/" + converted.replace('.', '/');
-
-        return converted;
+        try {
+            fieldPath = FieldPath.compile(path);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        // 缓存有上限，防止动态拼接的路径撑爆内存
+        if (PATH_CACHE.size() < PATH_CACHE_LIMIT) {
+            PATH_CACHE.putIfAbsent(path, fieldPath);
+        }
+        return fieldPath;
     }
 
     /**
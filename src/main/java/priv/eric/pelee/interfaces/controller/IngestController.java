@@ -0,0 +1,80 @@
+package priv.eric.pelee.interfaces.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import priv.eric.pelee.application.service.IngestService;
+import priv.eric.pelee.domain.model.IngestResult;
+import priv.eric.pelee.interfaces.entity.Resp;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * desc: 批量写入接口
+ * <p>
+ * 请求体为NDJSON，每行一个事件，Content-Encoding为gzip时边解压边读取；
+ * 返回Callable释放容器线程，请求体在MVC异步线程池中边读取边写入流水线
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 14:50
+ */
+@RestController
+@RequestMapping("/pipelines")
+public class IngestController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngestController.class);
+
+    private static final String GZIP = "gzip";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final IngestService ingestService;
+
+    public IngestController(IngestService ingestService) {
+        this.ingestService = ingestService;
+    }
+
+    /**
+     * @param id       流水线ID
+     * @param key      可选分区键，整个请求路由到同一工作线程
+     * @param encoding 请求体编码
+     */
+    @PostMapping("/{id}/ingest")
+    public Callable<Resp<IngestResult>> ingest(@PathVariable("id") String id,
+                                               @RequestParam(value = "key", required = false) String key,
+                                               @RequestHeader(value = "Content-Encoding", required = false) String encoding,
+                                               HttpServletRequest request) {
+        return () -> {
+            IngestResult result;
+            try (InputStream body = open(request, encoding)) {
+                result = ingestService.ingest(id, body, key);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                return Resp.error(e.getMessage());
+            } catch (IOException e) {
+                LOGGER.warn("===== open ingest body failed: {}, {}", id, e.getMessage());
+                return Resp.error("请求体读取失败: " + e.getMessage());
+            }
+            if (result.isComplete()) {
+                return Resp.ok(result);
+            }
+            Resp<IngestResult> resp = Resp.error("请求体未完整写入");
+            resp.setData(result);
+            return resp;
+        };
+    }
+
+    private static InputStream open(HttpServletRequest request, String encoding) throws IOException {
+        InputStream in = request.getInputStream();
+        return GZIP.equalsIgnoreCase(encoding) ? new GZIPInputStream(in, GZIP_BUFFER_SIZE) : in;
+    }
+
+}
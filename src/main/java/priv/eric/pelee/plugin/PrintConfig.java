@@ -0,0 +1,24 @@
+package priv.eric.pelee.plugin;
+
+import lombok.Data;
+
+/**
+ * desc: 打印处理器配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 11:40
+ */
+@Data
+public class PrintConfig {
+
+    /**
+     * 日志级别：trace、debug、info、warn、error
+     */
+    private String level = "info";
+
+    /**
+     * 采样间隔，每N个事件打印一个，1表示全部打印
+     */
+    private int sample = 1;
+
+}
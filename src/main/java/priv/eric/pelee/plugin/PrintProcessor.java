@@ -4,7 +4,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import priv.eric.pelee.domain.model.Event;
 import priv.eric.pelee.domain.model.Processor;
-import priv.eric.pelee.infrastructure.util.JsonUtil;
+import priv.eric.pelee.infrastructure.codec.EventCodec;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * desc:
@@ -15,16 +19,79 @@ import priv.eric.pelee.infrastructure.util.JsonUtil;
 @ProcessorDescriptor(
         type = "print",
         description = "打印处理器",
-        author = "Eric"
+        author = "Eric",
+        configClass = PrintConfig.class
 )
 public class PrintProcessor implements Processor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PrintProcessor.class);
 
+    private final String level;
+
+    private final int sample;
+
+    public PrintProcessor(PrintConfig config) {
+        this.level = config.getLevel() == null ? "info" : config.getLevel().toLowerCase(Locale.ROOT);
+        this.sample = Math.max(1, config.getSample());
+    }
+
     @Override
     public void process(Event event) {
-        Object data = event.getData();
-        LOGGER.info("===== print event: {}", JsonUtil.toJson(data));
+        // 级别关闭或未命中采样时不做序列化
+        if (enabled() && sampled()) {
+            print(event);
+        }
+    }
+
+    @Override
+    public void processBatch(List events) {
+        if (!enabled()) {
+            return;
+        }
+        for (Object event : events) {
+            if (sampled()) {
+                print((Event) event);
+            }
+        }
+    }
+
+    private boolean sampled() {
+        return sample == 1 || ThreadLocalRandom.current().nextInt(sample) == 0;
+    }
+
+    private boolean enabled() {
+        switch (level) {
+            case "trace":
+                return LOGGER.isTraceEnabled();
+            case "debug":
+                return LOGGER.isDebugEnabled();
+            case "warn":
+                return LOGGER.isWarnEnabled();
+            case "error":
+                return LOGGER.isErrorEnabled();
+            default:
+                return LOGGER.isInfoEnabled();
+        }
+    }
+
+    private void print(Event event) {
+        String json = EventCodec.encodeToString(event);
+        switch (level) {
+            case "trace":
+                LOGGER.trace("===== print event: {}", json);
+                break;
+            case "debug":
+                LOGGER.debug("===== print event: {}", json);
+                break;
+            case "warn":
+                LOGGER.warn("===== print event: {}", json);
+                break;
+            case "error":
+                LOGGER.error("===== print event: {}", json);
+                break;
+            default:
+                LOGGER.info("===== print event: {}", json);
+        }
     }
 
 }
@@ -1,12 +1,12 @@
 package priv.eric.pelee.plugin;
 
-import org.springframework.stereotype.Component;
-import org.springframework.stereotype.Indexed;
-
 import java.lang.annotation.*;
 
 /**
- * desc:
+ * desc: 处理器描述注解
+ * <p>
+ * 处理器按配置创建实例，不注册为Spring Bean；带配置的处理器需提供以configClass为参数的构造函数。
+ * 编译期由ProcessorIndexGenerator汇总生成处理器索引，运行时不再读取该注解
  *
  * @author EricTownsChina@outlook.com
  * @date 2026-02-06 11:25
@@ -14,8 +14,6 @@ import java.lang.annotation.*;
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.TYPE})
 @Documented
-@Indexed
-@Component
 public @interface ProcessorDescriptor {
 
     String type();
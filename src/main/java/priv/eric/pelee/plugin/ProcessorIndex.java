@@ -0,0 +1,18 @@
+package priv.eric.pelee.plugin;
+
+import java.util.List;
+
+/**
+ * desc: 处理器索引
+ * <p>
+ * 由ProcessorIndexGenerator在编译期根据@ProcessorDescriptor生成，并登记在META-INF/services中，
+ * 每个包含处理器的jar各自提供一份
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 16:32
+ */
+public interface ProcessorIndex {
+
+    List<ProcessorMetadata> processors();
+
+}
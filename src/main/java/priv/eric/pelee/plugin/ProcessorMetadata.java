@@ -3,8 +3,10 @@ package priv.eric.pelee.plugin;
 import lombok.Getter;
 import priv.eric.pelee.domain.model.Processor;
 
+import java.util.function.Function;
+
 /**
- * desc:
+ * desc: 处理器元数据，由编译期生成的{@link ProcessorIndex}提供
  *
  * @author EricTownsChina@outlook.com
  * @date 2026-02-06 14:08
@@ -22,20 +24,31 @@ public class ProcessorMetadata {
 
     private final Class<?> configClass;
 
-    public ProcessorMetadata(Processor processor) {
-        ProcessorDescriptor descriptor = processor.getClass().getAnnotation(ProcessorDescriptor.class);
-        if (null == descriptor) {
-            throw new IllegalArgumentException(processor.getClass() + " 缺少@ProcessorDescriptor描述注解");
-        }
-        this.type = descriptor.type();
-        this.description = descriptor.description();
-        this.author = descriptor.author();
-        this.processorClass = processor.getClass();
-        this.configClass = descriptor.configClass();
+    private final Function<Object, ? extends Processor> factory;
+
+    public ProcessorMetadata(String type, String description, String author,
+                             Class<? extends Processor> processorClass, Class<?> configClass,
+                             Function<Object, ? extends Processor> factory) {
+        this.type = type;
+        this.description = description;
+        this.author = author;
+        this.processorClass = processorClass;
+        this.configClass = configClass;
+        this.factory = factory;
     }
 
     public boolean hasConfig() {
-        return configClass != Void.class;
+        return configClass != void.class && configClass != Void.class;
+    }
+
+    /**
+     * 按配置创建处理器实例
+     *
+     * @param config 已转换为configClass的配置，无配置的处理器忽略
+     * @return 处理器实例
+     */
+    public Processor newInstance(Object config) {
+        return factory.apply(config);
     }
 
 }
@@ -4,25 +4,31 @@ import priv.eric.pelee.domain.model.Event;
 import priv.eric.pelee.domain.model.Stage;
 import priv.eric.pelee.domain.model.StageContext;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Description: 顺序执行
+ * <p>
+ * 阶段在编译时展开为数组，执行时只做循环，不持有游标，可被多个线程同时使用
  *
  * @author EricTowns
  * @date 2026/1/26 21:28
  */
 public class SequenceStageContext implements StageContext {
 
-    private List<Stage> stages;
-    private int index = 0;
+    private static final Stage[] EMPTY = new Stage[0];
+
+    private final Stage[] stages;
 
     public SequenceStageContext() {
         // 无参构造函数，用于SPI加载
+        this.stages = EMPTY;
     }
 
     public SequenceStageContext(List<Stage> stages) {
-        this.stages = stages;
+        this.stages = stages.toArray(EMPTY);
     }
 
     @Override
@@ -30,19 +36,32 @@ public class SequenceStageContext implements StageContext {
         return "sequence";
     }
 
+    @Override
+    public StageContext compile(List<Stage> stages) {
+        return new SequenceStageContext(stages);
+    }
+
     @Override
     public void next(Event<?> event) {
-        if (stages != null && index < stages.size()) {
-            stages.get(index++).process(event, this);
+        for (Stage stage : stages) {
+            stage.process(event);
+            if (event.isDropped()) {
+                return;
+            }
         }
     }
 
-    public void setStages(List<Stage> stages) {
-        this.stages = stages;
-        this.index = 0; // 重置索引
+    @Override
+    public void nextBatch(List<Event<?>> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        for (Stage stage : stages) {
+            stage.processBatch(events);
+        }
     }
 
     public List<Stage> getStages() {
-        return this.stages;
+        return Collections.unmodifiableList(Arrays.asList(stages));
     }
-}
\ No newline at end of file
+}
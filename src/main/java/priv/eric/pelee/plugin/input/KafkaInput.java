@@ -0,0 +1,431 @@
+package priv.eric.pelee.plugin.input;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import priv.eric.pelee.domain.model.Acknowledgement;
+import priv.eric.pelee.domain.model.EventChannel;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Input;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * desc: Kafka输入
+ * <p>
+ * 单线程批量poll，记录值以字节数组写入流水线复用的事件对象，由工作线程解析；
+ * 下游队列将满时暂停全部分区并继续poll以维持心跳，容量恢复后再恢复分区；
+ * 位移按poll批次跟踪，只有一个批次内的事件全部处理完成后才会被异步提交；
+ * 流水线按failure_policy=hold保留的失败事件不会被确认，所在分区的位移停在其之前，重启或再均衡后从该处重新消费；
+ * 分区等待提交的批次达到max_pending_batches时单独暂停该分区并告警，被阻塞的分区数通过指标暴露，避免无限积压；
+ * 可重试的错误退避后继续poll，其余错误使输入端停止并通知流水线，流水线随之标记为失败
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 18:24
+ */
+public class KafkaInput implements Input, GaugeAware {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaInput.class);
+
+    private static final Duration PAUSED_POLL_TIMEOUT = Duration.ofMillis(10);
+
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final long RETRY_BACKOFF_MILLIS = 100;
+
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 5_000;
+
+    private final KafkaInputConfig config;
+
+    private final Function<Properties, Consumer<byte[], byte[]>> consumerFactory;
+
+    private final Map<TopicPartition, ArrayDeque<OffsetChunk>> chunks = new HashMap<>();
+
+    private final int pauseThreshold;
+
+    /**
+     * 等待提交的批次达到上限而单独暂停的分区，仅poll线程访问
+     */
+    private final Set<TopicPartition> blocked = new HashSet<>();
+
+    private volatile int blockedPartitions;
+
+    private volatile int pendingBatches;
+
+    private Consumer<byte[], byte[]> consumer;
+
+    private Thread thread;
+
+    private volatile boolean running;
+
+    /**
+     * 因下游已满尚未投递的记录值及其确认
+     */
+    private byte[][] pendingValues = new byte[0][];
+
+    private Acknowledgement[] pendingAcks = new Acknowledgement[0];
+
+    private int[] pendingHashes = new int[0];
+
+    private int pendingSize;
+
+    private int pendingIndex;
+
+    private boolean paused;
+
+    private long lastCommitTime;
+
+    public KafkaInput(KafkaInputConfig config) {
+        this(config, KafkaConsumer::new);
+    }
+
+    /**
+     * @param consumerFactory 按属性创建消费者，测试时可替换为指向内嵌Broker或MockConsumer的实现
+     */
+    public KafkaInput(KafkaInputConfig config, Function<Properties, Consumer<byte[], byte[]>> consumerFactory) {
+        if (config.getTopics() == null || config.getTopics().isEmpty()) {
+            throw new IllegalArgumentException("Kafka输入缺少topics配置");
+        }
+        this.config = config;
+        this.consumerFactory = consumerFactory;
+        this.pauseThreshold = config.getPauseThreshold() > 0 ? config.getPauseThreshold() : config.getMaxPollRecords();
+    }
+
+    @Override
+    public String type() {
+        return "kafka";
+    }
+
+    @Override
+    public synchronized void start(EventChannel channel) {
+        if (running) {
+            return;
+        }
+        consumer = consumerFactory.apply(consumerProperties());
+        running = true;
+        thread = new Thread(() -> run(channel), "pelee-kafka-" + String.join(",", config.getTopics()));
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    Properties consumerProperties() {
+        Properties props = new Properties();
+        config.getProperties().forEach((key, value) -> {
+            if (value == null || value.isEmpty() || "username".equals(key) || "password".equals(key)) {
+                return;
+            }
+            props.put(key.replace('-', '.'), value);
+        });
+        String username = config.getProperties().get("username");
+        if (username != null && !username.isEmpty()) {
+            props.putIfAbsent("security.protocol", "SASL_PLAINTEXT");
+            props.putIfAbsent("sasl.mechanism", "PLAIN");
+            props.putIfAbsent("sasl.jaas.config", "org.apache.kafka.common.security.plain.PlainLoginModule required"
+                    + " username=" + quote(username) + " password=" + quote(config.getProperties().get("password")) + ";");
+        }
+        if (config.getGroupId() != null) {
+            props.put(ConsumerConfig.GROUP_ID_CONFIG, config.getGroupId());
+        }
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(config.getMaxPollRecords()));
+        return props;
+    }
+
+    /**
+     * JAAS配置中的值以双引号包裹，值内的反斜杠与双引号需转义，否则含引号或分号的密码会破坏配置
+     */
+    static String quote(String value) {
+        String text = value == null ? "" : value;
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    private void run(EventChannel channel) {
+        Duration pollTimeout = Duration.ofMillis(config.getPollTimeoutMs());
+        int failures = 0;
+        try {
+            consumer.subscribe(config.getTopics(), new RebalanceListener());
+            while (running) {
+                try {
+                    offerPending(channel);
+                    applyBackpressure(channel);
+                    ConsumerRecords<byte[], byte[]> records = consumer.poll(paused ? PAUSED_POLL_TIMEOUT : pollTimeout);
+                    if (!records.isEmpty()) {
+                        enqueue(records);
+                        offerPending(channel);
+                    }
+                    commitCompleted(false);
+                    failures = 0;
+                } catch (RetriableException e) {
+                    failures++;
+                    LOGGER.warn("===== kafka input error, retry: {}, attempts: {}", config.getTopics(), failures, e);
+                    backoff(failures);
+                }
+            }
+        } catch (WakeupException e) {
+            if (running) {
+                LOGGER.error("===== kafka input woken up unexpectedly", e);
+                channel.fail(e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (running) {
+                channel.fail(e);
+            }
+        } catch (Exception e) {
+            LOGGER.error("===== kafka input failed: {}", config.getTopics(), e);
+            channel.fail(e);
+        } finally {
+            try {
+                commitCompleted(true);
+            } catch (Exception e) {
+                LOGGER.warn("===== kafka final commit failed", e);
+            }
+            consumer.close(CLOSE_TIMEOUT);
+        }
+    }
+
+    /**
+     * 按连续失败次数指数退避
+     */
+    private static void backoff(int failures) throws InterruptedException {
+        Thread.sleep(Math.min(MAX_RETRY_BACKOFF_MILLIS, RETRY_BACKOFF_MILLIS << Math.min(failures - 1, 20)));
+    }
+
+    /**
+     * 为一次poll的记录建立位移批次，并加入待投递列表
+     */
+    private void enqueue(ConsumerRecords<byte[], byte[]> records) {
+        // 正常情况下暂停期间不会有新记录，这里仍保留尚未投递的记录以防万一
+        int remaining = pendingSize - pendingIndex;
+        int required = remaining + records.count();
+        if (pendingValues.length < required) {
+            pendingValues = Arrays.copyOfRange(pendingValues, pendingIndex, pendingIndex + required);
+            pendingAcks = Arrays.copyOfRange(pendingAcks, pendingIndex, pendingIndex + required);
+            pendingHashes = Arrays.copyOfRange(pendingHashes, pendingIndex, pendingIndex + required);
+        } else if (pendingIndex > 0) {
+            System.arraycopy(pendingValues, pendingIndex, pendingValues, 0, remaining);
+            System.arraycopy(pendingAcks, pendingIndex, pendingAcks, 0, remaining);
+            System.arraycopy(pendingHashes, pendingIndex, pendingHashes, 0, remaining);
+        }
+        pendingIndex = 0;
+        pendingSize = remaining;
+        for (TopicPartition partition : records.partitions()) {
+            List<ConsumerRecord<byte[], byte[]>> partitionRecords = records.records(partition);
+            long nextOffset = partitionRecords.get(partitionRecords.size() - 1).offset() + 1;
+            OffsetChunk chunk = new OffsetChunk(nextOffset, partitionRecords.size());
+            ArrayDeque<OffsetChunk> queue = chunks.computeIfAbsent(partition, p -> new ArrayDeque<>());
+            queue.addLast(chunk);
+            if (queue.size() >= config.getMaxPendingBatches() && blocked.add(partition)) {
+                consumer.pause(List.of(partition));
+                blockedPartitions = blocked.size();
+                LOGGER.error("===== kafka partition blocked by unacknowledged events: {}, pending batches: {}, "
+                        + "oldest batch ends before offset: {}", partition, queue.size(), queue.peekFirst().nextOffset);
+            }
+            // 流水线配置了partition_key时以事件中的分区键为准；否则按消息键，无消息键时按分区路由，依然保持Kafka分区内的顺序
+            int partitionHash = spread(partition.hashCode());
+            for (ConsumerRecord<byte[], byte[]> record : partitionRecords) {
+                byte[] key = record.key();
+                pendingValues[pendingSize] = record.value();
+                pendingAcks[pendingSize] = chunk;
+                pendingHashes[pendingSize] = key == null ? partitionHash : spread(Arrays.hashCode(key));
+                pendingSize++;
+            }
+        }
+    }
+
+    private void offerPending(EventChannel channel) {
+        while (pendingIndex < pendingSize) {
+            if (!channel.offer(pendingValues[pendingIndex], pendingAcks[pendingIndex], pendingHashes[pendingIndex])) {
+                return;
+            }
+            pendingValues[pendingIndex] = null;
+            pendingAcks[pendingIndex++] = null;
+        }
+        pendingIndex = 0;
+        pendingSize = 0;
+    }
+
+    private void applyBackpressure(EventChannel channel) {
+        boolean saturated = pendingIndex < pendingSize || channel.remainingCapacity() < pauseThreshold;
+        if (saturated && !paused) {
+            consumer.pause(consumer.assignment());
+            paused = true;
+            LOGGER.debug("===== kafka input paused");
+        } else if (!saturated && paused) {
+            Set<TopicPartition> resumable = new HashSet<>(consumer.paused());
+            resumable.removeAll(blocked);
+            consumer.resume(resumable);
+            paused = false;
+            LOGGER.debug("===== kafka input resumed");
+        }
+    }
+
+    /**
+     * 提交每个分区已连续处理完成的最大位移，积压回落到上限以下的分区解除阻塞
+     *
+     * @param sync 是否同步提交，关闭和再均衡时使用
+     */
+    private void commitCompleted(boolean sync) {
+        long now = System.currentTimeMillis();
+        if (!sync && now - lastCommitTime < config.getCommitIntervalMs()) {
+            return;
+        }
+        lastCommitTime = now;
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        int pending = 0;
+        for (Map.Entry<TopicPartition, ArrayDeque<OffsetChunk>> entry : chunks.entrySet()) {
+            ArrayDeque<OffsetChunk> queue = entry.getValue();
+            long committable = -1;
+            while (!queue.isEmpty() && queue.peekFirst().isDone()) {
+                committable = queue.pollFirst().nextOffset;
+            }
+            if (committable >= 0) {
+                offsets.put(entry.getKey(), new OffsetAndMetadata(committable));
+            }
+            pending += queue.size();
+        }
+        pendingBatches = pending;
+        unblock();
+        if (offsets.isEmpty()) {
+            return;
+        }
+        if (sync) {
+            consumer.commitSync(offsets);
+        } else {
+            consumer.commitAsync(offsets, (committed, e) -> {
+                if (e != null) {
+                    LOGGER.warn("===== kafka commit failed: {}", committed, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * 恢复积压已回落的分区，整体暂停期间由{@link #applyBackpressure(EventChannel)}统一恢复
+     */
+    private void unblock() {
+        if (blocked.isEmpty()) {
+            return;
+        }
+        List<TopicPartition> released = new ArrayList<>();
+        blocked.removeIf(partition -> {
+            ArrayDeque<OffsetChunk> queue = chunks.get(partition);
+            if (queue != null && queue.size() >= config.getMaxPendingBatches()) {
+                return false;
+            }
+            released.add(partition);
+            return true;
+        });
+        blockedPartitions = blocked.size();
+        if (released.isEmpty()) {
+            return;
+        }
+        LOGGER.info("===== kafka partitions unblocked: {}", released);
+        if (!paused) {
+            consumer.resume(released);
+        }
+    }
+
+    @Override
+    public Map<String, DoubleSupplier> gauges() {
+        Map<String, DoubleSupplier> gauges = new LinkedHashMap<>();
+        gauges.put("blocked_partitions", () -> blockedPartitions);
+        gauges.put("pending_batches", () -> pendingBatches);
+        return gauges;
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) & Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        consumer.wakeup();
+        try {
+            thread.join(CLOSE_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 一次poll中单个分区的记录，全部确认后该批次的位移可以提交
+     */
+    private static final class OffsetChunk implements Acknowledgement {
+
+        private final long nextOffset;
+
+        private final AtomicInteger remaining;
+
+        private OffsetChunk(long nextOffset, int count) {
+            this.nextOffset = nextOffset;
+            this.remaining = new AtomicInteger(count);
+        }
+
+        @Override
+        public void acknowledge() {
+            remaining.decrementAndGet();
+        }
+
+        private boolean isDone() {
+            return remaining.get() <= 0;
+        }
+
+    }
+
+    private class RebalanceListener implements ConsumerRebalanceListener {
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            // 已完成的位移先行提交，未完成的事件在新的分配中会被重新消费
+            try {
+                commitCompleted(true);
+            } catch (Exception e) {
+                LOGGER.warn("===== kafka commit on revoke failed", e);
+            }
+            // 已撤销分区中仍待投递的事件照常处理，确认时其批次已不再参与提交
+            partitions.forEach(chunks::remove);
+            blocked.removeAll(partitions);
+            blockedPartitions = blocked.size();
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            if (paused) {
+                consumer.pause(partitions);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+package priv.eric.pelee.plugin.input;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * desc: Kafka输入配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 18:20
+ */
+@Data
+public class KafkaInputConfig {
+
+    private List<String> topics = new ArrayList<>();
+
+    @JsonProperty("group_id")
+    private String groupId;
+
+    /**
+     * 单次poll最大记录数
+     */
+    @JsonProperty("max_poll_records")
+    private int maxPollRecords = 2000;
+
+    @JsonProperty("poll_timeout_ms")
+    private long pollTimeoutMs = 100;
+
+    /**
+     * 异步提交位移的间隔
+     */
+    @JsonProperty("commit_interval_ms")
+    private long commitIntervalMs = 1000;
+
+    /**
+     * 下游剩余容量低于该值时暂停拉取，默认为max_poll_records
+     */
+    @JsonProperty("pause_threshold")
+    private int pauseThreshold = 0;
+
+    /**
+     * 单个分区等待提交的poll批次上限；最早的批次中有事件一直未确认时，达到上限后单独暂停该分区并告警，不再继续积压
+     */
+    @JsonProperty("max_pending_batches")
+    private int maxPendingBatches = 1000;
+
+    /**
+     * 透传给KafkaConsumer的属性，短横线会被转换为点，如bootstrap-servers
+     */
+    private Map<String, String> properties = new HashMap<>();
+
+}
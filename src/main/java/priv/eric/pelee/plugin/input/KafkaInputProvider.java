@@ -0,0 +1,28 @@
+package priv.eric.pelee.plugin.input;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Component;
+import priv.eric.pelee.domain.model.Input;
+import priv.eric.pelee.domain.model.InputProvider;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+/**
+ * desc:
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 19:02
+ */
+@Component
+public class KafkaInputProvider implements InputProvider {
+
+    @Override
+    public String type() {
+        return "kafka";
+    }
+
+    @Override
+    public Input create(JsonNode config) {
+        return new KafkaInput(JsonUtil.convertValue(config, KafkaInputConfig.class));
+    }
+
+}
@@ -0,0 +1,123 @@
+package priv.eric.pelee.plugin.output;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.infrastructure.codec.EncodedBatch;
+import priv.eric.pelee.infrastructure.codec.ReusableByteBuffer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * desc: 文件输出，每个事件写为一行JSON
+ * <p>
+ * 多个工作线程并发写入时整批加锁，同一批事件在文件中连续；批次先拼接到复用缓冲再一次写入
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 17:20
+ */
+public class FileOutput implements Output, GaugeAware {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileOutput.class);
+
+    private final Path path;
+
+    private final OutputStream out;
+
+    private final ReusableByteBuffer buffer = new ReusableByteBuffer(64 * 1024);
+
+    private final LongAdder sentEvents = new LongAdder();
+
+    private final LongAdder sentBytes = new LongAdder();
+
+    private boolean closed;
+
+    public FileOutput(FileOutputConfig config) {
+        if (config.getPath() == null || config.getPath().isEmpty()) {
+            throw new IllegalArgumentException("文件输出缺少path");
+        }
+        if (config.getBufferBytes() <= 0) {
+            throw new IllegalArgumentException("写入缓冲大小必须大于0: " + config.getBufferBytes());
+        }
+        this.path = Paths.get(config.getPath());
+        try {
+            this.out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    config.isAppend() ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING),
+                    config.getBufferBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("打开输出文件失败: " + path, e);
+        }
+    }
+
+    @Override
+    public String type() {
+        return "file";
+    }
+
+    @Override
+    public void write(List<Event<?>> events) {
+        write(events, EncodedBatch.encode(events));
+    }
+
+    @Override
+    public synchronized void write(List<Event<?>> events, EncodedBatch encoded) {
+        if (closed) {
+            LOGGER.warn("===== file output closed, drop events: {}, {}", path, encoded.size());
+            return;
+        }
+        buffer.reset();
+        for (int i = 0; i < encoded.size(); i++) {
+            encoded.copyTo(i, buffer);
+            buffer.write('\n');
+        }
+        try {
+            out.write(buffer.array(), 0, buffer.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入输出文件失败: " + path, e);
+        }
+        sentEvents.add(encoded.size());
+        sentBytes.add(buffer.size());
+    }
+
+    @Override
+    public boolean acceptsEncoded() {
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            LOGGER.warn("===== close file output failed: {}", path, e);
+        }
+    }
+
+    @Override
+    public Map<String, DoubleSupplier> gauges() {
+        Map<String, DoubleSupplier> gauges = new LinkedHashMap<>();
+        gauges.put("sent_events", sentEvents::sum);
+        gauges.put("sent_bytes", sentBytes::sum);
+        return gauges;
+    }
+
+}
@@ -0,0 +1,31 @@
+package priv.eric.pelee.plugin.output;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * desc: 文件输出配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 17:14
+ */
+@Data
+public class FileOutputConfig {
+
+    /**
+     * 输出文件路径，每个事件一行JSON
+     */
+    private String path;
+
+    /**
+     * 是否追加到已有文件，否则启动时清空
+     */
+    private boolean append = false;
+
+    /**
+     * 写入缓冲大小
+     */
+    @JsonProperty("buffer_bytes")
+    private int bufferBytes = 1024 * 1024;
+
+}
@@ -0,0 +1,28 @@
+package priv.eric.pelee.plugin.output;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Component;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.domain.model.OutputProvider;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+/**
+ * desc:
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 17:16
+ */
+@Component
+public class FileOutputProvider implements OutputProvider {
+
+    @Override
+    public String type() {
+        return "file";
+    }
+
+    @Override
+    public Output create(JsonNode config) {
+        return new FileOutput(JsonUtil.convertValue(config, FileOutputConfig.class));
+    }
+
+}
@@ -0,0 +1,57 @@
+package priv.eric.pelee.plugin.output;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * desc: 输出端流控配置
+ * <p>
+ * 限速与并发上限阻塞发送线程，缓冲写满后阻塞流水线工作线程，最终使输入端暂停拉取
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 16:40
+ */
+@Data
+public class FlowControlConfig {
+
+    /**
+     * 每秒最多发送的事件数，小于等于0时不限速
+     */
+    @JsonProperty("rate_limit")
+    private double rateLimit;
+
+    /**
+     * 限速时最多积累的事件数，小于等于0时取一秒的量
+     */
+    private int burst;
+
+    /**
+     * 是否按下游延迟与错误自适应调整在途请求数，上限为max_in_flight
+     */
+    private boolean adaptive = true;
+
+    /**
+     * 自适应时在途请求数的下限
+     */
+    @JsonProperty("min_in_flight")
+    private int minInFlight = 1;
+
+    /**
+     * 延迟超过无负载基线的倍数视为过载
+     */
+    @JsonProperty("latency_tolerance")
+    private double latencyTolerance = 2.0;
+
+    /**
+     * 过载时在途请求数上限的下调比例
+     */
+    @JsonProperty("backoff_ratio")
+    private double backoffRatio = 0.9;
+
+    /**
+     * 无负载延迟基线的统计窗口
+     */
+    @JsonProperty("baseline_window_ms")
+    private long baselineWindowMs = 30000;
+
+}
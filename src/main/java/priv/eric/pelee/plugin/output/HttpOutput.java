@@ -0,0 +1,539 @@
+package priv.eric.pelee.plugin.output;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.infrastructure.codec.EncodedBatch;
+import priv.eric.pelee.infrastructure.codec.ReusableByteBuffer;
+import priv.eric.pelee.infrastructure.flow.ConcurrencyLimiter;
+import priv.eric.pelee.infrastructure.flow.TokenBucket;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleSupplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * desc: HTTP输出
+ * <p>
+ * 写入时只把流水线已序列化的事件批次放入有界缓冲；独立的发送线程按条数、字节数和等待时间
+ * 将字节块拼装为NDJSON或JSON数组请求体，gzip压缩后通过长连接复用的HttpClient异步发送。
+ * 在途请求数受max_in_flight限制，失败请求按指数退避在调度线程上重试，不占用工作线程。
+ * 配置flow_control后发送前按令牌桶限速，在途请求数上限随下游延迟与错误自适应调整；
+ * 发送线程因此等待时缓冲逐渐写满，写入方阻塞，背压经流水线传递到输入端。
+ * 一次写入的事件可能被拆入多个请求，其结果在这些请求全部成功或有请求重试耗尽后完成，流水线此时才确认事件；
+ * 拼装或发起请求出错时只有相关批次失败，发送线程继续运行。关闭时超过close_timeout_ms仍未完成的批次
+ * （缓冲中、在途或等待重试）按失败完成，不会一直挂起
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 20:14
+ */
+public class HttpOutput implements Output, GaugeAware {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpOutput.class);
+
+    private static final String FORMAT_JSON_ARRAY = "json_array";
+
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final HttpOutputConfig config;
+
+    private final URI uri;
+
+    private final boolean jsonArray;
+
+    private final long lingerNanos;
+
+    private final BlockingQueue<Chunk> queue;
+
+    /**
+     * 已写入但结果尚未完成的批次，关闭超时后统一按失败完成
+     */
+    private final Set<Chunk> pending = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrencyLimiter limiter;
+
+    /**
+     * 事件限速，未配置时为null
+     */
+    private final TokenBucket rateLimiter;
+
+    private final ExecutorService clientExecutor;
+
+    private final ScheduledExecutorService retryScheduler;
+
+    private final HttpClient client;
+
+    private final LongAdder sentEvents = new LongAdder();
+
+    private final LongAdder sentBytes = new LongAdder();
+
+    private final LongAdder failedEvents = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    private final LongAdder throttledNanos = new LongAdder();
+
+    private Thread sender;
+
+    private volatile boolean running;
+
+    public HttpOutput(HttpOutputConfig config) {
+        if (config.getUrl() == null || config.getUrl().isEmpty()) {
+            throw new IllegalArgumentException("HTTP输出缺少url配置");
+        }
+        this.config = config;
+        this.uri = URI.create(config.getUrl());
+        this.jsonArray = FORMAT_JSON_ARRAY.equals(config.getFormat());
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(config.getLingerMs());
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        FlowControlConfig flow = config.getFlowControl();
+        if (flow == null) {
+            this.limiter = new ConcurrencyLimiter(config.getMaxInFlight());
+            this.rateLimiter = null;
+        } else {
+            this.limiter = new ConcurrencyLimiter(Math.min(flow.getMinInFlight(), config.getMaxInFlight()),
+                    config.getMaxInFlight(), flow.isAdaptive(), flow.getLatencyTolerance(), flow.getBackoffRatio(),
+                    flow.getBaselineWindowMs());
+            this.rateLimiter = flow.getRateLimit() > 0
+                    ? new TokenBucket(flow.getRateLimit(), flow.getBurst() > 0 ? flow.getBurst() : flow.getRateLimit())
+                    : null;
+        }
+        this.clientExecutor = Executors.newFixedThreadPool(Math.max(2, config.getMaxInFlight()), daemon("pelee-http-client"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(daemon("pelee-http-retry"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getTimeoutMs()))
+                .executor(clientExecutor)
+                .build();
+    }
+
+    @Override
+    public String type() {
+        return "http";
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        sender = new Thread(this::runSender, "pelee-http-sender-" + (config.getName() == null ? uri.getHost() : config.getName()));
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    @Override
+    public void write(List<Event<?>> events) {
+        if (!events.isEmpty()) {
+            send(events, EncodedBatch.encode(events));
+        }
+    }
+
+    @Override
+    public void write(List<Event<?>> events, EncodedBatch encoded) {
+        send(events, encoded);
+    }
+
+    /**
+     * 直接缓存流水线已序列化的字节，缓冲已满时阻塞，以此向流水线传递背压
+     */
+    @Override
+    public CompletionStage<Void> send(List<Event<?>> events, EncodedBatch encoded) {
+        if (encoded == null) {
+            encoded = EncodedBatch.encode(events);
+        }
+        if (encoded.size() == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("HTTP输出已关闭"));
+        }
+        Chunk chunk = new Chunk(encoded);
+        pending.add(chunk);
+        chunk.result.whenComplete((ignored, error) -> pending.remove(chunk));
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chunk.result.completeExceptionally(e);
+            throw new IllegalStateException("HTTP输出写入被中断", e);
+        }
+        return chunk.result;
+    }
+
+    @Override
+    public boolean acceptsEncoded() {
+        return true;
+    }
+
+    private void runSender() {
+        RequestBuilder request = new RequestBuilder();
+        long deadline = 0;
+        while (running || !queue.isEmpty()) {
+            long wait = request.count == 0 ? IDLE_POLL_NANOS : deadline - System.nanoTime();
+            Chunk chunk;
+            try {
+                chunk = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            int appended = 0;
+            try {
+                while (chunk != null && appended < chunk.batch.size()) {
+                    if (request.count == 0) {
+                        deadline = System.nanoTime() + lingerNanos;
+                    }
+                    request.append(chunk, appended++);
+                    if (request.count >= config.getBatchSize() || request.size() >= config.getBatchBytes()) {
+                        flush(request);
+                    }
+                }
+                if (request.count > 0 && System.nanoTime() - deadline >= 0) {
+                    flush(request);
+                }
+            } catch (RuntimeException e) {
+                abort(request, e);
+                if (chunk != null && appended < chunk.batch.size()) {
+                    failedEvents.add(chunk.batch.size() - appended);
+                    chunk.finish(chunk.batch.size() - appended, false);
+                }
+            }
+        }
+        try {
+            flush(request);
+        } catch (RuntimeException e) {
+            abort(request, e);
+        }
+    }
+
+    /**
+     * 拼装请求出错时，已拼入的事件所在批次按失败完成，发送线程继续处理后续批次
+     */
+    private void abort(RequestBuilder request, RuntimeException error) {
+        int count = request.count;
+        List<Part> parts = request.takeParts();
+        request.reset();
+        failedEvents.add(count);
+        LOGGER.error("===== http output build request failed: {}, events: {}", uri, count, error);
+        finish(parts, false);
+    }
+
+    private void flush(RequestBuilder request) {
+        if (request.count == 0) {
+            return;
+        }
+        byte[] body = request.finish();
+        int count = request.count;
+        List<Part> parts = request.takeParts();
+        request.reset();
+        throttle(count);
+        try {
+            limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failedEvents.add(count);
+            finish(parts, false);
+            return;
+        }
+        dispatch(body, count, parts, 0);
+    }
+
+    /**
+     * 按令牌桶等待，等待期间发送线程不再从缓冲取数据
+     */
+    private void throttle(int count) {
+        if (rateLimiter == null) {
+            return;
+        }
+        long wait = rateLimiter.reserve(count);
+        if (wait <= 0) {
+            return;
+        }
+        throttledNanos.add(wait);
+        long deadline = System.nanoTime() + wait;
+        long remaining = wait;
+        while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    private void dispatch(byte[] body, int count, List<Part> parts, int attempt) {
+        HttpRequest request;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofMillis(config.getTimeoutMs()))
+                    .header("Content-Type", jsonArray ? "application/json" : "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+            if (config.isGzip()) {
+                builder.header("Content-Encoding", "gzip");
+            }
+            config.getHeaders().forEach(builder::header);
+            request = builder.build();
+        } catch (RuntimeException e) {
+            // 如header不合法，重试也无法恢复
+            fail(count, parts, attempt, -1, e);
+            return;
+        }
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    int status = response == null ? -1 : response.statusCode();
+                    boolean retryable = error != null || status == 429 || status >= 500;
+                    limiter.sample(System.nanoTime() - start, retryable);
+                    if (error == null && status >= 200 && status < 300) {
+                        sentEvents.add(count);
+                        sentBytes.add(body.length);
+                        limiter.release();
+                        finish(parts, true);
+                        return;
+                    }
+                    if (retryable && attempt < config.getMaxRetries() && retry(body, count, parts, attempt)) {
+                        return;
+                    }
+                    fail(count, parts, attempt, status, error);
+                });
+    }
+
+    /**
+     * 调度一次重试，关闭后调度器拒绝时返回false，由调用方按失败处理
+     */
+    private boolean retry(byte[] body, int count, List<Part> parts, int attempt) {
+        try {
+            retryScheduler.schedule(() -> dispatch(body, count, parts, attempt + 1), backoff(attempt),
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+        retries.increment();
+        return true;
+    }
+
+    private void fail(int count, List<Part> parts, int attempt, int status, Throwable error) {
+        failedEvents.add(count);
+        limiter.release();
+        LOGGER.error("===== http output failed: {}, status: {}, events: {}, attempts: {}",
+                uri, status, count, attempt + 1, error);
+        finish(parts, false);
+    }
+
+    private static void finish(List<Part> parts, boolean success) {
+        for (Part part : parts) {
+            part.chunk.finish(part.count, success);
+        }
+    }
+
+    private long backoff(int attempt) {
+        long backoff = Math.min(config.getMaxBackoffMs(), config.getRetryBackoffMs() << Math.min(attempt, 20));
+        // 抖动避免多个请求同时重试
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getCloseTimeoutMs());
+        try {
+            TimeUnit.NANOSECONDS.timedJoin(sender, Math.max(1, deadline - System.nanoTime()));
+            if (!limiter.awaitIdle(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                LOGGER.warn("===== http output closed with requests in flight: {}", uri);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            retryScheduler.shutdownNow();
+            clientExecutor.shutdown();
+            // 被丢弃的重试、仍在缓冲或在途的批次不会再有结果，按失败完成以免调用方一直等待
+            IllegalStateException closed = new IllegalStateException("HTTP输出已关闭，批次未发送完成");
+            for (Chunk chunk : pending) {
+                chunk.result.completeExceptionally(closed);
+            }
+        }
+    }
+
+    public long getSentEvents() {
+        return sentEvents.sum();
+    }
+
+    public long getSentBytes() {
+        return sentBytes.sum();
+    }
+
+    public long getFailedEvents() {
+        return failedEvents.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    @Override
+    public Map<String, DoubleSupplier> gauges() {
+        Map<String, DoubleSupplier> gauges = new LinkedHashMap<>();
+        gauges.put("concurrency_limit", limiter::getLimit);
+        gauges.put("in_flight", limiter::getInFlight);
+        gauges.put("rate_limit", () -> rateLimiter == null ? 0 : rateLimiter.getRate());
+        gauges.put("throttled_seconds", () -> throttledNanos.sum() / 1e9);
+        gauges.put("queue_size", queue::size);
+        gauges.put("sent_events", sentEvents::sum);
+        gauges.put("failed_events", failedEvents::sum);
+        return gauges;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 一次写入的批次，其事件可能被拆入多个请求，所有事件的请求都结束后完成
+     */
+    private static final class Chunk {
+
+        private final EncodedBatch batch;
+
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private final AtomicInteger remaining;
+
+        private volatile boolean failed;
+
+        private Chunk(EncodedBatch batch) {
+            this.batch = batch;
+            this.remaining = new AtomicInteger(batch.size());
+        }
+
+        private void finish(int events, boolean success) {
+            if (!success) {
+                failed = true;
+            }
+            if (remaining.addAndGet(-events) == 0) {
+                if (failed) {
+                    result.completeExceptionally(new IllegalStateException("HTTP输出发送失败，重试已耗尽"));
+                } else {
+                    result.complete(null);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * 请求中来自同一批次的连续事件
+     */
+    private static final class Part {
+
+        private final Chunk chunk;
+
+        private int count;
+
+        private Part(Chunk chunk) {
+            this.chunk = chunk;
+        }
+
+    }
+
+    /**
+     * 请求体拼装缓冲，由发送线程独占并复用
+     */
+    private final class RequestBuilder {
+
+        private final ReusableByteBuffer buffer = new ReusableByteBuffer(config.getBatchBytes() + 1024);
+
+        private List<Part> parts = new ArrayList<>();
+
+        private int count;
+
+        private void append(Chunk chunk, int index) {
+            if (jsonArray) {
+                buffer.write(count == 0 ? '[' : ',');
+            }
+            chunk.batch.copyTo(index, buffer);
+            if (!jsonArray) {
+                buffer.write('\n');
+            }
+            Part last = parts.isEmpty() ? null : parts.get(parts.size() - 1);
+            if (last == null || last.chunk != chunk) {
+                last = new Part(chunk);
+                parts.add(last);
+            }
+            last.count++;
+            count++;
+        }
+
+        /**
+         * 取出本请求包含的批次片段，交给请求结束时的回调
+         */
+        private List<Part> takeParts() {
+            List<Part> taken = parts;
+            parts = new ArrayList<>();
+            return taken;
+        }
+
+        private int size() {
+            return buffer.size();
+        }
+
+        private byte[] finish() {
+            if (jsonArray) {
+                buffer.write(']');
+            }
+            if (!config.isGzip()) {
+                return buffer.toByteArray();
+            }
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, buffer.size() / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 8192)) {
+                gzip.write(buffer.array(), 0, buffer.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException("HTTP输出压缩失败", e);
+            }
+            return compressed.toByteArray();
+        }
+
+        private void reset() {
+            buffer.reset();
+            count = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package priv.eric.pelee.plugin.output;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * desc: HTTP输出配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 20:08
+ */
+@Data
+public class HttpOutputConfig {
+
+    private String name;
+
+    private String url;
+
+    /**
+     * 请求体格式：ndjson 或 json_array
+     */
+    private String format = "ndjson";
+
+    /**
+     * 单个请求最大事件数
+     */
+    @JsonProperty("batch_size")
+    private int batchSize = 1000;
+
+    /**
+     * 单个请求未压缩时的最大字节数
+     */
+    @JsonProperty("batch_bytes")
+    private int batchBytes = 1024 * 1024;
+
+    /**
+     * 请求未满时最长等待时间
+     */
+    @JsonProperty("linger_ms")
+    private long lingerMs = 100;
+
+    private boolean gzip = true;
+
+    /**
+     * 同时在途的最大请求数
+     */
+    @JsonProperty("max_in_flight")
+    private int maxInFlight = 4;
+
+    /**
+     * 工作线程写入与发送线程之间的缓冲块数量，满时写入方阻塞形成背压
+     */
+    @JsonProperty("queue_capacity")
+    private int queueCapacity = 1024;
+
+    @JsonProperty("max_retries")
+    private int maxRetries = 5;
+
+    @JsonProperty("retry_backoff_ms")
+    private long retryBackoffMs = 100;
+
+    @JsonProperty("max_backoff_ms")
+    private long maxBackoffMs = 10000;
+
+    @JsonProperty("timeout_ms")
+    private long timeoutMs = 10000;
+
+    /**
+     * 关闭时等待缓冲发送完、在途请求与待重试请求结束的最长时间，超时后未完成的批次按失败处理
+     */
+    @JsonProperty("close_timeout_ms")
+    private long closeTimeoutMs = 30000;
+
+    private Map<String, String> headers = new HashMap<>();
+
+    /**
+     * 流控配置，未配置时只按max_in_flight限制在途请求数
+     */
+    @JsonProperty("flow_control")
+    private FlowControlConfig flowControl;
+
+}
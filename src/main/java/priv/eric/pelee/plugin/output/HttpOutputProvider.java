@@ -0,0 +1,28 @@
+package priv.eric.pelee.plugin.output;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Component;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.domain.model.OutputProvider;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+/**
+ * desc:
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-18 20:10
+ */
+@Component
+public class HttpOutputProvider implements OutputProvider {
+
+    @Override
+    public String type() {
+        return "http";
+    }
+
+    @Override
+    public Output create(JsonNode config) {
+        return new HttpOutput(JsonUtil.convertValue(config, HttpOutputConfig.class));
+    }
+
+}
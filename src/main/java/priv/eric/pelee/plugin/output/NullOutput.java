@@ -0,0 +1,57 @@
+package priv.eric.pelee.plugin.output;
+
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.infrastructure.codec.EncodedBatch;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * desc: 丢弃全部事件的输出端，只统计事件数与序列化后的字节数
+ * <p>
+ * 声明使用序列化字节，序列化开销计入流水线，用于压测时排除下游的影响
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 17:10
+ */
+public class NullOutput implements Output, GaugeAware {
+
+    private final LongAdder sentEvents = new LongAdder();
+
+    private final LongAdder sentBytes = new LongAdder();
+
+    @Override
+    public String type() {
+        return "null";
+    }
+
+    @Override
+    public void write(List<Event<?>> events) {
+        write(events, EncodedBatch.encode(events));
+    }
+
+    @Override
+    public void write(List<Event<?>> events, EncodedBatch encoded) {
+        sentEvents.add(encoded.size());
+        sentBytes.add(encoded.bytes());
+    }
+
+    @Override
+    public boolean acceptsEncoded() {
+        return true;
+    }
+
+    @Override
+    public Map<String, DoubleSupplier> gauges() {
+        Map<String, DoubleSupplier> gauges = new LinkedHashMap<>();
+        gauges.put("sent_events", sentEvents::sum);
+        gauges.put("sent_bytes", sentBytes::sum);
+        return gauges;
+    }
+
+}
@@ -0,0 +1,27 @@
+package priv.eric.pelee.plugin.output;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Component;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.domain.model.OutputProvider;
+
+/**
+ * desc:
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-20 17:12
+ */
+@Component
+public class NullOutputProvider implements OutputProvider {
+
+    @Override
+    public String type() {
+        return "null";
+    }
+
+    @Override
+    public Output create(JsonNode config) {
+        return new NullOutput();
+    }
+
+}
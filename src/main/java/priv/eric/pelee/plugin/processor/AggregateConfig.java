@@ -0,0 +1,72 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * desc: 窗口聚合配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 21:30
+ */
+@Data
+public class AggregateConfig {
+
+    /**
+     * 聚合名称，写入输出事件的aggregate字段
+     */
+    private String name = "aggregate";
+
+    /**
+     * 分组字段路径，为空时所有事件聚合为一组
+     */
+    @JsonProperty("group_by")
+    private List<String> groupBy = new ArrayList<>();
+
+    /**
+     * 窗口类型：tumbling 或 sliding
+     */
+    private String window = "tumbling";
+
+    /**
+     * 窗口长度
+     */
+    @JsonProperty("size_ms")
+    private long sizeMs = 60 * 1000L;
+
+    /**
+     * 滑动步长，仅sliding窗口使用，需能整除size_ms
+     */
+    @JsonProperty("slide_ms")
+    private long slideMs;
+
+    /**
+     * 事件时间字段（毫秒时间戳），为空时使用处理时间
+     */
+    @JsonProperty("time_field")
+    private String timeField;
+
+    /**
+     * 使用事件时间时，窗口结束后继续等待迟到事件的时长
+     */
+    @JsonProperty("allowed_lateness_ms")
+    private long allowedLatenessMs;
+
+    private List<AggregateMetric> metrics = new ArrayList<>();
+
+    /**
+     * 每个窗口最多保存的分组数，超出时淘汰已有分组并提前输出其部分结果
+     */
+    @JsonProperty("max_keys")
+    private int maxKeys = 100_000;
+
+    /**
+     * 聚合后是否丢弃原事件
+     */
+    @JsonProperty("drop_events")
+    private boolean dropEvents;
+
+}
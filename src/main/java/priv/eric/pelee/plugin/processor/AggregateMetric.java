@@ -0,0 +1,29 @@
+package priv.eric.pelee.plugin.processor;
+
+import lombok.Data;
+
+/**
+ * desc: 窗口聚合的指标配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 21:32
+ */
+@Data
+public class AggregateMetric {
+
+    /**
+     * 输出字段名
+     */
+    private String name;
+
+    /**
+     * count、sum、min、max、avg
+     */
+    private String type;
+
+    /**
+     * 取值字段路径，count可省略
+     */
+    private String path;
+
+}
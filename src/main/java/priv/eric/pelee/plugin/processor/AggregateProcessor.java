@@ -0,0 +1,517 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.EventEmitter;
+import priv.eric.pelee.domain.model.FieldAware;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Processor;
+import priv.eric.pelee.infrastructure.index.LongAggregateTable;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+import priv.eric.pelee.plugin.ProcessorDescriptor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * desc: 窗口聚合
+ * <p>
+ * 支持滚动与滑动窗口，按分组字段计算count/sum/min/max/avg。分组键直接哈希为64位整数，
+ * 每个窗口的状态存放在开放寻址的基本类型聚合表中；状态按哈希分为若干段并单独加锁，max_keys在各段间均分。
+ * 窗口关闭后由运行时定期取走结果，作为新事件直接写入输出端；分组数超过上限时淘汰已有分组，
+ * 其部分结果带partial标记提前输出
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 21:40
+ */
+@ProcessorDescriptor(
+        type = "aggregate",
+        description = "窗口聚合",
+        author = "Eric",
+        configClass = AggregateConfig.class
+)
+public class AggregateProcessor implements Processor<JsonNode>, FieldAware, EventEmitter, GaugeAware {
+
+    private static final int STRIPES = 16;
+
+    /**
+     * 滑动窗口下一个事件最多归属的窗口数
+     */
+    private static final int MAX_WINDOWS_PER_EVENT = 64;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final int COUNT = 0;
+
+    private static final int SUM = 1;
+
+    private static final int MIN = 2;
+
+    private static final int MAX = 3;
+
+    private static final int AVG = 4;
+
+    private final String name;
+
+    private final FieldPath[] groupBy;
+
+    private final long size;
+
+    private final long slide;
+
+    private final FieldPath timeField;
+
+    private final long allowedLateness;
+
+    private final String[] metricNames;
+
+    private final int[] metricTypes;
+
+    private final FieldPath[] metricPaths;
+
+    private final double[] initial;
+
+    private final boolean dropEvents;
+
+    private final int keysPerStripe;
+
+    private final Stripe[] stripes;
+
+    /**
+     * 已见到的最大事件时间
+     */
+    private final AtomicLong maxEventTime = new AtomicLong(Long.MIN_VALUE);
+
+    private final LongAdder evicted = new LongAdder();
+
+    private final LongAdder late = new LongAdder();
+
+    public AggregateProcessor(AggregateConfig config) {
+        if (config.getMetrics() == null || config.getMetrics().isEmpty()) {
+            throw new IllegalArgumentException("aggregate缺少metrics配置");
+        }
+        if (config.getSizeMs() <= 0 || config.getMaxKeys() <= 0) {
+            throw new IllegalArgumentException("aggregate的size_ms与max_keys必须大于0");
+        }
+        this.name = config.getName();
+        this.groupBy = FieldPath.compileAll(config.getGroupBy());
+        this.size = config.getSizeMs();
+        this.slide = resolveSlide(config);
+        this.timeField = config.getTimeField() == null || config.getTimeField().isEmpty()
+                ? null : FieldPath.compile(config.getTimeField());
+        this.allowedLateness = Math.max(0, config.getAllowedLatenessMs());
+        int count = config.getMetrics().size();
+        this.metricNames = new String[count];
+        this.metricTypes = new int[count];
+        this.metricPaths = new FieldPath[count];
+        this.initial = new double[count];
+        for (int i = 0; i < count; i++) {
+            AggregateMetric metric = config.getMetrics().get(i);
+            if (metric.getName() == null || metric.getName().isEmpty()) {
+                throw new IllegalArgumentException("aggregate指标缺少name");
+            }
+            metricNames[i] = metric.getName();
+            metricTypes[i] = parseType(metric.getType());
+            if (metric.getPath() != null && !metric.getPath().isEmpty()) {
+                metricPaths[i] = FieldPath.compile(metric.getPath());
+            } else if (metricTypes[i] != COUNT) {
+                throw new IllegalArgumentException("aggregate指标缺少path: " + metric.getName());
+            }
+            initial[i] = metricTypes[i] == MIN ? Double.POSITIVE_INFINITY
+                    : metricTypes[i] == MAX ? Double.NEGATIVE_INFINITY : 0D;
+        }
+        this.dropEvents = config.isDropEvents();
+        this.keysPerStripe = Math.max(1, (config.getMaxKeys() + STRIPES - 1) / STRIPES);
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private static long resolveSlide(AggregateConfig config) {
+        String window = config.getWindow() == null ? "tumbling" : config.getWindow();
+        switch (window) {
+            case "tumbling":
+                return config.getSizeMs();
+            case "sliding":
+                long slide = config.getSlideMs();
+                if (slide <= 0 || slide > config.getSizeMs() || config.getSizeMs() % slide != 0) {
+                    throw new IllegalArgumentException("aggregate的slide_ms必须大于0且能整除size_ms");
+                }
+                if (config.getSizeMs() / slide > MAX_WINDOWS_PER_EVENT) {
+                    throw new IllegalArgumentException("aggregate的size_ms/slide_ms不能超过" + MAX_WINDOWS_PER_EVENT);
+                }
+                return slide;
+            default:
+                throw new IllegalArgumentException("不支持的窗口类型: " + window);
+        }
+    }
+
+    private static int parseType(String type) {
+        if (type == null) {
+            throw new IllegalArgumentException("aggregate指标缺少type");
+        }
+        switch (type) {
+            case "count":
+                return COUNT;
+            case "sum":
+                return SUM;
+            case "min":
+                return MIN;
+            case "max":
+                return MAX;
+            case "avg":
+                return AVG;
+            default:
+                throw new IllegalArgumentException("不支持的聚合类型: " + type);
+        }
+    }
+
+    @Override
+    public void process(Event<JsonNode> event) {
+        accumulate(event.getData(), System.currentTimeMillis());
+        if (dropEvents) {
+            event.drop();
+        }
+    }
+
+    @Override
+    public void processBatch(List<Event<JsonNode>> events) {
+        long now = System.currentTimeMillis();
+        for (Event<JsonNode> event : events) {
+            accumulate(event.getData(), now);
+        }
+        if (dropEvents) {
+            events.forEach(Event::drop);
+            events.clear();
+        }
+    }
+
+    private void accumulate(JsonNode data, long now) {
+        long timestamp = now;
+        if (timeField != null) {
+            JsonNode node = timeField.get(data);
+            if (node == null || !node.canConvertToLong()) {
+                return;
+            }
+            timestamp = node.longValue();
+            maxEventTime.accumulateAndGet(timestamp, Math::max);
+        }
+        long hash = hash(data);
+        Stripe stripe = stripes[(int) (hash >>> 60) & (STRIPES - 1)];
+        long last = Math.floorDiv(timestamp, slide) * slide;
+        synchronized (stripe) {
+            for (long start = last; start > timestamp - size; start -= slide) {
+                if (start + size <= stripe.closedUntil) {
+                    // 更早的窗口同样已关闭；一个窗口都未进入时才计为迟到
+                    if (start == last) {
+                        late.increment();
+                    }
+                    break;
+                }
+                WindowState window = stripe.windows.get(start);
+                if (window == null) {
+                    window = stripe.open(start);
+                }
+                int entry = window.table.find(hash);
+                if (entry == LongAggregateTable.NOT_FOUND) {
+                    entry = insert(stripe, window, hash, data);
+                }
+                for (int i = 0; i < metricTypes.length; i++) {
+                    update(window.table, entry, i, data);
+                }
+            }
+        }
+    }
+
+    private int insert(Stripe stripe, WindowState window, long hash, JsonNode data) {
+        if (window.table.isFull()) {
+            int victim = window.table.evictionCandidate();
+            stripe.pending.add(result(window, victim, true));
+            evicted.increment();
+        }
+        int entry = window.table.insert(hash, initial);
+        int offset = entry * groupBy.length;
+        for (int i = 0; i < groupBy.length; i++) {
+            JsonNode node = groupBy[i].get(data);
+            window.groups[offset + i] = node == null ? null : node.deepCopy();
+        }
+        return entry;
+    }
+
+    private void update(LongAggregateTable table, int entry, int metric, JsonNode data) {
+        FieldPath path = metricPaths[metric];
+        if (path == null) {
+            table.accumulate(entry, metric, 1D, LongAggregateTable.OP_SUM);
+            return;
+        }
+        JsonNode node = path.get(data);
+        if (node == null || !node.isNumber()) {
+            return;
+        }
+        switch (metricTypes[metric]) {
+            case MIN:
+                table.accumulate(entry, metric, node.doubleValue(), LongAggregateTable.OP_MIN);
+                break;
+            case MAX:
+                table.accumulate(entry, metric, node.doubleValue(), LongAggregateTable.OP_MAX);
+                break;
+            case COUNT:
+                table.accumulate(entry, metric, 1D, LongAggregateTable.OP_SUM);
+                break;
+            default:
+                table.accumulate(entry, metric, node.doubleValue(), LongAggregateTable.OP_SUM);
+        }
+    }
+
+    private long hash(JsonNode data) {
+        long hash = FNV_OFFSET;
+        for (FieldPath field : groupBy) {
+            JsonNode node = field.get(data);
+            if (node != null && !node.isNull() && !node.isMissingNode()) {
+                hash = mix(hash, node);
+            }
+            // 字段分隔，避免 ("ab","c") 与 ("a","bc") 相同
+            hash = (hash ^ 0xff) * FNV_PRIME;
+        }
+        return finalizeHash(hash);
+    }
+
+    private static long mix(long hash, JsonNode node) {
+        if (node.isTextual()) {
+            String text = node.textValue();
+            for (int i = 0; i < text.length(); i++) {
+                hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+            }
+            return hash;
+        }
+        if (node.isIntegralNumber() && node.canConvertToLong()) {
+            return (hash ^ node.longValue()) * FNV_PRIME;
+        }
+        if (node.isNumber()) {
+            return (hash ^ Double.doubleToLongBits(node.doubleValue())) * FNV_PRIME;
+        }
+        return (hash ^ node.hashCode()) * FNV_PRIME;
+    }
+
+    /**
+     * murmur3的64位收尾混合，让高低位都充分扩散
+     */
+    private static long finalizeHash(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private Event<?> result(WindowState window, int entry, boolean partial) {
+        ObjectNode node = JsonUtil.getObjectMapper().createObjectNode();
+        node.put("aggregate", name);
+        node.put("window_start", window.start);
+        node.put("window_end", window.start + size);
+        if (partial) {
+            node.put("partial", true);
+        }
+        int offset = entry * groupBy.length;
+        for (int i = 0; i < groupBy.length; i++) {
+            JsonNode value = window.groups[offset + i];
+            groupBy[i].set(node, value == null ? node.nullNode() : value);
+        }
+        LongAggregateTable table = window.table;
+        for (int i = 0; i < metricTypes.length; i++) {
+            long count = table.count(entry, i);
+            switch (metricTypes[i]) {
+                case COUNT:
+                    node.put(metricNames[i], count);
+                    break;
+                case SUM:
+                    node.put(metricNames[i], table.value(entry, i));
+                    break;
+                case AVG:
+                    if (count == 0) {
+                        node.putNull(metricNames[i]);
+                    } else {
+                        node.put(metricNames[i], table.value(entry, i) / count);
+                    }
+                    break;
+                default:
+                    if (count == 0) {
+                        node.putNull(metricNames[i]);
+                    } else {
+                        node.put(metricNames[i], table.value(entry, i));
+                    }
+            }
+        }
+        Event<JsonNode> event = new Event<>(node);
+        event.setIngestNanos(System.nanoTime());
+        return event;
+    }
+
+    /**
+     * 已关闭窗口的截止时间，窗口结束时间不大于该值即可输出
+     */
+    private long watermark() {
+        if (timeField == null) {
+            return System.currentTimeMillis();
+        }
+        long max = maxEventTime.get();
+        return max == Long.MIN_VALUE ? Long.MIN_VALUE : max - allowedLateness;
+    }
+
+    @Override
+    public void emit(List<Event<?>> out) {
+        long watermark = watermark();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                out.addAll(stripe.pending);
+                stripe.pending.clear();
+                while (!stripe.windows.isEmpty() && stripe.windows.firstKey() + size <= watermark) {
+                    close(stripe, stripe.windows.pollFirstEntry().getValue(), out);
+                }
+                stripe.closedUntil = Math.max(stripe.closedUntil, watermark);
+            }
+        }
+    }
+
+    @Override
+    public void flush(List<Event<?>> out) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                out.addAll(stripe.pending);
+                stripe.pending.clear();
+                while (!stripe.windows.isEmpty()) {
+                    close(stripe, stripe.windows.pollFirstEntry().getValue(), out);
+                }
+                stripe.closedUntil = Long.MAX_VALUE;
+                stripe.free.clear();
+            }
+        }
+    }
+
+    private void close(Stripe stripe, WindowState window, List<Event<?>> out) {
+        int count = window.table.size();
+        for (int entry = 0; entry < count; entry++) {
+            out.add(result(window, entry, false));
+        }
+        window.table.clear();
+        Arrays.fill(window.groups, null);
+        stripe.free.push(window);
+    }
+
+    @Override
+    public Collection<FieldPath> referencedPaths() {
+        List<FieldPath> paths = new ArrayList<>(Arrays.asList(groupBy));
+        for (FieldPath path : metricPaths) {
+            if (path != null) {
+                paths.add(path);
+            }
+        }
+        if (timeField != null) {
+            paths.add(timeField);
+        }
+        return paths;
+    }
+
+    @Override
+    public Map<String, DoubleSupplier> gauges() {
+        Map<String, DoubleSupplier> gauges = new LinkedHashMap<>();
+        gauges.put("aggregate.keys", this::keys);
+        gauges.put("aggregate.memory_bytes", this::memoryBytes);
+        gauges.put("aggregate.evicted", evicted::doubleValue);
+        gauges.put("aggregate.late_events", late::doubleValue);
+        return gauges;
+    }
+
+    private double keys() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (WindowState window : stripe.windows.values()) {
+                    total += window.table.size();
+                }
+            }
+        }
+        return total;
+    }
+
+    private double memoryBytes() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (WindowState window : stripe.windows.values()) {
+                    total += window.table.memoryBytes();
+                }
+                for (WindowState window : stripe.free) {
+                    total += window.table.memoryBytes();
+                }
+            }
+        }
+        return total;
+    }
+
+    private final class Stripe {
+
+        /**
+         * 按窗口起始时间排序的未关闭窗口
+         */
+        private final TreeMap<Long, WindowState> windows = new TreeMap<>();
+
+        /**
+         * 关闭后待复用的窗口状态
+         */
+        private final ArrayDeque<WindowState> free = new ArrayDeque<>();
+
+        /**
+         * 被淘汰分组的部分结果
+         */
+        private final List<Event<?>> pending = new ArrayList<>();
+
+        private long closedUntil = Long.MIN_VALUE;
+
+        private WindowState open(long start) {
+            WindowState window = free.poll();
+            if (window == null) {
+                window = new WindowState(new LongAggregateTable(keysPerStripe, metricTypes.length),
+                        new JsonNode[keysPerStripe * groupBy.length]);
+            }
+            window.start = start;
+            windows.put(start, window);
+            return window;
+        }
+
+    }
+
+    private static final class WindowState {
+
+        private final LongAggregateTable table;
+
+        /**
+         * 每个分组的分组字段值，下标为 entry * groupBy.length + i
+         */
+        private final JsonNode[] groups;
+
+        private long start;
+
+        private WindowState(LongAggregateTable table, JsonNode[] groups) {
+            this.table = table;
+            this.groups = groups;
+        }
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * desc: 去重配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 20:35
+ */
+@Data
+public class DedupeConfig {
+
+    /**
+     * 组成去重键的字段路径，全部缺失的事件不参与去重
+     */
+    private List<String> fields = new ArrayList<>();
+
+    /**
+     * 去重窗口，重复事件在一到两个窗口内都能被识别
+     */
+    @JsonProperty("window_ms")
+    private long windowMs = 10 * 60 * 1000L;
+
+    /**
+     * 内存预算
+     */
+    @JsonProperty("memory_bytes")
+    private long memoryBytes = 16L * 1024 * 1024;
+
+    /**
+     * 每个窗口预计的不同键数
+     */
+    @JsonProperty("expected_items")
+    private long expectedItems = 1_000_000L;
+
+}
@@ -0,0 +1,186 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.FieldAware;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Processor;
+import priv.eric.pelee.infrastructure.index.RotatingBloomFilter;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+import priv.eric.pelee.plugin.ProcessorDescriptor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * desc: 按键去重
+ * <p>
+ * 去重键的各字段值直接哈希为64位整数，不拼接字符串；状态按哈希分为若干段，每段一个轮换布隆过滤器并单独加锁，
+ * 多个工作线程并发处理时只在同一段上竞争。布隆过滤器存在误判，少量首次出现的事件可能被当作重复丢弃，
+ * 当前误判率与内存占用通过指标暴露；批次失败后逐条重试的事件在首次执行时可能已被记录，重试时不按重复丢弃
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 20:40
+ */
+@ProcessorDescriptor(
+        type = "dedupe",
+        description = "按键去重",
+        author = "Eric",
+        configClass = DedupeConfig.class
+)
+public class DedupeProcessor implements Processor<JsonNode>, FieldAware, GaugeAware {
+
+    private static final int STRIPES = 16;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final FieldPath[] fields;
+
+    private final RotatingBloomFilter[] filters;
+
+    private final LongAdder duplicates = new LongAdder();
+
+    public DedupeProcessor(DedupeConfig config) {
+        if (config.getFields() == null || config.getFields().isEmpty()) {
+            throw new IllegalArgumentException("dedupe缺少fields配置");
+        }
+        if (config.getWindowMs() <= 0 || config.getMemoryBytes() <= 0) {
+            throw new IllegalArgumentException("dedupe的window_ms与memory_bytes必须大于0");
+        }
+        this.fields = FieldPath.compileAll(config.getFields());
+        long bitsPerGeneration = config.getMemoryBytes() * Byte.SIZE / 2 / STRIPES;
+        int bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bitsPerGeneration));
+        long expected = Math.max(1, config.getExpectedItems() / STRIPES);
+        long window = TimeUnit.MILLISECONDS.toNanos(config.getWindowMs());
+        long now = System.nanoTime();
+        this.filters = new RotatingBloomFilter[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            filters[i] = new RotatingBloomFilter(bits, expected, window, now);
+        }
+    }
+
+    @Override
+    public void process(Event<JsonNode> event) {
+        if (isDuplicate(event.getData(), System.nanoTime()) && !event.isRetried()) {
+            duplicates.increment();
+            event.drop();
+        }
+    }
+
+    @Override
+    public void processBatch(List<Event<JsonNode>> events) {
+        long now = System.nanoTime();
+        int before = events.size();
+        events.removeIf(event -> {
+            if (!isDuplicate(event.getData(), now)) {
+                return false;
+            }
+            event.drop();
+            return true;
+        });
+        duplicates.add(before - events.size());
+    }
+
+    private boolean isDuplicate(JsonNode data, long now) {
+        long hash = FNV_OFFSET;
+        boolean present = false;
+        for (FieldPath field : fields) {
+            JsonNode node = field.get(data);
+            if (node != null && !node.isNull() && !node.isMissingNode()) {
+                present = true;
+                hash = mix(hash, node);
+            }
+            // 字段分隔，避免 ("ab","c") 与 ("a","bc") 相同
+            hash = (hash ^ 0xff) * FNV_PRIME;
+        }
+        if (!present) {
+            return false;
+        }
+        hash = finalizeHash(hash);
+        RotatingBloomFilter filter = filters[(int) (hash >>> 60) & (STRIPES - 1)];
+        synchronized (filter) {
+            return filter.putIfAbsent(hash, now);
+        }
+    }
+
+    private static long mix(long hash, JsonNode node) {
+        if (node.isTextual()) {
+            String text = node.textValue();
+            for (int i = 0; i < text.length(); i++) {
+                hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+            }
+            return hash;
+        }
+        if (node.isIntegralNumber() && node.canConvertToLong()) {
+            return (hash ^ node.longValue()) * FNV_PRIME;
+        }
+        if (node.isNumber()) {
+            return (hash ^ Double.doubleToLongBits(node.doubleValue())) * FNV_PRIME;
+        }
+        return (hash ^ node.hashCode()) * FNV_PRIME;
+    }
+
+    /**
+     * murmur3的64位收尾混合，让高低位都充分扩散
+     */
+    private static long finalizeHash(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public Collection<FieldPath> referencedPaths() {
+        return Arrays.asList(fields);
+    }
+
+    @Override
+    public Map<String, DoubleSupplier> gauges() {
+        Map<String, DoubleSupplier> gauges = new LinkedHashMap<>();
+        gauges.put("dedupe.false_positive_rate", this::falsePositiveRate);
+        gauges.put("dedupe.memory_bytes", this::memoryBytes);
+        gauges.put("dedupe.window_items", this::windowItems);
+        gauges.put("dedupe.duplicates", duplicates::doubleValue);
+        return gauges;
+    }
+
+    private double falsePositiveRate() {
+        double max = 0;
+        for (RotatingBloomFilter filter : filters) {
+            synchronized (filter) {
+                max = Math.max(max, filter.falsePositiveRate());
+            }
+        }
+        return max;
+    }
+
+    private double memoryBytes() {
+        long total = 0;
+        for (RotatingBloomFilter filter : filters) {
+            total += filter.memoryBytes();
+        }
+        return total;
+    }
+
+    private double windowItems() {
+        long total = 0;
+        for (RotatingBloomFilter filter : filters) {
+            synchronized (filter) {
+                total += filter.inserted();
+            }
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,25 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+/**
+ * desc: 过滤配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 19:40
+ */
+@Data
+public class FilterConfig {
+
+    /**
+     * 条件表达式，语法见ConditionCompiler
+     */
+    private JsonNode condition;
+
+    /**
+     * keep 只保留满足条件的事件；drop 丢弃满足条件的事件
+     */
+    private String action = "keep";
+
+}
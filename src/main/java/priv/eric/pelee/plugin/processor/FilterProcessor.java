@@ -0,0 +1,79 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.FieldAware;
+import priv.eric.pelee.domain.model.Processor;
+import priv.eric.pelee.infrastructure.condition.Condition;
+import priv.eric.pelee.infrastructure.condition.ConditionCompiler;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+import priv.eric.pelee.plugin.ProcessorDescriptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * desc: 按条件过滤事件
+ * <p>
+ * 被过滤的事件从批次中移除，不再经过后续处理器，也不会写入输出端，但仍会向输入端确认
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 19:45
+ */
+@ProcessorDescriptor(
+        type = "filter",
+        description = "按条件过滤事件",
+        author = "Eric",
+        configClass = FilterConfig.class
+)
+public class FilterProcessor implements Processor<JsonNode>, FieldAware {
+
+    private static final String KEEP = "keep";
+
+    private static final String DROP = "drop";
+
+    private final Condition condition;
+
+    /**
+     * 满足条件时是否保留
+     */
+    private final boolean keepMatched;
+
+    public FilterProcessor(FilterConfig config) {
+        if (config.getCondition() == null) {
+            throw new IllegalArgumentException("filter缺少condition配置");
+        }
+        if (!KEEP.equals(config.getAction()) && !DROP.equals(config.getAction())) {
+            throw new IllegalArgumentException("filter的action只能是keep或drop: " + config.getAction());
+        }
+        this.condition = ConditionCompiler.compile(config.getCondition());
+        this.keepMatched = KEEP.equals(config.getAction());
+    }
+
+    @Override
+    public void process(Event<JsonNode> event) {
+        if (condition.test(event.getData()) != keepMatched) {
+            event.drop();
+        }
+    }
+
+    @Override
+    public void processBatch(List<Event<JsonNode>> events) {
+        events.removeIf(event -> {
+            if (condition.test(event.getData()) == keepMatched) {
+                return false;
+            }
+            event.drop();
+            return true;
+        });
+    }
+
+    @Override
+    public Collection<FieldPath> referencedPaths() {
+        List<FieldPath> paths = new ArrayList<>();
+        condition.collectPaths(paths);
+        return paths;
+    }
+
+}
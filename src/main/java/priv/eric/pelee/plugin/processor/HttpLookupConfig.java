@@ -0,0 +1,44 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * desc: HTTP查询补全配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 17:30
+ */
+@Data
+public class HttpLookupConfig {
+
+    /**
+     * 查询地址，{key}会被替换为URL编码后的查询键
+     */
+    private String url;
+
+    /**
+     * 查询键所在路径
+     */
+    private String key;
+
+    /**
+     * 查询结果写入的路径
+     */
+    private String target;
+
+    @JsonProperty("connect_timeout_ms")
+    private long connectTimeoutMs = 1000;
+
+    /**
+     * 查询失败（非2xx且非404、网络异常、响应不是JSON）时是否让整批失败，默认保留事件原样继续
+     */
+    @JsonProperty("fail_on_error")
+    private boolean failOnError = false;
+
+    private Map<String, String> headers = new HashMap<>();
+
+}
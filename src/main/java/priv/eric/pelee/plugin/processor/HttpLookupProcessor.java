@@ -0,0 +1,129 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import priv.eric.pelee.domain.model.AsyncProcessor;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.FieldAware;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+import priv.eric.pelee.plugin.ProcessorDescriptor;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * desc: 按事件中的键调用HTTP服务，将返回的JSON写入目标字段
+ * <p>
+ * 请求通过HttpClient异步发送，等待响应期间不占用工作线程；查询键缺失或服务返回404时事件保持不变；
+ * 超时设置在请求上，超时后请求被中止并与其他失败一样按fail_on_error处理，
+ * 响应只会在返回的阶段完成之前写入事件，阶段结束后不会再有迟到的响应修改事件
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 17:36
+ */
+@ProcessorDescriptor(
+        type = "http_lookup",
+        description = "HTTP查询补全字段",
+        author = "Eric",
+        configClass = HttpLookupConfig.class
+)
+public class HttpLookupProcessor implements AsyncProcessor<ObjectNode>, FieldAware {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpLookupProcessor.class);
+
+    private static final String KEY_PLACEHOLDER = "{key}";
+
+    private static final int NOT_FOUND = 404;
+
+    private final String url;
+
+    private final FieldPath key;
+
+    private final FieldPath target;
+
+    private final boolean failOnError;
+
+    private final Map<String, String> headers;
+
+    private final HttpClient client;
+
+    private volatile Duration timeout;
+
+    public HttpLookupProcessor(HttpLookupConfig config) {
+        if (config.getUrl() == null || config.getUrl().isEmpty()) {
+            throw new IllegalArgumentException("http_lookup缺少url配置");
+        }
+        this.url = config.getUrl();
+        this.key = FieldPath.compile(config.getKey());
+        this.target = FieldPath.compile(config.getTarget());
+        this.failOnError = config.isFailOnError();
+        this.headers = config.getHeaders();
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMs()))
+                .build();
+    }
+
+    @Override
+    public void setTimeoutMs(long timeoutMs) {
+        this.timeout = timeoutMs > 0 ? Duration.ofMillis(timeoutMs) : null;
+    }
+
+    @Override
+    public CompletionStage<?> processAsync(Event<ObjectNode> event) {
+        ObjectNode data = event.getData();
+        JsonNode value = key.get(data);
+        if (value == null || value.isNull() || value.isContainerNode()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url.replace(KEY_PLACEHOLDER,
+                URLEncoder.encode(value.asText(), StandardCharsets.UTF_8)))).GET();
+        headers.forEach(builder::header);
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+        // 回调在HttpClient线程上写入事件，依赖AsyncProcessor约定的整批等待，见其类注释
+        return client.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenAccept(response -> apply(data, response))
+                .exceptionally(e -> {
+                    if (failOnError) {
+                        throw e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+                    }
+                    LOGGER.warn("===== http lookup failed: {}, {}", value.asText(), e.getMessage());
+                    return null;
+                });
+    }
+
+    private void apply(ObjectNode data, HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+        if (status == NOT_FOUND) {
+            return;
+        }
+        if (status < 200 || status >= 300) {
+            throw new IllegalStateException("http lookup返回异常状态: " + status);
+        }
+        if (response.body().length == 0) {
+            return;
+        }
+        target.set(data, JsonUtil.parseToJsonNode(response.body()));
+    }
+
+    @Override
+    public Collection<FieldPath> referencedPaths() {
+        return Arrays.asList(key, target);
+    }
+
+}
@@ -0,0 +1,61 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * desc: 本地字典查询配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 18:30
+ */
+@Data
+public class LookupConfig {
+
+    /**
+     * 字典文件路径
+     */
+    private String path;
+
+    /**
+     * 字典文件格式：csv（首行为表头）或 ndjson
+     */
+    private String format = "csv";
+
+    /**
+     * 字典中作为键的列名（ndjson为字段路径）
+     */
+    @JsonProperty("key_column")
+    private String keyColumn;
+
+    /**
+     * 写入事件的列，为空时取除键以外的全部列（ndjson为整行）
+     */
+    private List<String> fields = new ArrayList<>();
+
+    /**
+     * 事件中查询键所在路径
+     */
+    private String key;
+
+    /**
+     * 查询结果写入的路径
+     */
+    private String target;
+
+    /**
+     * 热点键缓存条数，0表示不缓存
+     */
+    @JsonProperty("cache_size")
+    private int cacheSize = 10000;
+
+    /**
+     * 检查字典文件变化的间隔，小于等于0表示不重新加载
+     */
+    @JsonProperty("reload_interval_ms")
+    private long reloadIntervalMs = 10000;
+
+}
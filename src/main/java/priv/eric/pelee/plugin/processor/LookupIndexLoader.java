@@ -0,0 +1,162 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import priv.eric.pelee.infrastructure.index.OffHeapHashIndex;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * desc: 读取CSV或NDJSON字典文件并构建堆外索引，值以JSON字节存储
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 18:36
+ */
+final class LookupIndexLoader {
+
+    private static final String CSV = "csv";
+
+    private static final String NDJSON = "ndjson";
+
+    private static final int ESTIMATED_LINE_BYTES = 64;
+
+    private LookupIndexLoader() {
+    }
+
+    static OffHeapHashIndex load(Path file, LookupConfig config) throws IOException {
+        int expected = (int) Math.min(Integer.MAX_VALUE, Files.size(file) / ESTIMATED_LINE_BYTES);
+        OffHeapHashIndex.Builder builder = OffHeapHashIndex.builder(expected);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (CSV.equals(config.getFormat())) {
+                loadCsv(reader, config, builder);
+            } else if (NDJSON.equals(config.getFormat())) {
+                loadNdjson(reader, config, builder);
+            } else {
+                throw new IllegalArgumentException("不支持的字典格式: " + config.getFormat());
+            }
+        }
+        return builder.build();
+    }
+
+    private static void loadCsv(BufferedReader reader, LookupConfig config, OffHeapHashIndex.Builder builder)
+            throws IOException {
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return;
+        }
+        int keyIndex = header.indexOf(config.getKeyColumn());
+        if (keyIndex < 0) {
+            throw new IllegalArgumentException("字典表头中不存在键列: " + config.getKeyColumn());
+        }
+        List<Integer> columns = new ArrayList<>();
+        if (config.getFields().isEmpty()) {
+            for (int i = 0; i < header.size(); i++) {
+                if (i != keyIndex) {
+                    columns.add(i);
+                }
+            }
+        } else {
+            for (String field : config.getFields()) {
+                int index = header.indexOf(field);
+                if (index < 0) {
+                    throw new IllegalArgumentException("字典表头中不存在列: " + field);
+                }
+                columns.add(index);
+            }
+        }
+        List<String> record;
+        while ((record = readCsvRecord(reader)) != null) {
+            if (record.size() <= keyIndex || (record.size() == 1 && record.get(0).isEmpty())) {
+                continue;
+            }
+            ObjectNode value = JsonUtil.getObjectMapper().createObjectNode();
+            for (int column : columns) {
+                value.put(header.get(column), column < record.size() ? record.get(column) : null);
+            }
+            builder.put(record.get(keyIndex), JsonUtil.toJsonBytes(value));
+        }
+    }
+
+    private static void loadNdjson(BufferedReader reader, LookupConfig config, OffHeapHashIndex.Builder builder)
+            throws IOException {
+        FieldPath keyPath = FieldPath.compile(config.getKeyColumn());
+        FieldPath[] fields = FieldPath.compileAll(config.getFields());
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            JsonNode row = JsonUtil.parseToJsonNode(line);
+            JsonNode key = keyPath.get(row);
+            if (key == null || key.isNull() || key.isContainerNode()) {
+                continue;
+            }
+            JsonNode value = row;
+            if (fields.length > 0) {
+                ObjectNode selected = JsonUtil.getObjectMapper().createObjectNode();
+                for (FieldPath field : fields) {
+                    JsonNode node = field.get(row);
+                    if (node != null) {
+                        selected.set(field.leaf(), node);
+                    }
+                }
+                value = selected;
+            }
+            builder.put(key.asText(), JsonUtil.toJsonBytes(value));
+        }
+    }
+
+    /**
+     * 读取一条CSV记录，支持双引号包裹的字段、字段内的逗号、换行与转义的双引号
+     *
+     * @return 字段列表，文件结束时返回null
+     */
+    static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c >= 0) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next >= 0) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        record.add(field.toString());
+        return record;
+    }
+
+}
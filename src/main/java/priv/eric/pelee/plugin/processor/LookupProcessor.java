@@ -0,0 +1,208 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.FieldAware;
+import priv.eric.pelee.domain.model.Processor;
+import priv.eric.pelee.infrastructure.codec.EventCodec;
+import priv.eric.pelee.infrastructure.index.OffHeapHashIndex;
+import priv.eric.pelee.infrastructure.index.StripedLruCache;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+import priv.eric.pelee.plugin.ProcessorDescriptor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * desc: 本地字典查询补全
+ * <p>
+ * 字典文件加载为堆外哈希索引，查找过程不分配对象；命中后才把值解析为JsonNode，热点键的解析结果保存在分段LRU中。
+ * 后台定期检查文件的修改时间与大小，变化时在后台重建索引并整体替换，替换前的查询继续使用旧索引
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 18:48
+ */
+@ProcessorDescriptor(
+        type = "lookup",
+        description = "本地字典查询补全字段",
+        author = "Eric",
+        configClass = LookupConfig.class
+)
+public class LookupProcessor implements Processor<ObjectNode>, FieldAware {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LookupProcessor.class);
+
+    private static final ScheduledExecutorService RELOADER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "pelee-lookup-reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private final LookupConfig config;
+
+    private final Path file;
+
+    private final FieldPath key;
+
+    private final FieldPath target;
+
+    private volatile Snapshot snapshot;
+
+    public LookupProcessor(LookupConfig config) {
+        if (config.getPath() == null || config.getKeyColumn() == null) {
+            throw new IllegalArgumentException("lookup缺少path或key_column配置");
+        }
+        this.config = config;
+        this.file = Paths.get(config.getPath());
+        this.key = FieldPath.compile(config.getKey());
+        this.target = FieldPath.compile(config.getTarget());
+        try {
+            this.snapshot = load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("字典文件加载失败: " + file, e);
+        }
+        if (config.getReloadIntervalMs() > 0) {
+            scheduleReload(this, config.getReloadIntervalMs());
+        }
+    }
+
+    @Override
+    public void process(Event<ObjectNode> event) {
+        enrich(event.getData(), snapshot);
+    }
+
+    @Override
+    public void processBatch(List<Event<ObjectNode>> events) {
+        Snapshot current = snapshot;
+        for (Event<ObjectNode> event : events) {
+            enrich(event.getData(), current);
+        }
+    }
+
+    private void enrich(ObjectNode data, Snapshot current) {
+        JsonNode value = key.get(data);
+        if (value == null || value.isNull() || value.isContainerNode()) {
+            return;
+        }
+        JsonNode found = current.lookup(value.isTextual() ? value.textValue() : value.asText());
+        if (found != null) {
+            // 缓存中的节点被多个事件共用，写入事件前拷贝，避免后续处理器修改缓存
+            target.set(data, found.deepCopy());
+        }
+    }
+
+    @Override
+    public Collection<FieldPath> referencedPaths() {
+        return Arrays.asList(key, target);
+    }
+
+    private Snapshot load() throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long start = System.nanoTime();
+        OffHeapHashIndex index = LookupIndexLoader.load(file, config);
+        LOGGER.info("===== lookup index loaded: {}, entries: {}, bytes: {}, cost: {}ms", file, index.size(),
+                index.memoryBytes(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new Snapshot(index, config.getCacheSize(), attributes.lastModifiedTime().toMillis(), attributes.size());
+    }
+
+    private void reloadIfChanged() {
+        Snapshot current = snapshot;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attributes.lastModifiedTime().toMillis() == current.lastModified && attributes.size() == current.fileSize) {
+                return;
+            }
+            snapshot = load();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("===== lookup index reload failed, keep previous version: {}", file, e);
+        }
+    }
+
+    /**
+     * 定时任务只弱引用处理器，流水线替换后旧处理器被回收时任务自动取消
+     */
+    private static void scheduleReload(LookupProcessor processor, long intervalMs) {
+        WeakReference<LookupProcessor> reference = new WeakReference<>(processor);
+        AtomicReference<ScheduledFuture<?>> task = new AtomicReference<>();
+        task.set(RELOADER.scheduleWithFixedDelay(() -> {
+            LookupProcessor current = reference.get();
+            if (current == null) {
+                ScheduledFuture<?> future = task.get();
+                if (future != null) {
+                    future.cancel(false);
+                }
+                return;
+            }
+            current.reloadIfChanged();
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 某一版本的索引及其缓存，随索引一起替换
+     */
+    private static final class Snapshot implements Function<String, JsonNode> {
+
+        private final OffHeapHashIndex index;
+
+        private final StripedLruCache<String, JsonNode> cache;
+
+        private final long lastModified;
+
+        private final long fileSize;
+
+        private Snapshot(OffHeapHashIndex index, int cacheSize, long lastModified, long fileSize) {
+            this.index = index;
+            this.cache = cacheSize > 0 ? new StripedLruCache<>(cacheSize) : null;
+            this.lastModified = lastModified;
+            this.fileSize = fileSize;
+        }
+
+        private JsonNode lookup(String key) {
+            return cache != null ? cache.get(key, this) : apply(key);
+        }
+
+        /**
+         * 缓存未命中时查询索引并解析值
+         */
+        @Override
+        public JsonNode apply(String key) {
+            int record = index.find(key);
+            if (record == OffHeapHashIndex.MISS) {
+                return null;
+            }
+            byte[] scratch = SCRATCH.get();
+            int length = index.valueLength(record);
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length << 1)];
+                SCRATCH.set(scratch);
+            }
+            index.copyValue(record, scratch);
+            try {
+                return EventCodec.decode(scratch, 0, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+}
@@ -2,35 +2,108 @@ package priv.eric.pelee.plugin.processor;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.FieldAware;
+import priv.eric.pelee.domain.model.FieldMutator;
 import priv.eric.pelee.domain.model.Processor;
+import priv.eric.pelee.infrastructure.codec.RawFields;
+import priv.eric.pelee.infrastructure.util.FieldOperation;
+import priv.eric.pelee.infrastructure.util.FieldPath;
 import priv.eric.pelee.plugin.ProcessorDescriptor;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
- * desc:
+ * desc: 删除字段
+ * <p>
+ * 按需解析时顶层字段的删除不要求解析该字段，未解析的字段直接丢弃原始字节
  *
  * @author EricTownsChina@outlook.com
  * @date 2026-02-05 19:42
  */
 @ProcessorDescriptor(
         type = "remove",
-        description = "重命名处理器",
+        description = "删除字段",
         author = "Eric",
         configClass = RemoveConfig.class
 )
-public class RemoveProcessor implements Processor<ObjectNode> {
+public class RemoveProcessor implements Processor<ObjectNode>, FieldAware, FieldMutator {
 
-    private final List<String> fields;
+    private final FieldPath[] fields;
+
+    /**
+     * 删除的顶层字段名
+     */
+    private final List<String> topLevel = new ArrayList<>();
+
+    public RemoveProcessor(RemoveConfig config) {
+        this(config.getFields());
+    }
 
     public RemoveProcessor(List<String> fields) {
-        this.fields = fields;
+        this.fields = FieldPath.compileAll(fields);
+        for (FieldPath field : this.fields) {
+            if (field.isTopLevel()) {
+                topLevel.add(field.root());
+            }
+        }
     }
 
     @Override
     public void process(Event<ObjectNode> event) {
         ObjectNode data = event.getData();
-        data.remove(fields);
+        for (FieldPath field : fields) {
+            field.remove(data);
+        }
+        dropRaw(event);
+    }
+
+    /**
+     * 按需解析的事件中丢弃未解析的顶层字段
+     */
+    private void dropRaw(Event<ObjectNode> event) {
+        RawFields raw = event.getRawFields();
+        if (raw == null) {
+            return;
+        }
+        for (String name : topLevel) {
+            raw.drop(name);
+        }
+    }
+
+    /**
+     * 顶层字段的删除不需要解析该字段，不计入引用路径
+     */
+    @Override
+    public Collection<FieldPath> referencedPaths() {
+        List<FieldPath> paths = new ArrayList<>(fields.length);
+        for (FieldPath field : fields) {
+            if (!field.isTopLevel()) {
+                paths.add(field);
+            }
+        }
+        return paths;
+    }
+
+    @Override
+    public List<FieldOperation> operations() {
+        List<FieldOperation> operations = new ArrayList<>(fields.length);
+        for (FieldPath field : fields) {
+            operations.add(FieldOperation.remove(field));
+        }
+        return operations;
+    }
+
+    @Override
+    public void processBatch(List<Event<ObjectNode>> events) {
+        for (Event<ObjectNode> event : events) {
+            ObjectNode data = event.getData();
+            for (FieldPath field : fields) {
+                field.remove(data);
+            }
+            dropRaw(event);
+        }
     }
 
 }
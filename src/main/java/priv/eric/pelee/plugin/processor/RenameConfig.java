@@ -0,0 +1,42 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * desc: 重命名配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 23:30
+ */
+@Data
+public class RenameConfig {
+
+    /**
+     * 源路径到目标路径的映射，按配置顺序执行
+     */
+    private Map<String, String> mappings = new LinkedHashMap<>();
+
+    /**
+     * 逐个字段的映射，可单独指定keep_original，在mappings之后执行
+     */
+    private List<RenameField> fields = new ArrayList<>();
+
+    /**
+     * 是否保留源字段
+     */
+    @JsonProperty("keep_original")
+    private boolean keepOriginal;
+
+    /**
+     * 源字段缺失时：true 跳过；false 目标字段写入null
+     */
+    @JsonProperty("ignore_missing")
+    private boolean ignoreMissing = true;
+
+}
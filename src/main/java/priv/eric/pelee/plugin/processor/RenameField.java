@@ -0,0 +1,25 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * desc: 单个字段的重命名配置
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 23:32
+ */
+@Data
+public class RenameField {
+
+    private String from;
+
+    private String to;
+
+    /**
+     * 是否保留源字段，为空时使用RenameConfig中的keep_original
+     */
+    @JsonProperty("keep_original")
+    private Boolean keepOriginal;
+
+}
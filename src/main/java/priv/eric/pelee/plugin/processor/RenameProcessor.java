@@ -0,0 +1,78 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.FieldAware;
+import priv.eric.pelee.domain.model.FieldMutator;
+import priv.eric.pelee.domain.model.Processor;
+import priv.eric.pelee.infrastructure.util.FieldMutationPlan;
+import priv.eric.pelee.infrastructure.util.FieldOperation;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+import priv.eric.pelee.plugin.ProcessorDescriptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * desc: 重命名字段
+ * <p>
+ * 映射在创建时编译为{@link FieldMutationPlan}，按源字段的父路径分组，每个事件上每组的父节点只查找一次；
+ * 节点直接挂到目标路径，不拷贝子树
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-19 23:35
+ */
+@ProcessorDescriptor(
+        type = "rename",
+        description = "重命名字段",
+        author = "Eric",
+        configClass = RenameConfig.class
+)
+public class RenameProcessor implements Processor<ObjectNode>, FieldAware, FieldMutator {
+
+    private final FieldMutationPlan plan;
+
+    public RenameProcessor(RenameConfig config) {
+        List<FieldOperation> operations = new ArrayList<>();
+        boolean ignoreMissing = config.isIgnoreMissing();
+        if (config.getMappings() != null) {
+            config.getMappings().forEach((from, to) -> operations.add(FieldOperation.move(
+                    FieldPath.compile(from), FieldPath.compile(to), config.isKeepOriginal(), ignoreMissing)));
+        }
+        if (config.getFields() != null) {
+            for (RenameField field : config.getFields()) {
+                boolean keepOriginal = field.getKeepOriginal() != null ? field.getKeepOriginal() : config.isKeepOriginal();
+                operations.add(FieldOperation.move(
+                        FieldPath.compile(field.getFrom()), FieldPath.compile(field.getTo()), keepOriginal, ignoreMissing));
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("rename缺少mappings或fields配置");
+        }
+        this.plan = FieldMutationPlan.compile(operations);
+    }
+
+    @Override
+    public void process(Event<ObjectNode> event) {
+        plan.apply(event.getData());
+    }
+
+    @Override
+    public void processBatch(List<Event<ObjectNode>> events) {
+        for (Event<ObjectNode> event : events) {
+            plan.apply(event.getData());
+        }
+    }
+
+    @Override
+    public Collection<FieldPath> referencedPaths() {
+        return plan.getPaths();
+    }
+
+    @Override
+    public List<FieldOperation> operations() {
+        return plan.getOperations();
+    }
+
+}
@@ -0,0 +1,175 @@
+package priv.eric.pelee.application.factory;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.application.init.ProcessorRegistry;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.Pipeline;
+import priv.eric.pelee.domain.model.PipelineDefinition;
+import priv.eric.pelee.infrastructure.codec.EventCodec;
+import priv.eric.pelee.infrastructure.util.FieldMutationPlan;
+import priv.eric.pelee.infrastructure.util.FieldOperation;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 融合后的字段变换与关闭融合、逐个处理器执行的结果一致
+ * <p>
+ * 每条处理器链分别以完整解析与按需解析运行，比较序列化后的事件，字段顺序也需一致
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 14:10
+ */
+class FusedFieldProcessorTest {
+
+    private static final String[] EVENTS = {
+            "{\"user\":{\"id\":7,\"name\":\"a\"},\"sessionId\":\"s1\",\"param\":{\"event_list\":[1,2],\"page\":\"home\"},"
+                    + "\"ori_message\":\"raw\",\"ts\":1}",
+            "{\"userId\":8,\"sessionId\":\"s2\",\"ori_message\":{\"nested\":true},\"ts\":2}",
+            "{\"user\":\"anonymous\",\"user_id\":9,\"param\":[1],\"ts\":3}",
+            "{\"message\":{\"content\":\"hi\",\"extra\":{\"k\":1}},\"conversation_type\":\"chat\",\"internal_data\":{},"
+                    + "\"metadata\":{\"tags\":[\"x\"]},\"debug_info\":null}",
+            "{\"a\":{\"x\":1,\"z\":2},\"b\":{\"y\":3},\"c\":4}",
+            "{\"a\":\"scalar\",\"b\":[0,1],\"c\":{\"d\":{\"e\":5}}}",
+            "{}"
+    };
+
+    private static ProcessorFactory processorFactory;
+
+    @BeforeAll
+    static void createFactory() {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.afterPropertiesSet();
+        processorFactory = new ProcessorFactory(registry);
+    }
+
+    @Test
+    void dialogRecordHandleChain() throws IOException {
+        assertFusedMatchesSequential("[{\"type\":\"rename\",\"config\":{\"mappings\":{\"/user/id\":\"user_id\","
+                + "\"userId\":\"user_id\",\"sessionId\":\"session_id\"}}},"
+                + "{\"type\":\"remove\",\"config\":{\"fields\":[\"/param/event_list\",\"ori_message\"]}}]");
+    }
+
+    @Test
+    void transformationConfigChain() throws IOException {
+        assertFusedMatchesSequential("[{\"type\":\"rename\",\"config\":{\"fields\":["
+                + "{\"from\":\"user.id\",\"to\":\"userId\",\"keep_original\":false},"
+                + "{\"from\":\"message.content\",\"to\":\"textContent\",\"keep_original\":true},"
+                + "{\"from\":\"conversation_type\",\"to\":\"convType\",\"keep_original\":false}],\"ignore_missing\":true}},"
+                + "{\"type\":\"rename\",\"config\":{\"fields\":["
+                + "{\"from\":\"user.profile.name\",\"to\":\"userName\"},"
+                + "{\"from\":\"metadata.tags\",\"to\":\"tags\",\"keep_original\":true}],\"ignore_missing\":false}},"
+                + "{\"type\":\"remove\",\"config\":{\"fields\":[\"internal_data\",\"temp_field\",\"debug_info\"]}}]");
+    }
+
+    /**
+     * 分组会让b -> a排到a.z -> w之后，二者互相影响，退回逐个执行
+     */
+    @Test
+    void prefixConflictFallsBackToConfigOrder() throws IOException {
+        List<FieldOperation> operations = List.of(
+                move("a.x", "y"), move("b", "a"), move("a.z", "w"));
+        assertFalse(FieldMutationPlan.compile(operations).isGrouped());
+        assertFusedMatchesSequential("[{\"type\":\"rename\",\"config\":{\"mappings\":{\"a.x\":\"y\"}}},"
+                + "{\"type\":\"rename\",\"config\":{\"mappings\":{\"b\":\"a\"}}},"
+                + "{\"type\":\"rename\",\"config\":{\"mappings\":{\"a.z\":\"w\"}}}]");
+    }
+
+    /**
+     * a -> d移走了a.x所在的父节点，退回逐个执行
+     */
+    @Test
+    void movedParentFallsBackToConfigOrder() throws IOException {
+        assertFalse(FieldMutationPlan.compile(List.of(move("a.x", "y"), move("a", "d"))).isGrouped());
+        assertFusedMatchesSequential("[{\"type\":\"rename\",\"config\":{\"mappings\":{\"a.x\":\"y\"}}},"
+                + "{\"type\":\"rename\",\"config\":{\"mappings\":{\"a\":\"d\"}}},"
+                + "{\"type\":\"remove\",\"config\":{\"fields\":[\"c.d\"]}}]");
+    }
+
+    /**
+     * 分组会让a.z -> w先于c -> e写入，新字段的先后会改变，退回逐个执行
+     */
+    @Test
+    void reorderedMovesFallBackToConfigOrder() throws IOException {
+        assertFalse(FieldMutationPlan.compile(List.of(move("a.x", "y"), move("c", "e"), move("a.z", "w"))).isGrouped());
+        assertFusedMatchesSequential("[{\"type\":\"rename\",\"config\":{\"mappings\":{\"a.x\":\"y\",\"c\":\"e\"}}},"
+                + "{\"type\":\"rename\",\"config\":{\"mappings\":{\"a.z\":\"w\"}}}]");
+    }
+
+    /**
+     * 只有删除操作被提前，移动操作的先后不变，按父路径分组执行
+     */
+    @Test
+    void independentGroupsAreFused() throws IOException {
+        assertTrue(FieldMutationPlan.compile(List.of(move("a.x", "y"), FieldOperation.remove(FieldPath.compile("c")),
+                move("a.z", "w"))).isGrouped());
+        assertFusedMatchesSequential("[{\"type\":\"rename\",\"config\":{\"mappings\":{\"a.x\":\"y\"}}},"
+                + "{\"type\":\"remove\",\"config\":{\"fields\":[\"c\",\"b.y\"]}},"
+                + "{\"type\":\"rename\",\"config\":{\"mappings\":{\"a.z\":\"w\"}}}]");
+    }
+
+    /**
+     * user为字符串时user_id无法移动到user.id，源字段保持原样而不是被删除
+     */
+    @Test
+    void unwritableTargetKeepsTheSource() throws IOException {
+        String chain = "[{\"type\":\"rename\",\"config\":{\"mappings\":{\"user_id\":\"user.id\"}}},"
+                + "{\"type\":\"remove\",\"config\":{\"fields\":[\"ts\"]}}]";
+        assertFusedMatchesSequential(chain);
+
+        Pipeline fused = pipeline(chain, true, "tree");
+        Event<?> event = decode(EVENTS[2], fused);
+        fused.processBatch(new ArrayList<>(List.of(event)));
+        assertEquals("{\"user\":\"anonymous\",\"user_id\":9,\"param\":[1]}", EventCodec.encodeToString(event));
+    }
+
+    private static void assertFusedMatchesSequential(String processors) throws IOException {
+        for (String mode : new String[]{"tree", "lazy"}) {
+            Pipeline fused = pipeline(processors, true, mode);
+            Pipeline sequential = pipeline(processors, false, mode);
+            assertTrue(fused.getPlan() != null && sequential.getPlan() != null);
+            for (String source : EVENTS) {
+                assertEquals(run(sequential, source), run(fused, source), mode + " " + source);
+            }
+        }
+    }
+
+    private static String run(Pipeline pipeline, String source) throws IOException {
+        Event<?> event = decode(source, pipeline);
+        List<Event<?>> batch = new ArrayList<>(List.of(event));
+        pipeline.processBatch(batch);
+        return EventCodec.encodeToString(event);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Event<?> decode(String source, Pipeline pipeline) throws IOException {
+        Event event = new Event<>();
+        EventCodec.decode(event, source.getBytes(StandardCharsets.UTF_8), pipeline.getReferencedRoots());
+        return event;
+    }
+
+    private static Pipeline pipeline(String processors, boolean fuse, String mode) throws IOException {
+        ObjectNode definition = JsonUtil.getObjectMapper().createObjectNode();
+        definition.set("processors", JsonUtil.getObjectMapper().readTree(processors));
+        ObjectNode settings = definition.putObject("settings");
+        settings.put("fuse_processors", fuse);
+        settings.put("event_mode", mode);
+        PipelineDefinition parsed = JsonUtil.getObjectMapper().treeToValue(definition, PipelineDefinition.class);
+        return new PipelineFactory(processorFactory).create("fusion", parsed);
+    }
+
+    private static FieldOperation move(String from, String to) {
+        return FieldOperation.move(FieldPath.compile(from), FieldPath.compile(to), false, true);
+    }
+
+}
@@ -0,0 +1,164 @@
+package priv.eric.pelee.application.runtime;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.GaugeAware;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.domain.model.PipelineSettings;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 多个输出端时慢输出端对其余输出端的影响
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 16:20
+ */
+class OutputDispatcherTest {
+
+    private static final int BATCHES = 20;
+
+    private static final int BATCH_SIZE = 10;
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    private final RecordingOutput slow = new RecordingOutput("slow", unblock);
+
+    private final RecordingOutput fast = new RecordingOutput("fast", null);
+
+    private final AtomicInteger acked = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private OutputDispatcher dispatcher;
+
+    @AfterEach
+    void close() {
+        unblock.countDown();
+        if (dispatcher != null) {
+            dispatcher.close(System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+        }
+    }
+
+    @Test
+    void fastOutputKeepsReceivingBatchesWhileAnotherIsStuck() throws InterruptedException {
+        dispatcher = start(new PipelineSettings());
+
+        dispatchAll();
+
+        await(() -> fast.events.get() == BATCHES * BATCH_SIZE);
+        GaugeAware slowLane = dispatcher.laneGauges().get(0);
+        assertTrue(slowLane.gauges().get("overflow_dropped_events").getAsDouble() > 0);
+        assertEquals(0.0, dispatcher.laneGauges().get(1).gauges().get("overflow_dropped_events").getAsDouble());
+
+        unblock.countDown();
+        await(() -> acked.get() == BATCHES * BATCH_SIZE);
+        assertEquals(0, failed.get());
+    }
+
+    /**
+     * output_overflow为block时慢输出端的队列满后工作线程被阻塞，其余输出端也收不到新批次
+     */
+    @Test
+    void blockingOverflowCouplesOutputs() throws InterruptedException {
+        PipelineSettings settings = new PipelineSettings();
+        settings.setOutputOverflow("block");
+        dispatcher = start(settings);
+
+        Thread worker = new Thread(this::dispatchAll);
+        worker.start();
+        TimeUnit.MILLISECONDS.sleep(300);
+
+        assertTrue(worker.isAlive());
+        assertTrue(fast.events.get() < BATCHES * BATCH_SIZE, "快输出端收到: " + fast.events.get());
+
+        unblock.countDown();
+        worker.join(TIMEOUT_MILLIS);
+        await(() -> fast.events.get() == BATCHES * BATCH_SIZE && slow.events.get() == BATCHES * BATCH_SIZE);
+    }
+
+    private OutputDispatcher start(PipelineSettings settings) {
+        settings.setOutputQueueSize(2);
+        OutputDispatcher started = new OutputDispatcher("test", List.of(slow, fast), settings,
+                acks -> failed.addAndGet(acks.length));
+        started.start();
+        return started;
+    }
+
+    private void dispatchAll() {
+        for (int batch = 0; batch < BATCHES; batch++) {
+            List<Event<?>> events = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                ObjectNode data = JsonUtil.getObjectMapper().createObjectNode();
+                data.put("seq", batch * BATCH_SIZE + i);
+                Event<ObjectNode> event = new Event<>(data);
+                event.setAck(acked::incrementAndGet);
+                events.add(event);
+            }
+            dispatcher.dispatch(events, events, () -> {
+            });
+            // 按快输出端跟得上的速度产生批次
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("等待超时");
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    /**
+     * 记录收到的事件数，gate不为空时写入在其打开前一直阻塞
+     */
+    private static final class RecordingOutput implements Output {
+
+        private final String type;
+
+        private final CountDownLatch gate;
+
+        private final AtomicInteger events = new AtomicInteger();
+
+        private RecordingOutput(String type, CountDownLatch gate) {
+            this.type = type;
+            this.gate = gate;
+        }
+
+        @Override
+        public String type() {
+            return type;
+        }
+
+        @Override
+        public void write(List<Event<?>> batch) {
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.addAndGet(batch.size());
+        }
+
+    }
+
+}
@@ -0,0 +1,216 @@
+package priv.eric.pelee.application.runtime;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.domain.model.Acknowledgement;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.Output;
+import priv.eric.pelee.domain.model.Pipeline;
+import priv.eric.pelee.domain.model.PipelineSettings;
+import priv.eric.pelee.domain.model.Processor;
+import priv.eric.pelee.domain.model.ProcessorWrapper;
+import priv.eric.pelee.domain.model.Stage;
+import priv.eric.pelee.plugin.context.SequenceStageContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 流水线运行时的失败隔离、事件校验与停止时的在途投递
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 10:10
+ */
+class PipelineRuntimeTest {
+
+    private static final int EVENTS = 10;
+
+    private static final int POISON = 4;
+
+    private final List<Long> received = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger acked = new AtomicInteger();
+
+    private PipelineRuntime runtime;
+
+    @AfterEach
+    void stopRuntime() {
+        if (runtime != null) {
+            runtime.stop(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void poisonEventIsHeldAloneWhileTheRestOfItsBatchIsDelivered() {
+        runtime = start(settings("hold"), poisonStage());
+
+        offerAll();
+        runtime.stop(5, TimeUnit.SECONDS);
+
+        assertEquals(EVENTS - 1, received.size());
+        assertFalse(received.contains((long) POISON), "收到: " + received);
+        assertEquals(EVENTS - 1, acked.get());
+    }
+
+    @Test
+    void poisonEventIsAcknowledgedWhenFailurePolicyIsDrop() {
+        runtime = start(settings("drop"), poisonStage());
+
+        offerAll();
+        runtime.stop(5, TimeUnit.SECONDS);
+
+        assertEquals(EVENTS - 1, received.size());
+        assertEquals(EVENTS, acked.get());
+    }
+
+    @Test
+    void nonObjectPayloadsAreDroppedBeforeReachingProcessors() {
+        AtomicInteger processed = new AtomicInteger();
+        Processor<ObjectNode> counter = event -> processed.incrementAndGet();
+        runtime = start(settings("hold"), new ProcessorWrapper<>("count", counter, null));
+
+        for (String payload : new String[]{"[1,2]", "42", "\"text\"", "null", "{\"seq\":1}"}) {
+            runtime.offer(payload.getBytes(StandardCharsets.UTF_8), acked::incrementAndGet, -1);
+        }
+        runtime.stop(5, TimeUnit.SECONDS);
+
+        assertEquals(1, processed.get());
+        assertEquals(List.of(1L), received);
+        // 格式错误的事件直接丢弃并确认，不会按failure_policy保留
+        assertEquals(5, acked.get());
+    }
+
+    /**
+     * 投递方已通过running检查、尚未写入槽位时开始停止，工作线程需等到该事件发布后才能退出
+     */
+    @Test
+    void stopWaitsForPublishersThatPassedTheRunningCheck() throws InterruptedException {
+        PipelineSettings settings = settings("hold");
+        settings.setPartitionKey(List.of("key"));
+        runtime = start(settings, new ProcessorWrapper<>("noop", (Processor<ObjectNode>) event -> {
+        }, null));
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        ObjectNode data = new BlockingObjectNode(entered, proceed);
+        data.put("seq", 1);
+
+        AtomicBoolean accepted = new AtomicBoolean();
+        Thread publisher = new Thread(() -> accepted.set(runtime.offer(data, acked::incrementAndGet, -1)));
+        publisher.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS), "等待超时");
+
+        Thread stopper = new Thread(() -> runtime.stop(5, TimeUnit.SECONDS));
+        stopper.start();
+        while (runtime.isRunning()) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        // 给工作线程留出看到队列为空的时间
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertTrue(stopper.isAlive(), "在途投递结束前不应完成停止");
+
+        proceed.countDown();
+        publisher.join(5_000);
+        stopper.join(10_000);
+        assertFalse(stopper.isAlive(), "等待超时");
+        assertTrue(accepted.get());
+        assertEquals(List.of(1L), received);
+        assertEquals(1, acked.get());
+        assertFalse(runtime.offer(data, acked::incrementAndGet, -1), "停止后不再接收事件");
+    }
+
+    private void offerAll() {
+        for (int i = 0; i < EVENTS; i++) {
+            String payload = i == POISON ? "{\"seq\":" + i + ",\"poison\":true}" : "{\"seq\":" + i + "}";
+            Acknowledgement ack = acked::incrementAndGet;
+            assertTrue(runtime.offer(payload.getBytes(StandardCharsets.UTF_8), ack, -1));
+        }
+    }
+
+    private static ProcessorWrapper<Object> poisonStage() {
+        Processor<ObjectNode> processor = event -> {
+            if (event.getData().path("poison").asBoolean()) {
+                throw new IllegalStateException("poison");
+            }
+            event.getData().put("checked", true);
+        };
+        return new ProcessorWrapper<>("poison", processor, null);
+    }
+
+    private static PipelineSettings settings(String failurePolicy) {
+        PipelineSettings settings = new PipelineSettings();
+        settings.setWorkers(1);
+        settings.setBatchSize(EVENTS);
+        settings.setLingerMs(200);
+        settings.setFailurePolicy(failurePolicy);
+        return settings;
+    }
+
+    private PipelineRuntime start(PipelineSettings settings, Stage stage) {
+        Pipeline pipeline = new Pipeline("test", new SequenceStageContext(List.of(stage)), settings);
+        PipelineRuntime started = new PipelineRuntime(pipeline, null, List.of(new RecordingOutput()));
+        started.start();
+        return started;
+    }
+
+    /**
+     * 计算分区键时读取key字段会阻塞，直到proceed打开，用于让投递停在running检查与写入槽位之间
+     */
+    private static final class BlockingObjectNode extends ObjectNode {
+
+        private final CountDownLatch entered;
+
+        private final CountDownLatch proceed;
+
+        private BlockingObjectNode(CountDownLatch entered, CountDownLatch proceed) {
+            super(JsonNodeFactory.instance);
+            this.entered = entered;
+            this.proceed = proceed;
+        }
+
+        @Override
+        public JsonNode get(String propertyName) {
+            if ("key".equals(propertyName)) {
+                entered.countDown();
+                try {
+                    proceed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.get(propertyName);
+        }
+
+    }
+
+    /**
+     * 记录收到的事件序号
+     */
+    private final class RecordingOutput implements Output {
+
+        @Override
+        public String type() {
+            return "recording";
+        }
+
+        @Override
+        public void write(List<Event<?>> events) {
+            for (Event<?> event : events) {
+                received.add(((ObjectNode) event.getData()).path("seq").asLong());
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package priv.eric.pelee.infrastructure.codec;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.plugin.processor.RemoveProcessor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 按需解析后再序列化，未改动字段的顺序与原始字节保持不变，被删除的字段不再写出
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 20:00
+ */
+class LazyJsonTest {
+
+    private static final String SOURCE = "{\"id\":7,\"ori_message\":{\"text\":\"原文\\n\\u00e9\",\"list\":[1, 2.50, null]},"
+            + "\"param\":{\"event_list\":[{\"k\":1}],\"page\":\"home\"},\"flag\":true,\"nil\":null,"
+            + "\"big\":12345678901234567890,\"tail\":\"end\"}";
+
+    @Test
+    void untouchedEventIsWrittenBackVerbatim() throws IOException {
+        Event<ObjectNode> event = decode(SOURCE, Set.of("param"));
+
+        // 只有被引用的字段进入事件数据
+        assertEquals(1, event.getData().size());
+        assertTrue(event.getData().has("param"));
+        assertEquals(SOURCE, EventCodec.encodeToString(event));
+        assertEquals(SOURCE, EventCodec.encodeToString(decode(SOURCE, Set.of())));
+    }
+
+    /**
+     * 已解析字段的修改写回原位置，新增字段追加在末尾
+     */
+    @Test
+    void parsedFieldsKeepTheirPositionAndNewFieldsAreAppended() throws IOException {
+        Event<ObjectNode> event = decode(SOURCE, Set.of("param", "flag", "absent"));
+        ((ObjectNode) event.getData().get("param")).put("page", "detail");
+        event.getData().put("flag", false);
+        event.getData().put("absent", 1);
+        event.getData().put("added", "x");
+
+        assertEquals("{\"id\":7,\"ori_message\":{\"text\":\"原文\\n\\u00e9\",\"list\":[1, 2.50, null]},"
+                + "\"param\":{\"event_list\":[{\"k\":1}],\"page\":\"detail\"},\"flag\":false,\"nil\":null,"
+                + "\"big\":12345678901234567890,\"tail\":\"end\",\"absent\":1,\"added\":\"x\"}",
+                EventCodec.encodeToString(event));
+    }
+
+    @Test
+    void droppedFieldsAreNotWritten() throws IOException {
+        Event<ObjectNode> event = decode(SOURCE, Set.of("param", "flag"));
+        event.getRawFields().drop("ori_message");
+        event.getRawFields().drop("tail");
+        event.getRawFields().drop("not_there");
+        // 已解析字段不受drop影响，从事件数据中删除
+        event.getRawFields().drop("flag");
+        event.getData().remove("param");
+
+        assertEquals("{\"id\":7,\"flag\":true,\"nil\":null,\"big\":12345678901234567890}",
+                EventCodec.encodeToString(event));
+    }
+
+    @Test
+    void removeProcessorDropsRawAndParsedFields() throws IOException {
+        RemoveProcessor processor = new RemoveProcessor(List.of("ori_message", "/param/event_list", "nil"));
+        Set<String> roots = Set.of("param");
+        Event<ObjectNode> event = decode(SOURCE, roots);
+
+        processor.process(event);
+
+        assertEquals("{\"id\":7,\"param\":{\"page\":\"home\"},\"flag\":true,\"big\":12345678901234567890,"
+                + "\"tail\":\"end\"}", EventCodec.encodeToString(event));
+        assertEquals(EventCodec.encodeToString(tree(SOURCE, processor)), EventCodec.encodeToString(event));
+    }
+
+    /**
+     * 复用的事件对象再次解析时不残留上一条事件的字段
+     */
+    @Test
+    void recycledEventDoesNotLeakPreviousFields() throws IOException {
+        Event<ObjectNode> event = decode(SOURCE, Set.of("param"));
+        event.getRawFields().drop("id");
+        event.recycle();
+        assertNull(event.getRawFields());
+
+        String next = "{\"b\":[1,{\"c\":\"d\"}],\"param\":1}";
+        EventCodec.decode(event, next.getBytes(StandardCharsets.UTF_8), Set.of("param"));
+        assertEquals(next, EventCodec.encodeToString(event));
+    }
+
+    @Test
+    void nonObjectRootIsRejected() {
+        for (String source : List.of("[1,2]", "\"text\"", "1")) {
+            assertThrows(IOException.class, () -> decode(source, Set.of("a")), source);
+        }
+        assertThrows(IOException.class, () -> decode("{\"a\":", Set.of("b")));
+    }
+
+    private static Event<ObjectNode> decode(String source, Set<String> roots) throws IOException {
+        Event<ObjectNode> event = new Event<>();
+        EventCodec.decode(event, source.getBytes(StandardCharsets.UTF_8), roots);
+        return event;
+    }
+
+    private static Event<ObjectNode> tree(String source, RemoveProcessor processor) throws IOException {
+        Event<ObjectNode> event = new Event<>();
+        EventCodec.decode(event, source.getBytes(StandardCharsets.UTF_8), null);
+        processor.process(event);
+        return event;
+    }
+
+}
@@ -0,0 +1,156 @@
+package priv.eric.pelee.infrastructure.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: NDJSON按行读取，覆盖分段到达的行与超长行
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 18:50
+ */
+class NdjsonReaderTest {
+
+    @Test
+    void splitsLinesAndStripsCarriageReturns() throws IOException {
+        NdjsonReader reader = reader("{\"a\":1}\r\n\n{\"b\":2}\n{\"c\":3}", 1024);
+
+        assertEquals("{\"a\":1}", text(reader.next()));
+        assertEquals("", text(reader.next()));
+        assertEquals("{\"b\":2}", text(reader.next()));
+        // 最后一行没有换行符
+        assertEquals("{\"c\":3}", text(reader.next()));
+        assertEquals(4, reader.lineNumber());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void trailingNewlineDoesNotProduceAnExtraLine() throws IOException {
+        NdjsonReader reader = reader("{\"a\":1}\n", 1024);
+
+        assertEquals("{\"a\":1}", text(reader.next()));
+        assertNull(reader.next());
+        assertNull(reader(new byte[0], 1024).next());
+    }
+
+    /**
+     * 输入流每次只返回少量字节，行在多次读取之间拼接
+     */
+    @Test
+    void joinsLinesArrivingInPartialReads() throws IOException {
+        List<String> lines = List.of("{\"seq\":1,\"text\":\"用户\"}", "{\"seq\":2}", "{\"seq\":3}");
+        byte[] body = (String.join("\r\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        NdjsonReader reader = new NdjsonReader(new TrickleInputStream(body, 3), 1024);
+
+        assertEquals(lines, readAll(reader));
+    }
+
+    @Test
+    void readsLinesLongerThanOneChunk() throws IOException {
+        String longLine = "{\"v\":\"" + "x".repeat(200_000) + "\"}";
+        NdjsonReader reader = reader(longLine + "\n{\"b\":2}\n", 256 * 1024);
+
+        assertEquals(List.of(longLine, "{\"b\":2}"), readAll(reader));
+    }
+
+    @Test
+    void skipsOversizedLinesAndKeepsReading() throws IOException {
+        String oversized = "{\"v\":\"" + "x".repeat(100_000) + "\"}";
+        NdjsonReader reader = new NdjsonReader(new TrickleInputStream(
+                ("{\"a\":1}\n" + oversized + "\n{\"b\":2}").getBytes(StandardCharsets.UTF_8), 4096), 1024);
+
+        assertEquals("{\"a\":1}", text(reader.next()));
+        assertFalse(reader.isOversized());
+
+        assertEquals(0, reader.next().length);
+        assertTrue(reader.isOversized());
+        assertEquals(2, reader.lineNumber());
+
+        assertEquals("{\"b\":2}", text(reader.next()));
+        assertFalse(reader.isOversized());
+        assertEquals(3, reader.lineNumber());
+    }
+
+    @Test
+    void acceptsLinesExactlyAtTheLimit() throws IOException {
+        NdjsonReader reader = reader("12345\n123456\n", 5);
+
+        assertEquals("12345", text(reader.next()));
+        assertFalse(reader.isOversized());
+        reader.next();
+        assertTrue(reader.isOversized());
+    }
+
+    @Test
+    void rejectsNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> reader("", 0));
+    }
+
+    private static NdjsonReader reader(String body, int maxLineBytes) {
+        return reader(body.getBytes(StandardCharsets.UTF_8), maxLineBytes);
+    }
+
+    private static NdjsonReader reader(byte[] body, int maxLineBytes) {
+        return new NdjsonReader(new ByteArrayInputStream(body), maxLineBytes);
+    }
+
+    private static List<String> readAll(NdjsonReader reader) throws IOException {
+        List<String> lines = new ArrayList<>();
+        byte[] line;
+        while ((line = reader.next()) != null) {
+            lines.add(text(line));
+        }
+        return lines;
+    }
+
+    private static String text(byte[] line) {
+        return new String(line, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 每次最多返回step个字节，模拟网络分段到达
+     */
+    private static final class TrickleInputStream extends InputStream {
+
+        private final byte[] data;
+
+        private final int step;
+
+        private int position;
+
+        private TrickleInputStream(byte[] data, int step) {
+            this.data = data;
+            this.step = step;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (position >= data.length) {
+                return -1;
+            }
+            int count = Math.min(Math.min(step, length), data.length - position);
+            System.arraycopy(data, position, target, offset, count);
+            position += count;
+            return count;
+        }
+
+    }
+
+}
@@ -0,0 +1,164 @@
+package priv.eric.pelee.infrastructure.condition;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.infrastructure.util.FieldPath;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 各条件操作符在字段存在、缺失与为null时的结果
+ * <p>
+ * 字段缺失时除 ne 与 not 外均不成立；null只与值为null的 eq、in 相等
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 19:40
+ */
+class ConditionCompilerTest {
+
+    private static final String EVENT = "{\"type\":\"chat\",\"n\":5,\"f\":2.5,\"nil\":null,"
+            + "\"user\":{\"name\":\"bot_1\",\"tags\":[\"a\",\"b\"]},\"scalar\":\"text\"}";
+
+    @Test
+    void exists() throws IOException {
+        assertCases("{\"exists\":\"%s\"}",
+                true, "type", "user.tags[1]", "n",
+                false, "missing", "nil", "user.missing", "scalar.child", "user.tags[2]");
+    }
+
+    @Test
+    void eqAndNe() throws IOException {
+        assertCases("{\"eq\":{\"path\":\"%s\",\"value\":\"chat\"}}",
+                true, "type",
+                false, "scalar", "missing", "nil", "user.missing.deep");
+        assertCases("{\"ne\":{\"path\":\"%s\",\"value\":\"chat\"}}",
+                true, "scalar", "missing", "nil", "user.missing.deep",
+                false, "type");
+
+        // 数值按数值比较
+        assertTrue(test("{\"eq\":{\"path\":\"n\",\"value\":5.0}}"));
+        assertTrue(test("{\"eq\":{\"path\":\"f\",\"value\":2.5}}"));
+        assertFalse(test("{\"eq\":{\"path\":\"n\",\"value\":\"5\"}}"));
+
+        // 值为null时只匹配显式的null，缺失字段不相等
+        assertTrue(test("{\"eq\":{\"path\":\"nil\",\"value\":null}}"));
+        assertFalse(test("{\"eq\":{\"path\":\"missing\",\"value\":null}}"));
+        assertFalse(test("{\"ne\":{\"path\":\"nil\",\"value\":null}}"));
+        assertTrue(test("{\"ne\":{\"path\":\"missing\",\"value\":null}}"));
+    }
+
+    @Test
+    void numericComparisons() throws IOException {
+        assertCases("{\"gt\":{\"path\":\"%s\",\"value\":2}}",
+                true, "n", "f",
+                false, "missing", "nil", "type");
+        assertCases("{\"gt\":{\"path\":\"n\",\"value\":%s}}", true, "4.9", false, "5", "6");
+        assertCases("{\"gte\":{\"path\":\"n\",\"value\":%s}}", true, "5", "4", false, "5.1");
+        assertCases("{\"lt\":{\"path\":\"n\",\"value\":%s}}", true, "5.1", false, "5", "-1");
+        assertCases("{\"lte\":{\"path\":\"n\",\"value\":%s}}", true, "5", "6", false, "4");
+        for (String operator : List.of("gte", "lt", "lte")) {
+            for (String path : List.of("missing", "nil", "type", "user")) {
+                assertFalse(test("{\"" + operator + "\":{\"path\":\"" + path + "\",\"value\":10}}"), operator + " " + path);
+            }
+        }
+    }
+
+    @Test
+    void in() throws IOException {
+        assertCases("{\"in\":{\"path\":\"%s\",\"value\":[\"chat\",5,true]}}",
+                true, "type", "n",
+                false, "scalar", "f", "missing", "nil", "user");
+        assertTrue(test("{\"in\":{\"path\":\"nil\",\"value\":[\"x\",null]}}"));
+        assertFalse(test("{\"in\":{\"path\":\"missing\",\"value\":[\"x\",null]}}"));
+        assertFalse(test("{\"in\":{\"path\":\"type\",\"value\":[]}}"));
+    }
+
+    @Test
+    void regex() throws IOException {
+        assertCases("{\"regex\":{\"path\":\"%s\",\"value\":\"^bot_|^5$\"}}",
+                true, "user.name", "n",
+                false, "type", "missing", "nil", "user", "user.tags");
+        // null节点不按字符串"null"匹配
+        assertFalse(test("{\"regex\":{\"path\":\"nil\",\"value\":\"null\"}}"));
+    }
+
+    @Test
+    void logicalOperators() throws IOException {
+        String missing = "{\"exists\":\"missing\"}";
+        String present = "{\"exists\":\"type\"}";
+
+        assertTrue(test("{\"not\":" + missing + "}"));
+        assertFalse(test("{\"not\":" + present + "}"));
+        assertTrue(test("{\"all\":[" + present + ",{\"not\":" + missing + "}]}"));
+        assertFalse(test("{\"all\":[" + present + "," + missing + "]}"));
+        assertTrue(test("{\"any\":[" + missing + "," + present + "]}"));
+        assertFalse(test("{\"any\":[" + missing + ",{\"exists\":\"nil\"}]}"));
+        // 同一对象中的多个操作符按且组合
+        assertFalse(test("{\"exists\":\"type\",\"eq\":{\"path\":\"missing\",\"value\":1}}"));
+        assertTrue(test("{\"exists\":\"type\",\"ne\":{\"path\":\"missing\",\"value\":1}}"));
+    }
+
+    @Test
+    void emptyExpressionAlwaysMatches() throws IOException {
+        assertSame(Condition.ALWAYS, ConditionCompiler.compile(null));
+        assertSame(Condition.ALWAYS, ConditionCompiler.compile(json("null")));
+        assertSame(Condition.ALWAYS, ConditionCompiler.compile(json("{}")));
+    }
+
+    @Test
+    void collectsEveryReferencedPath() throws IOException {
+        Condition condition = ConditionCompiler.compile(json("{\"any\":[{\"exists\":\"a\"},"
+                + "{\"not\":{\"in\":{\"path\":\"b.c\",\"value\":[1]}}}],\"regex\":{\"path\":\"d\",\"value\":\"x\"}}"));
+        List<FieldPath> paths = new ArrayList<>();
+        condition.collectPaths(paths);
+
+        List<String> expressions = new ArrayList<>();
+        for (FieldPath path : paths) {
+            expressions.add(path.toString());
+        }
+        assertEquals(List.of("a", "b.c", "d"), expressions);
+    }
+
+    @Test
+    void rejectsInvalidExpressions() {
+        for (String expression : List.of("[]", "{\"unknown\":1}", "{\"exists\":1}", "{\"all\":[]}", "{\"any\":{}}",
+                "{\"eq\":{\"value\":1}}", "{\"eq\":{\"path\":\"a\"}}", "{\"gt\":{\"path\":\"a\",\"value\":\"1\"}}",
+                "{\"in\":{\"path\":\"a\",\"value\":1}}", "{\"regex\":{\"path\":\"a\",\"value\":\"(\"}}",
+                "{\"not\":1}", "{\"exists\":\"user.\"}")) {
+            assertThrows(IllegalArgumentException.class, () -> ConditionCompiler.compile(json(expression)), expression);
+        }
+    }
+
+    /**
+     * 依次将路径或数值代入template判断，遇到布尔值时切换期望结果
+     */
+    private static void assertCases(String template, Object... cases) throws IOException {
+        boolean expected = true;
+        for (Object value : cases) {
+            if (value instanceof Boolean) {
+                expected = (Boolean) value;
+                continue;
+            }
+            String expression = String.format(template, value);
+            assertEquals(expected, test(expression), expression);
+        }
+    }
+
+    private static boolean test(String expression) throws IOException {
+        return ConditionCompiler.compile(json(expression)).test(json(EVENT));
+    }
+
+    private static JsonNode json(String source) throws IOException {
+        return JsonUtil.getObjectMapper().readTree(source);
+    }
+
+}
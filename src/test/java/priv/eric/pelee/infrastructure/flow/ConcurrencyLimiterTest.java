@@ -0,0 +1,135 @@
+package priv.eric.pelee.infrastructure.flow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 在途请求数上限的阻塞与自适应调整
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 19:10
+ */
+class ConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void fixedLimitIgnoresSamplesAndBlocksAtMax() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+        limiter.sample(MILLIS, true);
+        assertEquals(2, limiter.getLimit());
+
+        limiter.acquire();
+        limiter.acquire();
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        waiter.join(200);
+        assertTrue(waiter.isAlive(), "超过上限时应等待");
+
+        limiter.release();
+        waiter.join(5_000);
+        assertFalse(waiter.isAlive(), "释放名额后应获得名额");
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void overloadMultipliesTheLimitDownToMin() {
+        ConcurrencyLimiter limiter = adaptive(4, 64);
+
+        limiter.sample(10 * MILLIS, true);
+        assertEquals(32, limiter.getLimit());
+        for (int i = 0; i < 10; i++) {
+            limiter.sample(10 * MILLIS, true);
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+
+    /**
+     * 基线10ms、容忍2倍：30ms按20/30下调，100ms按backoff_ratio下调
+     */
+    @Test
+    void slowResponsesDecreaseByLatencyRatioBoundedByBackoff() {
+        ConcurrencyLimiter limiter = adaptive(1, 90);
+
+        limiter.sample(10 * MILLIS, false);
+        assertEquals(90, limiter.getLimit());
+        limiter.sample(15 * MILLIS, false);
+        assertEquals(90, limiter.getLimit(), "未超过容忍倍数不应下调");
+
+        limiter.sample(30 * MILLIS, false);
+        assertEquals(60, limiter.getLimit());
+        limiter.sample(100 * MILLIS, false);
+        assertEquals(30, limiter.getLimit());
+    }
+
+    @Test
+    void fastResponsesGrowTheLimitOnlyWhileItIsUsed() throws InterruptedException {
+        ConcurrencyLimiter limiter = adaptive(1, 10);
+        limiter.sample(10 * MILLIS, true);
+        assertEquals(5, limiter.getLimit());
+
+        // 没有在途请求时上限未被用到，不增长
+        for (int i = 0; i < 20; i++) {
+            limiter.sample(10 * MILLIS, false);
+        }
+        assertEquals(5, limiter.getLimit());
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+        }
+        // 每个上限数量的成功请求增加1
+        for (int i = 0; i < 6; i++) {
+            limiter.sample(10 * MILLIS, false);
+        }
+        assertEquals(6, limiter.getLimit());
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < 200; i++) {
+            limiter.sample(10 * MILLIS, false);
+        }
+        assertEquals(10, limiter.getLimit(), "上限不超过max");
+    }
+
+    @Test
+    void awaitIdleWaitsForInFlightRequests() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        assertTrue(limiter.awaitIdle(0, TimeUnit.MILLISECONDS));
+
+        limiter.acquire();
+        assertFalse(limiter.awaitIdle(50, TimeUnit.MILLISECONDS));
+
+        new Thread(limiter::release).start();
+        assertTrue(limiter.awaitIdle(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectsInvalidConfig() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(0));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(5, 4, false, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(1, 4, true, 0.5, 0.5, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(1, 4, true, 2, 1, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(1, 4, true, 2, 0.5, 0));
+    }
+
+    /**
+     * 统计窗口足够长，测试期间基线不会轮换
+     */
+    private static ConcurrencyLimiter adaptive(int min, int max) {
+        return new ConcurrencyLimiter(min, max, true, 2, 0.5, 60_000);
+    }
+
+}
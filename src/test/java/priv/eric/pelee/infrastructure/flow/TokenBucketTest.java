@@ -0,0 +1,61 @@
+package priv.eric.pelee.infrastructure.flow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 令牌桶的突发、欠账与补充
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 19:20
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsAvailableImmediately() {
+        TokenBucket bucket = new TokenBucket(1, 10);
+
+        assertEquals(0L, bucket.reserve(4));
+        assertEquals(0L, bucket.reserve(6));
+        long wait = bucket.reserve(1);
+        assertTrue(wait > SECOND / 2 && wait <= SECOND, "等待: " + wait);
+    }
+
+    /**
+     * 超过burst的预约欠账执行，等待时间按欠下的令牌计算
+     */
+    @Test
+    void reservationsLargerThanBurstOweTokens() {
+        TokenBucket bucket = new TokenBucket(1, 10);
+
+        long wait = bucket.reserve(30);
+        assertTrue(wait > 19 * SECOND && wait <= 20 * SECOND, "等待: " + wait);
+        long next = bucket.reserve(10);
+        assertTrue(next > 29 * SECOND && next <= 30 * SECOND, "等待: " + next);
+    }
+
+    @Test
+    void refillIsCappedAtBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 5);
+        bucket.reserve(5);
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(0L, bucket.reserve(5));
+        assertTrue(bucket.reserve(5) > 0, "空闲期间积累的令牌不应超过burst");
+    }
+
+    @Test
+    void reportsRateAndRejectsInvalidConfig() {
+        assertEquals(250.0, new TokenBucket(250, 1).getRate(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+
+}
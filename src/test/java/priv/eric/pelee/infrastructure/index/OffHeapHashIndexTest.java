@@ -0,0 +1,98 @@
+package priv.eric.pelee.infrastructure.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * desc: 堆外哈希索引的命中、未命中与扩容
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 17:00
+ */
+class OffHeapHashIndexTest {
+
+    @Test
+    void findsStoredValues() {
+        OffHeapHashIndex index = OffHeapHashIndex.builder(4)
+                .put("u1", bytes("{\"name\":\"a\"}"))
+                .put("u2", bytes("{\"name\":\"b\"}"))
+                .build();
+
+        assertEquals(2, index.size());
+        assertEquals("{\"name\":\"a\"}", value(index, "u1"));
+        assertEquals("{\"name\":\"b\"}", value(index, "u2"));
+    }
+
+    @Test
+    void missesUnknownAndPrefixKeys() {
+        OffHeapHashIndex index = OffHeapHashIndex.builder(4).put("abc", bytes("1")).build();
+
+        assertEquals(OffHeapHashIndex.MISS, index.find("ab"));
+        assertEquals(OffHeapHashIndex.MISS, index.find("abcd"));
+        assertEquals(OffHeapHashIndex.MISS, index.find(""));
+        assertEquals(OffHeapHashIndex.MISS, OffHeapHashIndex.builder(0).build().find("abc"));
+    }
+
+    @Test
+    void lastWriteWinsForDuplicateKeys() {
+        OffHeapHashIndex index = OffHeapHashIndex.builder(4)
+                .put("k", bytes("old"))
+                .put("k", bytes("new"))
+                .build();
+
+        assertEquals(1, index.size());
+        assertEquals("new", value(index, "k"));
+    }
+
+    /**
+     * 查询键逐字符按UTF-8编码比较，含多字节字符与代理对
+     */
+    @Test
+    void comparesMultiByteKeys() {
+        OffHeapHashIndex index = OffHeapHashIndex.builder(4)
+                .put("é", bytes("2"))
+                .put("用户", bytes("3"))
+                .put("😀", bytes("4"))
+                .build();
+
+        assertEquals("2", value(index, "é"));
+        assertEquals("3", value(index, "用户"));
+        assertEquals("4", value(index, "😀"));
+        assertEquals(OffHeapHashIndex.MISS, index.find("用"));
+        assertEquals(OffHeapHashIndex.MISS, index.find("😁"));
+    }
+
+    @Test
+    void growsBeyondTheExpectedSize() {
+        OffHeapHashIndex.Builder builder = OffHeapHashIndex.builder(1);
+        int entries = 20_000;
+        for (int i = 0; i < entries; i++) {
+            builder.put("key-" + i, bytes("value-" + i + "-" + "x".repeat(i % 100)));
+        }
+        OffHeapHashIndex index = builder.build();
+
+        assertEquals(entries, index.size());
+        for (int i = 0; i < entries; i++) {
+            assertEquals("value-" + i + "-" + "x".repeat(i % 100), value(index, "key-" + i));
+        }
+        assertEquals(OffHeapHashIndex.MISS, index.find("key-" + entries));
+        assertNotEquals(0, index.memoryBytes());
+    }
+
+    private static String value(OffHeapHashIndex index, String key) {
+        int record = index.find(key);
+        assertNotEquals(OffHeapHashIndex.MISS, record, key);
+        byte[] target = new byte[index.valueLength(record)];
+        int length = index.copyValue(record, target);
+        return new String(target, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
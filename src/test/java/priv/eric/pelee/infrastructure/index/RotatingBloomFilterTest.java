@@ -0,0 +1,103 @@
+package priv.eric.pelee.infrastructure.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 轮换布隆过滤器的窗口轮换与误判率估计
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 17:30
+ */
+class RotatingBloomFilterTest {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(10);
+
+    private static final int BITS = 1 << 16;
+
+    private static final int ITEMS = 4096;
+
+    @Test
+    void remembersKeysForOneToTwoWindows() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(BITS, ITEMS, WINDOW, 0);
+
+        assertFalse(filter.putIfAbsent(hash(1), 0));
+        assertTrue(filter.putIfAbsent(hash(1), WINDOW / 2));
+        // 轮换后键仍在上一代中
+        assertTrue(filter.putIfAbsent(hash(1), WINDOW + 1));
+        assertFalse(filter.putIfAbsent(hash(2), WINDOW + 1));
+        // 再次轮换：键1在上一代中被写回过当前代，仍记得；键3从未出现
+        assertTrue(filter.putIfAbsent(hash(1), 2 * WINDOW + 1));
+        assertFalse(filter.putIfAbsent(hash(3), 2 * WINDOW + 1));
+    }
+
+    @Test
+    void forgetsKeysAfterTwoWindows() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(BITS, ITEMS, WINDOW, 0);
+        filter.putIfAbsent(hash(1), 0);
+        filter.putIfAbsent(hash(2), WINDOW + 1);
+
+        // 第二次轮换清空了记录键1的一代
+        assertFalse(filter.putIfAbsent(hash(1), 2 * WINDOW + 1));
+        // 长时间无数据，两代一起过期
+        assertFalse(filter.putIfAbsent(hash(2), 10 * WINDOW));
+        assertEquals(1, filter.inserted());
+    }
+
+    @Test
+    void estimatesFalsePositivesAcrossBothGenerations() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(BITS, ITEMS, WINDOW, 0);
+        assertEquals(0.0, filter.falsePositiveRate());
+
+        for (int i = 0; i < ITEMS; i++) {
+            filter.putIfAbsent(hash(i), 0);
+        }
+        double current = filter.falsePositiveRate();
+        assertTrue(current > 0 && current < 0.01, "误判率: " + current);
+
+        // 轮换后上一代仍参与判断，估计值不能归零
+        filter.putIfAbsent(hash(-1), WINDOW + 1);
+        double rotated = filter.falsePositiveRate();
+        assertTrue(rotated >= current, "轮换后误判率: " + rotated);
+
+        for (int i = 0; i < ITEMS; i++) {
+            filter.putIfAbsent(hash(ITEMS + i), WINDOW + 1);
+        }
+        double both = filter.falsePositiveRate();
+        assertTrue(both > rotated, "两代写满后误判率: " + both);
+
+        // 探测键也会写入当前代，数量远小于已写入的键，对误判率影响可忽略
+        int probes = 1000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.putIfAbsent(hash(10 * ITEMS + i), WINDOW + 1)) {
+                falsePositives++;
+            }
+        }
+        double measured = (double) falsePositives / probes;
+        assertTrue(measured <= both * 3 + 0.005, "实测: " + measured + ", 估计: " + both);
+    }
+
+    @Test
+    void choosesHashCountFromBitsPerItem() {
+        assertEquals(11, RotatingBloomFilter.optimalHashes(BITS, ITEMS));
+        assertEquals(1, RotatingBloomFilter.optimalHashes(64, 1_000_000));
+        assertEquals(16, RotatingBloomFilter.optimalHashes(1 << 20, 1));
+    }
+
+    /**
+     * splitmix64，保证测试键的哈希分布均匀
+     */
+    private static long hash(long key) {
+        long z = key * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -0,0 +1,187 @@
+package priv.eric.pelee.infrastructure.queue;
+
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.domain.model.Event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 环形缓冲的绕回、乱序释放与回收
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 18:30
+ */
+class EventRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertEquals(1, new EventRingBuffer(1).capacity());
+        assertEquals(8, new EventRingBuffer(5).capacity());
+        assertEquals(8, new EventRingBuffer(8).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new EventRingBuffer(0));
+    }
+
+    @Test
+    void staysFullUntilDrainedSlotsAreReclaimed() {
+        EventRingBuffer ring = new EventRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            publish(ring, i);
+        }
+        assertEquals(-1, ring.tryClaim());
+
+        List<Event<Object>> batch = new ArrayList<>();
+        assertEquals(4, ring.drain(batch, 10));
+        assertTrue(ring.isEmpty());
+        // 取出但尚未释放的槽位不可写入
+        assertEquals(-1, ring.tryClaim());
+        assertEquals(0, ring.remainingCapacity());
+
+        ring.release(0, 4);
+        assertEquals(4, ring.reclaim());
+        assertEquals(4, ring.remainingCapacity());
+        for (Event<Object> event : batch) {
+            assertNull(event.getData());
+        }
+    }
+
+    /**
+     * 后一批先释放时不能回收，必须等最早的一批释放后连续回收
+     */
+    @Test
+    void reclaimsOnlyContiguousReleasedSlots() {
+        EventRingBuffer ring = new EventRingBuffer(8);
+        for (int i = 0; i < 6; i++) {
+            publish(ring, i);
+        }
+        List<Event<Object>> first = new ArrayList<>();
+        ring.drain(first, 3);
+        long second = ring.position();
+        List<Event<Object>> later = new ArrayList<>();
+        ring.drain(later, 3);
+
+        ring.release(second, second + 3);
+        assertEquals(0, ring.reclaim());
+        // 未回收的槽位中的事件保持不变
+        assertEquals(3, later.get(0).getData());
+
+        ring.release(0, 3);
+        assertEquals(6, ring.reclaim());
+        assertEquals(8, ring.remainingCapacity());
+    }
+
+    @Test
+    void drainStopsAtAClaimedButUnpublishedSlot() {
+        EventRingBuffer ring = new EventRingBuffer(8);
+        publish(ring, 0);
+        long pending = ring.tryClaim();
+        publish(ring, 2);
+
+        List<Event<Object>> batch = new ArrayList<>();
+        assertEquals(1, ring.drain(batch, 10));
+        assertFalse(ring.isEmpty());
+
+        ring.get(pending).setData(1);
+        ring.publish(pending);
+        assertEquals(2, ring.drain(batch, 10));
+        assertEquals(List.of(0, 1, 2), data(batch));
+    }
+
+    @Test
+    void wrapsAroundManyRounds() {
+        EventRingBuffer ring = new EventRingBuffer(4);
+        List<Event<Object>> batch = new ArrayList<>();
+        int value = 0;
+        for (int round = 0; round < 100; round++) {
+            // 每轮写入3个，使序号与槽位的对应关系不断错开
+            for (int i = 0; i < 3; i++) {
+                publish(ring, value + i);
+            }
+            long from = ring.position();
+            batch.clear();
+            assertEquals(3, ring.drain(batch, 10));
+            assertEquals(List.of(value, value + 1, value + 2), data(batch));
+            assertSame(ring.get(from), batch.get(0));
+            ring.release(from, ring.position());
+            assertEquals(3, ring.reclaim());
+            value += 3;
+        }
+        assertEquals(4, ring.remainingCapacity());
+    }
+
+    @Test
+    void deliversEveryEventFromConcurrentProducersInOrderPerProducer() throws InterruptedException {
+        EventRingBuffer ring = new EventRingBuffer(64);
+        int producers = 4;
+        int perProducer = 5_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    long sequence;
+                    while ((sequence = ring.tryClaim()) < 0) {
+                        Thread.yield();
+                    }
+                    ring.get(sequence).setData(producer * perProducer + i);
+                    ring.publish(sequence);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        int received = 0;
+        List<Event<Object>> batch = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < producers * perProducer) {
+            assertTrue(System.nanoTime() < deadline, "已收到: " + received);
+            long from = ring.position();
+            batch.clear();
+            int count = ring.drain(batch, 16);
+            for (Event<Object> event : batch) {
+                int value = (Integer) event.getData();
+                int producer = value / perProducer;
+                assertEquals(last[producer] + 1, value % perProducer);
+                last[producer] = value % perProducer;
+            }
+            received += count;
+            if (count == 0) {
+                Thread.yield();
+            }
+            ring.release(from, from + count);
+            ring.reclaim();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(ring.isEmpty());
+    }
+
+    private static void publish(EventRingBuffer ring, Object data) {
+        long sequence = ring.tryClaim();
+        assertTrue(sequence >= 0);
+        ring.get(sequence).setData(data);
+        ring.publish(sequence);
+    }
+
+    private static List<Object> data(List<Event<Object>> events) {
+        List<Object> values = new ArrayList<>();
+        for (Event<Object> event : events) {
+            values.add(event.getData());
+        }
+        return values;
+    }
+
+}
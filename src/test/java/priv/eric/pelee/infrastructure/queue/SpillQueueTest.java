@@ -0,0 +1,229 @@
+package priv.eric.pelee.infrastructure.queue;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.infrastructure.codec.EncodedBatch;
+import priv.eric.pelee.infrastructure.codec.EventCodec;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 磁盘溢出队列的追加读取、跨段、崩溃恢复与检查点重启
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 18:10
+ */
+class SpillQueueTest {
+
+    private static final int SEGMENT_BYTES = 512;
+
+    private static final long MAX_BYTES = 64 * 1024;
+
+    private Path dir;
+
+    private final List<SpillQueue> queues = new ArrayList<>();
+
+    @BeforeEach
+    void createDir() throws IOException {
+        dir = Files.createTempDirectory("spill");
+    }
+
+    @AfterEach
+    void deleteDir() throws IOException {
+        queues.forEach(SpillQueue::close);
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    void readsBatchesInOrderAcrossSealedSegments() throws IOException {
+        SpillQueue queue = open();
+        for (int i = 0; i < 30; i++) {
+            assertTrue(queue.append(batch(i)));
+        }
+        assertTrue(segments() > 1, "段数: " + segments());
+        assertEquals(30, queue.size());
+
+        for (int i = 0; i < 30; i++) {
+            // 确认前重复查看返回同一批次
+            assertEquals(i, seq(queue.peek()));
+            assertEquals(i, seq(queue.peek()));
+            queue.advance();
+        }
+
+        assertTrue(queue.isEmpty());
+        assertNull(queue.peek());
+        // 已确认的段整段删除，只保留仍在追加的末段
+        assertEquals(1, segments());
+        assertEquals(SEGMENT_BYTES, queue.bytes());
+    }
+
+    @Test
+    void interleavesAppendsWithReads() throws IOException {
+        SpillQueue queue = open();
+        int appended = 0;
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 5; i++) {
+                queue.append(batch(appended++));
+            }
+            for (int i = 0; i < 3; i++) {
+                assertEquals(round * 3 + i, seq(queue.peek()));
+                queue.advance();
+            }
+        }
+        assertEquals(20, queue.size());
+    }
+
+    @Test
+    void rejectsAppendsBeyondMaxBytes() throws IOException {
+        SpillQueue queue = track(new SpillQueue(dir, SEGMENT_BYTES, 2 * SEGMENT_BYTES));
+        int accepted = 0;
+        while (queue.append(batch(accepted))) {
+            accepted++;
+        }
+
+        assertTrue(accepted > 0);
+        assertTrue(queue.bytes() <= 2 * SEGMENT_BYTES);
+        // 读出并确认首段后腾出空间
+        while (queue.size() > 0 && segments() == 2) {
+            queue.peek();
+            queue.advance();
+        }
+        assertTrue(queue.append(batch(accepted)));
+    }
+
+    @Test
+    void resumesFromTheCheckpointAfterClose() throws IOException {
+        SpillQueue queue = open();
+        for (int i = 0; i < 30; i++) {
+            queue.append(batch(i));
+        }
+        for (int i = 0; i < 12; i++) {
+            queue.peek();
+            queue.advance();
+        }
+        queue.close();
+
+        SpillQueue reopened = open();
+        assertEquals(18, reopened.size());
+        assertEquals(12, seq(reopened.peek()));
+        // 重启后继续追加到新位置，读取顺序不变
+        assertTrue(reopened.append(batch(30)));
+        for (int i = 12; i <= 30; i++) {
+            assertEquals(i, seq(reopened.peek()));
+            reopened.advance();
+        }
+        assertTrue(reopened.isEmpty());
+    }
+
+    /**
+     * 未正常关闭时没有检查点，从最早未删除段的开头重放；写了一半的记录校验失败被截断
+     */
+    @Test
+    void replaysFromTheOldestSegmentAndTruncatesTornRecordsAfterCrash() throws IOException {
+        SpillQueue crashed = new SpillQueue(dir, SEGMENT_BYTES, MAX_BYTES);
+        for (int i = 0; i < 3; i++) {
+            crashed.append(batch(i));
+        }
+        crashed.peek();
+        crashed.advance();
+        Path segment = onlySegment();
+        int tornOffset = recordEnd(segment, 3);
+        // 模拟崩溃前只写了一半的第4条记录：长度已写入，内容与校验和不一致
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES);
+            header.putInt(40).putInt(12345).putInt(7).flip();
+            channel.write(header, tornOffset);
+        }
+
+        SpillQueue recovered = open();
+        assertEquals(3, recovered.size());
+        assertTrue(recovered.append(batch(3)));
+        for (int i = 0; i <= 3; i++) {
+            assertEquals(i, seq(recovered.peek()));
+            recovered.advance();
+        }
+        assertTrue(recovered.isEmpty());
+    }
+
+    @Test
+    void ignoresCallsAfterClose() throws IOException {
+        SpillQueue queue = open();
+        queue.append(batch(0));
+        queue.close();
+
+        assertFalse(queue.append(batch(1)));
+        assertNull(queue.peek());
+    }
+
+    private SpillQueue open() {
+        return track(new SpillQueue(dir, SEGMENT_BYTES, MAX_BYTES));
+    }
+
+    private SpillQueue track(SpillQueue queue) {
+        queues.add(queue);
+        return queue;
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> segments = files.filter(file -> file.toString().endsWith(".seg")).collect(Collectors.toList());
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    /**
+     * 段文件中前count条记录之后的偏移，映射缓冲使用默认的大端字节序
+     */
+    private static int recordEnd(Path segment, int count) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            position += 2 * Integer.BYTES + buffer.getInt(position);
+        }
+        return position;
+    }
+
+    private static EncodedBatch batch(int seq) {
+        ObjectNode data = JsonUtil.getObjectMapper().createObjectNode();
+        data.put("seq", seq);
+        data.put("payload", "x".repeat(40));
+        List<Event<?>> events = new ArrayList<>();
+        events.add(new Event<>(data));
+        return EncodedBatch.encode(events);
+    }
+
+    private static int seq(EncodedBatch batch) throws IOException {
+        return EventCodec.decode(batch.get(0)).get("seq").intValue();
+    }
+
+}
@@ -0,0 +1,93 @@
+package priv.eric.pelee.infrastructure.util;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 字段路径的解析、读写与移动
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 15:50
+ */
+class FieldPathTest {
+
+    @Test
+    void compilesDotIndexAndPointerPaths() throws IOException {
+        ObjectNode data = json("{\"user\":{\"name\":\"a\"},\"items\":[{\"id\":1},[2,3]],\"a/b\":{\"~k\":4}}");
+
+        assertEquals("\"a\"", FieldPath.compile("user.name").get(data).toString());
+        assertEquals("1", FieldPath.compile("items[0].id").get(data).toString());
+        assertEquals("3", FieldPath.compile("items[1][1]").get(data).toString());
+        assertEquals("4", FieldPath.compile("/a~1b/~0k").get(data).toString());
+        assertEquals("1", FieldPath.compile("/items/0/id").get(data).toString());
+    }
+
+    @Test
+    void rejectsMalformedPaths() {
+        for (String path : List.of("", " ", "user.", "items[0].", ".user", "user..name", "a[0]b", "a[0]b.c",
+                "a.[0]", "a[", "a[x]", "a[-1]", "a[01]", "/", "/a//b", "/a/")) {
+            assertThrows(IllegalArgumentException.class, () -> FieldPath.compile(path), path);
+        }
+    }
+
+    @Test
+    void moveToCreatesMissingParents() throws IOException {
+        ObjectNode data = json("{\"id\":7}");
+
+        assertTrue(FieldPath.compile("id").moveTo(data, FieldPath.compile("user.profile.id")));
+        assertEquals("{\"user\":{\"profile\":{\"id\":7}}}", data.toString());
+    }
+
+    @Test
+    void moveToKeepsTheSourceWhenTheTargetIsNotWritable() throws IOException {
+        ObjectNode data = json("{\"user\":\"anonymous\",\"user_id\":9,\"items\":[1,2]}");
+
+        assertFalse(FieldPath.compile("user_id").moveTo(data, FieldPath.compile("user.id")));
+        assertFalse(FieldPath.compile("user_id").moveTo(data, FieldPath.compile("items.id")));
+        assertFalse(FieldPath.compile("items[0]").moveTo(data, FieldPath.compile("items[3]")));
+        assertEquals("{\"user\":\"anonymous\",\"user_id\":9,\"items\":[1,2]}", data.toString());
+    }
+
+    /**
+     * 删除源元素后数组变短，目标下标越界时源元素放回原位
+     */
+    @Test
+    void moveToRestoresAnArrayElementWhenRemovalShiftsTheTarget() throws IOException {
+        ObjectNode data = json("{\"items\":[1,2]}");
+
+        assertFalse(FieldPath.compile("items[0]").moveTo(data, FieldPath.compile("items[2]")));
+        assertEquals("{\"items\":[1,2]}", data.toString());
+    }
+
+    @Test
+    void moveToHandlesPrefixPaths() throws IOException {
+        ObjectNode data = json("{\"a\":{\"x\":1}}");
+
+        assertTrue(FieldPath.compile("a").moveTo(data, FieldPath.compile("a.b")));
+        assertEquals("{\"a\":{\"b\":{\"x\":1}}}", data.toString());
+        assertTrue(FieldPath.compile("a.b").moveTo(data, FieldPath.compile("a")));
+        assertEquals("{\"a\":{\"x\":1}}", data.toString());
+    }
+
+    @Test
+    void moveToReportsMissingSource() throws IOException {
+        ObjectNode data = json("{\"a\":1}");
+
+        assertFalse(FieldPath.compile("b").moveTo(data, FieldPath.compile("c")));
+        assertFalse(FieldPath.compile("a.b").moveTo(data, FieldPath.compile("c")));
+        assertEquals("{\"a\":1}", data.toString());
+    }
+
+    private static ObjectNode json(String source) throws IOException {
+        return (ObjectNode) JsonUtil.getObjectMapper().readTree(source);
+    }
+
+}
@@ -0,0 +1,304 @@
+package priv.eric.pelee.plugin.input;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import priv.eric.pelee.domain.model.Acknowledgement;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.domain.model.EventChannel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: Kafka输入在内嵌Broker上的位移提交与暂停恢复
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-21 11:00
+ */
+class KafkaInputTest {
+
+    private static final String COMMIT_TOPIC = "commit-after-ack";
+
+    private static final String PAUSE_TOPIC = "pause-resume";
+
+    private static final String RETRY_TOPIC = "poll-retry";
+
+    private static final int PARTITIONS = 2;
+
+    private static final int RECORDS = 200;
+
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    private static EmbeddedKafkaBroker broker;
+
+    private KafkaInput input;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaBroker(1, true, PARTITIONS, COMMIT_TOPIC, PAUSE_TOPIC, RETRY_TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @AfterEach
+    void closeInput() {
+        if (input != null) {
+            input.close();
+        }
+    }
+
+    @Test
+    void commitsOnlyAfterEveryEventIsAcknowledged() throws Exception {
+        produce(COMMIT_TOPIC, RECORDS);
+        RecordingChannel channel = new RecordingChannel();
+        input = new KafkaInput(config(COMMIT_TOPIC, "commit-group"));
+        input.start(channel);
+
+        await(() -> channel.acks.size() == RECORDS);
+        // 未确认的事件不提交位移
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertEquals(0, committed("commit-group"));
+
+        // 最后一条未确认时，其所在批次及之后的位移都不会提交
+        List<Acknowledgement> acks = channel.acks;
+        for (int i = 0; i < acks.size() - 1; i++) {
+            acks.get(i).acknowledge();
+        }
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertTrue(committed("commit-group") < RECORDS);
+
+        acks.get(acks.size() - 1).acknowledge();
+        await(() -> committed("commit-group") == RECORDS);
+    }
+
+    @Test
+    void pausesWhileDownstreamIsFullAndResumesWithoutLosingRecords() throws Exception {
+        RecordingChannel channel = new RecordingChannel();
+        channel.open = false;
+        CountingConsumerFactory consumers = new CountingConsumerFactory();
+        input = new KafkaInput(config(PAUSE_TOPIC, "pause-group"), consumers::create);
+        input.start(channel);
+        produce(PAUSE_TOPIC, RECORDS);
+
+        await(() -> consumers.pauses.get() > 0);
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertEquals(0, channel.acks.size());
+
+        channel.open = true;
+        await(() -> channel.acks.size() == RECORDS);
+        assertTrue(consumers.resumes.get() > 0);
+        assertEquals(RECORDS, channel.values.size());
+    }
+
+    @Test
+    void retriesRecoverablePollErrorsWithoutStopping() throws Exception {
+        produce(RETRY_TOPIC, RECORDS);
+        RecordingChannel channel = new RecordingChannel();
+        AtomicInteger failures = new AtomicInteger(2);
+        input = new KafkaInput(config(RETRY_TOPIC, "retry-group"), props -> new KafkaConsumer<byte[], byte[]>(props) {
+
+            @Override
+            public ConsumerRecords<byte[], byte[]> poll(Duration timeout) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new TimeoutException("broker unavailable");
+                }
+                return super.poll(timeout);
+            }
+
+        });
+        input.start(channel);
+
+        await(() -> channel.acks.size() == RECORDS);
+        assertNull(channel.failure);
+    }
+
+    @Test
+    void reportsUnrecoverableErrorsToTheChannel() throws Exception {
+        RecordingChannel channel = new RecordingChannel();
+        KafkaException fatal = new KafkaException("authorization failed");
+        input = new KafkaInput(config(RETRY_TOPIC, "fatal-group"), props -> new KafkaConsumer<byte[], byte[]>(props) {
+
+            @Override
+            public ConsumerRecords<byte[], byte[]> poll(Duration timeout) {
+                throw fatal;
+            }
+
+        });
+        input.start(channel);
+
+        await(() -> channel.failure != null);
+        assertSame(fatal, channel.failure);
+    }
+
+    @Test
+    void escapesSaslCredentials() {
+        KafkaInputConfig config = config(COMMIT_TOPIC, "sasl-group");
+        config.getProperties().put("username", "svc\\user");
+        config.getProperties().put("password", "p\"a;ss");
+
+        String jaas = new KafkaInput(config).consumerProperties().getProperty("sasl.jaas.config");
+
+        assertEquals("org.apache.kafka.common.security.plain.PlainLoginModule required"
+                + " username=\"svc\\\\user\" password=\"p\\\"a;ss\";", jaas);
+    }
+
+    private static KafkaInputConfig config(String topic, String groupId) {
+        KafkaInputConfig config = new KafkaInputConfig();
+        config.getTopics().add(topic);
+        config.setGroupId(groupId);
+        config.setMaxPollRecords(50);
+        config.setCommitIntervalMs(50);
+        config.getProperties().put("bootstrap-servers", broker.getBrokersAsString());
+        config.getProperties().put("auto-offset-reset", "earliest");
+        return config;
+    }
+
+    private static void produce(String topic, int count) throws Exception {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+        try (Producer<byte[], byte[]> producer = new KafkaProducer<>(props)) {
+            for (int i = 0; i < count; i++) {
+                byte[] value = ("{\"seq\":" + i + "}").getBytes(StandardCharsets.UTF_8);
+                producer.send(new ProducerRecord<>(topic, i % PARTITIONS, null, value));
+            }
+            producer.flush();
+        }
+    }
+
+    /**
+     * 消费组在各分区已提交位移之和
+     */
+    private static long committed(String groupId) {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        try (Admin admin = Admin.create(props)) {
+            Map<TopicPartition, OffsetAndMetadata> offsets = admin.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata().get(10, TimeUnit.SECONDS);
+            return offsets.values().stream().mapToLong(OffsetAndMetadata::offset).sum();
+        } catch (Exception e) {
+            throw new IllegalStateException("查询已提交位移失败: " + groupId, e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("等待超时");
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+    }
+
+    /**
+     * 记录投递的事件与确认，open为false时模拟下游队列已满
+     */
+    private static final class RecordingChannel implements EventChannel {
+
+        private final List<Acknowledgement> acks = new CopyOnWriteArrayList<>();
+
+        private final Set<String> values = ConcurrentHashMap.newKeySet();
+
+        private volatile boolean open = true;
+
+        private volatile Throwable failure;
+
+        @Override
+        public boolean offer(Event<?> event, int hash) {
+            return offer(event.getData(), event.getAck(), hash);
+        }
+
+        @Override
+        public boolean offer(Object data, Acknowledgement ack, int hash) {
+            if (!open) {
+                return false;
+            }
+            values.add(new String((byte[]) data, StandardCharsets.UTF_8));
+            acks.add(ack);
+            return true;
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return open ? Integer.MAX_VALUE : 0;
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+            failure = cause;
+        }
+
+    }
+
+    /**
+     * 创建记录暂停与恢复次数的消费者
+     */
+    private static final class CountingConsumerFactory {
+
+        private final AtomicInteger pauses = new AtomicInteger();
+
+        private final AtomicInteger resumes = new AtomicInteger();
+
+        private Consumer<byte[], byte[]> create(Properties props) {
+            return new KafkaConsumer<byte[], byte[]>(props) {
+
+                @Override
+                public void pause(Collection<TopicPartition> partitions) {
+                    if (!partitions.isEmpty()) {
+                        pauses.incrementAndGet();
+                    }
+                    super.pause(partitions);
+                }
+
+                @Override
+                public void resume(Collection<TopicPartition> partitions) {
+                    if (!partitions.isEmpty()) {
+                        resumes.incrementAndGet();
+                    }
+                    super.resume(partitions);
+                }
+
+            };
+        }
+
+    }
+
+}
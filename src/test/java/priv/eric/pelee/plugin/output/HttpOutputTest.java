@@ -0,0 +1,219 @@
+package priv.eric.pelee.plugin.output;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: HTTP输出的批量拼装与重试，请求发往本地桩服务
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-21 10:20
+ */
+class HttpOutputTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private HttpServer server;
+
+    /**
+     * 每个请求体中的事件行数，按到达顺序
+     */
+    private final List<Integer> requests = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    /**
+     * 按请求序号（从1开始）决定响应状态码
+     */
+    private volatile IntUnaryOperator status = attempt -> 200;
+
+    private HttpOutput output;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/events", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        if (output != null) {
+            output.close();
+        }
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+                ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+            body = in.readAllBytes();
+        }
+        int code = status.applyAsInt(attempts.incrementAndGet());
+        if (code >= 200 && code < 300) {
+            requests.add(lines(body));
+        }
+        exchange.sendResponseHeaders(code, -1);
+        exchange.close();
+    }
+
+    @Test
+    void splitsWritesIntoRequestsOfAtMostBatchSize() throws Exception {
+        HttpOutputConfig config = config();
+        config.setBatchSize(100);
+        output = start(config);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(output.send(events(i * 50, 50), null).toCompletableFuture());
+        }
+        for (CompletableFuture<Void> result : results) {
+            result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        assertEquals(500, requests.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(requests.size() >= 5, "请求数: " + requests.size());
+        assertTrue(requests.stream().allMatch(lines -> lines <= 100), "请求行数: " + requests);
+        assertEquals(500, output.getSentEvents());
+    }
+
+    @Test
+    void completesAfterRetriesSucceed() throws Exception {
+        status = attempt -> attempt <= 2 ? 503 : 200;
+        output = start(config());
+
+        output.send(events(0, 10), null).toCompletableFuture().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(3, attempts.get());
+        assertEquals(2, output.getRetries());
+        assertEquals(10, output.getSentEvents());
+        assertEquals(0, output.getFailedEvents());
+    }
+
+    @Test
+    void failsWhenRetriesAreExhausted() {
+        status = attempt -> 500;
+        HttpOutputConfig config = config();
+        config.setMaxRetries(2);
+        output = start(config);
+
+        CompletableFuture<Void> result = output.send(events(0, 10), null).toCompletableFuture();
+
+        assertThrows(ExecutionException.class, () -> result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+        assertEquals(10, output.getFailedEvents());
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        status = attempt -> 400;
+        output = start(config());
+
+        CompletableFuture<Void> result = output.send(events(0, 10), null).toCompletableFuture();
+
+        assertThrows(ExecutionException.class, () -> result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, attempts.get());
+        assertEquals(0, output.getRetries());
+    }
+
+    /**
+     * 关闭时等待重试的批次被丢弃，其结果按失败完成而不是一直挂起
+     */
+    @Test
+    void closeFailsBatchesWaitingForRetry() throws InterruptedException {
+        status = attempt -> 503;
+        HttpOutputConfig config = config();
+        config.setRetryBackoffMs(5_000);
+        config.setMaxBackoffMs(5_000);
+        config.setCloseTimeoutMs(200);
+        output = start(config);
+
+        CompletableFuture<Void> result = output.send(events(0, 10), null).toCompletableFuture();
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        while (output.getRetries() == 0 && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        output.close();
+
+        assertThrows(ExecutionException.class, () -> result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class,
+                () -> output.send(events(10, 1), null).toCompletableFuture().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 请求无法构造时只有相关批次失败，发送线程继续运行，后续写入不会因缓冲写满而阻塞
+     */
+    @Test
+    void requestErrorsFailTheirBatchWithoutStoppingTheSender() {
+        HttpOutputConfig config = config();
+        config.setQueueCapacity(1);
+        config.getHeaders().put("Host", "example.com");
+        output = start(config);
+
+        for (int i = 0; i < 5; i++) {
+            CompletableFuture<Void> result = output.send(events(i * 10, 10), null).toCompletableFuture();
+            assertThrows(ExecutionException.class, () -> result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        assertEquals(50, output.getFailedEvents());
+        assertEquals(0, attempts.get());
+    }
+
+    private HttpOutputConfig config() {
+        HttpOutputConfig config = new HttpOutputConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/events");
+        config.setLingerMs(20);
+        config.setRetryBackoffMs(10);
+        config.setMaxBackoffMs(50);
+        config.setTimeoutMs(2000);
+        return config;
+    }
+
+    private static HttpOutput start(HttpOutputConfig config) {
+        HttpOutput output = new HttpOutput(config);
+        output.start();
+        return output;
+    }
+
+    private static List<Event<?>> events(int from, int count) {
+        List<Event<?>> events = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            ObjectNode data = JsonUtil.getObjectMapper().createObjectNode();
+            data.put("seq", i);
+            events.add(new Event<>(data));
+        }
+        return events;
+    }
+
+    private static int lines(byte[] body) {
+        String text = new String(body, StandardCharsets.UTF_8).trim();
+        return text.isEmpty() ? 0 : text.split("\n").length;
+    }
+
+}
@@ -0,0 +1,169 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: 窗口聚合按事件时间输出已关闭窗口的结果
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 17:50
+ */
+class AggregateProcessorTest {
+
+    @Test
+    void emitsTumblingWindowsOnceTheWatermarkPassesTheirEnd() throws IOException {
+        AggregateProcessor processor = new AggregateProcessor(config("tumbling", 0, 0));
+        process(processor, "{\"ts\":100,\"user\":\"a\",\"v\":1}", "{\"ts\":200,\"user\":\"a\",\"v\":5}",
+                "{\"ts\":300,\"user\":\"b\",\"v\":2}", "{\"ts\":400,\"user\":\"b\",\"v\":\"x\"}",
+                "{\"ts\":1100,\"user\":\"a\",\"v\":7}");
+
+        Map<String, JsonNode> first = emit(processor);
+        assertEquals(2, first.size(), first.toString());
+        assertEquals("{\"aggregate\":\"test\",\"window_start\":0,\"window_end\":1000,\"user\":\"a\","
+                + "\"count\":2,\"sum\":6.0,\"min\":1.0,\"max\":5.0,\"avg\":3.0}", first.get("a@0").toString());
+        // 非数值的取值不参与计算，count不受影响
+        assertEquals("{\"aggregate\":\"test\",\"window_start\":0,\"window_end\":1000,\"user\":\"b\","
+                + "\"count\":2,\"sum\":2.0,\"min\":2.0,\"max\":2.0,\"avg\":2.0}", first.get("b@0").toString());
+        assertTrue(emit(processor).isEmpty());
+
+        Map<String, JsonNode> rest = flush(processor);
+        assertEquals(1, rest.size());
+        assertEquals(7.0, rest.get("a@1000").get("sum").doubleValue());
+    }
+
+    @Test
+    void waitsForAllowedLatenessAndCountsLateEvents() throws IOException {
+        AggregateProcessor processor = new AggregateProcessor(config("tumbling", 0, 500));
+        process(processor, "{\"ts\":100,\"user\":\"a\",\"v\":1}", "{\"ts\":1200,\"user\":\"a\",\"v\":1}");
+        assertTrue(emit(processor).isEmpty());
+
+        // 仍在允许的延迟内，计入窗口
+        process(processor, "{\"ts\":900,\"user\":\"a\",\"v\":1}", "{\"ts\":1600,\"user\":\"a\",\"v\":1}");
+        Map<String, JsonNode> closed = emit(processor);
+        assertEquals(2, closed.get("a@0").get("count").longValue());
+
+        process(processor, "{\"ts\":500,\"user\":\"a\",\"v\":1}");
+        assertEquals(1.0, processor.gauges().get("aggregate.late_events").getAsDouble());
+        assertEquals(2, flush(processor).get("a@1000").get("count").longValue());
+    }
+
+    @Test
+    void assignsEventsToEveryOverlappingSlidingWindow() throws IOException {
+        AggregateProcessor processor = new AggregateProcessor(config("sliding", 500, 0));
+        process(processor, "{\"ts\":750,\"user\":\"a\",\"v\":1}", "{\"ts\":1250,\"user\":\"a\",\"v\":2}");
+
+        Map<String, JsonNode> results = flush(processor);
+
+        assertEquals(3, results.size(), results.toString());
+        assertEquals(1.0, results.get("a@0").get("sum").doubleValue());
+        assertEquals(3.0, results.get("a@500").get("sum").doubleValue());
+        assertEquals(2.0, results.get("a@1000").get("sum").doubleValue());
+    }
+
+    /**
+     * 分组数超过max_keys时被淘汰的分组提前输出部分结果，部分结果与最终结果合计不丢事件
+     */
+    @Test
+    void evictedGroupsAreEmittedAsPartialResults() throws IOException {
+        AggregateConfig config = config("tumbling", 0, 0);
+        config.setMaxKeys(16);
+        AggregateProcessor processor = new AggregateProcessor(config);
+        int users = 200;
+        for (int i = 0; i < users; i++) {
+            process(processor, "{\"ts\":100,\"user\":\"u" + i + "\",\"v\":1}");
+        }
+
+        List<Event<?>> out = new ArrayList<>();
+        processor.flush(out);
+
+        long partial = out.stream().filter(event -> ((JsonNode) event.getData()).has("partial")).count();
+        long total = out.stream().mapToLong(event -> ((JsonNode) event.getData()).get("count").longValue()).sum();
+        assertTrue(partial > 0);
+        assertEquals(partial, (long) processor.gauges().get("aggregate.evicted").getAsDouble());
+        assertEquals(users, total);
+    }
+
+    @Test
+    void dropsAggregatedEventsWhenConfigured() throws IOException {
+        AggregateConfig config = config("tumbling", 0, 0);
+        config.setDropEvents(true);
+        AggregateProcessor processor = new AggregateProcessor(config);
+        List<Event<JsonNode>> batch = new ArrayList<>(List.of(event("{\"ts\":100,\"user\":\"a\",\"v\":1}")));
+
+        processor.processBatch(batch);
+
+        assertTrue(batch.isEmpty());
+        assertEquals(1, flush(processor).get("a@0").get("count").longValue());
+    }
+
+    private static AggregateConfig config(String window, long slideMs, long latenessMs) {
+        AggregateConfig config = new AggregateConfig();
+        config.setName("test");
+        config.setGroupBy(List.of("user"));
+        config.setWindow(window);
+        config.setSizeMs(1000);
+        config.setSlideMs(slideMs);
+        config.setTimeField("ts");
+        config.setAllowedLatenessMs(latenessMs);
+        config.setMaxKeys(1024);
+        List<AggregateMetric> metrics = new ArrayList<>();
+        for (String type : new String[]{"count", "sum", "min", "max", "avg"}) {
+            AggregateMetric metric = new AggregateMetric();
+            metric.setName(type);
+            metric.setType(type);
+            metric.setPath("count".equals(type) ? null : "v");
+            metrics.add(metric);
+        }
+        config.setMetrics(metrics);
+        return config;
+    }
+
+    private static void process(AggregateProcessor processor, String... events) throws IOException {
+        List<Event<JsonNode>> batch = new ArrayList<>();
+        for (String event : events) {
+            batch.add(event(event));
+        }
+        processor.processBatch(batch);
+    }
+
+    private static Event<JsonNode> event(String json) throws IOException {
+        return new Event<>(JsonUtil.getObjectMapper().readTree(json));
+    }
+
+    private static Map<String, JsonNode> emit(AggregateProcessor processor) {
+        List<Event<?>> out = new ArrayList<>();
+        processor.emit(out);
+        return byWindow(out);
+    }
+
+    private static Map<String, JsonNode> flush(AggregateProcessor processor) {
+        List<Event<?>> out = new ArrayList<>();
+        processor.flush(out);
+        return byWindow(out);
+    }
+
+    /**
+     * 按"分组@窗口起始"索引结果，各段的输出顺序不固定
+     */
+    private static Map<String, JsonNode> byWindow(List<Event<?>> events) {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (Event<?> event : events) {
+            JsonNode data = (JsonNode) event.getData();
+            results.put(data.get("user").asText() + "@" + data.get("window_start").longValue(), data);
+        }
+        return results;
+    }
+
+}
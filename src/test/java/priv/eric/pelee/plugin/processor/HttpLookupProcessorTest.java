@@ -0,0 +1,149 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.domain.model.AsyncProcessorWrapper;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * desc: http_lookup经异步阶段包装后的在途上限与超时，请求发往本地桩服务
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-21 10:40
+ */
+class HttpLookupProcessorTest {
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    private volatile long delayMs = 20;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/users", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int current = active.incrementAndGet();
+        maxActive.accumulateAndGet(current, Math::max);
+        try {
+            TimeUnit.MILLISECONDS.sleep(delayMs);
+            String id = exchange.getRequestURI().getPath().substring("/users/".length());
+            byte[] body = ("{\"id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // 客户端超时后已断开连接
+        } finally {
+            active.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    @Test
+    void boundsRequestsInFlightAcrossTheBatch() {
+        AsyncProcessorWrapper<HttpLookupConfig> stage = stage(config(false), 2, 2000);
+        List<Event<?>> events = events(20);
+
+        stage.processBatch(events);
+
+        assertTrue(maxActive.get() <= 2, "最大并发: " + maxActive.get());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals("k" + i, data(events.get(i)).path("user").path("id").asText());
+        }
+        assertEquals(2, stage.availableInFlight());
+    }
+
+    @Test
+    void timeoutKeepsEventsUnchangedWhenNotFailingOnError() throws InterruptedException {
+        delayMs = 500;
+        AsyncProcessorWrapper<HttpLookupConfig> stage = stage(config(false), 2, 100);
+        List<Event<?>> events = events(4);
+
+        assertDoesNotThrow(() -> stage.processBatch(events));
+        assertEquals(2, stage.availableInFlight());
+
+        // 服务端随后才返回，迟到的响应不能再写入已离开阶段的事件
+        TimeUnit.MILLISECONDS.sleep(delayMs + 200);
+        for (Event<?> event : events) {
+            assertNull(data(event).get("user"));
+        }
+    }
+
+    @Test
+    void timeoutFailsTheBatchWhenFailingOnError() {
+        delayMs = 500;
+        AsyncProcessorWrapper<HttpLookupConfig> stage = stage(config(true), 2, 100);
+
+        assertThrows(RuntimeException.class, () -> stage.processBatch(events(2)));
+        assertEquals(2, stage.availableInFlight());
+    }
+
+    private HttpLookupConfig config(boolean failOnError) {
+        HttpLookupConfig config = new HttpLookupConfig();
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/users/{key}");
+        config.setKey("user_id");
+        config.setTarget("user");
+        config.setFailOnError(failOnError);
+        return config;
+    }
+
+    private static AsyncProcessorWrapper<HttpLookupConfig> stage(HttpLookupConfig config, int maxInFlight,
+                                                                 long timeoutMs) {
+        return new AsyncProcessorWrapper<>("http_lookup", new HttpLookupProcessor(config), config, maxInFlight,
+                timeoutMs);
+    }
+
+    private static List<Event<?>> events(int count) {
+        List<Event<?>> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ObjectNode data = JsonUtil.getObjectMapper().createObjectNode();
+            data.put("user_id", "k" + i);
+            events.add(new Event<>(data));
+        }
+        return events;
+    }
+
+    private static ObjectNode data(Event<?> event) {
+        return (ObjectNode) event.getData();
+    }
+
+}
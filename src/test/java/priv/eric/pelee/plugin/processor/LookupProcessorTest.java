@@ -0,0 +1,108 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * desc: lookup按字典文件补全字段，命中、未命中与缓存节点隔离
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 17:10
+ */
+class LookupProcessorTest {
+
+    private final List<Path> files = new ArrayList<>();
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void enrichesHitsFromCsv() throws IOException {
+        LookupProcessor processor = new LookupProcessor(config("csv",
+                "id,name,city\nu1,Alice,\"Shang, Hai\"\n7,Bob,Beijing\n", "id"));
+
+        assertEquals("{\"user_id\":\"u1\",\"user\":{\"name\":\"Alice\",\"city\":\"Shang, Hai\"}}",
+                process(processor, "{\"user_id\":\"u1\"}"));
+        // 非文本键按文本查询
+        assertEquals("{\"user_id\":7,\"user\":{\"name\":\"Bob\",\"city\":\"Beijing\"}}",
+                process(processor, "{\"user_id\":7}"));
+    }
+
+    @Test
+    void leavesEventsUnchangedOnMiss() throws IOException {
+        LookupProcessor processor = new LookupProcessor(config("csv", "id,name\nu1,Alice\n", "id"));
+
+        for (String event : new String[]{"{\"user_id\":\"u2\"}", "{\"other\":1}", "{\"user_id\":null}",
+                "{\"user_id\":{\"id\":\"u1\"}}"}) {
+            assertEquals(event, process(processor, event));
+        }
+    }
+
+    @Test
+    void selectsFieldsFromNdjson() throws IOException {
+        LookupConfig config = config("ndjson",
+                "{\"user\":{\"id\":\"u1\"},\"name\":\"Alice\",\"secret\":\"x\"}\n\n{\"name\":\"no key\"}\n", "user.id");
+        config.getFields().add("name");
+        LookupProcessor processor = new LookupProcessor(config);
+
+        assertEquals("{\"user_id\":\"u1\",\"user\":{\"name\":\"Alice\"}}", process(processor, "{\"user_id\":\"u1\"}"));
+    }
+
+    /**
+     * 缓存的节点被多个事件共用，后续处理器修改一个事件不影响其他事件
+     */
+    @Test
+    void cachedValuesAreCopiedIntoEachEvent() throws IOException {
+        LookupProcessor processor = new LookupProcessor(config("csv", "id,name\nu1,Alice\n", "id"));
+        ObjectNode first = (ObjectNode) JsonUtil.getObjectMapper().readTree("{\"user_id\":\"u1\"}");
+        processor.process(new Event<>(first));
+        ((ObjectNode) first.get("user")).put("name", "changed");
+
+        assertEquals("{\"user_id\":\"u1\",\"user\":{\"name\":\"Alice\"}}", process(processor, "{\"user_id\":\"u1\"}"));
+    }
+
+    @Test
+    void rejectsUnknownKeyColumn() throws IOException {
+        LookupConfig config = config("csv", "id,name\nu1,Alice\n", "uid");
+
+        assertThrows(IllegalArgumentException.class, () -> new LookupProcessor(config));
+    }
+
+    private LookupConfig config(String format, String content, String keyColumn) throws IOException {
+        Path file = Files.createTempFile("lookup", "." + format);
+        files.add(file);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        LookupConfig config = new LookupConfig();
+        config.setPath(file.toString());
+        config.setFormat(format);
+        config.setKeyColumn(keyColumn);
+        config.setKey("user_id");
+        config.setTarget("user");
+        config.setReloadIntervalMs(0);
+        return config;
+    }
+
+    private static String process(LookupProcessor processor, String json) throws IOException {
+        ObjectNode data = (ObjectNode) JsonUtil.getObjectMapper().readTree(json);
+        processor.processBatch(List.of(new Event<>(data)));
+        return data.toString();
+    }
+
+}
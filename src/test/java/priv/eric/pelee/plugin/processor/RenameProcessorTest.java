@@ -0,0 +1,122 @@
+package priv.eric.pelee.plugin.processor;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import priv.eric.pelee.domain.model.Event;
+import priv.eric.pelee.infrastructure.util.JsonUtil;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * desc: rename在分组执行路径上的保留源字段、缺失字段、嵌套父节点与路径前缀冲突
+ *
+ * @author EricTownsChina@outlook.com
+ * @date 2026-10-22 15:30
+ */
+class RenameProcessorTest {
+
+    @Test
+    void keepOriginalCopiesContainersSoBothFieldsStayIndependent() throws IOException {
+        RenameConfig config = config(Map.of("user.profile", "profile"));
+        config.setKeepOriginal(true);
+
+        ObjectNode data = rename(config, "{\"user\":{\"profile\":{\"name\":\"a\"}}}");
+        ((ObjectNode) data.get("profile")).put("name", "b");
+
+        assertEquals("{\"user\":{\"profile\":{\"name\":\"a\"}},\"profile\":{\"name\":\"b\"}}", data.toString());
+    }
+
+    @Test
+    void missingSourceIsSkippedWhenIgnoringMissing() throws IOException {
+        RenameConfig config = config(Map.of("user.id", "user_id"));
+
+        assertEquals("{\"user\":{}}", rename(config, "{\"user\":{}}").toString());
+        assertEquals("{\"user\":\"anonymous\"}", rename(config, "{\"user\":\"anonymous\"}").toString());
+    }
+
+    @Test
+    void missingSourceWritesNullWhenNotIgnoringMissing() throws IOException {
+        RenameConfig config = config(Map.of("user.id", "user_id"));
+        config.setIgnoreMissing(false);
+
+        assertEquals("{\"user\":{},\"user_id\":null}", rename(config, "{\"user\":{}}").toString());
+    }
+
+    @Test
+    void movesSiblingsUnderOneNestedParent() throws IOException {
+        RenameConfig config = config(mappings("user.id", "uid", "user.name", "profile.name", "items[0]", "first"));
+
+        ObjectNode data = rename(config, "{\"user\":{\"id\":7,\"name\":\"a\",\"age\":3},\"items\":[1,2]}");
+
+        assertEquals("{\"user\":{\"age\":3},\"items\":[2],\"uid\":7,\"profile\":{\"name\":\"a\"},\"first\":1}",
+                data.toString());
+    }
+
+    @Test
+    void targetBelowTheSourceWrapsIt() throws IOException {
+        ObjectNode data = rename(config(Map.of("a", "a.b")), "{\"a\":{\"x\":1},\"c\":2}");
+
+        assertEquals("{\"c\":2,\"a\":{\"b\":{\"x\":1}}}", data.toString());
+    }
+
+    @Test
+    void targetAboveTheSourceReplacesItsParent() throws IOException {
+        ObjectNode data = rename(config(Map.of("a.b", "a")), "{\"a\":{\"b\":{\"x\":1},\"y\":2}}");
+
+        assertEquals("{\"a\":{\"x\":1}}", data.toString());
+    }
+
+    /**
+     * b -> a替换了a.z所在的父节点，按配置顺序执行，a.z此时已不存在
+     */
+    @Test
+    void prefixConflictsKeepConfigOrder() throws IOException {
+        RenameConfig config = config(mappings("a.x", "y", "b", "a", "a.z", "w"));
+
+        ObjectNode data = rename(config, "{\"a\":{\"x\":1,\"z\":2},\"b\":{\"y\":3},\"c\":4}");
+
+        assertEquals("{\"a\":{\"y\":3},\"c\":4,\"y\":1}", data.toString());
+    }
+
+    @Test
+    void unwritableTargetKeepsTheSource() throws IOException {
+        RenameConfig config = config(mappings("user_id", "user.id", "items[0]", "items[5]"));
+
+        ObjectNode data = rename(config, "{\"user\":\"anonymous\",\"user_id\":9,\"items\":[1,2]}");
+
+        assertEquals("{\"user\":\"anonymous\",\"user_id\":9,\"items\":[1,2]}", data.toString());
+    }
+
+    @Test
+    void rejectsEmptyConfig() {
+        assertThrows(IllegalArgumentException.class, () -> new RenameProcessor(new RenameConfig()));
+    }
+
+    private static RenameConfig config(Map<String, String> mappings) {
+        RenameConfig config = new RenameConfig();
+        config.setMappings(new LinkedHashMap<>(mappings));
+        config.setFields(List.of());
+        return config;
+    }
+
+    private static Map<String, String> mappings(String... pairs) {
+        Map<String, String> mappings = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            mappings.put(pairs[i], pairs[i + 1]);
+        }
+        return mappings;
+    }
+
+    private static ObjectNode rename(RenameConfig config, String json) throws IOException {
+        ObjectNode data = (ObjectNode) JsonUtil.getObjectMapper().readTree(json);
+        new RenameProcessor(config).process(new Event<>(data));
+        return data;
+    }
+
+}